@@ -12,6 +12,7 @@ import arcade.core.env.grid.Grid;
 import arcade.core.env.lattice.Lattice;
 import arcade.core.env.location.LocationContainer;
 import arcade.core.env.location.LocationFactory;
+import arcade.core.util.RandomStreams;
 
 /**
  * A {@code Simulation} sets up agents and environments for a simulation.
@@ -56,6 +57,17 @@ public interface Simulation {
      */
     int getSeed();
 
+    /**
+     * Gets the independent random number generator streams for the simulation.
+     *
+     * <p>Streams are derived from the random seed, such that subsystems drawing from their own
+     * streams produce identical output for a given seed regardless of the order in which they are
+     * stepped.
+     *
+     * @return the random number generator streams
+     */
+    RandomStreams getRandomStreams();
+
     /**
      * Gets the next available ID in the simulation.
      *
@@ -0,0 +1,95 @@
+package arcade.core.util;
+
+import ec.util.MersenneTwisterFast;
+
+/**
+ * Container for independent random number generator streams derived from a single seed.
+ *
+ * <p>Each stream is identified by a key (such as the name of a subsystem) and an index (such as a
+ * sub-domain, a lattice, or a cell id). Stream seeds are derived only from the simulation seed, the
+ * key, and the index, so a given stream produces the same sequence regardless of how many other
+ * streams are created or the order in which they are created or drawn from. Subsystems that draw
+ * from their own streams can therefore be run in parallel while producing identical output for a
+ * given seed.
+ *
+ * <p>Seeds are derived using the SplitMix64 mixing function, which maps nearby inputs to
+ * uncorrelated outputs.
+ */
+public final class RandomStreams {
+    /** Golden ratio increment used by the SplitMix64 sequence. */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /** Seed for all streams. */
+    private final long seed;
+
+    /**
+     * Creates a {@code RandomStreams} instance for the given seed.
+     *
+     * @param seed the seed for all streams
+     */
+    public RandomStreams(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Gets the seed for all streams.
+     *
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Creates the random number generator for the given key.
+     *
+     * @param key the stream key
+     * @return the random number generator at the start of the stream
+     */
+    public MersenneTwisterFast getStream(String key) {
+        return getStream(key, 0);
+    }
+
+    /**
+     * Creates the random number generator for the given key and index.
+     *
+     * <p>Each call returns a new generator at the start of the stream, so callers should keep the
+     * generator rather than requesting the stream again.
+     *
+     * @param key the stream key
+     * @param index the stream index
+     * @return the random number generator at the start of the stream
+     */
+    public MersenneTwisterFast getStream(String key, long index) {
+        long state = getStreamSeed(key, index);
+        long a = mix(state + GOLDEN_GAMMA);
+        long b = mix(state + 2 * GOLDEN_GAMMA);
+        return new MersenneTwisterFast(
+                new int[] {(int) a, (int) (a >>> 32), (int) b, (int) (b >>> 32)});
+    }
+
+    /**
+     * Gets the seed for the stream with the given key and index.
+     *
+     * @param key the stream key
+     * @param index the stream index
+     * @return the stream seed
+     */
+    public long getStreamSeed(String key, long index) {
+        long state = mix(seed + GOLDEN_GAMMA);
+        state = mix(state ^ mix(key.hashCode() + GOLDEN_GAMMA));
+        return mix(state ^ mix(index + GOLDEN_GAMMA));
+    }
+
+    /**
+     * Mixes the bits of the given value.
+     *
+     * @param z the value
+     * @return the mixed value
+     */
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
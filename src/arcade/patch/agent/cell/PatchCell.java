@@ -47,6 +47,9 @@ import static arcade.patch.util.PatchEnums.State;
  * specified amount of heterogeneity ({@code HETEROGENEITY}).
  */
 public abstract class PatchCell implements Cell {
+    /** Key for random number generator streams of cells. */
+    static final String STREAM_KEY = "cell";
+
     /** Stopper used to stop this agent from being stepped in the schedule. */
     Stoppable stopper;
 
@@ -122,6 +125,9 @@ public abstract class PatchCell implements Cell {
     /** Cell parameters. */
     final Parameters parameters;
 
+    /** Random number generator stream of the cell, {@code null} until stepped or once stopped. */
+    MersenneTwisterFast stream;
+
     /** Cell population links. */
     final GrabBag links;
 
@@ -322,6 +328,7 @@ public abstract class PatchCell implements Cell {
     public void stop() {
         stopper.stop();
         isStopped = true;
+        stream = null;
     }
 
     /**
@@ -390,6 +397,22 @@ public abstract class PatchCell implements Cell {
         }
     }
 
+    /**
+     * Gets the random number generator stream of the cell.
+     *
+     * <p>The stream is keyed by cell id, such that draws made by the cell, its processes, and its
+     * modules do not depend on the order in which cells are stepped.
+     *
+     * @param sim the simulation instance
+     * @return the random number generator
+     */
+    protected MersenneTwisterFast getRandom(Simulation sim) {
+        if (stream == null) {
+            stream = sim.getRandomStreams().getStream(STREAM_KEY, id);
+        }
+        return stream;
+    }
+
     @Override
     public void schedule(Schedule schedule) {
         stopper = schedule.scheduleRepeating(this, Ordering.CELLS.ordinal(), 1);
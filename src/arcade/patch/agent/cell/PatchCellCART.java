@@ -234,9 +234,9 @@ public abstract class PatchCellCART extends PatchCell {
                     double randomSelf = random.nextDouble();
 
                     if (probabilityCAR >= randomCAR && probabilitySelf < randomSelf) {
-                        return bindToCARAntigen(tissueCell);
+                        return bindToCARAntigen(tissueCell, random);
                     } else if (probabilityCAR >= randomCAR && probabilitySelf >= randomSelf) {
-                        return bindToCARAndSelfAntigen(tissueCell);
+                        return bindToCARAndSelfAntigen(tissueCell, random);
                     } else if (probabilityCAR < randomCAR && probabilitySelf >= randomSelf) {
                         return bindToSelfAntigen(tissueCell);
                     } else {
@@ -302,12 +302,14 @@ public abstract class PatchCellCART extends PatchCell {
      * Updates T cell as response to CAR antigen binding.
      *
      * @param tissueCell the target cell to bind to
+     * @param random the random number generator
      * @return the target tissue cell to bind to
      */
-    private PatchCellTissue bindToCARAntigen(PatchCellTissue tissueCell) {
+    private PatchCellTissue bindToCARAntigen(
+            PatchCellTissue tissueCell, MersenneTwisterFast random) {
         super.setBindingFlag(AntigenFlag.BOUND_ANTIGEN);
         boundCARAntigensCount++;
-        updateSelfReceptors();
+        updateSelfReceptors(random);
         return tissueCell;
     }
 
@@ -315,13 +317,15 @@ public abstract class PatchCellCART extends PatchCell {
      * Updates T cell as response to CAR and PLD1 antigen binding.
      *
      * @param tissueCell the target cell to bind to
+     * @param random the random number generator
      * @return the target tissue cell to bind to
      */
-    private PatchCellTissue bindToCARAndSelfAntigen(PatchCellTissue tissueCell) {
+    private PatchCellTissue bindToCARAndSelfAntigen(
+            PatchCellTissue tissueCell, MersenneTwisterFast random) {
         super.setBindingFlag(AntigenFlag.BOUND_ANTIGEN_CELL_RECEPTOR);
         boundCARAntigensCount++;
         boundSelfAntigensCount++;
-        updateSelfReceptors();
+        updateSelfReceptors(random);
         return tissueCell;
     }
 
@@ -399,9 +403,13 @@ public abstract class PatchCellCART extends PatchCell {
         return affinity * (loc.getVolume() * 1e-15 * 6.022E23);
     }
 
-    /** Randomly increases number of self receptors after CAR binding. */
-    private void updateSelfReceptors() {
-        selfReceptors += (int) ((double) selfReceptorsStart * (0.95 + Math.random() / 10));
+    /**
+     * Randomly increases number of self receptors after CAR binding.
+     *
+     * @param random the random number generator
+     */
+    private void updateSelfReceptors(MersenneTwisterFast random) {
+        selfReceptors += (int) ((double) selfReceptorsStart * (0.95 + random.nextDouble() / 10));
     }
 
     /**
@@ -58,6 +58,7 @@ public class PatchCellCARTCD4 extends PatchCellCART {
     @Override
     public void step(SimState simstate) {
         Simulation sim = (Simulation) simstate;
+        MersenneTwisterFast random = getRandom(sim);
 
         super.age++;
 
@@ -77,7 +78,7 @@ public class PatchCellCARTCD4 extends PatchCellCART {
             super.activated = false;
         }
 
-        super.processes.get(Domain.METABOLISM).step(simstate.random, sim);
+        super.processes.get(Domain.METABOLISM).step(random, sim);
 
         if (state != State.APOPTOTIC) {
             if (super.energy < super.energyThreshold) {
@@ -98,12 +99,12 @@ public class PatchCellCARTCD4 extends PatchCellCART {
             }
         }
 
-        super.processes.get(Domain.INFLAMMATION).step(simstate.random, sim);
+        super.processes.get(Domain.INFLAMMATION).step(random, sim);
 
         // Change state from undefined.
         if (super.state == State.UNDEFINED || super.state == State.PAUSED) {
             if (divisions == divisionPotential) {
-                if (simstate.random.nextDouble() > super.senescentFraction) {
+                if (random.nextDouble() > super.senescentFraction) {
                     super.setState(State.APOPTOTIC);
                 } else {
                     super.setState(State.SENESCENT);
@@ -111,11 +112,11 @@ public class PatchCellCARTCD4 extends PatchCellCART {
                 super.unbind();
                 this.activated = false;
             } else {
-                PatchCellTissue target = super.bindTarget(sim, location, simstate.random);
+                PatchCellTissue target = super.bindTarget(sim, location, random);
                 super.boundTarget = target;
 
                 if (super.getBindingFlag() == AntigenFlag.BOUND_ANTIGEN_CELL_RECEPTOR) {
-                    if (simstate.random.nextDouble() > super.anergicFraction) {
+                    if (random.nextDouble() > super.anergicFraction) {
                         super.setState(State.APOPTOTIC);
                     } else {
                         super.setState(State.ANERGIC);
@@ -125,7 +126,7 @@ public class PatchCellCARTCD4 extends PatchCellCART {
                 } else if (super.getBindingFlag() == AntigenFlag.BOUND_ANTIGEN) {
 
                     if (boundCARAntigensCount > maxAntigenBinding) {
-                        if (simstate.random.nextDouble() > super.exhaustedFraction) {
+                        if (random.nextDouble() > super.exhaustedFraction) {
                             super.setState(State.APOPTOTIC);
                         } else {
                             super.setState(State.EXHAUSTED);
@@ -144,7 +145,7 @@ public class PatchCellCARTCD4 extends PatchCellCART {
                     if (activated) {
                         super.setState(State.PROLIFERATIVE);
                     } else {
-                        if (simstate.random.nextDouble() > super.proliferativeFraction) {
+                        if (random.nextDouble() > super.proliferativeFraction) {
                             super.setState(State.MIGRATORY);
                         } else {
                             super.setState(State.PROLIFERATIVE);
@@ -156,7 +157,7 @@ public class PatchCellCARTCD4 extends PatchCellCART {
 
         // Step the module for the cell state.
         if (super.module != null) {
-            super.module.step(simstate.random, sim);
+            super.module.step(random, sim);
         }
     }
 }
@@ -58,6 +58,7 @@ public class PatchCellCARTCD8 extends PatchCellCART {
     @Override
     public void step(SimState simstate) {
         Simulation sim = (Simulation) simstate;
+        MersenneTwisterFast random = getRandom(sim);
 
         super.age++;
 
@@ -78,7 +79,7 @@ public class PatchCellCARTCD8 extends PatchCellCART {
             super.activated = false;
         }
 
-        super.processes.get(Domain.METABOLISM).step(simstate.random, sim);
+        super.processes.get(Domain.METABOLISM).step(random, sim);
 
         // Check energy status. If cell has less energy than threshold, it will
         // apoptose. If overall energy is negative, then cell enters quiescence.
@@ -101,11 +102,11 @@ public class PatchCellCARTCD8 extends PatchCellCART {
             }
         }
 
-        super.processes.get(Domain.INFLAMMATION).step(simstate.random, sim);
+        super.processes.get(Domain.INFLAMMATION).step(random, sim);
 
         if (super.state == State.UNDEFINED || super.state == State.PAUSED) {
             if (divisions == divisionPotential) {
-                if (simstate.random.nextDouble() > super.senescentFraction) {
+                if (random.nextDouble() > super.senescentFraction) {
                     super.setState(State.APOPTOTIC);
                 } else {
                     super.setState(State.SENESCENT);
@@ -113,12 +114,12 @@ public class PatchCellCARTCD8 extends PatchCellCART {
                 super.unbind();
                 this.activated = false;
             } else {
-                PatchCellTissue target = super.bindTarget(sim, location, simstate.random);
+                PatchCellTissue target = super.bindTarget(sim, location, random);
                 super.boundTarget = target;
 
                 // If cell is bound to both antigen and self it will become anergic.
                 if (super.getBindingFlag() == AntigenFlag.BOUND_ANTIGEN_CELL_RECEPTOR) {
-                    if (simstate.random.nextDouble() > super.anergicFraction) {
+                    if (random.nextDouble() > super.anergicFraction) {
                         super.setState(State.APOPTOTIC);
                     } else {
                         super.setState(State.ANERGIC);
@@ -132,7 +133,7 @@ public class PatchCellCARTCD8 extends PatchCellCART {
                     // Check overstimulation. If cell has bound to
                     // target antigens too many times, becomes exhausted.
                     if (boundCARAntigensCount > maxAntigenBinding) {
-                        if (simstate.random.nextDouble() > super.exhaustedFraction) {
+                        if (random.nextDouble() > super.exhaustedFraction) {
                             super.setState(State.APOPTOTIC);
                         } else {
                             super.setState(State.EXHAUSTED);
@@ -155,7 +156,7 @@ public class PatchCellCARTCD8 extends PatchCellCART {
                     if (activated) {
                         super.setState(State.PROLIFERATIVE);
                     } else {
-                        if (simstate.random.nextDouble() > super.proliferativeFraction) {
+                        if (random.nextDouble() > super.proliferativeFraction) {
                             super.setState(State.MIGRATORY);
                         } else {
                             super.setState(State.PROLIFERATIVE);
@@ -166,7 +167,7 @@ public class PatchCellCARTCD8 extends PatchCellCART {
         }
 
         if (super.module != null) {
-            super.module.step(simstate.random, sim);
+            super.module.step(random, sim);
         }
     }
 }
@@ -62,24 +62,25 @@ public class PatchCellRandom extends PatchCell {
     @Override
     public void step(SimState simstate) {
         Simulation sim = (Simulation) simstate;
+        MersenneTwisterFast random = getRandom(sim);
 
         // Increase age of cell.
         age++;
 
         // Randomly select a cell state.
         if (state == State.UNDEFINED) {
-            setState(State.random(simstate.random));
+            setState(State.random(random));
         }
 
         // Step metabolism process.
-        processes.get(Domain.METABOLISM).step(simstate.random, sim);
+        processes.get(Domain.METABOLISM).step(random, sim);
 
         // Step signaling network process.
-        processes.get(Domain.SIGNALING).step(simstate.random, sim);
+        processes.get(Domain.SIGNALING).step(random, sim);
 
         // Step the module for the cell state.
         if (module != null) {
-            module.step(simstate.random, sim);
+            module.step(random, sim);
         }
     }
 }
@@ -88,6 +88,7 @@ public class PatchCellTissue extends PatchCell {
     @Override
     public void step(SimState simstate) {
         Simulation sim = (Simulation) simstate;
+        MersenneTwisterFast random = getRandom(sim);
         // Increase age of cell.
         age++;
 
@@ -96,13 +97,13 @@ public class PatchCellTissue extends PatchCell {
         }
 
         // Step metabolism process.
-        processes.get(Domain.METABOLISM).step(simstate.random, sim);
+        processes.get(Domain.METABOLISM).step(random, sim);
 
         // Check energy status. If cell has less energy than threshold, it will
         // necrose. If overall energy is negative, then cell enters quiescence.
         if (state != State.APOPTOTIC && energy < 0) {
             if (energy < energyThreshold) {
-                if (simstate.random.nextDouble() > necroticFraction) {
+                if (random.nextDouble() > necroticFraction) {
                     setState(State.APOPTOTIC);
                 } else {
                     setState(State.NECROTIC);
@@ -113,14 +114,14 @@ public class PatchCellTissue extends PatchCell {
         }
 
         // Step signaling network process.
-        processes.get(Domain.SIGNALING).step(simstate.random, sim);
+        processes.get(Domain.SIGNALING).step(random, sim);
 
         // Change state from undefined.
         if (state == State.UNDEFINED) {
             if (flag == Flag.MIGRATORY) {
                 setState(State.MIGRATORY);
             } else if (divisions == divisionPotential) {
-                if (simstate.random.nextDouble() > senescentFraction) {
+                if (random.nextDouble() > senescentFraction) {
                     setState(State.APOPTOTIC);
                 } else {
                     setState(State.SENESCENT);
@@ -132,7 +133,7 @@ public class PatchCellTissue extends PatchCell {
 
         // Step the module for the cell state.
         if (module != null) {
-            module.step(simstate.random, sim);
+            module.step(random, sim);
         }
     }
 
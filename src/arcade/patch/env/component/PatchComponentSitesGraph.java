@@ -74,6 +74,9 @@ public abstract class PatchComponentSitesGraph extends PatchComponentSites {
     /** Graph representing the sites. */
     final Graph graph;
 
+    /** Random number generator stream of the component. */
+    final MersenneTwisterFast random;
+
     /**
      * Creates a {@link PatchComponentSites} using graph sites.
      *
@@ -102,6 +105,7 @@ public abstract class PatchComponentSitesGraph extends PatchComponentSites {
         latticePatchVolume = patch.getDouble("LATTICE_VOLUME");
 
         // Create graph.
+        this.random = random;
         graphFactory = makeGraphFactory(series);
         graph = initializeGraph(random);
     }
@@ -62,7 +62,7 @@ public abstract class PatchComponentSitesGraphRect extends PatchComponentSitesGr
 
         @Override
         public void step(SimState simstate) {
-            super.complexStep(simstate.random);
+            super.complexStep(random);
         }
     }
 
@@ -63,7 +63,7 @@ public abstract class PatchComponentSitesGraphTri extends PatchComponentSitesGra
 
         @Override
         public void step(SimState simstate) {
-            super.complexStep(simstate.random);
+            super.complexStep(random);
         }
     }
 
@@ -4,6 +4,7 @@ import java.util.HashMap;
 import java.util.Map;
 import sim.engine.Schedule;
 import sim.engine.SimState;
+import ec.util.MersenneTwisterFast;
 import arcade.core.env.lattice.Lattice;
 import arcade.core.env.location.Location;
 import arcade.core.env.operation.Operation;
@@ -12,6 +13,7 @@ import arcade.core.sim.Simulation;
 import arcade.core.util.MiniBox;
 import arcade.patch.env.location.CoordinateXYZ;
 import arcade.patch.env.location.PatchLocation;
+import arcade.patch.env.operation.PatchOperation;
 import static arcade.patch.util.PatchEnums.Category;
 import static arcade.patch.util.PatchEnums.Ordering;
 
@@ -28,6 +30,9 @@ import static arcade.patch.util.PatchEnums.Ordering;
  *   <li>step generator operation
  *   <li>step diffuser operation
  * </ul>
+ *
+ * <p>Operations are stepped with the random number generator stream of the lattice, such that
+ * lattices stepped concurrently do not share a generator.
  */
 public abstract class PatchLattice implements Lattice {
     /** Array containing lattice values. */
@@ -54,6 +59,9 @@ public abstract class PatchLattice implements Lattice {
     /** Lattice parameters. */
     final MiniBox parameters;
 
+    /** Random number generator stream for lattice operations. */
+    MersenneTwisterFast random;
+
     /**
      * Creates a {@code PatchLattice} environment.
      *
@@ -139,6 +147,35 @@ public abstract class PatchLattice implements Lattice {
         }
     }
 
+    /**
+     * Swaps rows of the lattice field at the given index with rows of the given array.
+     *
+     * <p>Values are exchanged without copying. The field and the given array keep their identity,
+     * so references to either array remain valid, but each holds the other's previous values.
+     *
+     * @param values the array of values with the same dimensions as the field layer
+     * @param index the index of the layer to swap
+     */
+    public void swapField(double[][] values, int index) {
+        double[][] layer = field[index];
+        for (int i = 0; i < values.length; i++) {
+            double[] row = layer[i];
+            layer[i] = values[i];
+            values[i] = row;
+        }
+    }
+
+    /**
+     * Swaps rows of the lattice field with rows of the given array.
+     *
+     * @param values the array of values with the same dimensions as the field
+     */
+    public void swapField(double[][][] values) {
+        for (int k = 0; k < values.length; k++) {
+            swapField(values[k], k);
+        }
+    }
+
     @Override
     public void setField(double value) {
         for (int k = 0; k < height; k++) {
@@ -195,6 +232,24 @@ public abstract class PatchLattice implements Lattice {
                 .forEach(c -> field[c.z][c.x][c.y] = value);
     }
 
+    /**
+     * Sets the random number generator stream for lattice operations.
+     *
+     * @param random the random number generator
+     */
+    public void setRandom(MersenneTwisterFast random) {
+        this.random = random;
+    }
+
+    /** Finishes lattice operations at the end of the simulation. */
+    public void finish() {
+        for (Operation operation : operations.values()) {
+            if (operation instanceof PatchOperation) {
+                ((PatchOperation) operation).finish();
+            }
+        }
+    }
+
     @Override
     public void schedule(Schedule schedule) {
         schedule.scheduleOnce(this, Ordering.FIRST.ordinal());
@@ -207,12 +262,12 @@ public abstract class PatchLattice implements Lattice {
 
         // Step generator operation, if it exists.
         if (operations.containsKey(Category.GENERATOR)) {
-            operations.get(Category.GENERATOR).step(simstate.random, sim);
+            operations.get(Category.GENERATOR).step(random, sim);
         }
 
         // Step diffuser operation, if it exists.
         if (operations.containsKey(Category.DIFFUSER)) {
-            operations.get(Category.DIFFUSER).step(simstate.random, sim);
+            operations.get(Category.DIFFUSER).step(random, sim);
         }
     }
 }
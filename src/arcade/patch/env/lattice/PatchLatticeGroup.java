@@ -0,0 +1,68 @@
+package arcade.patch.env.lattice;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import sim.engine.Schedule;
+import sim.engine.SimState;
+import sim.engine.Steppable;
+import static arcade.patch.util.PatchEnums.Ordering;
+
+/**
+ * Group of {@link PatchLattice} agents stepped concurrently as a single event in the schedule.
+ *
+ * <p>Lattice operations only update the field of their own lattice and draw from the random number
+ * generator stream of their own lattice, so the lattices in the group are stepped concurrently on a
+ * pool of threads. The group is scheduled in the same ordering as individually scheduled lattices,
+ * and the step ends once all lattices are stepped.
+ */
+public final class PatchLatticeGroup implements Steppable {
+    /** Lattices in the group. */
+    final ArrayList<PatchLattice> lattices;
+
+    /** Pool of threads for stepping lattices. */
+    final ForkJoinPool pool;
+
+    /** Tasks for stepping each lattice. */
+    final ForkJoinTask<?>[] tasks;
+
+    /**
+     * Creates a {@code PatchLatticeGroup} for the given lattices.
+     *
+     * @param lattices the lattices in the group
+     * @param threads the number of threads
+     */
+    public PatchLatticeGroup(Collection<PatchLattice> lattices, int threads) {
+        this.lattices = new ArrayList<>(lattices);
+        pool = new ForkJoinPool(Math.max(1, Math.min(threads, lattices.size())));
+        tasks = new ForkJoinTask<?>[lattices.size()];
+    }
+
+    /**
+     * Schedules the group in the same orderings as individual lattices.
+     *
+     * @param schedule the simulation schedule
+     */
+    public void schedule(Schedule schedule) {
+        schedule.scheduleOnce(this, Ordering.FIRST.ordinal());
+        schedule.scheduleRepeating(this, Ordering.LATTICES.ordinal(), 1);
+    }
+
+    /** Shuts down the pool of threads for stepping lattices. */
+    public void finish() {
+        pool.shutdown();
+    }
+
+    @Override
+    public void step(SimState simstate) {
+        for (int i = 0; i < tasks.length; i++) {
+            PatchLattice lattice = lattices.get(i);
+            tasks[i] = pool.submit(() -> lattice.step(simstate));
+        }
+
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+    }
+}
@@ -31,4 +31,7 @@ public abstract class PatchOperation implements Operation {
         // Set lattices.
         this.lattice = lattice;
     }
+
+    /** Releases resources held by the operation at the end of the simulation. */
+    public void finish() {}
 }
@@ -1,5 +1,7 @@
 package arcade.patch.env.operation;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import ec.util.MersenneTwisterFast;
 import arcade.core.env.operation.Operation;
 import arcade.core.sim.Simulation;
@@ -15,6 +17,10 @@ import static arcade.patch.util.PatchEnums.Category;
  * Methods are written to work regardless of underlying geometry. Methods extending this operation
  * for a specific geometry will need to adjust the multipliers for both the finite difference
  * approximation and the pseudo-steady state approximation.
+ *
+ * <p>After each repeat, rows of the new concentration array are swapped into the lattice field, so
+ * the two arrays are used as alternating buffers without copying. At the end of the step, the new
+ * concentration array holds the same values as the lattice field.
  */
 public abstract class PatchOperationDiffuser extends PatchOperation {
     /** Array holding current concentration values. */
@@ -56,6 +62,15 @@ public abstract class PatchOperationDiffuser extends PatchOperation {
     /** Border array for down border (z direction). */
     final byte[] downBorder;
 
+    /** Pool of threads for diffusion, {@code null} if diffusion is not parallel. */
+    final ForkJoinPool pool;
+
+    /** Bounds of the blocks of rows diffused by each task. */
+    final int[] blocks;
+
+    /** Tasks for the blocks of rows. */
+    final ForkJoinTask<?>[] tasks;
+
     /**
      * Creates a diffuser {@link PatchOperation} for the given lattice.
      *
@@ -67,8 +82,13 @@ public abstract class PatchOperationDiffuser extends PatchOperation {
      *
      * <ul>
      *   <li>{@code DIFFUSIVITY} = diffusivity of molecule
+     *   <li>{@code THREADS} = number of threads for diffusion
      * </ul>
      *
+     * <p>If more than one thread is used, the rows of the lattice are split into contiguous blocks
+     * that are diffused concurrently. All blocks are joined before the next repeat, so results are
+     * identical to diffusion with a single thread.
+     *
      * @param lattice the {@link PatchLattice} the operation is associated with
      */
     public PatchOperationDiffuser(PatchLattice lattice) {
@@ -77,6 +97,8 @@ public abstract class PatchOperationDiffuser extends PatchOperation {
         // Get diffuser parameters.
         MiniBox parameters = lattice.getParameters();
         diffusivity = parameters.getDouble("diffuser/DIFFUSIVITY");
+        int rows = latticeHeight * latticeLength;
+        int threads = Math.min(parameters.getInt("diffuser/THREADS"), rows);
 
         // Set lattice fields.
         this.latticeCurrent = lattice.getField();
@@ -111,6 +133,28 @@ public abstract class PatchOperationDiffuser extends PatchOperation {
             topBorder[j] = (byte) (j == 0 ? 0 : 1);
             bottomBorder[j] = (byte) (j == latticeWidth - 1 ? 0 : 1);
         }
+
+        // Split rows into blocks for parallel diffusion.
+        if (threads > 1) {
+            pool = new ForkJoinPool(threads);
+            blocks = new int[threads + 1];
+            tasks = new ForkJoinTask<?>[threads];
+            for (int b = 0; b <= threads; b++) {
+                blocks[b] = (int) ((long) rows * b / threads);
+            }
+        } else {
+            pool = null;
+            blocks = null;
+            tasks = null;
+        }
+    }
+
+    /** Shuts down the pool of threads for diffusion, if diffusion is parallel. */
+    @Override
+    public void finish() {
+        if (pool != null) {
+            pool.shutdown();
+        }
     }
 
     /**
@@ -125,65 +169,115 @@ public abstract class PatchOperationDiffuser extends PatchOperation {
 
     @Override
     public void step(MersenneTwisterFast random, Simulation sim) {
+        int rows = latticeHeight * latticeLength;
+
+        // Update concentration in each location with step size of 1 second.
+        for (int step = 0; step < 60; step++) {
+            if (pool == null) {
+                diffuse(0, rows);
+            } else {
+                for (int b = 0; b < tasks.length; b++) {
+                    int start = blocks[b];
+                    int end = blocks[b + 1];
+                    tasks[b] = pool.submit(() -> diffuse(start, end));
+                }
+
+                for (ForkJoinTask<?> task : tasks) {
+                    task.join();
+                }
+            }
+
+            // Swap new grid values into grid.
+            lattice.swapField(latticeNew);
+        }
+
+        // Copy final grid values into new grid.
+        for (int k = 0; k < latticeHeight; k++) {
+            copyLayer(latticeCurrent[k], latticeNew[k]);
+        }
+    }
+
+    /**
+     * Calculates new concentrations for the given block of rows.
+     *
+     * <p>Rows are indexed across all layers, such that row {@code r} is row {@code r % LENGTH} of
+     * layer {@code r / LENGTH}. New concentrations only depend on current concentrations, so blocks
+     * of rows can be calculated concurrently.
+     *
+     * @param start the index of the first row (inclusive)
+     * @param end the index of the last row (exclusive)
+     */
+    void diffuse(int start, int end) {
         if (latticeHeight == 1) {
-            step2D();
+            diffuse2D(start, end);
         } else {
-            step3D();
+            diffuse3D(start, end);
         }
     }
 
-    /** Steps the diffuser for 2D simulations. */
-    private void step2D() {
+    /**
+     * Calculates new concentrations for the given block of rows in 2D simulations.
+     *
+     * @param start the index of the first row (inclusive)
+     * @param end the index of the last row (exclusive)
+     */
+    private void diffuse2D(int start, int end) {
         double[][] latticeCurrentLayer = latticeCurrent[0];
         double[][] latticeNewLayer = latticeNew[0];
         double oldConc;
         double sumConc;
 
-        for (int step = 0; step < 60; step++) {
-            for (int i = 0; i < latticeLength; i++) {
-                for (int j = 0; j < latticeWidth; j++) {
-                    oldConc = latticeCurrentLayer[i][j] * adjust;
-                    sumConc = calcSum(i, j, latticeCurrentLayer);
-                    latticeNewLayer[i][j] = rate * (sumConc - beta * oldConc) + oldConc;
-                }
+        for (int i = start; i < end; i++) {
+            for (int j = 0; j < latticeWidth; j++) {
+                oldConc = latticeCurrentLayer[i][j] * adjust;
+                sumConc = calcSum(i, j, latticeCurrentLayer);
+                latticeNewLayer[i][j] = rate * (sumConc - beta * oldConc) + oldConc;
             }
-
-            // Set grid values to new grid.
-            lattice.setField(latticeNewLayer, 0);
         }
     }
 
-    /** Steps the diffuser for 3D simulations. */
-    private void step3D() {
+    /**
+     * Calculates new concentrations for the given block of rows in 3D simulations.
+     *
+     * @param start the index of the first row (inclusive)
+     * @param end the index of the last row (exclusive)
+     */
+    private void diffuse3D(int start, int end) {
         double oldConc;
         double sumConc;
         int up;
         int down;
 
-        // Update concentration in each location with step size of 1 second.
-        for (int step = 0; step < 60; step++) {
-            for (int k = 0; k < latticeHeight; k++) {
-                up = k + upBorder[k];
-                down = k - downBorder[k];
-
-                for (int i = 0; i < latticeLength; i++) {
-                    for (int j = 0; j < latticeWidth; j++) {
-                        oldConc = latticeCurrent[k][i][j] * adjust;
-                        sumConc = calcSum(i, j, latticeCurrent[k]);
-
-                        // Add in up and down neighbors for 3D case. Check if
-                        // located at the up (for up) and down (for down) side
-                        // of the environment. Includes multiplier since dz =/= dx = dy.
-                        sumConc += latticeCurrent[up][i][j] * alpha;
-                        sumConc += latticeCurrent[down][i][j] * alpha;
-
-                        latticeNew[k][i][j] = rate * (sumConc - beta * oldConc) + oldConc;
-                    }
-                }
+        for (int row = start; row < end; row++) {
+            int k = row / latticeLength;
+            int i = row % latticeLength;
+            up = k + upBorder[k];
+            down = k - downBorder[k];
+
+            for (int j = 0; j < latticeWidth; j++) {
+                oldConc = latticeCurrent[k][i][j] * adjust;
+                sumConc = calcSum(i, j, latticeCurrent[k]);
+
+                // Add in up and down neighbors for 3D case. Check if
+                // located at the up (for up) and down (for down) side
+                // of the environment. Includes multiplier since dz =/= dx = dy.
+                sumConc += latticeCurrent[up][i][j] * alpha;
+                sumConc += latticeCurrent[down][i][j] * alpha;
+
+                latticeNew[k][i][j] = rate * (sumConc - beta * oldConc) + oldConc;
             }
+        }
+    }
 
-            // Set grid values to new grid.
-            lattice.setField(latticeNew);
+    /**
+     * Copies values from one layer into another.
+     *
+     * @param from the layer to copy from
+     * @param to the layer to copy to
+     */
+    private void copyLayer(double[][] from, double[][] to) {
+        for (int i = 0; i < latticeLength; i++) {
+            System.arraycopy(from[i], 0, to[i], 0, latticeWidth);
         }
     }
 }
@@ -5,6 +5,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import sim.engine.Schedule;
 import sim.engine.SimState;
+import ec.util.MersenneTwisterFast;
 import arcade.core.agent.action.Action;
 import arcade.core.agent.cell.Cell;
 import arcade.core.agent.cell.CellContainer;
@@ -18,11 +19,13 @@ import arcade.core.env.location.LocationFactory;
 import arcade.core.sim.Series;
 import arcade.core.sim.Simulation;
 import arcade.core.util.MiniBox;
+import arcade.core.util.RandomStreams;
 import arcade.patch.agent.cell.PatchCell;
 import arcade.patch.agent.cell.PatchCellFactory;
 import arcade.patch.env.grid.PatchGrid;
 import arcade.patch.env.lattice.PatchLattice;
 import arcade.patch.env.lattice.PatchLatticeFactory;
+import arcade.patch.env.lattice.PatchLatticeGroup;
 import arcade.patch.env.location.PatchLocationFactory;
 
 /** Abstract implementation for patch {@link Simulation} instances. */
@@ -30,15 +33,27 @@ public abstract class PatchSimulation extends SimState implements Simulation {
     /** {@link arcade.core.sim.Series} object containing this simulation. */
     final PatchSeries series;
 
+    /** Key prefix for random number generator streams of lattices. */
+    static final String LATTICE_STREAM_KEY = "lattice:";
+
+    /** Key prefix for random number generator streams of components. */
+    static final String COMPONENT_STREAM_KEY = "component:";
+
     /** Random number generator seed for this simulation. */
     final int seed;
 
+    /** Random number generator streams for this simulation. */
+    final RandomStreams streams;
+
     /** {@link Grid} containing agents in the simulation. */
     Grid grid;
 
     /** Map of {@link Lattice} objects in the simulation. */
     HashMap<String, Lattice> lattices;
 
+    /** Group of lattices stepped concurrently, {@code null} if lattices are stepped in sequence. */
+    PatchLatticeGroup latticeGroup;
+
     /** Map of {@link Action} instances in the simulation. */
     HashMap<String, Action> actions;
 
@@ -67,6 +82,7 @@ public abstract class PatchSimulation extends SimState implements Simulation {
         super(seed);
         this.series = (PatchSeries) series;
         this.seed = (int) seed - Series.SEED_OFFSET;
+        this.streams = new RandomStreams(seed);
 
         this.locationFactory = makeLocationFactory();
         this.cellFactory = makeCellFactory();
@@ -88,6 +104,11 @@ public abstract class PatchSimulation extends SimState implements Simulation {
         return seed;
     }
 
+    @Override
+    public final RandomStreams getRandomStreams() {
+        return streams;
+    }
+
     @Override
     public final int getID() {
         return ++id;
@@ -181,6 +202,17 @@ public abstract class PatchSimulation extends SimState implements Simulation {
     public void finish() {
         super.finish();
 
+        // Shut down threads of concurrent lattices and parallel diffusers.
+        if (latticeGroup != null) {
+            latticeGroup.finish();
+        }
+
+        if (lattices != null) {
+            for (Lattice lattice : lattices.values()) {
+                ((PatchLattice) lattice).finish();
+            }
+        }
+
         // Finalize saver.
         if (!series.isVis) {
             doOutput(false);
@@ -222,9 +254,11 @@ public abstract class PatchSimulation extends SimState implements Simulation {
      *
      * @param componentClass the name of the component class
      * @param parameters the dictionary of component parameters
+     * @param random the random number generator stream of the component
      * @return a {@link Component} instance
      */
-    public abstract Component makeComponent(String componentClass, MiniBox parameters);
+    public abstract Component makeComponent(
+            String componentClass, MiniBox parameters, MersenneTwisterFast random);
 
     @Override
     public final void setupAgents() {
@@ -272,13 +306,29 @@ public abstract class PatchSimulation extends SimState implements Simulation {
         // Initialize factory.
         latticeFactory.initialize(series, random);
 
+        // Check if lattices are stepped concurrently.
+        int threads = series.patch.getInt("LATTICE_THREADS");
+        ArrayList<PatchLattice> group = new ArrayList<>();
+
         // Iterate through each layer to create and schedule lattices.
         for (String key : series.layers.keySet()) {
             PatchLattice lattice = latticeFactory.lattices.get(key);
 
-            // Add and schedule the lattice.
+            // Add and schedule the lattice. Each lattice steps with its own
+            // random number generator stream, keyed by layer.
+            lattice.setRandom(streams.getStream(LATTICE_STREAM_KEY + key));
             lattices.put(key, lattice);
-            lattice.schedule(schedule);
+            if (threads > 1) {
+                group.add(lattice);
+            } else {
+                lattice.schedule(schedule);
+            }
+        }
+
+        // Schedule lattices to be stepped concurrently.
+        if (!group.isEmpty()) {
+            latticeGroup = new PatchLatticeGroup(group, threads);
+            latticeGroup.schedule(schedule);
         }
     }
 
@@ -321,7 +371,8 @@ public abstract class PatchSimulation extends SimState implements Simulation {
         for (String componentKey : series.components.keySet()) {
             MiniBox componentParameters = series.components.get(componentKey);
             String componentClass = componentParameters.get("CLASS");
-            Component component = makeComponent(componentClass, componentParameters);
+            MersenneTwisterFast random = streams.getStream(COMPONENT_STREAM_KEY + componentKey);
+            Component component = makeComponent(componentClass, componentParameters, random);
 
             if (component == null) {
                 continue;
@@ -1,5 +1,6 @@
 package arcade.patch.sim;
 
+import ec.util.MersenneTwisterFast;
 import arcade.core.agent.action.Action;
 import arcade.core.env.component.Component;
 import arcade.core.sim.Series;
@@ -64,7 +65,8 @@ public final class PatchSimulationHex extends PatchSimulation {
     }
 
     @Override
-    public Component makeComponent(String componentClass, MiniBox parameters) {
+    public Component makeComponent(
+            String componentClass, MiniBox parameters, MersenneTwisterFast random) {
         switch (componentClass) {
             case "source_sites":
                 return new PatchComponentSitesSource(series, parameters);
@@ -4,6 +4,7 @@ import java.util.EnumMap;
 import sim.engine.Schedule;
 import sim.engine.SimState;
 import sim.engine.Stoppable;
+import ec.util.MersenneTwisterFast;
 import arcade.core.agent.cell.Cell;
 import arcade.core.agent.cell.CellContainer;
 import arcade.core.agent.cell.CellState;
@@ -15,6 +16,7 @@ import arcade.core.sim.Simulation;
 import arcade.core.util.GrabBag;
 import arcade.core.util.Parameters;
 import arcade.potts.agent.module.PottsModule;
+import arcade.potts.env.grid.PottsArray;
 import arcade.potts.env.location.PottsLocation;
 import static arcade.potts.util.PottsEnums.Ordering;
 import static arcade.potts.util.PottsEnums.Region;
@@ -39,9 +41,18 @@ import static arcade.potts.util.PottsEnums.Region;
  * by the specific Hamiltonian class instance.
  */
 public abstract class PottsCell implements Cell {
+    /** Key for random number generator streams of cells. */
+    static final String STREAM_KEY = "cell";
+
     /** Stopper used to stop this agent from being stepped in the schedule. */
     Stoppable stopper;
 
+    /** Batch the cell is stepped in, {@code null} if scheduled individually. */
+    PottsCellBatch batch;
+
+    /** Random number generator stream of the cell, {@code null} until stepped or once stopped. */
+    MersenneTwisterFast stream;
+
     /** Cell {@link Location} object. */
     private final PottsLocation location;
 
@@ -354,6 +365,7 @@ public abstract class PottsCell implements Cell {
     @Override
     public void stop() {
         stopper.stop();
+        stream = null;
     }
 
     @Override
@@ -369,9 +381,35 @@ public abstract class PottsCell implements Cell {
      */
     abstract void setStateModule(CellState newState);
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>If the cell belongs to a {@link PottsCellBatch}, the cell is added to the batch instead
+     * of being scheduled individually.
+     */
     @Override
     public void schedule(Schedule schedule) {
-        stopper = schedule.scheduleRepeating(this, Ordering.CELLS.ordinal(), 1);
+        if (batch != null) {
+            stopper = batch.add(this);
+        } else {
+            stopper = schedule.scheduleRepeating(this, Ordering.CELLS.ordinal(), 1);
+        }
+    }
+
+    /**
+     * Gets the random number generator stream of the cell.
+     *
+     * <p>The stream is keyed by cell id, such that draws made by the cell module do not depend on
+     * the order in which cells are stepped.
+     *
+     * @param sim the simulation instance
+     * @return the random number generator
+     */
+    MersenneTwisterFast getRandom(Simulation sim) {
+        if (stream == null) {
+            stream = sim.getRandomStreams().getStream(STREAM_KEY, id);
+        }
+        return stream;
     }
 
     /**
@@ -380,7 +418,7 @@ public abstract class PottsCell implements Cell {
      * @param ids the {@link arcade.potts.sim.Potts} array for ids
      * @param regions the {@link arcade.potts.sim.Potts} array for regions
      */
-    public void initialize(int[][][] ids, int[][][] regions) {
+    public void initialize(PottsArray ids, PottsArray regions) {
         location.update(id, ids, regions);
 
         targetVolume = location.getVolume();
@@ -402,7 +440,7 @@ public abstract class PottsCell implements Cell {
      * @param ids the {@link arcade.potts.sim.Potts} array for ids
      * @param regions the {@link arcade.potts.sim.Potts} array for regions
      */
-    public void reset(int[][][] ids, int[][][] regions) {
+    public void reset(PottsArray ids, PottsArray regions) {
         location.update(id, ids, regions);
 
         targetVolume = criticalVolume;
@@ -428,7 +466,7 @@ public abstract class PottsCell implements Cell {
         age++;
 
         // Step the module for the cell state.
-        module.step(simstate.random, sim);
+        module.step(getRandom(sim), sim);
     }
 
     /**
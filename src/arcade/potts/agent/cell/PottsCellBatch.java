@@ -0,0 +1,157 @@
+package arcade.potts.agent.cell;
+
+import java.util.Arrays;
+import sim.engine.Schedule;
+import sim.engine.SimState;
+import sim.engine.Steppable;
+import sim.engine.Stoppable;
+import ec.util.MersenneTwisterFast;
+import static arcade.potts.util.PottsEnums.Ordering;
+
+/**
+ * Batch of {@link PottsCell} agents stepped as a single event in the schedule.
+ *
+ * <p>Cells in the batch are stepped once per tick, in a random order that is shuffled each tick
+ * using the simulation random number generator. The batch is scheduled in the same ordering as
+ * individually scheduled cells, and follows the same rules for cells that are added or stopped
+ * while the batch is being stepped:
+ *
+ * <ul>
+ *   <li>cells are first stepped on the tick after they are added
+ *   <li>cells that are stopped are not stepped again, including later in the current tick
+ * </ul>
+ *
+ * <p>Stepping cells in batches avoids adding and removing an event in the schedule for every cell
+ * on every tick. Cells are stepped in a different order than when scheduled individually, so
+ * simulations with batched cells are reproducible but do not match simulations with individually
+ * scheduled cells.
+ */
+public final class PottsCellBatch implements Steppable {
+    /** Initial capacity of the batch. */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** Schedule the batch is stepped in. */
+    private Schedule schedule;
+
+    /** Entries for cells in the batch, in stepping order. */
+    private Entry[] entries;
+
+    /** Number of entries in the batch. */
+    private int size;
+
+    /** Creates an empty {@code PottsCellBatch}. */
+    public PottsCellBatch() {
+        entries = new Entry[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Schedules the batch to repeat every tick.
+     *
+     * @param schedule the simulation schedule
+     */
+    public void schedule(Schedule schedule) {
+        this.schedule = schedule;
+        schedule.scheduleRepeating(this, Ordering.CELLS.ordinal(), 1);
+    }
+
+    /**
+     * Adds the cell to the batch.
+     *
+     * <p>The cell is first stepped on the tick after the current schedule time, matching cells
+     * that are scheduled individually.
+     *
+     * @param cell the cell to add
+     * @return the stopper used to remove the cell from the batch
+     */
+    Stoppable add(PottsCell cell) {
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, 2 * entries.length);
+        }
+
+        Entry entry = new Entry(cell, schedule.getTime() + 1);
+        entries[size++] = entry;
+        return entry;
+    }
+
+    /**
+     * Gets the number of cells in the batch that have not been stopped.
+     *
+     * @return the number of cells
+     */
+    public int size() {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (!entries[i].stopped) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void step(SimState simstate) {
+        double time = schedule.getTime();
+
+        compact();
+
+        // Shuffle entries present at the start of the tick. Cells added while
+        // stepping are appended after these entries and are not stepped.
+        int n = size;
+        MersenneTwisterFast random = simstate.random;
+        for (int i = n; i > 1; i--) {
+            int j = random.nextInt(i);
+            Entry entry = entries[i - 1];
+            entries[i - 1] = entries[j];
+            entries[j] = entry;
+        }
+
+        for (int i = 0; i < n; i++) {
+            Entry entry = entries[i];
+            if (!entry.stopped && entry.start <= time) {
+                entry.cell.step(simstate);
+            }
+        }
+    }
+
+    /** Removes entries for stopped cells, preserving the order of remaining entries. */
+    private void compact() {
+        int index = 0;
+
+        for (int i = 0; i < size; i++) {
+            if (!entries[i].stopped) {
+                entries[index++] = entries[i];
+            }
+        }
+
+        Arrays.fill(entries, index, size, null);
+        size = index;
+    }
+
+    /** Entry for a cell in the batch. */
+    private static final class Entry implements Stoppable {
+        /** Cell stepped by the entry. */
+        final PottsCell cell;
+
+        /** First schedule time the cell is stepped. */
+        final double start;
+
+        /** {@code true} if the cell is stopped, {@code false} otherwise. */
+        boolean stopped;
+
+        /**
+         * Creates an {@code Entry} for the given cell.
+         *
+         * @param cell the cell
+         * @param start the first schedule time the cell is stepped
+         */
+        Entry(PottsCell cell, double start) {
+            this.cell = cell;
+            this.start = start;
+        }
+
+        @Override
+        public void stop() {
+            stopped = true;
+        }
+    }
+}
@@ -171,14 +171,25 @@ public final class PottsCellContainer implements CellContainer {
         GrabBag links = factory.getLinks(pop);
 
         // Make cell.
+        PottsCell cell;
         switch (popParameters.get("CLASS")) {
             case "fly-neuron":
-                return new PottsCellFlyNeuron(this, location, parameters, links);
+                cell = new PottsCellFlyNeuron(this, location, parameters, links);
+                break;
             case "fly-gmc":
-                return new PottsCellFlyGMC(this, location, parameters, links);
+                cell = new PottsCellFlyGMC(this, location, parameters, links);
+                break;
             default:
             case "stem":
-                return new PottsCellStem(this, location, parameters, links);
+                cell = new PottsCellStem(this, location, parameters, links);
+                break;
         }
+
+        // Assign cell to batch for the population (if it exists).
+        if (factory instanceof PottsCellFactory) {
+            cell.batch = ((PottsCellFactory) factory).getBatch(pop);
+        }
+
+        return cell;
     }
 }
@@ -41,6 +41,9 @@ public final class PottsCellFactory implements CellFactory {
     /** Map of id to cell. */
     public final HashMap<Integer, PottsCellContainer> cells;
 
+    /** Map of population to batch of cells, empty if cells are scheduled individually. */
+    public final HashMap<Integer, PottsCellBatch> popToBatch;
+
     /** Creates a factory for making {@link PottsCell} instances. */
     public PottsCellFactory() {
         cells = new HashMap<>();
@@ -48,6 +51,7 @@ public final class PottsCellFactory implements CellFactory {
         popToLinks = new HashMap<>();
         popToRegions = new HashMap<>();
         popToIDs = new HashMap<>();
+        popToBatch = new HashMap<>();
     }
 
     /**
@@ -77,6 +81,16 @@ public final class PottsCellFactory implements CellFactory {
         return popToLinks.get(pop);
     }
 
+    /**
+     * Gets the batch of cells for the population.
+     *
+     * @param pop the cell population
+     * @return the batch of cells, {@code null} if cells are scheduled individually
+     */
+    public PottsCellBatch getBatch(int pop) {
+        return popToBatch.get(pop);
+    }
+
     /**
      * {@inheritDoc}
      *
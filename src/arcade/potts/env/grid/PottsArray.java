@@ -0,0 +1,446 @@
+package arcade.potts.env.grid;
+
+import java.util.ArrayList;
+
+/**
+ * Flat array of voxel values for the potts layer.
+ *
+ * <p>{@code PottsArray} stores the values of a (height, length, width) voxel lattice in a single
+ * primitive array in (z, x, y) order, such that the y coordinate is contiguous in memory. Neighbors
+ * of a voxel are accessed by adding precomputed offsets to the index of the voxel, which avoids the
+ * additional dereferences and bounds checks of nested arrays.
+ *
+ * <p>Arrays with a tile size store values in cubic tiles instead, for arrays in which non-zero
+ * values occupy a small fraction of the voxels. Each tile stores the voxels of the tile and a one
+ * voxel halo of the voxels around the tile, such that the neighborhood of any voxel in the tile is
+ * contained in a single tile. Tiles are only created once a non-zero value is written to the tile
+ * or its halo, and tiles that have not been created read as zero. Tiles are dropped again once the
+ * tile and its halo are all zero, and reused for the next tile that is created. Neighborhoods are read from the
+ * array returned by {@link #getValues} at the index returned by {@link #getIndex}, which are the
+ * flat array of values for dense arrays and the tile of the voxel for tiled arrays.
+ */
+public final class PottsArray {
+    /** Number of face neighbors. */
+    public static final int NUMBER_NEIGHBORS = 6;
+
+    /** Number of voxels in the 3 x 3 x 3 neighborhood. */
+    public static final int NEIGHBORHOOD_SIZE = 3 * 3 * 3;
+
+    /** Index of the center voxel in the neighborhood. */
+    public static final int NEIGHBORHOOD_CENTER = NEIGHBORHOOD_SIZE / 2;
+
+    /** List of x direction movements (N, E, S, W, U, D). */
+    private static final int[] MOVES_X = {0, 1, 0, -1, 0, 0};
+
+    /** List of y direction movements (N, E, S, W, U, D). */
+    private static final int[] MOVES_Y = {-1, 0, 1, 0, 0, 0};
+
+    /** List of z direction movements (N, E, S, W, U, D). */
+    private static final int[] MOVES_Z = {0, 0, 0, 0, 1, -1};
+
+    /** Length (x direction) of the array. */
+    public final int length;
+
+    /** Width (y direction) of the array. */
+    public final int width;
+
+    /** Height (z direction) of the array. */
+    public final int height;
+
+    /** Length and width and height of each tile, 0 if values are not stored in tiles. */
+    public final int tileSize;
+
+    /** Array of values, {@code null} if values are stored in tiles. */
+    public final int[] values;
+
+    /** Index offsets of face neighbors (N, E, S, W, U, D). */
+    public final int[] neighbors;
+
+    /** Index offsets of the 3 x 3 x 3 neighborhood in (z, x, y) order. */
+    public final int[] neighborhood;
+
+    /** Index stride in the x direction. */
+    private final int strideX;
+
+    /** Index stride in the z direction. */
+    private final int strideZ;
+
+    /** Length of each tile, including the halo. */
+    private final int span;
+
+    /** Number of tiles in the x direction. */
+    private final int tilesX;
+
+    /** Number of tiles in the y direction. */
+    private final int tilesY;
+
+    /** Number of tiles in the z direction. */
+    private final int tilesZ;
+
+    /** Array of tiles, {@code null} if values are not stored in tiles. */
+    private final int[][] tiles;
+
+    /** Tile returned for tiles that have not been created. */
+    private final int[] empty;
+
+    /** Number of non-zero values in each tile, including the halo. */
+    private final int[] counts;
+
+    /** Stack of dropped tiles, with all values zero. */
+    private final ArrayList<int[]> pool;
+
+    /** Log of indices changed using {@link #set}, {@code null} if changes are not tracked. */
+    private int[] changes;
+
+    /** Number of logged changes, or -1 if the log has overflowed. */
+    private int numberChanges;
+
+    /**
+     * Creates an empty {@code PottsArray}.
+     *
+     * @param length the array length (x direction)
+     * @param width the array width (y direction)
+     * @param height the array height (z direction)
+     */
+    public PottsArray(int length, int width, int height) {
+        this(length, width, height, 0);
+    }
+
+    /**
+     * Creates an empty {@code PottsArray} with values stored in tiles.
+     *
+     * @param length the array length (x direction)
+     * @param width the array width (y direction)
+     * @param height the array height (z direction)
+     * @param tileSize the size of each tile, 0 if values are not stored in tiles
+     */
+    public PottsArray(int length, int width, int height, int tileSize) {
+        this.length = length;
+        this.width = width;
+        this.height = height;
+        this.tileSize = tileSize;
+
+        if (tileSize > 0) {
+            span = tileSize + 2;
+            tilesX = (length + tileSize - 1) / tileSize;
+            tilesY = (width + tileSize - 1) / tileSize;
+            tilesZ = (height + tileSize - 1) / tileSize;
+            tiles = new int[tilesX * tilesY * tilesZ][];
+            empty = new int[span * span * span];
+            counts = new int[tiles.length];
+            pool = new ArrayList<>();
+            values = null;
+            strideX = span;
+            strideZ = span * span;
+        } else {
+            span = 0;
+            tilesX = 0;
+            tilesY = 0;
+            tilesZ = 0;
+            tiles = null;
+            empty = null;
+            counts = null;
+            pool = null;
+            values = new int[length * width * height];
+            strideX = width;
+            strideZ = length * width;
+        }
+
+        neighbors = new int[NUMBER_NEIGHBORS];
+        for (int i = 0; i < NUMBER_NEIGHBORS; i++) {
+            neighbors[i] = getOffset(MOVES_X[i], MOVES_Y[i], MOVES_Z[i]);
+        }
+
+        neighborhood = new int[NEIGHBORHOOD_SIZE];
+        int n = 0;
+        for (int k = -1; k <= 1; k++) {
+            for (int i = -1; i <= 1; i++) {
+                for (int j = -1; j <= 1; j++) {
+                    neighborhood[n++] = getOffset(i, j, k);
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a {@code PottsArray} with values copied from the given nested array.
+     *
+     * @param array the nested array of values in (z, x, y) order
+     */
+    public PottsArray(int[][][] array) {
+        this(
+                array.length == 0 ? 0 : array[0].length,
+                array.length == 0 || array[0].length == 0 ? 0 : array[0][0].length,
+                array.length);
+
+        for (int k = 0; k < height; k++) {
+            for (int i = 0; i < length; i++) {
+                System.arraycopy(array[k][i], 0, values, index(i, 0, k), width);
+            }
+        }
+    }
+
+    /**
+     * Gets the index of the given voxel.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @return the index in the array of values
+     */
+    public int index(int x, int y, int z) {
+        return (z * length + x) * width + y;
+    }
+
+    /**
+     * Gets the array of values containing the neighborhood of the given voxel.
+     *
+     * <p>The returned array is only read. Values are written using {@link #set} or {@link #write}.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @return the array of values, or tile of values for tiled arrays
+     */
+    public int[] getValues(int x, int y, int z) {
+        if (tiles == null) {
+            return values;
+        }
+
+        int[] tile = tiles[getTile(x / tileSize, y / tileSize, z / tileSize)];
+        return (tile == null ? empty : tile);
+    }
+
+    /**
+     * Gets the index of the given voxel in the array returned by {@link #getValues}.
+     *
+     * <p>Tiled arrays with the same tile size share indices, as do dense arrays with the same size.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @return the index in the array of values, or tile of values for tiled arrays
+     */
+    public int getIndex(int x, int y, int z) {
+        if (tiles == null) {
+            return index(x, y, z);
+        }
+
+        return ((z % tileSize + 1) * span + x % tileSize + 1) * span + y % tileSize + 1;
+    }
+
+    /**
+     * Gets the position of the given tile.
+     *
+     * @param i the tile x coordinate
+     * @param j the tile y coordinate
+     * @param k the tile z coordinate
+     * @return the position in the array of tiles
+     */
+    private int getTile(int i, int j, int k) {
+        return (k * tilesX + i) * tilesY + j;
+    }
+
+    /**
+     * Gets the index offset for the given displacement.
+     *
+     * @param dx the displacement in the x direction
+     * @param dy the displacement in the y direction
+     * @param dz the displacement in the z direction
+     * @return the offset in the array of values, or tile of values for tiled arrays
+     */
+    public int getOffset(int dx, int dy, int dz) {
+        return dz * strideZ + dx * strideX + dy;
+    }
+
+    /**
+     * Gets the value at the given voxel.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @return the value
+     */
+    public int get(int x, int y, int z) {
+        return getValues(x, y, z)[getIndex(x, y, z)];
+    }
+
+    /**
+     * Sets the value at the given voxel.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @param value the value
+     */
+    public void set(int x, int y, int z, int value) {
+        write(x, y, z, value);
+
+        if (changes != null) {
+            int index = index(x, y, z);
+            if (numberChanges >= 0 && numberChanges < changes.length) {
+                changes[numberChanges++] = index;
+            } else {
+                numberChanges = -1;
+            }
+        }
+    }
+
+    /**
+     * Sets the value at the given voxel, if different from the current value.
+     *
+     * <p>Voxels that already have the value are not written or logged as changed.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @param value the value
+     * @return {@code true} if the value was changed, {@code false} otherwise
+     */
+    public boolean update(int x, int y, int z, int value) {
+        if (get(x, y, z) == value) {
+            return false;
+        }
+
+        set(x, y, z, value);
+        return true;
+    }
+
+    /**
+     * Writes the value at the given voxel without logging the change.
+     *
+     * <p>For tiled arrays, the value is written to the tile containing the voxel and to the halo of
+     * each adjacent tile. Tiles that have not been created are only created for non-zero values,
+     * and tiles are dropped once the tile and its halo are all zero.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @param value the value
+     */
+    public void write(int x, int y, int z, int value) {
+        if (tiles == null) {
+            values[index(x, y, z)] = value;
+            return;
+        }
+
+        int ti = x / tileSize;
+        int tj = y / tileSize;
+        int tk = z / tileSize;
+        int last = tileSize - 1;
+
+        int kStart = Math.max(z % tileSize == 0 ? tk - 1 : tk, 0);
+        int kEnd = Math.min(z % tileSize == last ? tk + 1 : tk, tilesZ - 1);
+        int iStart = Math.max(x % tileSize == 0 ? ti - 1 : ti, 0);
+        int iEnd = Math.min(x % tileSize == last ? ti + 1 : ti, tilesX - 1);
+        int jStart = Math.max(y % tileSize == 0 ? tj - 1 : tj, 0);
+        int jEnd = Math.min(y % tileSize == last ? tj + 1 : tj, tilesY - 1);
+
+        for (int k = kStart; k <= kEnd; k++) {
+            for (int i = iStart; i <= iEnd; i++) {
+                for (int j = jStart; j <= jEnd; j++) {
+                    int position = getTile(i, j, k);
+                    int[] tile = tiles[position];
+
+                    if (tile == null) {
+                        if (value == 0) {
+                            continue;
+                        }
+
+                        int top = pool.size() - 1;
+                        tile = (top < 0 ? new int[span * span * span] : pool.remove(top));
+                        tiles[position] = tile;
+                    }
+
+                    int dx = x - i * tileSize + 1;
+                    int dy = y - j * tileSize + 1;
+                    int dz = z - k * tileSize + 1;
+                    int index = (dz * span + dx) * span + dy;
+                    int previous = tile[index];
+                    tile[index] = value;
+
+                    if (previous == 0 && value != 0) {
+                        counts[position]++;
+                    } else if (previous != 0 && value == 0 && --counts[position] == 0) {
+                        tiles[position] = null;
+                        pool.add(tile);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the number of tiles that have been created.
+     *
+     * @return the number of created tiles, 0 if values are not stored in tiles
+     */
+    public int getNumberTiles() {
+        int count = 0;
+        if (tiles != null) {
+            for (int[] tile : tiles) {
+                if (tile != null) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Starts tracking indices of values changed using {@link #set(int, int, int, int)}.
+     *
+     * <p>Values changed using {@link #write(int, int, int, int)} are not tracked.
+     *
+     * @param capacity the maximum number of logged changes
+     */
+    public void trackChanges(int capacity) {
+        changes = new int[capacity];
+        numberChanges = 0;
+    }
+
+    /**
+     * Gets the number of logged changes.
+     *
+     * @return the number of logged changes, -1 if more changes were made than can be logged
+     */
+    public int getNumberChanges() {
+        return numberChanges;
+    }
+
+    /**
+     * Gets the index of the logged change.
+     *
+     * @param i the position in the log
+     * @return the index of the changed value
+     */
+    public int getChange(int i) {
+        return changes[i];
+    }
+
+    /** Clears logged changes. */
+    public void clearChanges() {
+        numberChanges = 0;
+    }
+
+    /**
+     * Copies the values into a nested array.
+     *
+     * @return the nested array of values in (z, x, y) order
+     */
+    public int[][][] toArray() {
+        int[][][] array = new int[height][length][width];
+        for (int k = 0; k < height; k++) {
+            for (int i = 0; i < length; i++) {
+                if (tiles == null) {
+                    System.arraycopy(values, index(i, 0, k), array[k][i], 0, width);
+                } else {
+                    for (int j = 0; j < width; j++) {
+                        array[k][i][j] = get(i, j, k);
+                    }
+                }
+            }
+        }
+        return array;
+    }
+}
@@ -1,27 +1,38 @@
 package arcade.potts.env.grid;
 
-import java.util.HashMap;
 import sim.util.Bag;
 import arcade.core.agent.cell.Cell;
 import arcade.core.env.grid.Grid;
 import arcade.core.env.location.Location;
+import arcade.potts.util.Registry;
 
 /**
  * Implementation of {@link Grid} for potts models.
  *
  * <p>{@code PottsGrid} uses the cell id as the index to map to agents. Index 0 is reserved for a
- * {@code null} object representing non-cell voxels in the potts layer.
+ * {@code null} object representing non-cell voxels in the potts layer. Objects are stored in a
+ * slot of a dense registry indexed by id, such that objects are accessed directly without boxing
+ * the id. The registry may be shared with the potts model and Hamiltonian terms.
  */
 public final class PottsGrid implements Grid {
-    /** Map of ID to object. */
-    final HashMap<Integer, Object> objects;
+    /** Registry of ID to object. */
+    final Registry.Slot<Object> objects;
 
     /** Collection of all objects in the grid. */
     final Bag allObjects;
 
     /** Creates a {@link arcade.core.env.grid.Grid} for potts. */
     public PottsGrid() {
-        objects = new HashMap<>();
+        this(new Registry());
+    }
+
+    /**
+     * Creates a {@link arcade.core.env.grid.Grid} for potts in a shared registry.
+     *
+     * @param registry the shared registry of cell records
+     */
+    public PottsGrid(Registry registry) {
+        objects = registry.addSlot();
         allObjects = new Bag();
         objects.put(0, null);
     }
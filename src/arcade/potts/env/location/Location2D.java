@@ -2,6 +2,7 @@ package arcade.potts.env.location;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import static arcade.potts.sim.Potts2D.*;
 import static arcade.potts.util.PottsEnums.Direction;
 
@@ -30,6 +31,12 @@ public interface Location2D {
                 Direction.NEGATIVE_XY,
             };
 
+    /** Steps in x direction along the line for each direction, indexed by ordinal. */
+    int[] LINE_X = {0, 1, 0, 0, 1, 1};
+
+    /** Steps in y direction along the line for each direction, indexed by ordinal. */
+    int[] LINE_Y = {0, 0, 1, 0, 1, -1};
+
     /**
      * Calculate correction factor for surface area conversion.
      *
@@ -41,18 +48,20 @@ public interface Location2D {
     }
 
     /**
-     * Gets list of neighbors of a given voxel.
+     * Gets neighbors of a given voxel as packed coordinates.
      *
-     * @param focus the focus voxel
-     * @return the list of neighbor voxels
+     * @param key the packed coordinates of the focus voxel
+     * @param neighbors the array filled with the packed coordinates of the neighbors
+     * @return the number of neighbors
      */
-    static ArrayList<Voxel> getNeighbors(Voxel focus) {
-        ArrayList<Voxel> neighbors = new ArrayList<>();
+    static int getNeighbors(long key, long[] neighbors) {
+        int x = Voxel.getX(key);
+        int y = Voxel.getY(key);
+        int z = Voxel.getZ(key);
         for (int i = 0; i < NUMBER_NEIGHBORS; i++) {
-            Voxel v = new Voxel(focus.x + MOVES_X[i], focus.y + MOVES_Y[i], focus.z);
-            neighbors.add(v);
+            neighbors[i] = Voxel.pack(x + MOVES_X[i], y + MOVES_Y[i], z);
         }
-        return neighbors;
+        return NUMBER_NEIGHBORS;
     }
 
     /**
@@ -74,13 +83,12 @@ public interface Location2D {
      * @param voxels the list of voxels
      * @return the surface
      */
-    static int calculateSurface(ArrayList<Voxel> voxels) {
+    static int calculateSurface(List<Voxel> voxels) {
         int surface = 0;
 
         for (Voxel v : voxels) {
             for (int i = 0; i < NUMBER_NEIGHBORS; i++) {
-                Voxel voxel = new Voxel(v.x + MOVES_X[i], v.y + MOVES_Y[i], v.z);
-                if (!voxels.contains(voxel)) {
+                if (!VoxelList.contains(voxels, v.x + MOVES_X[i], v.y + MOVES_Y[i], v.z)) {
                     surface++;
                 }
             }
@@ -98,7 +106,7 @@ public interface Location2D {
      * @param voxels the list of voxels
      * @return the height
      */
-    static int calculateHeight(ArrayList<Voxel> voxels) {
+    static int calculateHeight(List<Voxel> voxels) {
         return (voxels.size() > 0 ? 1 : 0);
     }
 
@@ -106,15 +114,16 @@ public interface Location2D {
      * Calculates the local change in surface of the location.
      *
      * @param voxels the list of voxels
-     * @param voxel the voxel the update is centered in
+     * @param x the x coordinate of the voxel the update is centered in
+     * @param y the y coordinate of the voxel the update is centered in
+     * @param z the z coordinate of the voxel the update is centered in
      * @return the change in surface
      */
-    static int updateSurface(ArrayList<Voxel> voxels, Voxel voxel) {
+    static int updateSurface(List<Voxel> voxels, int x, int y, int z) {
         int change = 0;
 
         for (int i = 0; i < NUMBER_NEIGHBORS; i++) {
-            Voxel v = new Voxel(voxel.x + MOVES_X[i], voxel.y + MOVES_Y[i], voxel.z);
-            if (!voxels.contains(v)) {
+            if (!VoxelList.contains(voxels, x + MOVES_X[i], y + MOVES_Y[i], z)) {
                 change++;
             } else {
                 change--;
@@ -128,12 +137,14 @@ public interface Location2D {
      * Calculates the local change in height of the location.
      *
      * @param voxels the list of voxels
-     * @param voxel the voxel the update is centered in
+     * @param x the x coordinate of the voxel the update is centered in
+     * @param y the y coordinate of the voxel the update is centered in
+     * @param z the z coordinate of the voxel the update is centered in
      * @return the change in height
      */
-    static int updateHeight(ArrayList<Voxel> voxels, Voxel voxel) {
+    static int updateHeight(List<Voxel> voxels, int x, int y, int z) {
         boolean addToEmpty = voxels.size() == 0;
-        boolean removeToEmpty = voxels.size() == 1 && voxels.contains(voxel);
+        boolean removeToEmpty = voxels.size() == 1 && VoxelList.contains(voxels, x, y, z);
         return (addToEmpty || removeToEmpty ? 1 : 0);
     }
 
@@ -144,7 +155,15 @@ public interface Location2D {
      * @param focus the focus voxel
      * @return the map of direction to diameter
      */
-    static HashMap<Direction, Integer> getDiameters(ArrayList<Voxel> voxels, Voxel focus) {
+    static HashMap<Direction, Integer> getDiameters(List<Voxel> voxels, Voxel focus) {
+        if (voxels instanceof VoxelList && voxels.size() > 0) {
+            VoxelList list = (VoxelList) voxels;
+            VoxelList.Range range = list.getRangeZ();
+            if (range.getMin() == range.getMax()) {
+                return getDiameters(list, focus.x, focus.y, range.getMin());
+            }
+        }
+
         HashMap<Direction, Integer> minValueMap = new HashMap<>();
         HashMap<Direction, Integer> maxValueMap = new HashMap<>();
         HashMap<Direction, Boolean> existsMap = new HashMap<>();
@@ -216,6 +235,26 @@ public interface Location2D {
         return diameterMap;
     }
 
+    /**
+     * Calculates diameters in each direction by checking voxels along each line.
+     *
+     * @param voxels the list of voxels in a single layer
+     * @param x the x coordinate of the focus
+     * @param y the y coordinate of the focus
+     * @param z the z coordinate of the layer
+     * @return the map of direction to diameter
+     */
+    static HashMap<Direction, Integer> getDiameters(VoxelList voxels, int x, int y, int z) {
+        HashMap<Direction, Integer> diameterMap = new HashMap<>();
+
+        for (Direction direction : DIRECTIONS) {
+            int i = direction.ordinal();
+            diameterMap.put(direction, voxels.getDiameter(x, y, z, LINE_X[i], LINE_Y[i], 0));
+        }
+
+        return diameterMap;
+    }
+
     /**
      * Selects the slice direction for a given minimum diameter direction.
      *
@@ -246,7 +285,7 @@ public interface Location2D {
      * @param n the number of voxels to select
      * @return the list of selected voxels
      */
-    static ArrayList<Voxel> getSelected(ArrayList<Voxel> voxels, Voxel focus, double n) {
+    static ArrayList<Voxel> getSelected(List<Voxel> voxels, Voxel focus, double n) {
         ArrayList<Voxel> selected = new ArrayList<>();
         double r = Math.sqrt(n / Math.PI);
 
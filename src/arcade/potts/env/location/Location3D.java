@@ -2,6 +2,7 @@ package arcade.potts.env.location;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.OptionalInt;
 import static arcade.potts.sim.Potts3D.*;
 import static arcade.potts.util.PottsEnums.Direction;
@@ -36,6 +37,15 @@ public interface Location3D {
                 Direction.NEGATIVE_ZX,
             };
 
+    /** Steps in x direction along the line for each direction, indexed by ordinal. */
+    int[] LINE_X = {0, 1, 0, 0, 1, 1, 0, 0, 1, -1};
+
+    /** Steps in y direction along the line for each direction, indexed by ordinal. */
+    int[] LINE_Y = {0, 0, 1, 0, 1, -1, 1, 1, 0, 0};
+
+    /** Steps in z direction along the line for each direction, indexed by ordinal. */
+    int[] LINE_Z = {0, 0, 0, 1, 0, 0, 1, -1, 1, 1};
+
     /**
      * Calculate correction factor for surface area conversion.
      *
@@ -49,18 +59,20 @@ public interface Location3D {
     }
 
     /**
-     * Gets list of neighbors of a given voxel.
+     * Gets neighbors of a given voxel as packed coordinates.
      *
-     * @param focus the focus voxel
-     * @return the list of neighbor voxels
+     * @param key the packed coordinates of the focus voxel
+     * @param neighbors the array filled with the packed coordinates of the neighbors
+     * @return the number of neighbors
      */
-    static ArrayList<Voxel> getNeighbors(Voxel focus) {
-        ArrayList<Voxel> neighbors = new ArrayList<>();
+    static int getNeighbors(long key, long[] neighbors) {
+        int x = Voxel.getX(key);
+        int y = Voxel.getY(key);
+        int z = Voxel.getZ(key);
         for (int i = 0; i < NUMBER_NEIGHBORS; i++) {
-            Voxel v = new Voxel(focus.x + MOVES_X[i], focus.y + MOVES_Y[i], focus.z + MOVES_Z[i]);
-            neighbors.add(v);
+            neighbors[i] = Voxel.pack(x + MOVES_X[i], y + MOVES_Y[i], z + MOVES_Z[i]);
         }
-        return neighbors;
+        return NUMBER_NEIGHBORS;
     }
 
     /**
@@ -82,13 +94,15 @@ public interface Location3D {
      * @param voxels the list of voxels
      * @return the surface
      */
-    static int calculateSurface(ArrayList<Voxel> voxels) {
+    static int calculateSurface(List<Voxel> voxels) {
         int surface = 0;
 
         for (Voxel v : voxels) {
             for (int i = 0; i < NUMBER_NEIGHBORS; i++) {
-                Voxel voxel = new Voxel(v.x + MOVES_X[i], v.y + MOVES_Y[i], v.z + MOVES_Z[i]);
-                if (!voxels.contains(voxel)) {
+                int x = v.x + MOVES_X[i];
+                int y = v.y + MOVES_Y[i];
+                int z = v.z + MOVES_Z[i];
+                if (!VoxelList.contains(voxels, x, y, z)) {
                     surface++;
                 }
             }
@@ -103,10 +117,14 @@ public interface Location3D {
      * @param voxels the list of voxels
      * @return the height
      */
-    static int calculateHeight(ArrayList<Voxel> voxels) {
+    static int calculateHeight(List<Voxel> voxels) {
         if (voxels.size() == 0) {
             return 0;
         }
+        if (voxels instanceof VoxelList) {
+            VoxelList.Range range = ((VoxelList) voxels).getRangeZ();
+            return range.getMax() - range.getMin() + 1;
+        }
         OptionalInt max = voxels.stream().mapToInt(voxel -> voxel.z).max();
         OptionalInt min = voxels.stream().mapToInt(voxel -> voxel.z).min();
         return max.getAsInt() - min.getAsInt() + 1;
@@ -116,15 +134,16 @@ public interface Location3D {
      * Calculates the local change in surface of the location.
      *
      * @param voxels the list of voxels
-     * @param voxel the voxel the update is centered in
+     * @param x the x coordinate of the voxel the update is centered in
+     * @param y the y coordinate of the voxel the update is centered in
+     * @param z the z coordinate of the voxel the update is centered in
      * @return the change in surface
      */
-    static int updateSurface(ArrayList<Voxel> voxels, Voxel voxel) {
+    static int updateSurface(List<Voxel> voxels, int x, int y, int z) {
         int change = 0;
 
         for (int i = 0; i < NUMBER_NEIGHBORS; i++) {
-            Voxel v = new Voxel(voxel.x + MOVES_X[i], voxel.y + MOVES_Y[i], voxel.z + MOVES_Z[i]);
-            if (!voxels.contains(v)) {
+            if (!VoxelList.contains(voxels, x + MOVES_X[i], y + MOVES_Y[i], z + MOVES_Z[i])) {
                 change++;
             } else {
                 change--;
@@ -138,25 +157,38 @@ public interface Location3D {
      * Calculates the local change in height of the location.
      *
      * @param voxels the list of voxels
-     * @param voxel the voxel the update is centered in
+     * @param x the x coordinate of the voxel the update is centered in
+     * @param y the y coordinate of the voxel the update is centered in
+     * @param z the z coordinate of the voxel the update is centered in
      * @return the change in height
      */
-    static int updateHeight(ArrayList<Voxel> voxels, Voxel voxel) {
+    static int updateHeight(List<Voxel> voxels, int x, int y, int z) {
         if (voxels.size() == 0) {
             return 1;
         }
-        if (voxels.size() == 1 && voxels.contains(voxel)) {
+        boolean contains = VoxelList.contains(voxels, x, y, z);
+        if (voxels.size() == 1 && contains) {
             return 1;
         }
 
-        OptionalInt max = voxels.stream().filter(v -> !v.equals(voxel)).mapToInt(v -> v.z).max();
-        OptionalInt min = voxels.stream().filter(v -> !v.equals(voxel)).mapToInt(v -> v.z).min();
+        int max;
+        int min;
+
+        if (voxels instanceof VoxelList) {
+            VoxelList.Range range = ((VoxelList) voxels).getRangeZ();
+            max = (contains ? range.getMaxWithout(z) : range.getMax());
+            min = (contains ? range.getMinWithout(z) : range.getMin());
+        } else {
+            Voxel voxel = new Voxel(x, y, z);
+            max = voxels.stream().filter(v -> !v.equals(voxel)).mapToInt(v -> v.z).max().getAsInt();
+            min = voxels.stream().filter(v -> !v.equals(voxel)).mapToInt(v -> v.z).min().getAsInt();
+        }
 
-        if (voxel.z > max.getAsInt()) {
-            return voxel.z - max.getAsInt();
+        if (z > max) {
+            return z - max;
         }
-        if (voxel.z < min.getAsInt()) {
-            return min.getAsInt() - voxel.z;
+        if (z < min) {
+            return min - z;
         }
 
         return 0;
@@ -169,7 +201,11 @@ public interface Location3D {
      * @param focus the focus voxel
      * @return the map of direction to diameter
      */
-    static HashMap<Direction, Integer> getDiameters(ArrayList<Voxel> voxels, Voxel focus) {
+    static HashMap<Direction, Integer> getDiameters(List<Voxel> voxels, Voxel focus) {
+        if (voxels instanceof VoxelList && voxels.size() > 0) {
+            return getDiameters((VoxelList) voxels, focus.x, focus.y, focus.z);
+        }
+
         HashMap<Direction, Integer> minValueMap = new HashMap<>();
         HashMap<Direction, Integer> maxValueMap = new HashMap<>();
         HashMap<Direction, Boolean> existsMap = new HashMap<>();
@@ -257,6 +293,27 @@ public interface Location3D {
         return diameterMap;
     }
 
+    /**
+     * Calculates diameters in each direction by checking voxels along each line.
+     *
+     * @param voxels the list of voxels
+     * @param x the x coordinate of the focus
+     * @param y the y coordinate of the focus
+     * @param z the z coordinate of the focus
+     * @return the map of direction to diameter
+     */
+    static HashMap<Direction, Integer> getDiameters(VoxelList voxels, int x, int y, int z) {
+        HashMap<Direction, Integer> diameterMap = new HashMap<>();
+
+        for (Direction direction : DIRECTIONS) {
+            int i = direction.ordinal();
+            int diameter = voxels.getDiameter(x, y, z, LINE_X[i], LINE_Y[i], LINE_Z[i]);
+            diameterMap.put(direction, diameter);
+        }
+
+        return diameterMap;
+    }
+
     /**
      * Selects the slice direction for a given minimum diameter direction.
      *
@@ -321,7 +378,7 @@ public interface Location3D {
      * @param n the number of voxels to select
      * @return the list of selected voxels
      */
-    static ArrayList<Voxel> getSelected(ArrayList<Voxel> voxels, Voxel focus, double n) {
+    static ArrayList<Voxel> getSelected(List<Voxel> voxels, Voxel focus, double n) {
         ArrayList<Voxel> selected = new ArrayList<>();
         double h = calculateHeight(voxels);
         double r = Math.sqrt(n / h / Math.PI);
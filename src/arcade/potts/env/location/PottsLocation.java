@@ -1,15 +1,18 @@
 package arcade.potts.env.location;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.HashMap;
-import java.util.LinkedHashSet;
+import java.util.HashSet;
+import java.util.List;
 import sim.util.Double3D;
 import ec.util.MersenneTwisterFast;
 import arcade.core.env.location.Location;
 import arcade.core.env.location.LocationContainer;
 import arcade.core.util.Plane;
 import arcade.core.util.Utilities;
+import arcade.potts.env.grid.PottsArray;
 import static arcade.potts.util.PottsEnums.Direction;
 import static arcade.potts.util.PottsEnums.Region;
 
@@ -37,6 +40,15 @@ public abstract class PottsLocation implements Location {
     /** Relative difference between split voxel numbers. */
     private static final double BALANCE_DIFFERENCE = 0.05;
 
+    /** Grid value for voxels in the first half of a split. */
+    private static final int SPLIT_A = 1;
+
+    /** Grid value for voxels in the second half of a split. */
+    private static final int SPLIT_B = 2;
+
+    /** Maximum number of neighbors of a voxel. */
+    static final int MAX_NEIGHBORS = 6;
+
     /** Relative padding for selecting maximum diameter. */
     private static final double DIAMETER_RATIO = 0.9;
 
@@ -44,7 +56,7 @@ public abstract class PottsLocation implements Location {
     private static final double DEFAULT_SPLIT_SELECTION_PROBABILITY = 0.5;
 
     /** List of voxels for the location. */
-    final ArrayList<Voxel> voxels;
+    final VoxelList voxels;
 
     /** Location volume. */
     int volume;
@@ -64,13 +76,22 @@ public abstract class PottsLocation implements Location {
     /** Z position of center. */
     double cz;
 
+    /** Sum of x positions of voxels. */
+    long sumX;
+
+    /** Sum of y positions of voxels. */
+    long sumY;
+
+    /** Sum of z positions of voxels. */
+    long sumZ;
+
     /**
      * Creates a {@code PottsLocation} for a list of voxels.
      *
      * @param voxels the list of voxels
      */
     public PottsLocation(ArrayList<Voxel> voxels) {
-        this.voxels = new ArrayList<>(voxels);
+        this.voxels = new VoxelList(voxels);
         setAttributes();
     }
 
@@ -163,12 +184,10 @@ public abstract class PottsLocation implements Location {
      * @param z the z coordinate
      */
     public void add(int x, int y, int z) {
-        Voxel voxel = new Voxel(x, y, z);
-        if (!voxels.contains(voxel)) {
-            voxels.add(voxel);
+        if (voxels.add(x, y, z)) {
             volume++;
-            surface += updateSurface(voxel);
-            height += updateHeight(voxel);
+            surface += updateSurface(x, y, z);
+            height += updateHeight(x, y, z);
             updateCenter(x, y, z, 1);
         }
     }
@@ -193,12 +212,10 @@ public abstract class PottsLocation implements Location {
      * @param z the z coordinate
      */
     public void remove(int x, int y, int z) {
-        Voxel voxel = new Voxel(x, y, z);
-        if (voxels.contains(voxel)) {
-            voxels.remove(voxel);
+        if (voxels.remove(x, y, z)) {
             volume--;
-            surface -= updateSurface(voxel);
-            height -= updateHeight(voxel);
+            surface -= updateSurface(x, y, z);
+            height -= updateHeight(x, y, z);
             updateCenter(x, y, z, -1);
         }
     }
@@ -268,20 +285,29 @@ public abstract class PottsLocation implements Location {
      * @param ids the potts array for ids
      * @param regions the potts array for regions
      */
-    public void clear(int[][][] ids, int[][][] regions) {
-        voxels.forEach(voxel -> ids[voxel.z][voxel.x][voxel.y] = 0);
+    public void clear(PottsArray ids, PottsArray regions) {
+        for (int i = 0; i < voxels.size(); i++) {
+            long key = voxels.getKey(i);
+            ids.set(Voxel.getX(key), Voxel.getY(key), Voxel.getZ(key), 0);
+        }
         voxels.clear();
     }
 
     /**
      * Updates the array for the location.
      *
+     * <p>Only voxels that do not already have the location id are written, so updating a location
+     * after it is split only changes the voxels that moved to a different location.
+     *
      * @param id the location id
      * @param ids the potts array for ids
      * @param regions the potts array for regions
      */
-    public void update(int id, int[][][] ids, int[][][] regions) {
-        voxels.forEach(voxel -> ids[voxel.z][voxel.x][voxel.y] = id);
+    public void update(int id, PottsArray ids, PottsArray regions) {
+        for (int i = 0; i < voxels.size(); i++) {
+            long key = voxels.getKey(i);
+            ids.update(Voxel.getX(key), Voxel.getY(key), Voxel.getZ(key), id);
+        }
     }
 
     /**
@@ -453,12 +479,12 @@ public abstract class PottsLocation implements Location {
             offsets.add(0);
         }
 
-        int minX = voxels.stream().mapToInt(voxel -> voxel.x).min().getAsInt();
-        int maxX = voxels.stream().mapToInt(voxel -> voxel.x).max().getAsInt();
-        int minY = voxels.stream().mapToInt(voxel -> voxel.y).min().getAsInt();
-        int maxY = voxels.stream().mapToInt(voxel -> voxel.y).max().getAsInt();
-        int minZ = voxels.stream().mapToInt(voxel -> voxel.z).min().getAsInt();
-        int maxZ = voxels.stream().mapToInt(voxel -> voxel.z).max().getAsInt();
+        int minX = voxels.getRangeX().getMin();
+        int maxX = voxels.getRangeX().getMax();
+        int minY = voxels.getRangeY().getMin();
+        int maxY = voxels.getRangeY().getMax();
+        int minZ = voxels.getRangeZ().getMin();
+        int maxZ = voxels.getRangeZ().getMax();
 
         int offsetX = (int) Math.round(minX + (maxX - minX) * (offsets.get(0) / 100.0));
         int offsetY = (int) Math.round(minY + (maxY - minY) * (offsets.get(1) / 100.0));
@@ -492,36 +518,77 @@ public abstract class PottsLocation implements Location {
         return getCentroid();
     }
 
+    /**
+     * Copies the centroid of the location into the given array.
+     *
+     * <p>The centroid is maintained as the location changes, so copying the centroid does not
+     * allocate a new array.
+     *
+     * @param centroid the array for the location centroid
+     */
+    public void copyCentroid(double[] centroid) {
+        centroid[0] = cx;
+        centroid[1] = cy;
+        centroid[2] = cz;
+    }
+
+    /**
+     * Copies the centroid of the location for the region into the given array.
+     *
+     * @param region the voxel region
+     * @param centroid the array for the location centroid
+     */
+    public void copyCentroid(Region region, double[] centroid) {
+        copyCentroid(centroid);
+    }
+
     /** Calculates the exact center of the location. */
     void calculateCenter() {
+        sumX = 0;
+        sumY = 0;
+        sumZ = 0;
+
+        for (Voxel voxel : voxels) {
+            sumX += voxel.x;
+            sumY += voxel.y;
+            sumZ += voxel.z;
+        }
+
         if (voxels.size() == 0) {
             cx = 0;
             cy = 0;
-            cx = 0;
+            cz = 0;
         } else {
-            cx = voxels.stream().mapToDouble(voxel -> voxel.x).sum() / voxels.size();
-            cy = voxels.stream().mapToDouble(voxel -> voxel.y).sum() / voxels.size();
-            cz = voxels.stream().mapToDouble(voxel -> voxel.z).sum() / voxels.size();
+            cx = (double) sumX / voxels.size();
+            cy = (double) sumY / voxels.size();
+            cz = (double) sumZ / voxels.size();
         }
     }
 
     /**
      * Updates the centroid of the location.
      *
+     * <p>The centroid is calculated from the sums of voxel positions, which are updated exactly, so
+     * the centroid does not drift from the exact center as voxels are added and removed.
+     *
      * @param x the x position of the changed voxel
      * @param y the y position of the changed voxel
      * @param z the z position of the changed voxel
      * @param change the direction of change (add = +1, remove = -1)
      */
     void updateCenter(int x, int y, int z, int change) {
+        sumX += change * x;
+        sumY += change * y;
+        sumZ += change * z;
+
         if (voxels.size() == 0) {
             cx = 0;
             cy = 0;
             cz = 0;
         } else {
-            cx = (cx * (volume - change) + change * x) / volume;
-            cy = (cy * (volume - change) + change * y) / volume;
-            cz = (cz * (volume - change) + change * z) / volume;
+            cx = (double) sumX / volume;
+            cy = (double) sumY / volume;
+            cz = (double) sumZ / volume;
         }
     }
 
@@ -552,10 +619,12 @@ public abstract class PottsLocation implements Location {
     /**
      * Calculates the local change in surface of the location.
      *
-     * @param voxel the voxel the update is centered in
+     * @param x the x coordinate of the voxel the update is centered in
+     * @param y the y coordinate of the voxel the update is centered in
+     * @param z the z coordinate of the voxel the update is centered in
      * @return the change in surface
      */
-    abstract int updateSurface(Voxel voxel);
+    abstract int updateSurface(int x, int y, int z);
 
     /**
      * Calculates height of location.
@@ -567,18 +636,21 @@ public abstract class PottsLocation implements Location {
     /**
      * Calculates the local change in height of the location.
      *
-     * @param voxel the voxel the update is centered in
+     * @param x the x coordinate of the voxel the update is centered in
+     * @param y the y coordinate of the voxel the update is centered in
+     * @param z the z coordinate of the voxel the update is centered in
      * @return the change in height
      */
-    abstract int updateHeight(Voxel voxel);
+    abstract int updateHeight(int x, int y, int z);
 
     /**
-     * Gets list of neighbors of a given voxel.
+     * Gets neighbors of a given voxel as packed coordinates.
      *
-     * @param focus the focus voxel
-     * @return the list of neighbor voxels
+     * @param key the packed coordinates of the focus voxel
+     * @param neighbors the array filled with the packed coordinates of the neighbors
+     * @return the number of neighbors
      */
-    abstract ArrayList<Voxel> getNeighbors(Voxel focus);
+    abstract int getNeighbors(long key, long[] neighbors);
 
     /**
      * Calculates diameters in each direction.
@@ -642,7 +714,7 @@ public abstract class PottsLocation implements Location {
 
     @Override
     public LocationContainer convert(int id) {
-        return new PottsLocationContainer(id, getCenter(), voxels);
+        return new PottsLocationContainer(id, getCenter(), new ArrayList<>(voxels));
     }
 
     /**
@@ -696,7 +768,7 @@ public abstract class PottsLocation implements Location {
      */
     static void splitVoxels(
             Plane plane,
-            ArrayList<Voxel> voxels,
+            List<Voxel> voxels,
             ArrayList<Voxel> voxelsA,
             ArrayList<Voxel> voxelsB,
             MersenneTwisterFast random) {
@@ -766,6 +838,9 @@ public abstract class PottsLocation implements Location {
      * within the difference; in these cases, connectedness is prioritized and the splits are
      * returned not balanced.
      *
+     * <p>Membership of each voxel in the two splits is tracked on a grid over the bounding box of
+     * the splits, so finding the neighbors of the smaller split is linear in the number of voxels.
+     *
      * @param voxelsA the list for the first half of the split
      * @param voxelsB the list for the second half of the split
      * @param location the location instance
@@ -779,25 +854,38 @@ public abstract class PottsLocation implements Location {
         int nA = voxelsA.size();
         int nB = voxelsB.size();
 
+        VoxelGrid grid = new VoxelGrid(voxelsA, voxelsB);
+        grid.set(voxelsA, SPLIT_A);
+        grid.set(voxelsB, SPLIT_B);
+
+        long[] neighbors = new long[MAX_NEIGHBORS];
+
         while (Math.abs(nA - nB) > Math.ceil((nA + nB) * BALANCE_DIFFERENCE)) {
             ArrayList<Voxel> fromVoxels;
             ArrayList<Voxel> toVoxels;
+            int from;
+            int to;
 
             if (nA > nB) {
                 fromVoxels = voxelsA;
                 toVoxels = voxelsB;
+                from = SPLIT_A;
+                to = SPLIT_B;
             } else {
                 fromVoxels = voxelsB;
                 toVoxels = voxelsA;
+                from = SPLIT_B;
+                to = SPLIT_A;
             }
 
             // Get all valid neighbor voxels.
-            LinkedHashSet<Voxel> neighborSet = new LinkedHashSet<>();
+            VoxelList neighborSet = new VoxelList();
             for (Voxel voxel : toVoxels) {
-                ArrayList<Voxel> neighbors = location.getNeighbors(voxel);
-                for (Voxel neighbor : neighbors) {
-                    if (!toVoxels.contains(neighbor)) {
-                        neighborSet.add(neighbor);
+                int n = location.getNeighbors(Voxel.pack(voxel.x, voxel.y, voxel.z), neighbors);
+                for (int i = 0; i < n; i++) {
+                    long key = neighbors[i];
+                    if (grid.get(key) != to) {
+                        neighborSet.add(Voxel.getX(key), Voxel.getY(key), Voxel.getZ(key));
                     }
                 }
             }
@@ -814,7 +902,7 @@ public abstract class PottsLocation implements Location {
             boolean added = false;
             ArrayList<Voxel> invalidCoords = new ArrayList<>();
             for (Voxel voxel : neighborList) {
-                if (fromVoxels.contains(voxel)) {
+                if (grid.get(voxel) == from) {
                     toVoxels.add(voxel);
                     fromVoxels.remove(voxel);
 
@@ -822,11 +910,12 @@ public abstract class PottsLocation implements Location {
                     // to become unconnected.
                     ArrayList<Voxel> unconnected = checkVoxels(fromVoxels, location, random, false);
                     if (unconnected == null) {
+                        grid.set(voxel, to);
                         added = true;
                         break;
                     } else {
                         fromVoxels.add(voxel);
-                        toVoxels.remove(voxel);
+                        toVoxels.remove(toVoxels.size() - 1);
                         invalidCoords.add(voxel);
                     }
                 }
@@ -834,7 +923,7 @@ public abstract class PottsLocation implements Location {
 
             if (!added) {
                 toVoxels.addAll(invalidCoords);
-                fromVoxels.removeAll(invalidCoords);
+                fromVoxels.removeAll(new HashSet<>(invalidCoords));
                 connectVoxels(voxelsA, voxelsB, location, random);
                 break;
             }
@@ -853,6 +942,10 @@ public abstract class PottsLocation implements Location {
      *
      * <p>Some voxel lists may have more than one unconnected section.
      *
+     * <p>Unvisited voxels are marked on a grid over the bounding box of the list, so the search is
+     * linear in the number of voxels. The search visits neighbors as packed coordinates, so voxels
+     * are only created for the returned list. Voxels in the list are assumed to be unique.
+     *
      * @param voxels the list of voxels
      * @param location the location instance
      * @param random the seeded random number generator
@@ -868,54 +961,82 @@ public abstract class PottsLocation implements Location {
             return null;
         }
 
-        ArrayList<Voxel> unvisited = new ArrayList<>(voxels);
-        ArrayList<Voxel> visited = new ArrayList<>();
-        ArrayList<Voxel> nextList;
-        LinkedHashSet<Voxel> nextSet;
-        LinkedHashSet<Voxel> currSet = new LinkedHashSet<>();
+        // Mark all voxels as unvisited. Grid values track the last layer
+        // each unvisited voxel was added to, offset by one.
+        VoxelGrid grid = new VoxelGrid(voxels);
+        grid.set(voxels, 1);
+        int unvisited = voxels.size();
 
-        currSet.add(unvisited.get(random.nextInt(unvisited.size())));
-        int currSize = currSet.size();
+        long[] neighbors = new long[MAX_NEIGHBORS];
+        long[] visited = new long[voxels.size()];
+        long[] currList = new long[voxels.size()];
+        long[] nextList = new long[voxels.size()];
+        int visitedSize = 0;
+        int currSize = 0;
+        int layer = 1;
+
+        Voxel start = voxels.get(random.nextInt(voxels.size()));
+        currList[currSize++] = Voxel.pack(start.x, start.y, start.z);
 
         while (currSize > 0) {
-            nextSet = new LinkedHashSet<>();
+            int nextSize = 0;
+            layer++;
 
-            // Iterate through each coordinate in current coordinate set.
-            for (Voxel voxel : currSet) {
-                nextList = new ArrayList<>();
+            // Iterate through each coordinate in current coordinate list.
+            for (int c = 0; c < currSize; c++) {
+                long key = currList[c];
 
                 // Iterate through each connected direction from current voxel
-                // and add to neighbor list if it exists.
-                ArrayList<Voxel> neighbors = location.getNeighbors(voxel);
-                for (Voxel neighbor : neighbors) {
-                    if (unvisited.contains(neighbor)) {
-                        nextList.add(neighbor);
+                // and add to next list if it is unvisited and not yet added.
+                int n = location.getNeighbors(key, neighbors);
+                for (int i = 0; i < n; i++) {
+                    int value = grid.get(neighbors[i]);
+                    if (value > 0 && value != layer) {
+                        grid.set(neighbors[i], layer);
+                        nextList[nextSize++] = neighbors[i];
                     }
                 }
 
-                // Updated next voxel set with list of neighbors.
-                nextSet.addAll(nextList);
-                visited.add(voxel);
-                unvisited.remove(voxel);
+                if (visitedSize == visited.length) {
+                    visited = Arrays.copyOf(visited, 2 * visitedSize);
+                }
+                visited[visitedSize++] = key;
+
+                if (grid.get(key) > 0) {
+                    grid.set(key, 0);
+                    unvisited--;
+                }
             }
 
-            currSet = nextSet;
-            currSize = currSet.size();
+            long[] swap = currList;
+            currList = nextList;
+            nextList = swap;
+            currSize = nextSize;
         }
 
         // If not all coordinates have been visited, then the list of
         // coordinates is not connected.
-        if (unvisited.size() != 0) {
-            if (unvisited.size() > visited.size()) {
+        if (unvisited != 0) {
+            if (unvisited > visitedSize) {
                 if (update) {
-                    voxels.removeAll(visited);
+                    voxels.removeIf(voxel -> grid.get(voxel) == 0);
+                }
+                ArrayList<Voxel> connected = new ArrayList<>(visitedSize);
+                for (int i = 0; i < visitedSize; i++) {
+                    connected.add(Voxel.unpack(visited[i]));
                 }
-                return visited;
+                return connected;
             } else {
+                ArrayList<Voxel> unconnected = new ArrayList<>();
+                for (Voxel voxel : voxels) {
+                    if (grid.get(voxel) > 0) {
+                        unconnected.add(voxel);
+                    }
+                }
                 if (update) {
-                    voxels.removeAll(unvisited);
+                    voxels.removeIf(voxel -> grid.get(voxel) > 0);
                 }
-                return unvisited;
+                return unconnected;
             }
         } else {
             return null;
@@ -21,8 +21,8 @@ public final class PottsLocation3D extends PottsLocation implements Location3D {
     }
 
     @Override
-    ArrayList<Voxel> getNeighbors(Voxel focus) {
-        return Location3D.getNeighbors(focus);
+    int getNeighbors(long key, long[] neighbors) {
+        return Location3D.getNeighbors(key, neighbors);
     }
 
     @Override
@@ -41,13 +41,13 @@ public final class PottsLocation3D extends PottsLocation implements Location3D {
     }
 
     @Override
-    int updateSurface(Voxel voxel) {
-        return Location3D.updateSurface(voxels, voxel);
+    int updateSurface(int x, int y, int z) {
+        return Location3D.updateSurface(voxels, x, y, z);
     }
 
     @Override
-    int updateHeight(Voxel voxel) {
-        return Location3D.updateHeight(voxels, voxel);
+    int updateHeight(int x, int y, int z) {
+        return Location3D.updateHeight(voxels, x, y, z);
     }
 
     @Override
@@ -5,6 +5,7 @@ import java.util.Comparator;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import ec.util.MersenneTwisterFast;
 import arcade.core.env.location.*;
 import arcade.core.sim.Series;
@@ -249,7 +250,7 @@ public abstract class PottsLocationFactory implements LocationFactory {
      * @param random the seeded random number generator
      */
     static void increase(
-            ArrayList<Voxel> allVoxels,
+            List<Voxel> allVoxels,
             ArrayList<Voxel> voxels,
             int target,
             MersenneTwisterFast random) {
@@ -6,6 +6,7 @@ import java.util.EnumSet;
 import ec.util.MersenneTwisterFast;
 import arcade.core.env.location.Location;
 import arcade.core.env.location.LocationContainer;
+import arcade.potts.env.grid.PottsArray;
 import static arcade.potts.util.PottsEnums.Region;
 
 /**
@@ -78,10 +79,8 @@ public abstract class PottsLocations extends PottsLocation {
     public void add(Region region, int x, int y, int z) {
         super.add(x, y, z);
 
-        Voxel voxel = new Voxel(x, y, z);
-
         for (PottsLocation loc : locations.values()) {
-            if (loc.voxels.contains(voxel)) {
+            if (loc.voxels.contains(x, y, z)) {
                 return;
             }
         }
@@ -101,9 +100,7 @@ public abstract class PottsLocations extends PottsLocation {
 
     @Override
     public void remove(Region region, int x, int y, int z) {
-        Voxel voxel = new Voxel(x, y, z);
-
-        if (locations.containsKey(region) && !locations.get(region).voxels.contains(voxel)) {
+        if (locations.containsKey(region) && !locations.get(region).voxels.contains(x, y, z)) {
             return;
         }
 
@@ -137,14 +134,18 @@ public abstract class PottsLocations extends PottsLocation {
 
         locations.get(region).voxels.add(voxel);
         locations.get(region).volume++;
-        locations.get(region).surface += locations.get(region).updateSurface(voxel);
-        locations.get(region).height += locations.get(region).updateHeight(voxel);
+        locations.get(region).surface +=
+                locations.get(region).updateSurface(voxel.x, voxel.y, voxel.z);
+        locations.get(region).height +=
+                locations.get(region).updateHeight(voxel.x, voxel.y, voxel.z);
         locations.get(region).updateCenter(voxel.x, voxel.y, voxel.z, 1);
 
         locations.get(oldRegion).voxels.remove(voxel);
         locations.get(oldRegion).volume--;
-        locations.get(oldRegion).surface -= locations.get(oldRegion).updateSurface(voxel);
-        locations.get(oldRegion).height -= locations.get(oldRegion).updateHeight(voxel);
+        locations.get(oldRegion).surface -=
+                locations.get(oldRegion).updateSurface(voxel.x, voxel.y, voxel.z);
+        locations.get(oldRegion).height -=
+                locations.get(oldRegion).updateHeight(voxel.x, voxel.y, voxel.z);
         locations.get(oldRegion).updateCenter(voxel.x, voxel.y, voxel.z, -1);
     }
 
@@ -188,10 +189,14 @@ public abstract class PottsLocations extends PottsLocation {
     }
 
     @Override
-    public void clear(int[][][] ids, int[][][] regions) {
-        for (Voxel voxel : voxels) {
-            ids[voxel.z][voxel.x][voxel.y] = 0;
-            regions[voxel.z][voxel.x][voxel.y] = 0;
+    public void clear(PottsArray ids, PottsArray regions) {
+        for (int i = 0; i < voxels.size(); i++) {
+            long key = voxels.getKey(i);
+            int x = Voxel.getX(key);
+            int y = Voxel.getY(key);
+            int z = Voxel.getZ(key);
+            ids.set(x, y, z, 0);
+            regions.set(x, y, z, 0);
         }
 
         voxels.clear();
@@ -199,7 +204,7 @@ public abstract class PottsLocations extends PottsLocation {
     }
 
     @Override
-    public void update(int id, int[][][] ids, int[][][] regions) {
+    public void update(int id, PottsArray ids, PottsArray regions) {
         super.update(id, ids, regions);
 
         for (Region region : locations.keySet()) {
@@ -211,9 +216,9 @@ public abstract class PottsLocations extends PottsLocation {
     public LocationContainer convert(int id) {
         EnumMap<Region, ArrayList<Voxel>> regions = new EnumMap<>(Region.class);
         for (Region region : locations.keySet()) {
-            regions.put(region, locations.get(region).voxels);
+            regions.put(region, new ArrayList<>(locations.get(region).voxels));
         }
-        return new PottsLocationContainer(id, getCenter(), voxels, regions);
+        return new PottsLocationContainer(id, getCenter(), new ArrayList<>(voxels), regions);
     }
 
     @Override
@@ -221,6 +226,24 @@ public abstract class PottsLocations extends PottsLocation {
         return (locations.containsKey(region) ? locations.get(region).getCentroid() : null);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>If the region does not exist, the centroid is set to zero.
+     */
+    @Override
+    public void copyCentroid(Region region, double[] centroid) {
+        PottsLocation location = locations.get(region);
+
+        if (location == null) {
+            centroid[0] = 0;
+            centroid[1] = 0;
+            centroid[2] = 0;
+        } else {
+            location.copyCentroid(centroid);
+        }
+    }
+
     /**
      * Makes a new {@code PottsLocations} with the given voxels.
      *
@@ -244,6 +267,7 @@ public abstract class PottsLocations extends PottsLocation {
             ArrayList<Voxel> voxelsA, ArrayList<Voxel> voxelsB, MersenneTwisterFast random) {
         PottsLocations splitLocation = makeLocations(voxelsB);
         EnumMap<Region, Double> fractions = new EnumMap<>(Region.class);
+        VoxelList splitVoxels = new VoxelList(voxelsA);
         int total = voxels.size();
 
         // Update voxels in current location.
@@ -255,7 +279,7 @@ public abstract class PottsLocations extends PottsLocation {
             // because it is in the new split (B).
             ArrayList<Voxel> regionVoxels = new ArrayList<>(locations.get(region).voxels);
             for (Voxel voxel : regionVoxels) {
-                if (voxelsA.contains(voxel)) {
+                if (splitVoxels.contains(voxel)) {
                     assign(Region.DEFAULT, voxel);
                 } else {
                     remove(voxel.x, voxel.y, voxel.z);
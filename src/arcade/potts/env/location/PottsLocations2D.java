@@ -27,8 +27,8 @@ public final class PottsLocations2D extends PottsLocations implements Location2D
     }
 
     @Override
-    ArrayList<Voxel> getNeighbors(Voxel focus) {
-        return Location2D.getNeighbors(focus);
+    int getNeighbors(long key, long[] neighbors) {
+        return Location2D.getNeighbors(key, neighbors);
     }
 
     @Override
@@ -47,13 +47,13 @@ public final class PottsLocations2D extends PottsLocations implements Location2D
     }
 
     @Override
-    int updateSurface(Voxel voxel) {
-        return Location2D.updateSurface(voxels, voxel);
+    int updateSurface(int x, int y, int z) {
+        return Location2D.updateSurface(voxels, x, y, z);
     }
 
     @Override
-    int updateHeight(Voxel voxel) {
-        return Location2D.updateHeight(voxels, voxel);
+    int updateHeight(int x, int y, int z) {
+        return Location2D.updateHeight(voxels, x, y, z);
     }
 
     @Override
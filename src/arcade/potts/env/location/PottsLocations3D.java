@@ -27,8 +27,8 @@ public final class PottsLocations3D extends PottsLocations implements Location3D
     }
 
     @Override
-    ArrayList<Voxel> getNeighbors(Voxel focus) {
-        return Location3D.getNeighbors(focus);
+    int getNeighbors(long key, long[] neighbors) {
+        return Location3D.getNeighbors(key, neighbors);
     }
 
     @Override
@@ -47,13 +47,13 @@ public final class PottsLocations3D extends PottsLocations implements Location3D
     }
 
     @Override
-    int updateSurface(Voxel voxel) {
-        return Location3D.updateSurface(voxels, voxel);
+    int updateSurface(int x, int y, int z) {
+        return Location3D.updateSurface(voxels, x, y, z);
     }
 
     @Override
-    int updateHeight(Voxel voxel) {
-        return Location3D.updateHeight(voxels, voxel);
+    int updateHeight(int x, int y, int z) {
+        return Location3D.updateHeight(voxels, x, y, z);
     }
 
     @Override
@@ -7,6 +7,11 @@ import java.util.Comparator;
  *
  * <p>Each voxel is defined by (x, y, z) coordinates. Two voxels objects are considered equal if
  * they have matching (x, y, z) coordinates.
+ *
+ * <p>Within locations, voxels are stored as coordinates packed into a single {@code long}, with
+ * {@code BITS} bits for each coordinate. Packing is collision-free for coordinates within {@code
+ * [-2^20, 2^20)}, which covers all coordinates of the potts arrays. {@code Voxel} objects are
+ * created from packed coordinates when voxels are accessed through the location API.
  */
 public final class Voxel {
     /** Comparator for voxels. */
@@ -18,6 +23,15 @@ public final class Voxel {
                                     ? Integer.compare(v1.x, v2.x)
                                     : Integer.compare(v1.y, v2.y);
 
+    /** Number of bits for each packed coordinate. */
+    static final int BITS = 21;
+
+    /** Mask for each packed coordinate. */
+    static final long MASK = (1L << BITS) - 1;
+
+    /** Multiplier for mixing packed coordinates into hashes. */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
     /** Voxel x coordinate. */
     public final int x;
 
@@ -41,12 +55,64 @@ public final class Voxel {
     }
 
     /**
-     * Gets hash based on (x, y, z) coordinates.
+     * Packs coordinates into a single value.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @return the packed coordinates
+     */
+    static long pack(int x, int y, int z) {
+        return ((x & MASK) << (2 * BITS)) | ((y & MASK) << BITS) | (z & MASK);
+    }
+
+    /**
+     * Gets the x coordinate from packed coordinates.
+     *
+     * @param key the packed coordinates
+     * @return the x coordinate
+     */
+    static int getX(long key) {
+        return (int) ((key << (Long.SIZE - 3 * BITS)) >> (Long.SIZE - BITS));
+    }
+
+    /**
+     * Gets the y coordinate from packed coordinates.
+     *
+     * @param key the packed coordinates
+     * @return the y coordinate
+     */
+    static int getY(long key) {
+        return (int) ((key << (Long.SIZE - 2 * BITS)) >> (Long.SIZE - BITS));
+    }
+
+    /**
+     * Gets the z coordinate from packed coordinates.
+     *
+     * @param key the packed coordinates
+     * @return the z coordinate
+     */
+    static int getZ(long key) {
+        return (int) ((key << (Long.SIZE - BITS)) >> (Long.SIZE - BITS));
+    }
+
+    /**
+     * Creates a {@code Voxel} from packed coordinates.
+     *
+     * @param key the packed coordinates
+     * @return the voxel
+     */
+    static Voxel unpack(long key) {
+        return new Voxel(getX(key), getY(key), getZ(key));
+    }
+
+    /**
+     * Gets hash based on packed (x, y, z) coordinates.
      *
      * @return the hash
      */
     public int hashCode() {
-        return x + (y << 8) + (z << 16);
+        return Long.hashCode(pack(x, y, z) * GOLDEN_GAMMA);
     }
 
     /**
@@ -0,0 +1,161 @@
+package arcade.potts.env.location;
+
+import java.util.List;
+
+/**
+ * Dense grid of values over the bounding box of lists of voxels.
+ *
+ * <p>The grid is used in place of searching lists of voxels when splitting locations. Each voxel
+ * in the bounding box is mapped to an index in the {@code values} array, so checking or marking a
+ * voxel takes constant time. Voxels outside the bounding box have an index of -1 and a value of 0.
+ */
+final class VoxelGrid {
+    /** Lowest x coordinate in the grid. */
+    final int minX;
+
+    /** Lowest y coordinate in the grid. */
+    final int minY;
+
+    /** Lowest z coordinate in the grid. */
+    final int minZ;
+
+    /** Length (x direction) of the grid. */
+    final int length;
+
+    /** Width (y direction) of the grid. */
+    final int width;
+
+    /** Height (z direction) of the grid. */
+    final int height;
+
+    /** Values for each voxel in the grid. */
+    final int[] values;
+
+    /**
+     * Creates a {@code VoxelGrid} over the bounding box of the given lists of voxels.
+     *
+     * @param lists the lists of voxels
+     */
+    @SafeVarargs
+    VoxelGrid(List<Voxel>... lists) {
+        int x0 = Integer.MAX_VALUE;
+        int y0 = Integer.MAX_VALUE;
+        int z0 = Integer.MAX_VALUE;
+        int x1 = Integer.MIN_VALUE;
+        int y1 = Integer.MIN_VALUE;
+        int z1 = Integer.MIN_VALUE;
+
+        for (List<Voxel> voxels : lists) {
+            for (Voxel voxel : voxels) {
+                x0 = Math.min(x0, voxel.x);
+                y0 = Math.min(y0, voxel.y);
+                z0 = Math.min(z0, voxel.z);
+                x1 = Math.max(x1, voxel.x);
+                y1 = Math.max(y1, voxel.y);
+                z1 = Math.max(z1, voxel.z);
+            }
+        }
+
+        if (x0 > x1) {
+            minX = 0;
+            minY = 0;
+            minZ = 0;
+            length = 0;
+            width = 0;
+            height = 0;
+        } else {
+            minX = x0;
+            minY = y0;
+            minZ = z0;
+            length = x1 - x0 + 1;
+            width = y1 - y0 + 1;
+            height = z1 - z0 + 1;
+        }
+
+        values = new int[length * width * height];
+    }
+
+    /**
+     * Gets the index of the voxel in the grid.
+     *
+     * @param voxel the voxel
+     * @return the index of the voxel, -1 if outside the grid
+     */
+    int index(Voxel voxel) {
+        return index(voxel.x, voxel.y, voxel.z);
+    }
+
+    /**
+     * Gets the index of the voxel at the given coordinates in the grid.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @return the index of the voxel, -1 if outside the grid
+     */
+    int index(int x, int y, int z) {
+        int i = x - minX;
+        int j = y - minY;
+        int k = z - minZ;
+
+        if (i < 0 || i >= length || j < 0 || j >= width || k < 0 || k >= height) {
+            return -1;
+        }
+
+        return (k * length + i) * width + j;
+    }
+
+    /**
+     * Gets the value of the voxel.
+     *
+     * @param voxel the voxel
+     * @return the value of the voxel, 0 if outside the grid
+     */
+    int get(Voxel voxel) {
+        int index = index(voxel);
+        return (index < 0 ? 0 : values[index]);
+    }
+
+    /**
+     * Gets the value of the voxel at the given packed coordinates.
+     *
+     * @param key the packed coordinates
+     * @return the value of the voxel, 0 if outside the grid
+     */
+    int get(long key) {
+        int index = index(Voxel.getX(key), Voxel.getY(key), Voxel.getZ(key));
+        return (index < 0 ? 0 : values[index]);
+    }
+
+    /**
+     * Sets the value of the voxel.
+     *
+     * @param voxel the voxel inside the grid
+     * @param value the value
+     */
+    void set(Voxel voxel, int value) {
+        values[index(voxel)] = value;
+    }
+
+    /**
+     * Sets the value of the voxel at the given packed coordinates.
+     *
+     * @param key the packed coordinates inside the grid
+     * @param value the value
+     */
+    void set(long key, int value) {
+        values[index(Voxel.getX(key), Voxel.getY(key), Voxel.getZ(key))] = value;
+    }
+
+    /**
+     * Sets the value of all voxels in the list.
+     *
+     * @param voxels the list of voxels inside the grid
+     * @param value the value
+     */
+    void set(List<Voxel> voxels, int value) {
+        for (Voxel voxel : voxels) {
+            set(voxel, value);
+        }
+    }
+}
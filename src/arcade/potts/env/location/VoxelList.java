@@ -0,0 +1,625 @@
+package arcade.potts.env.location;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Ordered list of unique voxels with constant time membership, insertion, and removal.
+ *
+ * <p>Voxels are stored in insertion order as packed coordinates (see {@link Voxel#pack(int, int,
+ * int)}) in an array, alongside an open-addressed hash table that maps packed coordinates to the
+ * position of the voxel in the array. {@code Voxel} objects are only created when the list is
+ * accessed as a {@code List}; methods that take or return coordinates do not allocate.
+ *
+ * <p>Removing a voxel leaves an empty position in the array, rather than shifting all following
+ * voxels. Empty positions are compacted (preserving the order of the remaining voxels) before the
+ * list is accessed by index or iterated, or once there are more empty positions than voxels. The
+ * list therefore iterates in the same order as an {@code ArrayList} with the same sequence of
+ * additions and removals. Voxels already in the list are not added again.
+ *
+ * <p>The number of voxels at each coordinate is also counted along each axis, so the bounds of the
+ * list are available without iterating through the voxels. Bounds are only searched for again
+ * when the last voxel at a bound is removed.
+ */
+final class VoxelList extends AbstractList<Voxel> implements RandomAccess {
+    /** Initial number of positions in the array. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Key for empty entries in the array and hash table. */
+    private static final long EMPTY = -1;
+
+    /** Multiplier for hashing packed coordinates. */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /** Array of packed coordinates, with {@code EMPTY} for removed voxels. */
+    private long[] elements;
+
+    /** Number of used positions in the array. */
+    private int end;
+
+    /** Number of voxels in the list. */
+    private int size;
+
+    /** Hash table keys (packed coordinates). */
+    private long[] keys;
+
+    /** Hash table values (positions in the array). */
+    private int[] positions;
+
+    /** Number of bits to shift hashes to get the index in the hash table. */
+    private int shift;
+
+    /** Range of x coordinates. */
+    private final Range rangeX = new Range();
+
+    /** Range of y coordinates. */
+    private final Range rangeY = new Range();
+
+    /** Range of z coordinates. */
+    private final Range rangeZ = new Range();
+
+    /** Creates an empty {@code VoxelList}. */
+    VoxelList() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Creates a {@code VoxelList} containing the given voxels.
+     *
+     * @param voxels the collection of voxels
+     */
+    VoxelList(Collection<Voxel> voxels) {
+        this(Math.max(INITIAL_CAPACITY, voxels.size()));
+        voxels.forEach(this::add);
+    }
+
+    /**
+     * Creates an empty {@code VoxelList} with the given capacity.
+     *
+     * @param capacity the initial capacity
+     */
+    private VoxelList(int capacity) {
+        elements = new long[capacity];
+        resize(Integer.highestOneBit(capacity) * 4);
+    }
+
+    /**
+     * Checks if the list contains a voxel at the given coordinates.
+     *
+     * <p>Lists that are not a {@code VoxelList} are checked using a {@code Voxel} object.
+     *
+     * @param voxels the list of voxels
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @return {@code true} if the list contains the voxel, {@code false} otherwise
+     */
+    static boolean contains(List<Voxel> voxels, int x, int y, int z) {
+        return (voxels instanceof VoxelList
+                ? ((VoxelList) voxels).contains(x, y, z)
+                : voxels.contains(new Voxel(x, y, z)));
+    }
+
+    /**
+     * Checks if the list contains a voxel at the given coordinates.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @return {@code true} if the list contains the voxel, {@code false} otherwise
+     */
+    boolean contains(int x, int y, int z) {
+        return keys[find(Voxel.pack(x, y, z))] != EMPTY;
+    }
+
+    @Override
+    public boolean contains(Object obj) {
+        if (!(obj instanceof Voxel)) {
+            return false;
+        }
+        Voxel voxel = (Voxel) obj;
+        return contains(voxel.x, voxel.y, voxel.z);
+    }
+
+    @Override
+    public int indexOf(Object obj) {
+        if (!(obj instanceof Voxel)) {
+            return -1;
+        }
+        compact();
+        Voxel voxel = (Voxel) obj;
+        int slot = find(Voxel.pack(voxel.x, voxel.y, voxel.z));
+        return (keys[slot] == EMPTY ? -1 : positions[slot]);
+    }
+
+    @Override
+    public int lastIndexOf(Object obj) {
+        return indexOf(obj);
+    }
+
+    /**
+     * Adds a voxel at the given coordinates.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @return {@code true} if the voxel was added, {@code false} if already in the list
+     */
+    boolean add(int x, int y, int z) {
+        long key = Voxel.pack(x, y, z);
+        int slot = find(key);
+
+        if (keys[slot] != EMPTY) {
+            return false;
+        }
+
+        if (end == elements.length) {
+            compact();
+            if (end == elements.length) {
+                elements = Arrays.copyOf(elements, 2 * elements.length);
+            }
+            slot = find(key);
+        }
+
+        keys[slot] = key;
+        positions[slot] = end;
+        elements[end++] = key;
+        size++;
+        modCount++;
+
+        rangeX.add(x);
+        rangeY.add(y);
+        rangeZ.add(z);
+
+        if (2 * size > keys.length) {
+            resize(2 * keys.length);
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean add(Voxel voxel) {
+        return add(voxel.x, voxel.y, voxel.z);
+    }
+
+    /**
+     * Removes the voxel at the given coordinates.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @return {@code true} if the voxel was removed, {@code false} if not in the list
+     */
+    boolean remove(int x, int y, int z) {
+        int slot = find(Voxel.pack(x, y, z));
+
+        if (keys[slot] == EMPTY) {
+            return false;
+        }
+
+        elements[positions[slot]] = EMPTY;
+        delete(slot);
+        size--;
+        modCount++;
+
+        rangeX.remove(x);
+        rangeY.remove(y);
+        rangeZ.remove(z);
+
+        if (end - size > size) {
+            compact();
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object obj) {
+        if (!(obj instanceof Voxel)) {
+            return false;
+        }
+        Voxel voxel = (Voxel) obj;
+        return remove(voxel.x, voxel.y, voxel.z);
+    }
+
+    @Override
+    public Voxel remove(int index) {
+        Voxel voxel = get(index);
+        remove(voxel.x, voxel.y, voxel.z);
+        return voxel;
+    }
+
+    /**
+     * Gets the packed coordinates of the voxel at the given index.
+     *
+     * @param index the index of the voxel
+     * @return the packed coordinates
+     */
+    long getKey(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + " for size " + size);
+        }
+        compact();
+        return elements[index];
+    }
+
+    @Override
+    public Voxel get(int index) {
+        return Voxel.unpack(getKey(index));
+    }
+
+    @Override
+    public Voxel set(int index, Voxel voxel) {
+        long previous = getKey(index);
+        long key = Voxel.pack(voxel.x, voxel.y, voxel.z);
+
+        if (previous != key) {
+            int slot = find(key);
+            if (keys[slot] != EMPTY) {
+                throw new IllegalArgumentException("voxel " + voxel + " already in list");
+            }
+            delete(find(previous));
+            slot = find(key);
+            keys[slot] = key;
+            positions[slot] = index;
+            elements[index] = key;
+
+            rangeX.remove(Voxel.getX(previous));
+            rangeY.remove(Voxel.getY(previous));
+            rangeZ.remove(Voxel.getZ(previous));
+            rangeX.add(voxel.x);
+            rangeY.add(voxel.y);
+            rangeZ.add(voxel.z);
+        }
+
+        return Voxel.unpack(previous);
+    }
+
+    @Override
+    public void sort(Comparator<? super Voxel> comparator) {
+        compact();
+
+        Voxel[] voxels = new Voxel[size];
+        for (int i = 0; i < size; i++) {
+            voxels[i] = Voxel.unpack(elements[i]);
+        }
+        Arrays.sort(voxels, comparator);
+
+        for (int i = 0; i < size; i++) {
+            long key = Voxel.pack(voxels[i].x, voxels[i].y, voxels[i].z);
+            elements[i] = key;
+            positions[find(key)] = i;
+        }
+
+        modCount++;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        end = 0;
+        size = 0;
+        modCount++;
+
+        rangeX.clear();
+        rangeY.clear();
+        rangeZ.clear();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the range of x coordinates.
+     *
+     * @return the range of x coordinates
+     */
+    Range getRangeX() {
+        return rangeX;
+    }
+
+    /**
+     * Gets the range of y coordinates.
+     *
+     * @return the range of y coordinates
+     */
+    Range getRangeY() {
+        return rangeY;
+    }
+
+    /**
+     * Gets the range of z coordinates.
+     *
+     * @return the range of z coordinates
+     */
+    Range getRangeZ() {
+        return rangeZ;
+    }
+
+    /**
+     * Gets the diameter of the list along a line through the given coordinates.
+     *
+     * <p>The diameter is the number of positions between the first and last voxel on the line,
+     * including positions on the line that are not in the list. Only positions within the bounds
+     * of the list are checked.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @param dx the step in the x direction (-1, 0, or 1)
+     * @param dy the step in the y direction (-1, 0, or 1)
+     * @param dz the step in the z direction (-1, 0, or 1)
+     * @return the diameter along the line, 0 if there are no voxels on the line
+     */
+    int getDiameter(int x, int y, int z, int dx, int dy, int dz) {
+        if (size == 0) {
+            return 0;
+        }
+
+        int lower = Integer.MIN_VALUE;
+        int upper = Integer.MAX_VALUE;
+        int[] coordinates = {x, y, z};
+        int[] steps = {dx, dy, dz};
+        Range[] ranges = {rangeX, rangeY, rangeZ};
+
+        // Limit the line to steps within the bounds of the list.
+        for (int i = 0; i < 3; i++) {
+            int min = ranges[i].getMin() - coordinates[i];
+            int max = ranges[i].getMax() - coordinates[i];
+
+            if (steps[i] == 0) {
+                if (min > 0 || max < 0) {
+                    return 0;
+                }
+            } else if (steps[i] > 0) {
+                lower = Math.max(lower, min);
+                upper = Math.min(upper, max);
+            } else {
+                lower = Math.max(lower, -max);
+                upper = Math.min(upper, -min);
+            }
+        }
+
+        while (lower <= upper && !contains(x + lower * dx, y + lower * dy, z + lower * dz)) {
+            lower++;
+        }
+
+        while (upper > lower && !contains(x + upper * dx, y + upper * dy, z + upper * dz)) {
+            upper--;
+        }
+
+        return (lower <= upper ? upper - lower + 1 : 0);
+    }
+
+    /** Removes empty positions from the array, preserving the order of voxels. */
+    private void compact() {
+        if (end == size) {
+            return;
+        }
+
+        int index = 0;
+        for (int i = 0; i < end; i++) {
+            long key = elements[i];
+            if (key != EMPTY) {
+                elements[index] = key;
+                positions[find(key)] = index;
+                index++;
+            }
+        }
+
+        end = size;
+    }
+
+    /**
+     * Finds the hash table slot for the given key.
+     *
+     * @param key the packed coordinates
+     * @return the slot containing the key, or the empty slot where the key would be added
+     */
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int slot = (int) ((key * GOLDEN_GAMMA) >>> shift);
+
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+
+    /**
+     * Deletes the entry in the given hash table slot.
+     *
+     * <p>Entries that follow the deleted entry in the same probe sequence are shifted back, so no
+     * markers for deleted entries are needed.
+     *
+     * @param slot the slot to delete
+     */
+    private void delete(int slot) {
+        int mask = keys.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+
+        while (keys[next] != EMPTY) {
+            int home = (int) ((keys[next] * GOLDEN_GAMMA) >>> shift);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                positions[hole] = positions[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+
+        keys[hole] = EMPTY;
+    }
+
+    /**
+     * Resizes the hash table and adds all voxels in the array.
+     *
+     * @param capacity the number of slots, a power of two
+     */
+    private void resize(int capacity) {
+        keys = new long[capacity];
+        positions = new int[capacity];
+        shift = Long.SIZE - Integer.numberOfTrailingZeros(capacity);
+        Arrays.fill(keys, EMPTY);
+
+        for (int i = 0; i < end; i++) {
+            long key = elements[i];
+            if (key != EMPTY) {
+                int slot = find(key);
+                keys[slot] = key;
+                positions[slot] = i;
+            }
+        }
+    }
+
+    /**
+     * Range of coordinates along one axis.
+     *
+     * <p>Voxels are counted at each coordinate between the minimum and maximum, so a new minimum
+     * or maximum can be found when the last voxel at the current bound is removed.
+     */
+    static final class Range {
+        /** Number of voxels at each coordinate. */
+        private int[] counts = new int[INITIAL_CAPACITY];
+
+        /** Coordinate of the first position in the counts array. */
+        private int offset;
+
+        /** Minimum coordinate. */
+        private int min;
+
+        /** Maximum coordinate. */
+        private int max;
+
+        /** Total number of voxels. */
+        private int total;
+
+        /**
+         * Gets the minimum coordinate.
+         *
+         * @return the minimum coordinate
+         */
+        int getMin() {
+            return min;
+        }
+
+        /**
+         * Gets the maximum coordinate.
+         *
+         * @return the maximum coordinate
+         */
+        int getMax() {
+            return max;
+        }
+
+        /**
+         * Gets the minimum coordinate, excluding one voxel at the given coordinate.
+         *
+         * @param coordinate the coordinate of the excluded voxel
+         * @return the minimum coordinate of the remaining voxels
+         */
+        int getMinWithout(int coordinate) {
+            if (coordinate != min || counts[min - offset] > 1) {
+                return min;
+            }
+
+            int next = min + 1;
+            while (counts[next - offset] == 0) {
+                next++;
+            }
+
+            return next;
+        }
+
+        /**
+         * Gets the maximum coordinate, excluding one voxel at the given coordinate.
+         *
+         * @param coordinate the coordinate of the excluded voxel
+         * @return the maximum coordinate of the remaining voxels
+         */
+        int getMaxWithout(int coordinate) {
+            if (coordinate != max || counts[max - offset] > 1) {
+                return max;
+            }
+
+            int next = max - 1;
+            while (counts[next - offset] == 0) {
+                next--;
+            }
+
+            return next;
+        }
+
+        /**
+         * Adds a voxel at the given coordinate.
+         *
+         * @param coordinate the coordinate
+         */
+        void add(int coordinate) {
+            if (total == 0) {
+                offset = coordinate - counts.length / 2;
+                min = coordinate;
+                max = coordinate;
+            } else if (coordinate < min) {
+                min = coordinate;
+            } else if (coordinate > max) {
+                max = coordinate;
+            }
+
+            if (coordinate < offset || coordinate - offset >= counts.length) {
+                int length = max - min + 1;
+                int[] resized = new int[Math.max(2 * counts.length, 2 * length)];
+                int resizedOffset = min - (resized.length - length) / 2;
+
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] > 0) {
+                        resized[i + offset - resizedOffset] = counts[i];
+                    }
+                }
+
+                counts = resized;
+                offset = resizedOffset;
+            }
+
+            counts[coordinate - offset]++;
+            total++;
+        }
+
+        /**
+         * Removes a voxel at the given coordinate.
+         *
+         * @param coordinate the coordinate
+         */
+        void remove(int coordinate) {
+            counts[coordinate - offset]--;
+            total--;
+
+            if (total == 0) {
+                return;
+            }
+
+            while (counts[min - offset] == 0) {
+                min++;
+            }
+
+            while (counts[max - offset] == 0) {
+                max--;
+            }
+        }
+
+        /** Removes all voxels. */
+        void clear() {
+            Arrays.fill(counts, 0);
+            total = 0;
+        }
+    }
+}
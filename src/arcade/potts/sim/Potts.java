@@ -1,14 +1,22 @@
 package arcade.potts.sim;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Logger;
 import sim.engine.SimState;
 import sim.engine.Steppable;
 import ec.util.MersenneTwisterFast;
 import arcade.core.env.grid.Grid;
+import arcade.core.sim.Simulation;
 import arcade.potts.agent.cell.PottsCell;
+import arcade.potts.env.grid.PottsArray;
 import arcade.potts.env.location.PottsLocation;
+import arcade.potts.sim.hamiltonian.FusedHamiltonian;
 import arcade.potts.sim.hamiltonian.Hamiltonian;
+import arcade.potts.sim.hamiltonian.HamiltonianPlugin;
+import arcade.potts.util.Registry;
+import static arcade.potts.util.PottsEnums.Footprint;
 import static arcade.potts.util.PottsEnums.Region;
 import static arcade.potts.util.PottsEnums.Term;
 
@@ -29,6 +37,27 @@ import static arcade.potts.util.PottsEnums.Term;
  * </ul>
  */
 public abstract class Potts implements Steppable {
+    /** Logger for {@code Potts}. */
+    private static final Logger LOGGER = Logger.getLogger(Potts.class.getName());
+
+    /** Drift in total energy, relative to total energy, above which drift is logged as warning. */
+    static final double ENERGY_TOLERANCE = 1E-6;
+
+    /** Number of values stored for each deferred location change. */
+    static final int DEFERRED_SIZE = 6;
+
+    /** Number of tabulated acceptance probabilities per unit of energy change over temperature. */
+    static final int ACCEPTANCE_RESOLUTION = 64;
+
+    /** Maximum energy change over temperature with tabulated acceptance probabilities. */
+    static final int ACCEPTANCE_RANGE = 40;
+
+    /** Relative margin for comparisons against tabulated acceptance probabilities. */
+    static final double ACCEPTANCE_MARGIN = 1E-12;
+
+    /** Tabulated acceptance probabilities at evenly spaced energy changes over temperature. */
+    static final double[] ACCEPTANCE = makeAcceptance();
+
     /** Length (x direction) of potts array. */
     public final int length;
 
@@ -51,10 +80,13 @@ public abstract class Potts implements Steppable {
     final boolean hasRegions;
 
     /** Potts array for ids. */
-    public int[][][] ids;
+    public PottsArray ids;
 
     /** Potts array for regions. */
-    public int[][][] regions;
+    public PottsArray regions;
+
+    /** Registry of cell records shared by the grid and Hamiltonian terms. */
+    public Registry registry;
 
     /** Grid holding cells. */
     Grid grid;
@@ -62,16 +94,81 @@ public abstract class Potts implements Steppable {
     /** List of Hamiltonian terms. */
     ArrayList<Hamiltonian> hamiltonian;
 
+    /** Fused Hamiltonian terms, {@code null} until first change. */
+    FusedHamiltonian fused;
+
+    /** Buffer of unique ids adjacent to the current candidate voxel. */
+    int[] uniqueIDs;
+
+    /** Buffer of unique regions adjacent to the current candidate voxel. */
+    int[] uniqueRegions;
+
+    /** Number of threads for parallel sweeps. */
+    final int threads;
+
+    /** {@code true} if Hamiltonian terms support parallel sweeps, {@code false} otherwise. */
+    final boolean isParallel;
+
+    /** Parallel sweep over the potts arrays, {@code null} until first parallel step. */
+    PottsSweep sweep;
+
+    /** {@code true} if candidates are sampled from boundary voxels, {@code false} otherwise. */
+    final boolean sampleBoundary;
+
+    /** Set of boundary voxels, {@code null} until first boundary sampled step. */
+    PottsBoundary boundary;
+
+    /** Size of tiles for sampling candidates from active tiles, 0 if not sampled from tiles. */
+    final int tileSize;
+
+    /** Set of active tiles, {@code null} until first tile sampled step. */
+    PottsTiles tiles;
+
+    /** Number of steps between full calculations of total energy, 0 if energy is not tracked. */
+    final int energyInterval;
+
+    /** Total energy for each Hamiltonian term, {@code null} until first tracked step. */
+    double[] energies;
+
+    /** Drift in total energy for each Hamiltonian term at the last full calculation. */
+    double[] drifts;
+
+    /** Number of steps since the last full calculation of total energy. */
+    int energySteps;
+
+    /** List of listeners notified at each full calculation of total energy. */
+    final List<EnergyListener> energyListeners = new ArrayList<>();
+
+    /** Number of steps in each sub-sweep checked for relaxation, 0 if steps are not adaptive. */
+    final int adaptiveSteps;
+
+    /** Acceptance rate of evaluated flips below which a sub-sweep is relaxed. */
+    final double adaptiveAcceptance;
+
+    /** Decrease in total energy below which a sub-sweep is relaxed. */
+    final double adaptiveEnergy;
+
+    /** Number of flips evaluated in the current sub-sweep. */
+    int evaluated;
+
+    /** Number of flips accepted in the current sub-sweep. */
+    int accepted;
+
+    /** Total change in energy from flips accepted in the current sub-sweep. */
+    double delta;
+
+    /** Buffer of deferred location changes, {@code null} if changes are applied immediately. */
+    int[] deferred;
+
+    /** Number of values in the buffer of deferred location changes. */
+    int numberDeferred;
+
     /**
      * Creates a cellular {@code Potts} model.
      *
      * @param series the simulation series
      */
     public Potts(PottsSeries series) {
-        // Creates potts arrays.
-        ids = new int[series.height][series.length][series.width];
-        regions = new int[series.height][series.length][series.width];
-
         // Ensure a 1 voxel border around to avoid boundary checks.
         length = series.length - 2;
         width = series.width - 2;
@@ -84,6 +181,49 @@ public abstract class Potts implements Steppable {
         // Get temperature.
         temperature = series.potts.getDouble("TEMPERATURE");
 
+        // Check if candidates are sampled from boundary voxels.
+        sampleBoundary = series.potts.getInt("BOUNDARY_SAMPLING") != 0;
+
+        // Get size of tiles for sampling candidates from active tiles. Candidates
+        // are sampled either from boundary voxels or from active tiles.
+        tileSize = series.potts.getInt("TILE_SAMPLING");
+        if (sampleBoundary && tileSize > 0) {
+            throw new IllegalArgumentException(
+                    "BOUNDARY_SAMPLING and TILE_SAMPLING cannot be used together.");
+        }
+
+        // Creates potts arrays. Arrays of multiple layers sampled from active
+        // tiles only store tiles that contain cells.
+        int tiling = (series.height == 1 ? 0 : tileSize);
+        ids = new PottsArray(series.length, series.width, series.height, tiling);
+        regions = new PottsArray(series.length, series.width, series.height, tiling);
+
+        // Get number of steps between full calculations of total energy.
+        energyInterval = series.potts.getInt("ENERGY_CHECK");
+
+        // Get number of sub-sweeps per Monte Carlo step checked for relaxation.
+        int sweeps = series.potts.getInt("ADAPTIVE_SWEEPS");
+        adaptiveSteps = (sweeps > 0 ? Math.max(1, length * width * height / sweeps) : 0);
+        adaptiveAcceptance = series.potts.getDouble("ADAPTIVE_ACCEPTANCE");
+        adaptiveEnergy = series.potts.getDouble("ADAPTIVE_ENERGY");
+
+        // Get number of threads. The persistence term updates cell vectors when
+        // calculating changes in energy, so it is only supported in sequence.
+        // Plugin terms with a global footprint are also only supported in sequence.
+        // Parallel sweeps draw candidates uniformly within blocks for a fixed
+        // number of rounds, so candidate sampling and adaptive steps are also
+        // only supported in sequence.
+        threads = series.potts.getInt("THREADS");
+        String option = getSequentialOption(series);
+        isParallel = threads > 1 && option == null;
+
+        if (threads > 1 && !isParallel) {
+            LOGGER.warning(
+                    "THREADS is ignored with "
+                            + option
+                            + "; Monte Carlo steps are run in sequence");
+        }
+
         // Check if potts is a single layer.
         isSingle = series.height == 1;
 
@@ -93,13 +233,82 @@ public abstract class Potts implements Steppable {
                         .map(e -> e.filter("(REGION)").getKeys().size())
                         .anyMatch(e -> e > 0);
 
-        // Initialize hamiltonian list.
+        // Initialize registry and hamiltonian list.
+        registry = new Registry();
         hamiltonian = new ArrayList<>();
         if (series.terms != null) {
             series.terms.stream()
                     .map(term -> getHamiltonian(term, series))
                     .forEach(h -> hamiltonian.add(h));
         }
+
+        // Add plugin terms after built-in terms.
+        if (series.plugins != null) {
+            series.plugins.stream()
+                    .map(plugin -> plugin.create(series, this))
+                    .forEach(h -> hamiltonian.add(h));
+        }
+    }
+
+    /**
+     * Creates a worker copy of a cellular {@code Potts} model for parallel sweeps.
+     *
+     * <p>The copy shares the potts arrays, grid, and Hamiltonian terms of the given model. Location
+     * changes are deferred until they are applied using {@link #applyDeferred()}. Each copy builds
+     * its own fused Hamiltonian, which holds the neighborhood of the current candidate voxel.
+     *
+     * @param potts the potts model to copy
+     */
+    Potts(Potts potts) {
+        ids = potts.ids;
+        regions = potts.regions;
+        registry = potts.registry;
+        length = potts.length;
+        width = potts.width;
+        height = potts.height;
+        steps = potts.steps;
+        temperature = potts.temperature;
+        isSingle = potts.isSingle;
+        hasRegions = potts.hasRegions;
+        grid = potts.grid;
+        hamiltonian = potts.hamiltonian;
+        threads = 1;
+        isParallel = false;
+        sampleBoundary = false;
+        tileSize = 0;
+        energyInterval = 0;
+        adaptiveSteps = 0;
+        adaptiveAcceptance = 0;
+        adaptiveEnergy = 0;
+        deferred = new int[DEFERRED_SIZE * 64];
+    }
+
+    /**
+     * Gets the option that requires Monte Carlo steps to be run in sequence.
+     *
+     * @param series the simulation series
+     * @return the name of the option, {@code null} if steps can be run in parallel
+     */
+    String getSequentialOption(PottsSeries series) {
+        if (sampleBoundary) {
+            return "BOUNDARY_SAMPLING";
+        } else if (tileSize > 0) {
+            return "TILE_SAMPLING";
+        } else if (adaptiveSteps > 0) {
+            return "ADAPTIVE_SWEEPS";
+        } else if (series.terms != null && series.terms.contains(Term.PERSISTENCE)) {
+            return "PERSISTENCE";
+        }
+
+        if (series.plugins != null) {
+            for (HamiltonianPlugin plugin : series.plugins) {
+                if (plugin.getFootprint() == Footprint.GLOBAL) {
+                    return plugin.getName();
+                }
+            }
+        }
+
+        return null;
     }
 
     /**
@@ -113,6 +322,21 @@ public abstract class Potts implements Steppable {
         }
     }
 
+    /**
+     * Registers the cells to all Hamiltonian term instances.
+     *
+     * <p>Cells are registered to each term in turn, in the order given.
+     *
+     * @param cells the list of cell instances
+     */
+    public void register(List<PottsCell> cells) {
+        for (Hamiltonian h : hamiltonian) {
+            for (PottsCell cell : cells) {
+                h.register(cell);
+            }
+        }
+    }
+
     /**
      * Deregisters the cell from all Hamiltonian term instances.
      *
@@ -133,14 +357,96 @@ public abstract class Potts implements Steppable {
      */
     abstract Hamiltonian getHamiltonian(Term term, PottsSeries series);
 
+    /**
+     * Gets the fused Hamiltonian for the list of Hamiltonian terms.
+     *
+     * <p>The fused Hamiltonian is built on first use, after all terms have been added to the list.
+     *
+     * @return the fused Hamiltonian
+     */
+    FusedHamiltonian getFusedHamiltonian() {
+        if (fused == null) {
+            fused = new FusedHamiltonian(hamiltonian, ids, regions, registry);
+        }
+        return fused;
+    }
+
+    /**
+     * Creates a worker copy of the potts model for parallel sweeps.
+     *
+     * @return the worker copy
+     */
+    abstract Potts copy();
+
+    /**
+     * Shuts down the threads of the parallel sweep, if any.
+     *
+     * <p>Called at the end of the simulation. The parallel sweep is created again on the next
+     * parallel step.
+     */
+    public void finish() {
+        if (sweep != null) {
+            sweep.shutdown();
+            sweep = null;
+        }
+    }
+
     /**
      * Steps through array updates for Monte Carlo step.
      *
+     * <p>If steps are adaptive, the Monte Carlo step is divided into sub-sweeps. The step ends
+     * early after a sub-sweep in which the configuration has relaxed (see {@link #isRelaxed()}),
+     * otherwise the full Monte Carlo step is completed.
+     *
+     * <p>If total energy is tracked, total energy is fully calculated before and after the step for
+     * the first step and then every {@code ENERGY_CHECK} steps (see {@link #startEnergy()} and
+     * {@link #checkEnergy()}).
+     *
      * @param simstate the MASON simulation state
      */
     @Override
     public void step(SimState simstate) {
         MersenneTwisterFast random = simstate.random;
+        boolean isChecked = energyInterval > 0 && startEnergy();
+
+        evaluated = 0;
+        accepted = 0;
+        delta = 0;
+
+        if (isParallel) {
+            if (sweep == null) {
+                sweep = new PottsSweep(this, ((Simulation) simstate).getRandomStreams());
+            }
+            sweep.step();
+        } else if (sampleBoundary) {
+            if (boundary == null) {
+                boundary = new PottsBoundary(this);
+            } else {
+                boundary.refresh();
+            }
+            stepBoundary(random);
+        } else if (tileSize > 0) {
+            if (tiles == null) {
+                tiles = new PottsTiles(this, tileSize);
+            } else {
+                tiles.refresh();
+            }
+            stepTiles(random);
+        } else {
+            stepUniform(random);
+        }
+
+        if (isChecked) {
+            checkEnergy();
+        }
+    }
+
+    /**
+     * Steps through array updates for candidates sampled uniformly from all voxels.
+     *
+     * @param random the random number generator
+     */
+    void stepUniform(MersenneTwisterFast random) {
         double r;
         int x;
         int y;
@@ -152,34 +458,151 @@ public abstract class Potts implements Steppable {
             y = random.nextInt(width) + 1;
             z = (random.nextInt(height) + 1) * (isSingle ? 0 : 1);
             r = random.nextDouble();
+            attempt(x, y, z, r, random);
 
-            // Check if cell has regions.
-            boolean hasRegionsCell = (ids[z][x][y] != 0 && getCell(ids[z][x][y]).hasRegions());
-
-            // Get unique targets.
-            HashSet<Integer> uniqueIDTargets = getUniqueIDs(x, y, z);
-            HashSet<Integer> uniqueRegionTargets = getUniqueRegions(x, y, z);
-
-            // Check if there are valid unique targets.
-            boolean hasIDTargets = uniqueIDTargets.size() > 0;
-            boolean hasRegionTargets = uniqueRegionTargets.size() > 0;
-            boolean check = simstate.random.nextDouble() < 0.5;
-
-            // Select unique ID or unique region (if they exist). If there is
-            // a unique ID and unique region target, then randomly select. If
-            // there are neither, then skip.
-            if (hasIDTargets && (!hasRegionsCell || !hasRegionTargets || check)) {
-                int i = simstate.random.nextInt(uniqueIDTargets.size());
-                int targetID = (int) uniqueIDTargets.toArray()[i];
-                flip(ids[z][x][y], targetID, x, y, z, r);
-            } else if (hasRegionsCell && hasRegionTargets) {
-                int i = simstate.random.nextInt(uniqueRegionTargets.size());
-                int targetRegion = (int) uniqueRegionTargets.toArray()[i];
-                flip(ids[z][x][y], regions[z][x][y], targetRegion, x, y, z, r);
+            if (adaptiveSteps > 0 && (step + 1) % adaptiveSteps == 0 && isRelaxed()) {
+                break;
             }
         }
     }
 
+    /**
+     * Checks if the configuration has relaxed over the last sub-sweep.
+     *
+     * <p>The configuration is relaxed if the fraction of evaluated flips that were accepted is
+     * below the acceptance threshold and the total energy decreased by less than the energy
+     * threshold. A sub-sweep with no evaluated flips is relaxed. Counts for the sub-sweep are reset
+     * after each check.
+     *
+     * @return {@code true} if the configuration is relaxed, {@code false} otherwise
+     */
+    boolean isRelaxed() {
+        boolean relaxed =
+                (evaluated == 0
+                        || ((double) accepted / evaluated < adaptiveAcceptance
+                                && -delta < adaptiveEnergy));
+
+        evaluated = 0;
+        accepted = 0;
+        delta = 0;
+
+        return relaxed;
+    }
+
+    /**
+     * Steps through array updates for Monte Carlo step sampling boundary voxels.
+     *
+     * <p>Sampling all voxels attempts to flip each boundary voxel once per Monte Carlo step on
+     * average. Each attempt on a boundary voxel therefore advances the step by the ratio of the
+     * number of voxels to the number of boundary voxels, such that the Monte Carlo step keeps the
+     * same meaning as the number of boundary voxels changes.
+     *
+     * @param random the random number generator
+     */
+    void stepBoundary(MersenneTwisterFast random) {
+        double volume = (double) length * width * height;
+        double time = 0;
+        double check = adaptiveSteps;
+
+        while (time < steps && boundary.size > 0) {
+            if (adaptiveSteps > 0 && time >= check) {
+                if (isRelaxed()) {
+                    break;
+                }
+                check += adaptiveSteps;
+            }
+
+            time += volume / boundary.size;
+
+            // Get random boundary voxel for candidate.
+            int index = boundary.members[random.nextInt(boundary.size)];
+            int y = index % ids.width;
+            int x = (index / ids.width) % ids.length;
+            int z = index / (ids.width * ids.length);
+            double r = random.nextDouble();
+            attempt(x, y, z, r, random);
+        }
+    }
+
+    /**
+     * Steps through array updates for Monte Carlo step sampling voxels in active tiles.
+     *
+     * <p>Candidates are sampled from the full extent of a random active tile, and candidates
+     * outside of the array (in tiles at the edges of the array) are skipped. Each sample therefore
+     * advances the step by the ratio of the number of voxels to the total extent of active tiles,
+     * such that each voxel in an active tile is attempted at the same rate as when sampling all
+     * voxels.
+     *
+     * @param random the random number generator
+     */
+    void stepTiles(MersenneTwisterFast random) {
+        double volume = (double) length * width * height;
+        double time = 0;
+        double check = adaptiveSteps;
+
+        while (time < steps && tiles.size > 0) {
+            if (adaptiveSteps > 0 && time >= check) {
+                if (isRelaxed()) {
+                    break;
+                }
+                check += adaptiveSteps;
+            }
+
+            time += volume / ((double) tiles.size * tiles.volume);
+
+            // Get random voxel in random active tile for candidate.
+            int tile = tiles.members[random.nextInt(tiles.size)];
+            int x = tiles.getX(tile) + random.nextInt(tiles.side);
+            int y = tiles.getY(tile) + random.nextInt(tiles.side);
+            int z = tiles.getZ(tile) + random.nextInt(tiles.sideZ);
+
+            if (!tiles.isInterior(x, y, z)) {
+                continue;
+            }
+
+            double r = random.nextDouble();
+            attempt(x, y, z, r, random);
+        }
+    }
+
+    /**
+     * Attempts to flip the candidate voxel to a unique neighboring id or region.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @param r a random number
+     * @param random the random number generator
+     */
+    void attempt(int x, int y, int z, double r, MersenneTwisterFast random) {
+        int id = ids.get(x, y, z);
+
+        // Check if cell has regions.
+        boolean hasRegionsCell = (id != 0 && getCell(id).hasRegions());
+
+        // Get unique targets.
+        int nUniqueIDs = getUniqueIDs(x, y, z);
+        int nUniqueRegions = getUniqueRegions(x, y, z);
+
+        // Check if there are valid unique targets.
+        boolean hasIDTargets = nUniqueIDs > 0;
+        boolean hasRegionTargets = nUniqueRegions > 0;
+        boolean check = random.nextDouble() < 0.5;
+
+        // Select unique ID or unique region (if they exist). If there is
+        // a unique ID and unique region target, then randomly select. If
+        // there are neither, then skip.
+        if (hasIDTargets && (!hasRegionsCell || !hasRegionTargets || check)) {
+            int i = random.nextInt(nUniqueIDs);
+            int targetID = uniqueIDs[i];
+            flip(id, targetID, x, y, z, r);
+        } else if (hasRegionsCell && hasRegionTargets) {
+            int i = random.nextInt(nUniqueRegions);
+            int targetRegion = uniqueRegions[i];
+            flip(id, regions.get(x, y, z), targetRegion, x, y, z, r);
+        }
+    }
+
     /**
      * Flips connected voxel from source to target id based on Boltzmann probability.
      *
@@ -191,19 +614,20 @@ public abstract class Potts implements Steppable {
      * @param r a random number
      */
     void flip(int sourceID, int targetID, int x, int y, int z, double r) {
-        boolean zero = ids[z][x][y] == 0;
+        int region = regions.get(x, y, z);
+        boolean zero = ids.get(x, y, z) == 0;
 
         // Check connectivity of source.
         if (sourceID > 0) {
-            boolean[][][] neighborhood = getNeighborhood(sourceID, x, y, z);
+            int neighborhood = getNeighborhood(sourceID, x, y, z);
             boolean candidateConnected = getConnectivity(neighborhood, zero);
             if (!candidateConnected) {
                 return;
             }
 
             // Check connectivity of regions.
-            if (regions[z][x][y] > Region.DEFAULT.ordinal()) {
-                boolean[][][] rNeighborhood = getNeighborhood(sourceID, regions[z][x][y], x, y, z);
+            if (region > Region.DEFAULT.ordinal()) {
+                int rNeighborhood = getNeighborhood(sourceID, region, x, y, z);
                 boolean candidateRegionConnected = getConnectivity(rNeighborhood, false);
                 if (!candidateRegionConnected) {
                     return;
@@ -213,15 +637,15 @@ public abstract class Potts implements Steppable {
 
         // Check connectivity of target.
         if (targetID > 0) {
-            boolean[][][] neighborhood = getNeighborhood(targetID, x, y, z);
+            int neighborhood = getNeighborhood(targetID, x, y, z);
             boolean targetConnected = getConnectivity(neighborhood, zero);
             if (!targetConnected) {
                 return;
             }
 
             // Check connectivity of regions.
-            if (regions[z][x][y] > Region.DEFAULT.ordinal()) {
-                boolean[][][] rNeighborhood = getNeighborhood(targetID, regions[z][x][y], x, y, z);
+            if (region > Region.DEFAULT.ordinal()) {
+                int rNeighborhood = getNeighborhood(targetID, region, x, y, z);
                 boolean candidateRegionConnected = getConnectivity(rNeighborhood, false);
                 if (!candidateRegionConnected) {
                     return;
@@ -245,35 +669,114 @@ public abstract class Potts implements Steppable {
      */
     void change(int sourceID, int targetID, int x, int y, int z, double r) {
         // Calculate energy change.
-        double dH = 0;
-        for (Hamiltonian h : hamiltonian) {
-            dH += h.getDelta(sourceID, targetID, x, y, z);
-        }
+        double dH = getFusedHamiltonian().getDelta(sourceID, targetID, x, y, z);
+        evaluated++;
 
-        // Calculate probability.
-        double p;
-        if (dH < 0) {
-            p = 1;
-        } else {
-            p = Math.exp(-dH / temperature);
-        }
+        // Check if change is accepted.
+        if (accept(dH, r)) {
+            accepted++;
+            delta += dH;
 
-        if (r < p) {
-            ids[z][x][y] = targetID;
+            ids.write(x, y, z, targetID);
             if (hasRegions) {
-                regions[z][x][y] =
-                        (targetID == 0 ? Region.UNDEFINED.ordinal() : Region.DEFAULT.ordinal());
+                regions.write(
+                        x,
+                        y,
+                        z,
+                        (targetID == 0 ? Region.UNDEFINED.ordinal() : Region.DEFAULT.ordinal()));
+            }
+
+            if (boundary != null) {
+                boundary.change(ids.index(x, y, z));
             }
 
-            if (sourceID > 0) {
-                ((PottsLocation) getCell(sourceID).getLocation()).remove(x, y, z);
+            if (tiles != null) {
+                tiles.change(sourceID, targetID, x, y, z);
             }
-            if (targetID > 0) {
-                ((PottsLocation) getCell(targetID).getLocation()).add(x, y, z);
+
+            if (energies != null) {
+                trackEnergy();
+            }
+
+            if (deferred == null) {
+                update(sourceID, targetID, x, y, z);
+            } else {
+                defer(0, sourceID, targetID, x, y, z);
             }
         }
     }
 
+    /** Adds changes in energy for each term in the last accepted flip to the total energy. */
+    void trackEnergy() {
+        for (int i = 0; i < energies.length; i++) {
+            energies[i] += fused.getLastDelta(i);
+        }
+    }
+
+    /**
+     * Checks if change in energy is accepted based on Boltzmann probability.
+     *
+     * <p>Changes are accepted if the random number is less than the probability {@code exp(-dH /
+     * temperature)}. The probability is bracketed between the two nearest tabulated probabilities,
+     * and the exponential is only calculated if the random number falls within the bracket. The
+     * result is identical to always calculating the exponential.
+     *
+     * @param dH the change in energy
+     * @param r a random number
+     * @return {@code true} if the change is accepted, {@code false} otherwise
+     */
+    boolean accept(double dH, double r) {
+        if (dH < 0) {
+            return r < 1;
+        }
+
+        double scaled = dH / temperature * ACCEPTANCE_RESOLUTION;
+
+        if (scaled < ACCEPTANCE.length - 1) {
+            int k = (int) scaled;
+            if (r < ACCEPTANCE[k + 1] * (1 - ACCEPTANCE_MARGIN)) {
+                return true;
+            } else if (r >= ACCEPTANCE[k] * (1 + ACCEPTANCE_MARGIN)) {
+                return false;
+            }
+        } else if (r >= ACCEPTANCE[ACCEPTANCE.length - 1] * (1 + ACCEPTANCE_MARGIN)) {
+            return false;
+        }
+
+        return r < Math.exp(-dH / temperature);
+    }
+
+    /**
+     * Creates table of acceptance probabilities.
+     *
+     * @return the table of acceptance probabilities
+     */
+    private static double[] makeAcceptance() {
+        double[] table = new double[ACCEPTANCE_RANGE * ACCEPTANCE_RESOLUTION + 1];
+        for (int k = 0; k < table.length; k++) {
+            table[k] = Math.exp(-(double) k / ACCEPTANCE_RESOLUTION);
+        }
+        return table;
+    }
+
+    /**
+     * Updates cell locations for a voxel flipped from source to target id.
+     *
+     * @param sourceID the id of the source voxel
+     * @param targetID the id of the target voxel
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     */
+    void update(int sourceID, int targetID, int x, int y, int z) {
+        if (sourceID > 0) {
+            ((PottsLocation) getCell(sourceID).getLocation()).remove(x, y, z);
+        }
+        if (targetID > 0) {
+            ((PottsLocation) getCell(targetID).getLocation()).add(x, y, z);
+        }
+    }
+
     /**
      * Flips connected voxel from source to target region based on Boltzmann probability.
      *
@@ -286,11 +789,11 @@ public abstract class Potts implements Steppable {
      * @param r a random number
      */
     void flip(int id, int sourceRegion, int targetRegion, int x, int y, int z, double r) {
-        boolean zero = regions[z][x][y] == Region.DEFAULT.ordinal();
+        boolean zero = regions.get(x, y, z) == Region.DEFAULT.ordinal();
 
         // Check connectivity of source.
         if (sourceRegion > Region.DEFAULT.ordinal()) {
-            boolean[][][] neighborhood = getNeighborhood(id, sourceRegion, x, y, z);
+            int neighborhood = getNeighborhood(id, sourceRegion, x, y, z);
             boolean candidateConnected = getConnectivity(neighborhood, zero);
             if (!candidateConnected) {
                 return;
@@ -299,7 +802,7 @@ public abstract class Potts implements Steppable {
 
         // Check connectivity of target.
         if (targetRegion > Region.DEFAULT.ordinal()) {
-            boolean[][][] neighborhood = getNeighborhood(id, targetRegion, x, y, z);
+            int neighborhood = getNeighborhood(id, targetRegion, x, y, z);
             boolean targetConnected = getConnectivity(neighborhood, zero);
             if (!targetConnected) {
                 return;
@@ -323,27 +826,220 @@ public abstract class Potts implements Steppable {
      */
     void change(int id, int sourceRegion, int targetRegion, int x, int y, int z, double r) {
         // Calculate energy change.
-        double dH = 0;
-        for (Hamiltonian h : hamiltonian) {
-            dH += h.getDelta(id, sourceRegion, targetRegion, x, y, z);
+        double dH = getFusedHamiltonian().getDelta(id, sourceRegion, targetRegion, x, y, z);
+        evaluated++;
+
+        // Check if change is accepted.
+        if (accept(dH, r)) {
+            accepted++;
+            delta += dH;
+
+            regions.write(x, y, z, targetRegion);
+
+            if (boundary != null) {
+                boundary.change(regions.index(x, y, z));
+            }
+
+            if (energies != null) {
+                trackEnergy();
+            }
+
+            if (deferred == null) {
+                update(id, sourceRegion, targetRegion, x, y, z);
+            } else {
+                defer(id, sourceRegion, targetRegion, x, y, z);
+            }
         }
+    }
 
-        // Calculate probability.
-        double p;
-        if (dH < 0) {
-            p = 1;
+    /**
+     * Updates cell location for a voxel flipped from source to target region.
+     *
+     * @param id the voxel id
+     * @param sourceRegion the region of the source voxel
+     * @param targetRegion the region of the target voxel
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     */
+    void update(int id, int sourceRegion, int targetRegion, int x, int y, int z) {
+        PottsCell c = getCell(id);
+        ((PottsLocation) c.getLocation()).remove(Region.values()[sourceRegion], x, y, z);
+        ((PottsLocation) c.getLocation()).add(Region.values()[targetRegion], x, y, z);
+    }
+
+    /**
+     * Defers location change until deferred changes are applied.
+     *
+     * <p>Region changes are stored with the non-zero id of the voxel, while id changes are stored
+     * with an id of zero.
+     *
+     * @param id the voxel id for region changes, zero for id changes
+     * @param source the source id or region
+     * @param target the target id or region
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     */
+    void defer(int id, int source, int target, int x, int y, int z) {
+        if (numberDeferred + DEFERRED_SIZE > deferred.length) {
+            deferred = Arrays.copyOf(deferred, deferred.length * 2);
+        }
+
+        deferred[numberDeferred++] = id;
+        deferred[numberDeferred++] = source;
+        deferred[numberDeferred++] = target;
+        deferred[numberDeferred++] = x;
+        deferred[numberDeferred++] = y;
+        deferred[numberDeferred++] = z;
+    }
+
+    /** Applies deferred location changes in the order they were made. */
+    void applyDeferred() {
+        for (int i = 0; i < numberDeferred; i += DEFERRED_SIZE) {
+            int id = deferred[i];
+            int source = deferred[i + 1];
+            int target = deferred[i + 2];
+            int x = deferred[i + 3];
+            int y = deferred[i + 4];
+            int z = deferred[i + 5];
+
+            if (id == 0) {
+                update(source, target, x, y, z);
+            } else {
+                update(id, source, target, x, y, z);
+            }
+        }
+
+        numberDeferred = 0;
+    }
+
+    /**
+     * Starts the Monte Carlo step with a full calculation of total energy, if needed.
+     *
+     * <p>Total energy is calculated for the first step and then every {@code ENERGY_CHECK} steps.
+     * The calculated energy replaces the updated total energy, such that changes in energy made
+     * outside of flips (such as changes in target volume or the addition and removal of cells)
+     * are not counted as drift. Between full calculations, total energy is updated using changes
+     * in energy for accepted flips. Terms that do not calculate total energy keep the change in
+     * energy since the first step.
+     *
+     * @return {@code true} if total energy is checked after the step, {@code false} otherwise
+     */
+    boolean startEnergy() {
+        if (energies == null) {
+            energies = new double[hamiltonian.size()];
+            drifts = new double[hamiltonian.size()];
+        } else if (++energySteps < energyInterval) {
+            return false;
+        }
+
+        for (int i = 0; i < energies.length; i++) {
+            double energy = hamiltonian.get(i).getEnergy();
+            if (!Double.isNaN(energy)) {
+                energies[i] = energy;
+            }
+        }
+
+        energySteps = 0;
+        return true;
+    }
+
+    /**
+     * Checks the updated total energy against a full calculation of total energy.
+     *
+     * <p>The drift for each term is the difference between the total energy updated over the step
+     * and the calculated total energy, which only includes the rounding errors of changes in
+     * energy for accepted flips. Drift is logged as a warning if it exceeds the tolerance relative
+     * to the total energy of the term. Listeners are notified after each check.
+     */
+    void checkEnergy() {
+        boolean isDrifted = false;
+
+        for (int i = 0; i < energies.length; i++) {
+            double energy = hamiltonian.get(i).getEnergy();
+            if (!Double.isNaN(energy)) {
+                drifts[i] = energies[i] - energy;
+                energies[i] = energy;
+                isDrifted |= Math.abs(drifts[i]) > ENERGY_TOLERANCE * Math.max(1, Math.abs(energy));
+            }
+        }
+
+        if (isDrifted) {
+            LOGGER.warning(formatEnergy());
         } else {
-            p = Math.exp(-dH / temperature);
+            LOGGER.fine(this::formatEnergy);
         }
 
-        if (r < p) {
-            regions[z][x][y] = targetRegion;
-            PottsCell c = getCell(id);
-            ((PottsLocation) c.getLocation()).remove(Region.values()[sourceRegion], x, y, z);
-            ((PottsLocation) c.getLocation()).add(Region.values()[targetRegion], x, y, z);
+        for (EnergyListener listener : energyListeners) {
+            listener.energyChecked(this, getEnergies(), getDrifts());
         }
     }
 
+    /**
+     * Adds a listener notified at each full calculation of total energy.
+     *
+     * @param listener the energy listener
+     */
+    public void addEnergyListener(EnergyListener listener) {
+        energyListeners.add(listener);
+    }
+
+    /**
+     * Formats total energy and drift for each Hamiltonian term.
+     *
+     * @return the formatted energies
+     */
+    String formatEnergy() {
+        StringBuilder builder = new StringBuilder("total energy");
+        for (int i = 0; i < energies.length; i++) {
+            builder.append(
+                    String.format(
+                            " [ %s = %.6g (drift %.3g) ]",
+                            hamiltonian.get(i).getClass().getSimpleName(),
+                            energies[i],
+                            drifts[i]));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Gets the total energy summed across all Hamiltonian terms.
+     *
+     * @return the total energy, {@code NaN} if energy is not tracked
+     */
+    public double getEnergy() {
+        if (energies == null) {
+            return Double.NaN;
+        }
+
+        double energy = 0;
+        for (double e : energies) {
+            energy += e;
+        }
+        return energy;
+    }
+
+    /**
+     * Gets the total energy for each Hamiltonian term.
+     *
+     * <p>Energies are ordered by the list of Hamiltonian terms.
+     *
+     * @return the total energies, {@code null} if energy is not tracked
+     */
+    public double[] getEnergies() {
+        return (energies == null ? null : energies.clone());
+    }
+
+    /**
+     * Gets the drift in total energy for each Hamiltonian term at the last full calculation.
+     *
+     * @return the energy drifts, {@code null} if energy is not tracked
+     */
+    public double[] getDrifts() {
+        return (drifts == null ? null : drifts.clone());
+    }
+
     /**
      * Gets the {@link PottsCell} object for the given id.
      *
@@ -361,13 +1057,16 @@ public abstract class Potts implements Steppable {
     /**
      * Gets neighborhood for the given voxel.
      *
+     * <p>The neighborhood is encoded as a bitmask, where each bit corresponds to a position in the
+     * 3 x 3 (x 3) neighborhood in (z, x, y) order and is set if the position has the given id.
+     *
      * @param id the voxel id
      * @param x the x coordinate
      * @param y the y coordinate
      * @param z the z coordinate
-     * @return {@code true} if simply connected, {@code false} otherwise
+     * @return the neighborhood bitmask
      */
-    abstract boolean[][][] getNeighborhood(int id, int x, int y, int z);
+    abstract int getNeighborhood(int id, int x, int y, int z);
 
     /**
      * Gets neighborhood for the given voxel region.
@@ -377,36 +1076,92 @@ public abstract class Potts implements Steppable {
      * @param x the x coordinate
      * @param y the y coordinate
      * @param z the z coordinate
-     * @return {@code true} if simply connected, {@code false} otherwise
+     * @return the neighborhood bitmask
      */
-    abstract boolean[][][] getNeighborhood(int id, int region, int x, int y, int z);
+    abstract int getNeighborhood(int id, int region, int x, int y, int z);
 
     /**
      * Determines connectivity of given neighborhood.
      *
-     * @param array the array of neighbors
+     * @param mask the neighborhood bitmask
      * @param zero {@code true} if location has zero id, {@code false} otherwise
      * @return {@code true} if simply connected, {@code false} otherwise
      */
-    abstract boolean getConnectivity(boolean[][][] array, boolean zero);
+    abstract boolean getConnectivity(int mask, boolean zero);
 
     /**
      * Gets unique IDs adjacent to given voxel.
      *
+     * <p>Unique IDs are written into {@code uniqueIDs} using {@link #addUnique(int[], int, int)}.
+     *
      * @param x the x coordinate
      * @param y the y coordinate
      * @param z the z coordinate
-     * @return the list of unique IDs
+     * @return the number of unique IDs
      */
-    abstract HashSet<Integer> getUniqueIDs(int x, int y, int z);
+    abstract int getUniqueIDs(int x, int y, int z);
 
     /**
      * Gets unique regions adjacent to given voxel.
      *
+     * <p>Unique regions are written into {@code uniqueRegions} using {@link #addUnique(int[], int,
+     * int)}.
+     *
      * @param x the x coordinate
      * @param y the y coordinate
      * @param z the z coordinate
-     * @return the list of unique regions
+     * @return the number of unique regions
+     */
+    abstract int getUniqueRegions(int x, int y, int z);
+
+    /**
+     * Adds value to the buffer of unique values, if not already present.
+     *
+     * <p>Values are kept in the iteration order of a default capacity {@code HashSet<Integer>}
+     * (ordered by hash bucket, then by insertion) so that target selection consumes random numbers
+     * identically to the set-based implementation.
+     *
+     * @param buffer the buffer of unique values
+     * @param n the number of values currently in the buffer
+     * @param value the value to add
+     * @return the number of values in the buffer after adding
      */
-    abstract HashSet<Integer> getUniqueRegions(int x, int y, int z);
+    static int addUnique(int[] buffer, int n, int value) {
+        int bucket = getBucket(value);
+        int index = n;
+
+        for (int i = n - 1; i >= 0; i--) {
+            if (buffer[i] == value) {
+                return n;
+            } else if (getBucket(buffer[i]) > bucket) {
+                index = i;
+            }
+        }
+
+        System.arraycopy(buffer, index, buffer, index + 1, n - index);
+        buffer[index] = value;
+        return n + 1;
+    }
+
+    /**
+     * Gets the bucket of the value in a default capacity {@code HashSet<Integer>}.
+     *
+     * @param value the value
+     * @return the bucket index
+     */
+    private static int getBucket(int value) {
+        return (value ^ (value >>> 16)) & 15;
+    }
+
+    /** Listener for full calculations of total energy. */
+    public interface EnergyListener {
+        /**
+         * Called after total energy is fully calculated and checked for drift.
+         *
+         * @param potts the potts model
+         * @param energies the total energy for each Hamiltonian term
+         * @param drifts the drift in total energy for each Hamiltonian term
+         */
+        void energyChecked(Potts potts, double[] energies, double[] drifts);
+    }
 }
@@ -1,6 +1,5 @@
 package arcade.potts.sim;
 
-import java.util.HashSet;
 import arcade.potts.sim.hamiltonian.AdhesionHamiltonian2D;
 import arcade.potts.sim.hamiltonian.Hamiltonian;
 import arcade.potts.sim.hamiltonian.PersistenceHamiltonian;
@@ -25,6 +24,18 @@ public final class Potts2D extends Potts {
     /** List of y direction corner movements (NE, SE, SW, NW). */
     private static final int[] CORNER_Y = {-1, 1, 1, -1};
 
+    /** Number of voxels in the 3 x 3 neighborhood. */
+    private static final int NEIGHBORHOOD_SIZE = 3 * 3;
+
+    /** Offset of the single plane within the 3 x 3 x 3 neighborhood. */
+    private static final int PLANE_OFFSET = NEIGHBORHOOD_SIZE;
+
+    /** Neighborhood bitmask of all neighbors (N, E, S, W). */
+    private static final int NEIGHBORS_MASK = (1 << 3) | (1 << 7) | (1 << 5) | (1 << 1);
+
+    /** Lookup table of simple connectivity for each neighborhood bitmask. */
+    private static final boolean[] CONNECTIVITY = makeConnectivity();
+
     /**
      * Creates a cellular {@code Potts} model in 2D.
      *
@@ -32,6 +43,19 @@ public final class Potts2D extends Potts {
      */
     public Potts2D(PottsSeries series) {
         super(series);
+        uniqueIDs = new int[NUMBER_NEIGHBORS];
+        uniqueRegions = new int[NUMBER_NEIGHBORS];
+    }
+
+    /**
+     * Creates a worker copy of a cellular {@code Potts} model in 2D.
+     *
+     * @param potts the potts model to copy
+     */
+    Potts2D(Potts2D potts) {
+        super(potts);
+        uniqueIDs = new int[NUMBER_NEIGHBORS];
+        uniqueRegions = new int[NUMBER_NEIGHBORS];
     }
 
     @Override
@@ -40,62 +64,99 @@ public final class Potts2D extends Potts {
             case ADHESION:
                 return new AdhesionHamiltonian2D(series, this);
             case VOLUME:
-                return new VolumeHamiltonian(series);
+                return new VolumeHamiltonian(series, registry);
             case SURFACE:
                 return new SurfaceHamiltonian2D(series, this);
             case PERSISTENCE:
-                return new PersistenceHamiltonian(series);
+                return new PersistenceHamiltonian(series, registry);
             default:
                 return null;
         }
     }
 
     @Override
-    boolean[][][] getNeighborhood(int id, int x, int y, int z) {
-        boolean[][] array = new boolean[3][3];
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                array[i][j] = ids[0][i + x - 1][j + y - 1] == id;
+    Potts copy() {
+        return new Potts2D(this);
+    }
+
+    @Override
+    int getNeighborhood(int id, int x, int y, int z) {
+        int[] idValues = ids.getValues(x, y, 0);
+        int[] neighborhood = ids.neighborhood;
+        int index = ids.getIndex(x, y, 0);
+        int mask = 0;
+        for (int n = 0; n < NEIGHBORHOOD_SIZE; n++) {
+            if (idValues[index + neighborhood[PLANE_OFFSET + n]] == id) {
+                mask |= 1 << n;
             }
         }
-        return new boolean[][][] {array};
+        return mask;
     }
 
     @Override
-    boolean[][][] getNeighborhood(int id, int region, int x, int y, int z) {
-        boolean[][] array = new boolean[3][3];
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                array[i][j] =
-                        ids[0][i + x - 1][j + y - 1] == id
-                                && regions[0][i + x - 1][j + y - 1] == region;
+    int getNeighborhood(int id, int region, int x, int y, int z) {
+        int[] idValues = ids.getValues(x, y, 0);
+        int[] regionValues = regions.getValues(x, y, 0);
+        int[] neighborhood = ids.neighborhood;
+        int index = ids.getIndex(x, y, 0);
+        int mask = 0;
+        for (int n = 0; n < NEIGHBORHOOD_SIZE; n++) {
+            int neighbor = index + neighborhood[PLANE_OFFSET + n];
+            if (idValues[neighbor] == id && regionValues[neighbor] == region) {
+                mask |= 1 << n;
             }
         }
-        return new boolean[][][] {array};
+        return mask;
     }
 
     @Override
-    boolean getConnectivity(boolean[][][] array, boolean zero) {
-        boolean[][] subarray = array[0];
-        int links = 0;
-        for (int i = 0; i < NUMBER_NEIGHBORS; i++) {
-            if (subarray[1 + MOVES_X[i]][1 + MOVES_Y[i]]) {
-                links++;
-            }
+    boolean getConnectivity(int mask, boolean zero) {
+        if ((mask & NEIGHBORS_MASK) == NEIGHBORS_MASK) {
+            return zero;
         }
+        return CONNECTIVITY[mask];
+    }
 
-        switch (links) {
-            case 1:
-                return true;
-            case 2:
-                return getConnectivityTwoNeighbors(subarray);
-            case 3:
-                return getConnectivityThreeNeighbors(subarray);
-            case 4:
-                return zero;
-            default:
-                return false;
+    /**
+     * Creates lookup table of simple connectivity for all neighborhood bitmasks.
+     *
+     * <p>Positions with all four neighbors are not simply connected in the table; connectivity of
+     * these positions depends on the id of the location.
+     *
+     * @return the lookup table
+     */
+    private static boolean[] makeConnectivity() {
+        boolean[] table = new boolean[1 << NEIGHBORHOOD_SIZE];
+        boolean[][] subarray = new boolean[3][3];
+
+        for (int mask = 0; mask < table.length; mask++) {
+            for (int n = 0; n < NEIGHBORHOOD_SIZE; n++) {
+                subarray[n / 3][n % 3] = (mask & (1 << n)) != 0;
+            }
+
+            int links = 0;
+            for (int i = 0; i < NUMBER_NEIGHBORS; i++) {
+                if (subarray[1 + MOVES_X[i]][1 + MOVES_Y[i]]) {
+                    links++;
+                }
+            }
+
+            switch (links) {
+                case 1:
+                    table[mask] = true;
+                    break;
+                case 2:
+                    table[mask] = getConnectivityTwoNeighbors(subarray);
+                    break;
+                case 3:
+                    table[mask] = getConnectivityThreeNeighbors(subarray);
+                    break;
+                default:
+                    table[mask] = false;
+            }
         }
+
+        return table;
     }
 
     /**
@@ -104,7 +165,7 @@ public final class Potts2D extends Potts {
      * @param subarray the local neighborhood array
      * @return {@code true} if simply connected, {@code false} otherwise
      */
-    private boolean getConnectivityTwoNeighbors(boolean[][] subarray) {
+    private static boolean getConnectivityTwoNeighbors(boolean[][] subarray) {
         if (subarray[1][2] && subarray[1][0]) {
             // Check for opposites N / S
             return false;
@@ -133,7 +194,7 @@ public final class Potts2D extends Potts {
      * @param subarray the local neighborhood array
      * @return {@code true} if simply connected, {@code false} otherwise
      */
-    private boolean getConnectivityThreeNeighbors(boolean[][] subarray) {
+    private static boolean getConnectivityThreeNeighbors(boolean[][] subarray) {
         for (int i = 0; i < NUMBER_NEIGHBORS; i++) {
             if (!subarray[1 + MOVES_X[i]][1 + MOVES_Y[i]]) {
                 boolean check1 =
@@ -151,37 +212,44 @@ public final class Potts2D extends Potts {
     }
 
     @Override
-    HashSet<Integer> getUniqueIDs(int x, int y, int z) {
-        int id = ids[z][x][y];
-        HashSet<Integer> unique = new HashSet<>();
+    int getUniqueIDs(int x, int y, int z) {
+        int[] idValues = ids.getValues(x, y, z);
+        int[] neighbors = ids.neighbors;
+        int index = ids.getIndex(x, y, z);
+        int id = idValues[index];
+        int n = 0;
 
         for (int i = 0; i < NUMBER_NEIGHBORS; i++) {
-            int neighbor = ids[z][x + MOVES_X[i]][y + MOVES_Y[i]];
+            int neighbor = idValues[index + neighbors[i]];
             if (id != neighbor) {
-                unique.add(neighbor);
+                n = addUnique(uniqueIDs, n, neighbor);
             }
         }
-        return unique;
+        return n;
     }
 
     @Override
-    HashSet<Integer> getUniqueRegions(int x, int y, int z) {
-        int id = ids[z][x][y];
-        int region = regions[z][x][y];
-        HashSet<Integer> unique = new HashSet<>();
+    int getUniqueRegions(int x, int y, int z) {
+        int[] idValues = ids.getValues(x, y, z);
+        int[] regionValues = regions.getValues(x, y, z);
+        int[] neighbors = ids.neighbors;
+        int index = ids.getIndex(x, y, z);
+        int id = idValues[index];
+        int region = regionValues[index];
+        int n = 0;
 
         for (int i = 0; i < NUMBER_NEIGHBORS; i++) {
-            int neighborID = ids[z][x + MOVES_X[i]][y + MOVES_Y[i]];
-            int neighborRegion = regions[z][x + MOVES_X[i]][y + MOVES_Y[i]];
+            int neighborID = idValues[index + neighbors[i]];
+            int neighborRegion = regionValues[index + neighbors[i]];
 
             if (neighborID != id) {
                 continue;
             }
             if (region != neighborRegion) {
-                unique.add(neighborRegion);
+                n = addUnique(uniqueRegions, n, neighborRegion);
             }
         }
 
-        return unique;
+        return n;
     }
 }
@@ -1,6 +1,5 @@
 package arcade.potts.sim;
 
-import java.util.HashSet;
 import arcade.potts.sim.hamiltonian.AdhesionHamiltonian3D;
 import arcade.potts.sim.hamiltonian.Hamiltonian;
 import arcade.potts.sim.hamiltonian.HeightHamiltonian;
@@ -40,6 +39,33 @@ public final class Potts3D extends Potts {
     /** List of b direction corner movements. */
     private static final int[] CORNER_B = {-1, 1, 1, -1};
 
+    /** Number of voxels in the 3 x 3 x 3 neighborhood. */
+    private static final int NEIGHBORHOOD_SIZE = 3 * 3 * 3;
+
+    /** Neighborhood bitmask of all neighbors (N, E, S, W, U, D). */
+    private static final int NEIGHBORS_MASK =
+            (1 << 12) | (1 << 16) | (1 << 14) | (1 << 10) | (1 << 22) | (1 << 4);
+
+    /** Neighborhood bitmask of the center position. */
+    private static final int CENTER_MASK = 1 << 13;
+
+    /** Number of bits used to index the connectivity cache. */
+    private static final int CACHE_BITS = 16;
+
+    /** Flag for valid connectivity cache entries. */
+    private static final int CACHE_VALID = 1;
+
+    /** Flag for connected connectivity cache entries. */
+    private static final int CACHE_CONNECTED = 2;
+
+    /**
+     * Direct-mapped cache of simple connectivity for neighborhood bitmasks.
+     *
+     * <p>Each entry packs the neighborhood bitmask with the connectivity and valid flags into a
+     * single value, so entries are always read and written consistently.
+     */
+    private final int[] connectivityCache;
+
     /**
      * Creates a cellular {@code Potts} model in 3D.
      *
@@ -47,6 +73,21 @@ public final class Potts3D extends Potts {
      */
     public Potts3D(PottsSeries series) {
         super(series);
+        uniqueIDs = new int[NUMBER_NEIGHBORS];
+        uniqueRegions = new int[NUMBER_NEIGHBORS];
+        connectivityCache = new int[1 << CACHE_BITS];
+    }
+
+    /**
+     * Creates a worker copy of a cellular {@code Potts} model in 3D.
+     *
+     * @param potts the potts model to copy
+     */
+    Potts3D(Potts3D potts) {
+        super(potts);
+        uniqueIDs = new int[NUMBER_NEIGHBORS];
+        uniqueRegions = new int[NUMBER_NEIGHBORS];
+        connectivityCache = new int[1 << CACHE_BITS];
     }
 
     @Override
@@ -55,62 +96,109 @@ public final class Potts3D extends Potts {
             case ADHESION:
                 return new AdhesionHamiltonian3D(series, this);
             case VOLUME:
-                return new VolumeHamiltonian(series);
+                return new VolumeHamiltonian(series, registry);
             case SURFACE:
                 return new SurfaceHamiltonian3D(series, this);
             case HEIGHT:
-                return new HeightHamiltonian(series);
+                return new HeightHamiltonian(series, registry);
             case JUNCTION:
                 return new JunctionHamiltonian(series, this);
             case SUBSTRATE:
                 return new SubstrateHamiltonian(series, this);
             case PERSISTENCE:
-                return new PersistenceHamiltonian(series);
+                return new PersistenceHamiltonian(series, registry);
             default:
                 return null;
         }
     }
 
     @Override
-    boolean[][][] getNeighborhood(int id, int x, int y, int z) {
-        boolean[][][] array = new boolean[3][3][3];
-        for (int k = 0; k < 3; k++) {
-            for (int i = 0; i < 3; i++) {
-                for (int j = 0; j < 3; j++) {
-                    array[k][i][j] = ids[k + z - 1][i + x - 1][j + y - 1] == id;
-                }
+    Potts copy() {
+        return new Potts3D(this);
+    }
+
+    @Override
+    int getNeighborhood(int id, int x, int y, int z) {
+        int[] idValues = ids.getValues(x, y, z);
+        int[] neighborhood = ids.neighborhood;
+        int index = ids.getIndex(x, y, z);
+        int mask = 0;
+        for (int n = 0; n < NEIGHBORHOOD_SIZE; n++) {
+            if (idValues[index + neighborhood[n]] == id) {
+                mask |= 1 << n;
             }
         }
-        return array;
+        return mask;
     }
 
     @Override
-    boolean[][][] getNeighborhood(int id, int region, int x, int y, int z) {
+    int getNeighborhood(int id, int region, int x, int y, int z) {
+        int[] idValues = ids.getValues(x, y, z);
+        int[] regionValues = regions.getValues(x, y, z);
+        int[] neighborhood = ids.neighborhood;
+        int index = ids.getIndex(x, y, z);
+        int mask = 0;
+        for (int n = 0; n < NEIGHBORHOOD_SIZE; n++) {
+            int neighbor = index + neighborhood[n];
+            if (idValues[neighbor] == id && regionValues[neighbor] == region) {
+                mask |= 1 << n;
+            }
+        }
+        return mask;
+    }
+
+    @Override
+    boolean getConnectivity(int mask, boolean zero) {
+        int neighbors = mask & NEIGHBORS_MASK;
+        if (neighbors == NEIGHBORS_MASK) {
+            return zero;
+        }
+
+        int links = Integer.bitCount(neighbors);
+        if (links < 2) {
+            return links == 1;
+        }
+
+        int key = mask & ~CENTER_MASK;
+        int slot = (key * 0x9E3779B9) >>> (Integer.SIZE - CACHE_BITS);
+        int entry = connectivityCache[slot];
+        if ((entry & CACHE_VALID) != 0 && (entry >>> 2) == key) {
+            return (entry & CACHE_CONNECTED) != 0;
+        }
+
+        boolean connected = getConnectivity(toArray(key), links);
+        connectivityCache[slot] = (key << 2) | (connected ? CACHE_CONNECTED : 0) | CACHE_VALID;
+        return connected;
+    }
+
+    /**
+     * Converts neighborhood bitmask to an array.
+     *
+     * @param mask the neighborhood bitmask
+     * @return the local neighborhood array
+     */
+    private static boolean[][][] toArray(int mask) {
         boolean[][][] array = new boolean[3][3][3];
+        int n = 0;
         for (int k = 0; k < 3; k++) {
             for (int i = 0; i < 3; i++) {
                 for (int j = 0; j < 3; j++) {
-                    array[k][i][j] =
-                            ids[k + z - 1][i + x - 1][j + y - 1] == id
-                                    && regions[k + z - 1][i + x - 1][j + y - 1] == region;
+                    array[k][i][j] = (mask & (1 << n++)) != 0;
                 }
             }
         }
         return array;
     }
 
-    @Override
-    boolean getConnectivity(boolean[][][] array, boolean zero) {
-        int links = 0;
-        for (int i = 0; i < NUMBER_NEIGHBORS; i++) {
-            if (array[1 + MOVES_Z[i]][1 + MOVES_X[i]][1 + MOVES_Y[i]]) {
-                links++;
-            }
-        }
-
+    /**
+     * Determines simple connectivity for a position with two to five neighbors.
+     *
+     * @param array the local neighborhood array
+     * @param links the number of neighbors
+     * @return {@code true} if simply connected, {@code false} otherwise
+     */
+    private boolean getConnectivity(boolean[][][] array, int links) {
         switch (links) {
-            case 1:
-                return true;
             case 2:
                 return getConnectivityTwoNeighbors(array);
             case 3:
@@ -119,8 +207,6 @@ public final class Potts3D extends Potts {
                 return getConnectivityFourNeighbors(array);
             case 5:
                 return getConnectivityFiveNeighbors(array);
-            case 6:
-                return zero;
             default:
                 return false;
         }
@@ -465,37 +551,44 @@ public final class Potts3D extends Potts {
     }
 
     @Override
-    HashSet<Integer> getUniqueIDs(int x, int y, int z) {
-        int id = ids[z][x][y];
-        HashSet<Integer> unique = new HashSet<>();
+    int getUniqueIDs(int x, int y, int z) {
+        int[] idValues = ids.getValues(x, y, z);
+        int[] neighbors = ids.neighbors;
+        int index = ids.getIndex(x, y, z);
+        int id = idValues[index];
+        int n = 0;
 
         for (int i = 0; i < NUMBER_NEIGHBORS; i++) {
-            int neighbor = ids[z + MOVES_Z[i]][x + MOVES_X[i]][y + MOVES_Y[i]];
+            int neighbor = idValues[index + neighbors[i]];
             if (id != neighbor) {
-                unique.add(neighbor);
+                n = addUnique(uniqueIDs, n, neighbor);
             }
         }
-        return unique;
+        return n;
     }
 
     @Override
-    HashSet<Integer> getUniqueRegions(int x, int y, int z) {
-        int id = ids[z][x][y];
-        int region = regions[z][x][y];
-        HashSet<Integer> unique = new HashSet<>();
+    int getUniqueRegions(int x, int y, int z) {
+        int[] idValues = ids.getValues(x, y, z);
+        int[] regionValues = regions.getValues(x, y, z);
+        int[] neighbors = ids.neighbors;
+        int index = ids.getIndex(x, y, z);
+        int id = idValues[index];
+        int region = regionValues[index];
+        int n = 0;
 
         for (int i = 0; i < NUMBER_NEIGHBORS; i++) {
-            int neighborID = ids[z + MOVES_Z[i]][x + MOVES_X[i]][y + MOVES_Y[i]];
-            int neighborRegion = regions[z + MOVES_Z[i]][x + MOVES_X[i]][y + MOVES_Y[i]];
+            int neighborID = idValues[index + neighbors[i]];
+            int neighborRegion = regionValues[index + neighbors[i]];
 
             if (neighborID != id) {
                 continue;
             }
             if (region != neighborRegion) {
-                unique.add(neighborRegion);
+                n = addUnique(uniqueRegions, n, neighborRegion);
             }
         }
 
-        return unique;
+        return n;
     }
 }
@@ -0,0 +1,162 @@
+package arcade.potts.sim;
+
+import java.util.Arrays;
+import arcade.potts.env.grid.PottsArray;
+
+/**
+ * Set of boundary voxels in the potts arrays.
+ *
+ * <p>Boundary voxels are voxels with at least one neighbor with a different id, or with the same id
+ * and a different region. Only boundary voxels have valid targets for flips, so sampling candidate
+ * voxels from the set avoids attempts that cannot change the potts arrays.
+ *
+ * <p>The set is updated around each flipped voxel during the Monte Carlo step. Changes made to the
+ * potts arrays outside of the Monte Carlo step (such as when cells are added or removed) are logged
+ * by the potts arrays and applied before the next step.
+ */
+final class PottsBoundary {
+    /** Value of position for voxels that are not in the set. */
+    private static final int ABSENT = -1;
+
+    /** Value of position for border voxels, which are never in the set. */
+    private static final int BORDER = -2;
+
+    /** Potts array for ids. */
+    final PottsArray ids;
+
+    /** Potts array for regions. */
+    final PottsArray regions;
+
+    /** Number of neighbors. */
+    final int numberNeighbors;
+
+    /** Indices of voxels in the set. */
+    final int[] members;
+
+    /** Position of each voxel in the set. */
+    final int[] positions;
+
+    /** Number of voxels in the set. */
+    int size;
+
+    /**
+     * Creates the set of boundary voxels for the given potts model.
+     *
+     * @param potts the potts model
+     */
+    PottsBoundary(Potts potts) {
+        ids = potts.ids;
+        regions = potts.regions;
+        numberNeighbors = (potts.isSingle ? 4 : 6);
+
+        members = new int[ids.values.length];
+        positions = new int[ids.values.length];
+        Arrays.fill(positions, BORDER);
+
+        int z0 = potts.isSingle ? 0 : 1;
+        for (int k = z0; k < z0 + potts.height; k++) {
+            for (int i = 1; i <= potts.length; i++) {
+                for (int j = 1; j <= potts.width; j++) {
+                    positions[ids.index(i, j, k)] = ABSENT;
+                }
+            }
+        }
+
+        initialize();
+
+        // Log changes made outside of steps, up to the number of voxels.
+        int volume = potts.length * potts.width * potts.height;
+        ids.trackChanges(volume);
+        regions.trackChanges(volume);
+    }
+
+    /** Adds all boundary voxels to the set. */
+    void initialize() {
+        for (int index = 0; index < positions.length; index++) {
+            update(index);
+        }
+    }
+
+    /** Applies changes logged by the potts arrays. */
+    void refresh() {
+        int idChanges = ids.getNumberChanges();
+        int regionChanges = regions.getNumberChanges();
+
+        if (idChanges < 0 || regionChanges < 0) {
+            initialize();
+        } else {
+            for (int i = 0; i < idChanges; i++) {
+                change(ids.getChange(i));
+            }
+            for (int i = 0; i < regionChanges; i++) {
+                change(regions.getChange(i));
+            }
+        }
+
+        ids.clearChanges();
+        regions.clearChanges();
+    }
+
+    /**
+     * Updates the set for a changed voxel and its neighbors.
+     *
+     * <p>Border voxels are never changed, so changes to border voxels are ignored.
+     *
+     * @param index the index of the changed voxel
+     */
+    void change(int index) {
+        if (positions[index] == BORDER) {
+            return;
+        }
+
+        update(index);
+        for (int i = 0; i < numberNeighbors; i++) {
+            update(index + ids.neighbors[i]);
+        }
+    }
+
+    /**
+     * Adds or removes voxel from the set.
+     *
+     * @param index the index of the voxel
+     */
+    void update(int index) {
+        int position = positions[index];
+
+        if (position == BORDER) {
+            return;
+        }
+
+        boolean boundary = isBoundary(index);
+
+        if (boundary && position == ABSENT) {
+            members[size] = index;
+            positions[index] = size++;
+        } else if (!boundary && position != ABSENT) {
+            int last = members[--size];
+            members[position] = last;
+            positions[last] = position;
+            positions[index] = ABSENT;
+        }
+    }
+
+    /**
+     * Checks if voxel is a boundary voxel.
+     *
+     * @param index the index of the voxel
+     * @return {@code true} if the voxel is a boundary voxel, {@code false} otherwise
+     */
+    boolean isBoundary(int index) {
+        int id = ids.values[index];
+        int region = regions.values[index];
+
+        for (int i = 0; i < numberNeighbors; i++) {
+            int neighbor = index + ids.neighbors[i];
+            if (ids.values[neighbor] != id || regions.values[neighbor] != region) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -6,6 +6,8 @@ import java.util.HashSet;
 import arcade.core.sim.Series;
 import arcade.core.util.Box;
 import arcade.core.util.MiniBox;
+import arcade.potts.sim.hamiltonian.HamiltonianPlugin;
+import arcade.potts.sim.hamiltonian.HamiltonianPlugins;
 import static arcade.core.util.MiniBox.TAG_SEPARATOR;
 import static arcade.potts.util.PottsEnums.Term;
 
@@ -23,6 +25,9 @@ public final class PottsSeries extends Series {
     /** List of Hamiltonian terms. */
     public ArrayList<Term> terms;
 
+    /** List of user-defined Hamiltonian term plugins. */
+    public ArrayList<HamiltonianPlugin> plugins;
+
     /**
      * Creates a {@code Series} object given setup information parsed from XML.
      *
@@ -103,18 +108,42 @@ public final class PottsSeries extends Series {
             box = pottsBox.get(0);
         }
 
-        // Get default parameters and any parameter tags.
+        // Get list of terms. Terms that are not built-in are loaded from plugins.
+        this.terms = new ArrayList<>();
+        this.plugins = new ArrayList<>();
+        for (String term : box.filterTags("TERM")) {
+            if (isTerm(term)) {
+                terms.add(Term.valueOf(term.toUpperCase()));
+            } else {
+                plugins.add(HamiltonianPlugins.get(term));
+            }
+        }
+
+        // Get default parameters, including default parameters for plugins.
+        MiniBox defaults = new MiniBox();
+        for (String parameter : pottsDefaults.getKeys()) {
+            defaults.put(parameter, pottsDefaults.get(parameter));
+        }
+        for (HamiltonianPlugin plugin : plugins) {
+            MiniBox pluginDefaults = plugin.getDefaults();
+            for (String parameter : pluginDefaults.getKeys()) {
+                String key = plugin.getName().toLowerCase() + TAG_SEPARATOR + parameter;
+                defaults.put(key, pluginDefaults.get(parameter));
+            }
+        }
+
+        // Get parameter tags.
         Box parameters = box.filterBoxByTag("PARAMETER");
         MiniBox parameterValues = parameters.getIdValForTagAtt("PARAMETER", "value");
         MiniBox parameterScales = parameters.getIdValForTagAtt("PARAMETER", "scale");
 
         // Add in parameters. Start with value (if given) or default (if not
         // given). Then apply any scaling.
-        for (String parameter : pottsDefaults.getKeys()) {
+        for (String parameter : defaults.getKeys()) {
             parseParameter(
                     this.potts,
                     parameter,
-                    pottsDefaults.get(parameter),
+                    defaults.get(parameter),
                     parameterValues,
                     parameterScales);
 
@@ -182,12 +211,21 @@ public final class PottsSeries extends Series {
                 }
             }
         }
+    }
 
-        // Get list of terms.
-        this.terms = new ArrayList<>();
-        for (String term : box.filterTags("TERM")) {
-            terms.add(Term.valueOf(term.toUpperCase()));
+    /**
+     * Checks if the given term is a built-in Hamiltonian term.
+     *
+     * @param term the term name
+     * @return {@code true} if the term is built-in, {@code false} otherwise
+     */
+    static boolean isTerm(String term) {
+        for (Term value : Term.values()) {
+            if (value.name().equalsIgnoreCase(term)) {
+                return true;
+            }
         }
+        return false;
     }
 
     @Override
@@ -17,7 +17,9 @@ import arcade.core.env.location.LocationFactory;
 import arcade.core.sim.Series;
 import arcade.core.sim.Simulation;
 import arcade.core.util.MiniBox;
+import arcade.core.util.RandomStreams;
 import arcade.potts.agent.cell.PottsCell;
+import arcade.potts.agent.cell.PottsCellBatch;
 import arcade.potts.agent.cell.PottsCellFactory;
 import arcade.potts.env.grid.PottsGrid;
 import arcade.potts.env.location.PottsLocationFactory;
@@ -31,6 +33,9 @@ public abstract class PottsSimulation extends SimState implements Simulation {
     /** Random number generator seed for this simulation. */
     final int seed;
 
+    /** Random number generator streams for this simulation. */
+    final RandomStreams streams;
+
     /** {@link arcade.potts.sim.Potts} object for the simulation. */
     Potts potts;
 
@@ -56,6 +61,7 @@ public abstract class PottsSimulation extends SimState implements Simulation {
         super(seed);
         this.series = (PottsSeries) series;
         this.seed = (int) seed - Series.SEED_OFFSET;
+        this.streams = new RandomStreams(seed);
 
         this.locationFactory = makeLocationFactory();
         this.cellFactory = makeCellFactory();
@@ -76,6 +82,11 @@ public abstract class PottsSimulation extends SimState implements Simulation {
         return seed;
     }
 
+    @Override
+    public final RandomStreams getRandomStreams() {
+        return streams;
+    }
+
     @Override
     public final int getID() {
         return ++id;
@@ -179,6 +190,11 @@ public abstract class PottsSimulation extends SimState implements Simulation {
     public void finish() {
         super.finish();
 
+        // Shut down threads of parallel sweeps.
+        if (potts != null) {
+            potts.finish();
+        }
+
         // Finalize saver.
         if (!series.isVis) {
             doOutput(false);
@@ -215,16 +231,28 @@ public abstract class PottsSimulation extends SimState implements Simulation {
     @Override
     public final void setupAgents() {
         // Initialize grid for agents.
-        grid = new PottsGrid();
+        grid = new PottsGrid(potts.registry);
         potts.grid = grid;
 
         // Initialize factories.
         locationFactory.initialize(series, random);
         cellFactory.initialize(series, random);
 
+        ArrayList<PottsCell> cells = new ArrayList<>();
+
+        // Check if cells are stepped in batches by population.
+        boolean batched = series.potts.getInt("BATCH_CELLS") != 0;
+
         // Iterate through each population to create agents.
         for (MiniBox population : series.populations.values()) {
             int pop = population.getInt("CODE");
+
+            // Create and schedule batch for the population.
+            if (batched) {
+                PottsCellBatch batch = new PottsCellBatch();
+                batch.schedule(schedule);
+                cellFactory.popToBatch.put(pop, batch);
+            }
             HashSet<Integer> ids = cellFactory.popToIDs.get(pop);
 
             for (int i : ids) {
@@ -243,14 +271,17 @@ public abstract class PottsSimulation extends SimState implements Simulation {
 
                 // Add, initialize, and schedule the cell.
                 grid.addObject(cell, null);
-                potts.register(cell);
                 cell.initialize(potts.ids, potts.regions);
                 cell.schedule(schedule);
+                cells.add(cell);
 
                 // Update id tracking.
                 id = Math.max(i, id);
             }
         }
+
+        // Register all cells at once.
+        potts.register(cells);
     }
 
     @Override
@@ -0,0 +1,196 @@
+package arcade.potts.sim;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import ec.util.MersenneTwisterFast;
+import arcade.core.util.RandomStreams;
+
+/**
+ * Parallel sweep of Monte Carlo steps over the potts arrays.
+ *
+ * <p>The potts arrays are partitioned into blocks colored in a checkerboard pattern, such that
+ * blocks of the same color are always separated by at least one block of a different color.
+ * Flipping a voxel only depends on the voxel and its immediate neighbors, so blocks of the same
+ * color do not interact and are swept concurrently by worker copies of the potts model.
+ *
+ * <p>Each block draws from its own independent stream of the simulation random number generator
+ * streams, so sweeps do not draw from the simulation random number generator. Location changes
+ * made by each worker are deferred until all blocks of the color are swept, and then applied in
+ * worker order. Results therefore depend on the number of threads, but not on the scheduling of
+ * the threads.
+ *
+ * <p>If total energy is tracked, each worker tracks changes in energy for its accepted flips, which
+ * are added to the total energy of the potts model in worker order after each step. Changes in
+ * energy are calculated from the locations at the start of each color, so the totals are only
+ * approximate between full calculations.
+ */
+final class PottsSweep {
+    /** Size of blocks in each direction. */
+    static final int BLOCK_SIZE = 8;
+
+    /** Key for random number generator streams of blocks. */
+    static final String STREAM_KEY = "potts";
+
+    /** Potts model being swept. */
+    final Potts potts;
+
+    /** Worker copies of the potts model, one per thread. */
+    final Potts[] workers;
+
+    /** Bounds (x0, y0, z0, x1, y1, z1) of blocks for each color. */
+    final int[][][] blocks;
+
+    /** Random number generators of blocks for each color. */
+    final MersenneTwisterFast[][] randoms;
+
+    /** Number of flip attempts per block in each round. */
+    final int[][] attempts;
+
+    /** Number of rounds through all colors in each Monte Carlo step. */
+    final int rounds;
+
+    /** Pool of threads for sweeping blocks, shut down at the end of the simulation. */
+    final ForkJoinPool pool;
+
+    /**
+     * Creates a parallel sweep for the given potts model.
+     *
+     * @param potts the potts model
+     * @param streams the random number generator streams for blocks
+     */
+    PottsSweep(Potts potts, RandomStreams streams) {
+        this.potts = potts;
+
+        int colors = potts.isSingle ? 4 : 8;
+        int nx = (potts.length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        int ny = (potts.width + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        int nz = potts.isSingle ? 1 : (potts.height + BLOCK_SIZE - 1) / BLOCK_SIZE;
+
+        // Assign blocks to colors by the parity of the block position.
+        ArrayList<ArrayList<int[]>> colorBlocks = new ArrayList<>();
+        for (int c = 0; c < colors; c++) {
+            colorBlocks.add(new ArrayList<>());
+        }
+
+        for (int k = 0; k < nz; k++) {
+            for (int i = 0; i < nx; i++) {
+                for (int j = 0; j < ny; j++) {
+                    int color = (i & 1) | ((j & 1) << 1) | ((k & 1) << 2);
+                    int x0 = 1 + i * BLOCK_SIZE;
+                    int y0 = 1 + j * BLOCK_SIZE;
+                    int z0 = potts.isSingle ? 0 : 1 + k * BLOCK_SIZE;
+                    int x1 = Math.min(x0 + BLOCK_SIZE, potts.length + 1);
+                    int y1 = Math.min(y0 + BLOCK_SIZE, potts.width + 1);
+                    int z1 = potts.isSingle ? 1 : Math.min(z0 + BLOCK_SIZE, potts.height + 1);
+                    colorBlocks.get(color).add(new int[] {x0, y0, z0, x1, y1, z1});
+                }
+            }
+        }
+
+        blocks = new int[colors][][];
+        randoms = new MersenneTwisterFast[colors][];
+        attempts = new int[colors][];
+        int stream = 0;
+
+        for (int c = 0; c < colors; c++) {
+            blocks[c] = colorBlocks.get(c).toArray(new int[0][]);
+            randoms[c] = new MersenneTwisterFast[blocks[c].length];
+            attempts[c] = new int[blocks[c].length];
+
+            for (int b = 0; b < blocks[c].length; b++) {
+                int[] block = blocks[c][b];
+                int volume = (block[3] - block[0]) * (block[4] - block[1]) * (block[5] - block[2]);
+                randoms[c][b] = streams.getStream(STREAM_KEY, stream++);
+                attempts[c][b] = Math.max(1, volume / colors);
+            }
+        }
+
+        // Each round attempts to flip approximately one in every (colors)
+        // voxels, so the number of rounds is scaled to match the number of
+        // steps in a sequential Monte Carlo step.
+        int volume = potts.length * potts.width * potts.height;
+        rounds = Math.max(1, (int) Math.round((double) potts.steps * colors / volume));
+
+        workers = new Potts[potts.threads];
+        for (int i = 0; i < potts.threads; i++) {
+            workers[i] = potts.copy();
+        }
+
+        pool = new ForkJoinPool(potts.threads);
+    }
+
+    /** Sweeps all blocks for one Monte Carlo step. */
+    void step() {
+        for (Potts worker : workers) {
+            worker.ids = potts.ids;
+            worker.regions = potts.regions;
+            worker.grid = potts.grid;
+
+            if (potts.energies != null && worker.energies == null) {
+                worker.energies = new double[potts.energies.length];
+            }
+        }
+
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[workers.length];
+
+        for (int round = 0; round < rounds; round++) {
+            for (int color = 0; color < blocks.length; color++) {
+                int c = color;
+
+                for (int i = 0; i < workers.length; i++) {
+                    int w = i;
+                    tasks[i] = pool.submit(() -> sweep(w, c));
+                }
+
+                for (ForkJoinTask<?> task : tasks) {
+                    task.join();
+                }
+
+                for (Potts worker : workers) {
+                    worker.applyDeferred();
+                }
+            }
+        }
+
+        if (potts.energies != null) {
+            for (Potts worker : workers) {
+                for (int i = 0; i < worker.energies.length; i++) {
+                    potts.energies[i] += worker.energies[i];
+                    worker.energies[i] = 0;
+                }
+            }
+        }
+    }
+
+    /** Shuts down the pool of threads for sweeping blocks. */
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Sweeps the blocks of the given color assigned to the given worker.
+     *
+     * @param w the worker index
+     * @param c the block color
+     */
+    void sweep(int w, int c) {
+        Potts worker = workers[w];
+
+        for (int b = w; b < blocks[c].length; b += workers.length) {
+            int[] block = blocks[c][b];
+            MersenneTwisterFast random = randoms[c][b];
+            int dx = block[3] - block[0];
+            int dy = block[4] - block[1];
+            int dz = block[5] - block[2];
+
+            for (int step = 0; step < attempts[c][b]; step++) {
+                int x = block[0] + random.nextInt(dx);
+                int y = block[1] + random.nextInt(dy);
+                int z = block[2] + random.nextInt(dz);
+                double r = random.nextDouble();
+                worker.attempt(x, y, z, r, random);
+            }
+        }
+    }
+}
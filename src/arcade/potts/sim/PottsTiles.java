@@ -0,0 +1,336 @@
+package arcade.potts.sim;
+
+import arcade.potts.env.grid.PottsArray;
+
+/**
+ * Set of active tiles in the potts arrays.
+ *
+ * <p>The interior of the potts arrays is divided into cubic tiles (or square tiles for single layer
+ * arrays). A tile is active if the tile or any face neighboring tile contains a voxel with a
+ * non-zero id, which covers the one voxel halo of empty voxels around each cell. Voxels outside of
+ * active tiles have no valid targets for flips, so sampling candidate voxels from active tiles
+ * avoids attempts that cannot change the potts arrays when cells occupy a small fraction of the
+ * array.
+ *
+ * <p>The number of occupied voxels in each tile is updated for each flipped voxel during the Monte
+ * Carlo step. Changes made to the potts ids outside of the Monte Carlo step (such as when cells are
+ * added or removed) are logged by the potts array, and the changed tiles are counted again before
+ * the next step.
+ */
+final class PottsTiles {
+    /** Value of position for tiles that are not in the set. */
+    private static final int ABSENT = -1;
+
+    /** Potts array for ids. */
+    final PottsArray ids;
+
+    /** Length (x direction) and width (y direction) of each tile. */
+    final int side;
+
+    /** Height (z direction) of each tile. */
+    final int sideZ;
+
+    /** Number of voxels in each tile. */
+    final int volume;
+
+    /** Lowest z coordinate in the interior of the potts arrays. */
+    final int z0;
+
+    /** Length (x direction) of the interior of the potts arrays. */
+    final int length;
+
+    /** Width (y direction) of the interior of the potts arrays. */
+    final int width;
+
+    /** Height (z direction) of the interior of the potts arrays. */
+    final int height;
+
+    /** Number of tiles in the x direction. */
+    final int numberX;
+
+    /** Number of tiles in the y direction. */
+    final int numberY;
+
+    /** Number of tiles in the z direction. */
+    final int numberZ;
+
+    /** Number of voxels with non-zero id in each tile. */
+    final int[] occupied;
+
+    /** Indices of tiles in the set. */
+    final int[] members;
+
+    /** Position of each tile in the set. */
+    final int[] positions;
+
+    /** Number of tiles in the set. */
+    int size;
+
+    /** Flags indicating tiles with logged changes. */
+    private final boolean[] changed;
+
+    /** Indices of tiles with logged changes. */
+    private final int[] changes;
+
+    /**
+     * Creates the set of active tiles for the given potts model.
+     *
+     * @param potts the potts model
+     * @param side the length and width of each tile
+     */
+    PottsTiles(Potts potts, int side) {
+        ids = potts.ids;
+        length = potts.length;
+        width = potts.width;
+        height = potts.height;
+
+        this.side = side;
+        sideZ = (potts.isSingle ? 1 : side);
+        volume = side * side * sideZ;
+        z0 = (potts.isSingle ? 0 : 1);
+
+        numberX = (length + side - 1) / side;
+        numberY = (width + side - 1) / side;
+        numberZ = (height + sideZ - 1) / sideZ;
+
+        int numberTiles = numberX * numberY * numberZ;
+        occupied = new int[numberTiles];
+        members = new int[numberTiles];
+        positions = new int[numberTiles];
+        changed = new boolean[numberTiles];
+        changes = new int[numberTiles];
+
+        initialize();
+
+        // Log changes made outside of steps, up to the number of voxels.
+        ids.trackChanges(length * width * height);
+    }
+
+    /** Counts occupied voxels in all tiles and adds all active tiles to the set. */
+    void initialize() {
+        for (int tile = 0; tile < occupied.length; tile++) {
+            occupied[tile] = count(tile);
+        }
+
+        size = 0;
+        for (int tile = 0; tile < occupied.length; tile++) {
+            positions[tile] = ABSENT;
+            update(tile);
+        }
+    }
+
+    /** Applies changes logged by the potts array. */
+    void refresh() {
+        int idChanges = ids.getNumberChanges();
+
+        if (idChanges < 0) {
+            initialize();
+        } else {
+            int numberChanged = 0;
+
+            for (int i = 0; i < idChanges; i++) {
+                int index = ids.getChange(i);
+                int y = index % ids.width;
+                int x = (index / ids.width) % ids.length;
+                int z = index / (ids.width * ids.length);
+
+                if (!isInterior(x, y, z)) {
+                    continue;
+                }
+
+                int tile = getTile(x, y, z);
+                if (!changed[tile]) {
+                    changed[tile] = true;
+                    changes[numberChanged++] = tile;
+                }
+            }
+
+            for (int i = 0; i < numberChanged; i++) {
+                int tile = changes[i];
+                changed[tile] = false;
+                occupied[tile] = count(tile);
+                updateNeighbors(tile);
+            }
+        }
+
+        ids.clearChanges();
+    }
+
+    /**
+     * Updates the set for a voxel flipped from source to target id.
+     *
+     * @param sourceID the id of the source voxel
+     * @param targetID the id of the target voxel
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     */
+    void change(int sourceID, int targetID, int x, int y, int z) {
+        if ((sourceID == 0) == (targetID == 0)) {
+            return;
+        }
+
+        int tile = getTile(x, y, z);
+        occupied[tile] += (targetID == 0 ? -1 : 1);
+
+        if (occupied[tile] <= 1) {
+            updateNeighbors(tile);
+        }
+    }
+
+    /**
+     * Adds or removes the tile and its face neighbors from the set.
+     *
+     * @param tile the index of the tile
+     */
+    void updateNeighbors(int tile) {
+        int ty = tile % numberY;
+        int tx = (tile / numberY) % numberX;
+        int tz = tile / (numberY * numberX);
+
+        update(tile);
+        if (ty > 0) {
+            update(tile - 1);
+        }
+        if (ty < numberY - 1) {
+            update(tile + 1);
+        }
+        if (tx > 0) {
+            update(tile - numberY);
+        }
+        if (tx < numberX - 1) {
+            update(tile + numberY);
+        }
+        if (tz > 0) {
+            update(tile - numberX * numberY);
+        }
+        if (tz < numberZ - 1) {
+            update(tile + numberX * numberY);
+        }
+    }
+
+    /**
+     * Adds or removes tile from the set.
+     *
+     * @param tile the index of the tile
+     */
+    void update(int tile) {
+        int position = positions[tile];
+        boolean active = isActive(tile);
+
+        if (active && position == ABSENT) {
+            members[size] = tile;
+            positions[tile] = size++;
+        } else if (!active && position != ABSENT) {
+            int last = members[--size];
+            members[position] = last;
+            positions[last] = position;
+            positions[tile] = ABSENT;
+        }
+    }
+
+    /**
+     * Checks if tile is an active tile.
+     *
+     * @param tile the index of the tile
+     * @return {@code true} if the tile is active, {@code false} otherwise
+     */
+    boolean isActive(int tile) {
+        if (occupied[tile] > 0) {
+            return true;
+        }
+
+        int ty = tile % numberY;
+        int tx = (tile / numberY) % numberX;
+        int tz = tile / (numberY * numberX);
+
+        return (ty > 0 && occupied[tile - 1] > 0)
+                || (ty < numberY - 1 && occupied[tile + 1] > 0)
+                || (tx > 0 && occupied[tile - numberY] > 0)
+                || (tx < numberX - 1 && occupied[tile + numberY] > 0)
+                || (tz > 0 && occupied[tile - numberX * numberY] > 0)
+                || (tz < numberZ - 1 && occupied[tile + numberX * numberY] > 0);
+    }
+
+    /**
+     * Counts the number of voxels with non-zero id in the tile.
+     *
+     * @param tile the index of the tile
+     * @return the number of occupied voxels
+     */
+    int count(int tile) {
+        int x0 = getX(tile);
+        int y0 = getY(tile);
+        int zStart = getZ(tile);
+        int xEnd = Math.min(x0 + side, length + 1);
+        int yEnd = Math.min(y0 + side, width + 1);
+        int zEnd = Math.min(zStart + sideZ, z0 + height);
+        int count = 0;
+
+        for (int k = zStart; k < zEnd; k++) {
+            for (int i = x0; i < xEnd; i++) {
+                for (int j = y0; j < yEnd; j++) {
+                    if (ids.get(i, j, k) != 0) {
+                        count++;
+                    }
+                }
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Checks if the voxel is in the interior of the potts arrays.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @return {@code true} if the voxel is in the interior, {@code false} otherwise
+     */
+    boolean isInterior(int x, int y, int z) {
+        return x >= 1 && x <= length && y >= 1 && y <= width && z >= z0 && z < z0 + height;
+    }
+
+    /**
+     * Gets the index of the tile containing the voxel.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @return the index of the tile
+     */
+    int getTile(int x, int y, int z) {
+        return ((z - z0) / sideZ * numberX + (x - 1) / side) * numberY + (y - 1) / side;
+    }
+
+    /**
+     * Gets the lowest x coordinate in the tile.
+     *
+     * @param tile the index of the tile
+     * @return the x coordinate
+     */
+    int getX(int tile) {
+        return (tile / numberY) % numberX * side + 1;
+    }
+
+    /**
+     * Gets the lowest y coordinate in the tile.
+     *
+     * @param tile the index of the tile
+     * @return the y coordinate
+     */
+    int getY(int tile) {
+        return tile % numberY * side + 1;
+    }
+
+    /**
+     * Gets the lowest z coordinate in the tile.
+     *
+     * @param tile the index of the tile
+     * @return the z coordinate
+     */
+    int getZ(int tile) {
+        return tile / (numberY * numberX) * sideZ + z0;
+    }
+}
@@ -1,20 +1,48 @@
 package arcade.potts.sim.hamiltonian;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Set;
 import arcade.core.util.MiniBox;
 import arcade.potts.agent.cell.PottsCell;
+import arcade.potts.env.grid.PottsArray;
 import arcade.potts.sim.Potts;
 import arcade.potts.sim.PottsSeries;
+import arcade.potts.util.Registry;
+import static arcade.potts.env.grid.PottsArray.NEIGHBORHOOD_CENTER;
 import static arcade.potts.sim.PottsSeries.TARGET_SEPARATOR;
 import static arcade.potts.util.PottsEnums.Region;
 
 /** Implementation of {@link Hamiltonian} for adhesion energy. */
-public abstract class AdhesionHamiltonian implements Hamiltonian {
-    /** Map of hamiltonian config objects. */
-    final HashMap<Integer, AdhesionHamiltonianConfig> configs;
+public abstract class AdhesionHamiltonian implements NeighborhoodHamiltonian {
+    /** List of regions. */
+    private static final Region[] REGIONS = Region.values();
+
+    /** Ordinal of the undefined region. */
+    static final int REGION_UNDEFINED = Region.UNDEFINED.ordinal();
+
+    /** Ordinal of the default region. */
+    static final int REGION_DEFAULT = Region.DEFAULT.ordinal();
+
+    /** Initial number of ids with populations. */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** Registry of hamiltonian config objects. */
+    final Registry.Slot<AdhesionHamiltonianConfig> configs;
+
+    /** Config of the first registered cell of each population. */
+    AdhesionHamiltonianConfig[] popToConfig;
+
+    /** Population of each registered id, 0 for media and unregistered ids. */
+    int[] idToPop;
+
+    /** Symmetric adhesion between populations, with population 0 for media. */
+    double[][] adhesionMatrix;
+
+    /** Symmetric adhesion between region ordinals for each population. */
+    double[][][] adhesionRegionMatrix;
 
     /** Map of population to adhesion values. */
     final HashMap<Integer, double[]> popToAdhesion;
@@ -23,10 +51,10 @@ public abstract class AdhesionHamiltonian implements Hamiltonian {
     final HashMap<Integer, EnumMap<Region, EnumMap<Region, Double>>> popToAdhesionRegion;
 
     /** Potts array for ids. */
-    final int[][][] ids;
+    final PottsArray ids;
 
     /** Potts array for regions. */
-    final int[][][] regions;
+    final PottsArray regions;
 
     /**
      * Creates the adhesion energy term for the {@code Potts} Hamiltonian.
@@ -35,10 +63,14 @@ public abstract class AdhesionHamiltonian implements Hamiltonian {
      * @param series the associated Series instance
      */
     public AdhesionHamiltonian(PottsSeries series, Potts potts) {
-        configs = new HashMap<>();
+        configs = potts.registry.addSlot();
         configs.put(0, null);
         popToAdhesion = new HashMap<>();
         popToAdhesionRegion = new HashMap<>();
+        popToConfig = new AdhesionHamiltonianConfig[1];
+        idToPop = new int[INITIAL_CAPACITY];
+        adhesionMatrix = new double[1][1];
+        adhesionRegionMatrix = new double[1][][];
         initialize(series);
 
         this.ids = potts.ids;
@@ -52,12 +84,82 @@ public abstract class AdhesionHamiltonian implements Hamiltonian {
         EnumMap<Region, EnumMap<Region, Double>> adhesionRegion = popToAdhesionRegion.get(pop);
         AdhesionHamiltonianConfig config =
                 new AdhesionHamiltonianConfig(cell, adhesion, adhesionRegion);
-        configs.put(cell.getID(), config);
+        add(cell.getID(), config);
     }
 
     @Override
     public void deregister(PottsCell cell) {
-        configs.remove(cell.getID());
+        int id = cell.getID();
+        configs.remove(id);
+
+        if (id < idToPop.length) {
+            idToPop[id] = 0;
+        }
+    }
+
+    /**
+     * Adds the config for the given id.
+     *
+     * <p>Adhesion values are the same for all cells in a population, so adhesion matrices are
+     * built from the config of the first cell registered for each population.
+     *
+     * @param id the cell id
+     * @param config the config of the cell
+     */
+    void add(int id, AdhesionHamiltonianConfig config) {
+        configs.put(id, config);
+        int pop = config.cell.getPop();
+
+        if (id >= idToPop.length) {
+            idToPop = Arrays.copyOf(idToPop, Math.max(2 * idToPop.length, id + 1));
+        }
+
+        idToPop[id] = pop;
+
+        if (pop >= popToConfig.length) {
+            popToConfig = Arrays.copyOf(popToConfig, pop + 1);
+        }
+
+        if (popToConfig[pop] == null) {
+            popToConfig[pop] = config;
+            calculateMatrices();
+        }
+    }
+
+    /** Calculates adhesion matrices for populations and regions of registered populations. */
+    void calculateMatrices() {
+        int n = popToConfig.length;
+        adhesionMatrix = new double[n][n];
+        adhesionRegionMatrix = new double[n][][];
+
+        for (int a = 0; a < n; a++) {
+            for (int b = 0; b < n; b++) {
+                if (popToConfig[a] != null || popToConfig[b] != null) {
+                    adhesionMatrix[a][b] = getAdhesion(popToConfig[a], popToConfig[b]);
+                }
+            }
+
+            if (popToConfig[a] != null) {
+                double[][] matrix = new double[REGIONS.length][REGIONS.length];
+                for (Region source : REGIONS) {
+                    for (Region target : REGIONS) {
+                        matrix[source.ordinal()][target.ordinal()] =
+                                getAdhesion(popToConfig[a], source, target);
+                    }
+                }
+                adhesionRegionMatrix[a] = matrix;
+            }
+        }
+    }
+
+    /**
+     * Gets the population of the given id.
+     *
+     * @param id the cell id
+     * @return the population, 0 for media and unregistered ids
+     */
+    int getPop(int id) {
+        return (id < idToPop.length ? idToPop[id] : 0);
     }
 
     /**
@@ -88,6 +190,99 @@ public abstract class AdhesionHamiltonian implements Hamiltonian {
         return target - source;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Adhesion energies for the source and target IDs are summed in a single pass across the
+     * shared neighborhood, such that the population of each neighbor is resolved once.
+     */
+    @Override
+    public double getDelta(Neighborhood neighborhood, int sourceID, int targetID) {
+        double[] source = adhesionMatrix[getPop(sourceID)];
+        double[] target = adhesionMatrix[getPop(targetID)];
+        int[] neighbors = neighborhood.ids;
+        double sourceAdhesion = 0;
+        double targetAdhesion = 0;
+
+        for (int n = neighborhood.start; n < neighborhood.end; n++) {
+            int neighbor = neighbors[n];
+            if (n != NEIGHBORHOOD_CENTER) {
+                int pop = getPop(neighbor);
+                if (neighbor != sourceID) {
+                    sourceAdhesion += source[pop];
+                }
+                if (neighbor != targetID) {
+                    targetAdhesion += target[pop];
+                }
+            }
+        }
+
+        int size = neighborhood.getNumberNeighbors();
+        return targetAdhesion / size - sourceAdhesion / size;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Adhesion energies for the source and target regions are summed in a single pass across
+     * the shared neighborhood.
+     */
+    @Override
+    public double getDelta(Neighborhood neighborhood, int id, int sourceRegion, int targetRegion) {
+        double[][] matrix = adhesionRegionMatrix[getPop(id)];
+        double[] source = matrix[sourceRegion];
+        double[] target = matrix[targetRegion];
+        double sourceAdhesion = 0;
+        double targetAdhesion = 0;
+
+        for (int n = neighborhood.start; n < neighborhood.end; n++) {
+            int region = neighborhood.regions[n];
+            if (n != NEIGHBORHOOD_CENTER
+                    && neighborhood.ids[n] == id
+                    && region != REGION_UNDEFINED
+                    && region != REGION_DEFAULT) {
+                if (region != sourceRegion) {
+                    sourceAdhesion += source[region];
+                }
+                if (region != targetRegion) {
+                    targetAdhesion += target[region];
+                }
+            }
+        }
+
+        int size = neighborhood.getNumberNeighbors();
+        return targetAdhesion / size - sourceAdhesion / size;
+    }
+
+    /**
+     * Gets adhesion energy between a voxel and a neighbor voxel.
+     *
+     * @param a the config of the voxel, {@code null} for media
+     * @param b the config of the neighbor voxel, {@code null} for media
+     * @return the energy
+     */
+    static double getAdhesion(AdhesionHamiltonianConfig a, AdhesionHamiltonianConfig b) {
+        if (a == null) {
+            return b.getAdhesion(0);
+        } else if (b == null) {
+            return a.getAdhesion(0);
+        } else {
+            return (a.getAdhesion(b.cell.getPop()) + b.getAdhesion(a.cell.getPop())) / 2.0;
+        }
+    }
+
+    /**
+     * Gets adhesion energy between two regions of a voxel.
+     *
+     * @param config the config of the voxel
+     * @param a the region of the voxel
+     * @param b the region of the neighbor voxel
+     * @return the energy
+     */
+    static double getAdhesion(AdhesionHamiltonianConfig config, Region a, Region b) {
+        return (config.getAdhesion(a, b) + config.getAdhesion(b, a)) / 2.0;
+    }
+
     /**
      * Gets adhesion energy for a given voxel.
      *
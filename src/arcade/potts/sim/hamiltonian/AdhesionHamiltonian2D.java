@@ -2,13 +2,19 @@ package arcade.potts.sim.hamiltonian;
 
 import arcade.potts.sim.Potts;
 import arcade.potts.sim.PottsSeries;
-import static arcade.potts.util.PottsEnums.Region;
+import static arcade.potts.env.grid.PottsArray.NEIGHBORHOOD_CENTER;
 
 /** Extension of {@link AdhesionHamiltonian} for 2D. */
 public class AdhesionHamiltonian2D extends AdhesionHamiltonian {
     /** Neighborhood size. */
     public static final int NEIGHBORHOOD_SIZE = (3 * 3) - 1;
 
+    /** Start of the single plane within the 3 x 3 x 3 neighborhood offsets. */
+    private static final int PLANE_START = 3 * 3;
+
+    /** End of the single plane within the 3 x 3 x 3 neighborhood offsets. */
+    private static final int PLANE_END = 2 * 3 * 3;
+
     /**
      * Creates the adhesion energy term for {@code Potts} Hamiltonian in 2D.
      *
@@ -22,22 +28,14 @@ public class AdhesionHamiltonian2D extends AdhesionHamiltonian {
     @Override
     double getAdhesion(int id, int x, int y, int z) {
         double h = 0;
-        AdhesionHamiltonianConfig a = configs.get(id);
+        double[] adhesion = adhesionMatrix[getPop(id)];
+        int[] idValues = ids.getValues(x, y, z);
+        int index = ids.getIndex(x, y, z);
 
-        for (int i = x - 1; i <= x + 1; i++) {
-            for (int j = y - 1; j <= y + 1; j++) {
-                if (!(i == x && j == y) && ids[z][i][j] != id) {
-                    AdhesionHamiltonianConfig b = configs.get(ids[z][i][j]);
-                    if (a == null) {
-                        h += b.getAdhesion(0);
-                    } else if (b == null) {
-                        h += a.getAdhesion(0);
-                    } else {
-                        h +=
-                                (a.getAdhesion(b.cell.getPop()) + b.getAdhesion(a.cell.getPop()))
-                                        / 2.0;
-                    }
-                }
+        for (int n = PLANE_START; n < PLANE_END; n++) {
+            int neighbor = idValues[index + ids.neighborhood[n]];
+            if (n != NEIGHBORHOOD_CENTER && neighbor != id) {
+                h += adhesion[getPop(neighbor)];
             }
         }
 
@@ -47,19 +45,20 @@ public class AdhesionHamiltonian2D extends AdhesionHamiltonian {
     @Override
     double getAdhesion(int id, int t, int x, int y, int z) {
         double h = 0;
-        AdhesionHamiltonianConfig c = configs.get(id);
-        Region region = Region.values()[t];
+        double[] adhesion = adhesionRegionMatrix[getPop(id)][t];
+        int[] idValues = ids.getValues(x, y, z);
+        int[] regionValues = regions.getValues(x, y, z);
+        int index = ids.getIndex(x, y, z);
 
-        for (int i = x - 1; i <= x + 1; i++) {
-            for (int j = y - 1; j <= y + 1; j++) {
-                Region xy = Region.values()[regions[z][i][j]];
-                if (!(i == x && j == y)
-                        && ids[z][i][j] == id
-                        && xy != region
-                        && xy != Region.UNDEFINED
-                        && xy != Region.DEFAULT) {
-                    h += (c.getAdhesion(region, xy) + c.getAdhesion(xy, region)) / 2.0;
-                }
+        for (int n = PLANE_START; n < PLANE_END; n++) {
+            int neighbor = index + ids.neighborhood[n];
+            int xy = regionValues[neighbor];
+            if (n != NEIGHBORHOOD_CENTER
+                    && idValues[neighbor] == id
+                    && xy != t
+                    && xy != REGION_UNDEFINED
+                    && xy != REGION_DEFAULT) {
+                h += adhesion[xy];
             }
         }
 
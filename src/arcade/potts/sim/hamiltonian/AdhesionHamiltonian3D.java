@@ -1,8 +1,9 @@
 package arcade.potts.sim.hamiltonian;
 
+import arcade.potts.env.grid.PottsArray;
 import arcade.potts.sim.Potts;
 import arcade.potts.sim.PottsSeries;
-import static arcade.potts.util.PottsEnums.Region;
+import static arcade.potts.env.grid.PottsArray.NEIGHBORHOOD_CENTER;
 
 /** Extension of {@link AdhesionHamiltonian} for 3D. */
 public class AdhesionHamiltonian3D extends AdhesionHamiltonian {
@@ -22,25 +23,14 @@ public class AdhesionHamiltonian3D extends AdhesionHamiltonian {
     @Override
     double getAdhesion(int id, int x, int y, int z) {
         double h = 0;
-        AdhesionHamiltonianConfig a = configs.get(id);
-
-        for (int k = z - 1; k <= z + 1; k++) {
-            for (int i = x - 1; i <= x + 1; i++) {
-                for (int j = y - 1; j <= y + 1; j++) {
-                    if (!(k == z && i == x && j == y) && ids[k][i][j] != id) {
-                        AdhesionHamiltonianConfig b = configs.get(ids[k][i][j]);
-                        if (a == null) {
-                            h += b.getAdhesion(0);
-                        } else if (b == null) {
-                            h += a.getAdhesion(0);
-                        } else {
-                            h +=
-                                    (a.getAdhesion(b.cell.getPop())
-                                                    + b.getAdhesion(a.cell.getPop()))
-                                            / 2.0;
-                        }
-                    }
-                }
+        double[] adhesion = adhesionMatrix[getPop(id)];
+        int[] idValues = ids.getValues(x, y, z);
+        int index = ids.getIndex(x, y, z);
+
+        for (int n = 0; n < PottsArray.NEIGHBORHOOD_SIZE; n++) {
+            int neighbor = idValues[index + ids.neighborhood[n]];
+            if (n != NEIGHBORHOOD_CENTER && neighbor != id) {
+                h += adhesion[getPop(neighbor)];
             }
         }
 
@@ -50,21 +40,20 @@ public class AdhesionHamiltonian3D extends AdhesionHamiltonian {
     @Override
     double getAdhesion(int id, int t, int x, int y, int z) {
         double h = 0;
-        AdhesionHamiltonianConfig c = configs.get(id);
-        Region region = Region.values()[t];
-
-        for (int k = z - 1; k <= z + 1; k++) {
-            for (int i = x - 1; i <= x + 1; i++) {
-                for (int j = y - 1; j <= y + 1; j++) {
-                    Region xyz = Region.values()[regions[k][i][j]];
-                    if (!(k == z && i == x && j == y)
-                            && ids[k][i][j] == id
-                            && region != xyz
-                            && xyz != Region.UNDEFINED
-                            && xyz != Region.DEFAULT) {
-                        h += (c.getAdhesion(region, xyz) + c.getAdhesion(xyz, region)) / 2.0;
-                    }
-                }
+        double[] adhesion = adhesionRegionMatrix[getPop(id)][t];
+        int[] idValues = ids.getValues(x, y, z);
+        int[] regionValues = regions.getValues(x, y, z);
+        int index = ids.getIndex(x, y, z);
+
+        for (int n = 0; n < PottsArray.NEIGHBORHOOD_SIZE; n++) {
+            int neighbor = index + ids.neighborhood[n];
+            int xyz = regionValues[neighbor];
+            if (n != NEIGHBORHOOD_CENTER
+                    && idValues[neighbor] == id
+                    && xyz != t
+                    && xyz != REGION_UNDEFINED
+                    && xyz != REGION_DEFAULT) {
+                h += adhesion[xyz];
             }
         }
 
@@ -0,0 +1,191 @@
+package arcade.potts.sim.hamiltonian;
+
+import java.util.List;
+import arcade.potts.agent.cell.PottsCell;
+import arcade.potts.env.grid.PottsArray;
+import arcade.potts.util.Registry;
+
+/**
+ * Fused evaluation of a list of {@link Hamiltonian} terms.
+ *
+ * <p>The fused Hamiltonian is built once from the configured terms. For each flip, the neighborhood
+ * of the candidate voxel is gathered once and shared by all terms that implement {@link
+ * NeighborhoodHamiltonian}, instead of each term reading the neighborhood from the potts arrays.
+ * Registry records of the source and target cells are resolved once and passed in the same
+ * neighborhood, instead of each term looking up its config objects by id. All other terms are
+ * evaluated at the coordinates of the candidate voxel. Terms are summed in the order of the given
+ * list. The change in energy for each term in the last evaluated flip is kept, such that the total
+ * energy of each term can be updated for accepted flips.
+ *
+ * <p>The fused Hamiltonian holds the gathered neighborhood, so each potts instance (including each
+ * worker of a parallel sweep) requires its own instance.
+ */
+public final class FusedHamiltonian implements Hamiltonian {
+    /** Array of terms. */
+    final NeighborhoodHamiltonian[] terms;
+
+    /** Changes in energy for each term in the last evaluated flip. */
+    final double[] deltas;
+
+    /** Neighborhood of the candidate voxel. */
+    final Neighborhood neighborhood;
+
+    /** Registry of cell records. */
+    final Registry registry;
+
+    /** {@code true} if any term reads the shared neighborhood, {@code false} otherwise. */
+    final boolean isShared;
+
+    /**
+     * Creates a fused Hamiltonian from the list of terms.
+     *
+     * @param hamiltonian the list of Hamiltonian terms
+     * @param ids the potts array for ids
+     * @param regions the potts array for regions
+     * @param registry the registry of cell records
+     */
+    public FusedHamiltonian(
+            List<Hamiltonian> hamiltonian, PottsArray ids, PottsArray regions, Registry registry) {
+        terms = new NeighborhoodHamiltonian[hamiltonian.size()];
+        deltas = new double[terms.length];
+        neighborhood = new Neighborhood(ids, regions);
+        this.registry = registry;
+
+        boolean shared = false;
+        for (int i = 0; i < terms.length; i++) {
+            Hamiltonian term = hamiltonian.get(i);
+            if (term instanceof NeighborhoodHamiltonian) {
+                terms[i] = (NeighborhoodHamiltonian) term;
+            } else {
+                terms[i] = new CoordinateHamiltonian(term);
+            }
+            shared |= terms[i].usesNeighbors();
+        }
+
+        isShared = shared;
+    }
+
+    @Override
+    public void register(PottsCell cell) {
+        for (NeighborhoodHamiltonian term : terms) {
+            term.register(cell);
+        }
+    }
+
+    @Override
+    public void deregister(PottsCell cell) {
+        for (NeighborhoodHamiltonian term : terms) {
+            term.deregister(cell);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Ids in the neighborhood of the voxel and records of the source and target cells are
+     * gathered once and shared by all terms.
+     */
+    @Override
+    public double getDelta(int sourceID, int targetID, int x, int y, int z) {
+        neighborhood.locate(x, y, z);
+        neighborhood.source = registry.get(sourceID);
+        neighborhood.target = registry.get(targetID);
+        if (isShared) {
+            neighborhood.gatherIDs();
+        }
+
+        double dH = 0;
+        for (int i = 0; i < terms.length; i++) {
+            deltas[i] = terms[i].getDelta(neighborhood, sourceID, targetID);
+            dH += deltas[i];
+        }
+        return dH;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Ids and regions in the neighborhood of the voxel and the record of the cell are gathered
+     * once and shared by all terms.
+     */
+    @Override
+    public double getDelta(int id, int sourceRegion, int targetRegion, int x, int y, int z) {
+        neighborhood.locate(x, y, z);
+        neighborhood.source = registry.get(id);
+        neighborhood.target = neighborhood.source;
+        if (isShared) {
+            neighborhood.gatherIDs();
+            neighborhood.gatherRegions();
+        }
+
+        double dH = 0;
+        for (int i = 0; i < terms.length; i++) {
+            deltas[i] = terms[i].getDelta(neighborhood, id, sourceRegion, targetRegion);
+            dH += deltas[i];
+        }
+        return dH;
+    }
+
+    /**
+     * Gets the change in energy for the given term in the last evaluated flip.
+     *
+     * @param i the index of the term
+     * @return the change in energy
+     */
+    public double getLastDelta(int i) {
+        return deltas[i];
+    }
+
+    /** Adapter for terms that are evaluated at the coordinates of the candidate voxel. */
+    static final class CoordinateHamiltonian implements NeighborhoodHamiltonian {
+        /** Wrapped Hamiltonian term. */
+        final Hamiltonian term;
+
+        /**
+         * Creates an adapter for the given term.
+         *
+         * @param term the Hamiltonian term
+         */
+        CoordinateHamiltonian(Hamiltonian term) {
+            this.term = term;
+        }
+
+        @Override
+        public void register(PottsCell cell) {
+            term.register(cell);
+        }
+
+        @Override
+        public void deregister(PottsCell cell) {
+            term.deregister(cell);
+        }
+
+        @Override
+        public double getDelta(int sourceID, int targetID, int x, int y, int z) {
+            return term.getDelta(sourceID, targetID, x, y, z);
+        }
+
+        @Override
+        public double getDelta(int id, int sourceRegion, int targetRegion, int x, int y, int z) {
+            return term.getDelta(id, sourceRegion, targetRegion, x, y, z);
+        }
+
+        @Override
+        public boolean usesNeighbors() {
+            return false;
+        }
+
+        @Override
+        public double getDelta(Neighborhood neighborhood, int sourceID, int targetID) {
+            return term.getDelta(
+                    sourceID, targetID, neighborhood.x, neighborhood.y, neighborhood.z);
+        }
+
+        @Override
+        public double getDelta(
+                Neighborhood neighborhood, int id, int sourceRegion, int targetRegion) {
+            return term.getDelta(
+                    id, sourceRegion, targetRegion, neighborhood.x, neighborhood.y, neighborhood.z);
+        }
+    }
+}
@@ -48,4 +48,15 @@ public interface Hamiltonian {
      * @return the change in energy
      */
     double getDelta(int id, int sourceRegion, int targetRegion, int x, int y, int z);
+
+    /**
+     * Gets total energy for all registered cells.
+     *
+     * <p>Terms that do not calculate total energy return {@code NaN}.
+     *
+     * @return the total energy
+     */
+    default double getEnergy() {
+        return Double.NaN;
+    }
 }
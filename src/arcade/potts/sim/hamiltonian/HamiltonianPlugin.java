@@ -0,0 +1,56 @@
+package arcade.potts.sim.hamiltonian;
+
+import arcade.core.util.MiniBox;
+import arcade.potts.sim.Potts;
+import arcade.potts.sim.PottsSeries;
+import static arcade.potts.util.PottsEnums.Footprint;
+
+/**
+ * A {@code HamiltonianPlugin} object provides a user-defined {@link Hamiltonian} term.
+ *
+ * <p>Plugins are discovered using {@link java.util.ServiceLoader}, so implementations must be
+ * listed in a {@code META-INF/services/arcade.potts.sim.hamiltonian.HamiltonianPlugin} file on the
+ * class path. A plugin term is included in the Hamiltonian using a {@code potts.term} tag with the
+ * plugin name as the id. Default parameters of the plugin are added to the potts parameters as
+ * {@code (name)/(id)} (and {@code (name)/(id):(population)} for each population) with the name in
+ * lowercase, which can be modified using {@code potts.parameter} tags with the plugin name as the
+ * term. Plugin names are not case sensitive.
+ *
+ * <p>The footprint of the plugin term declares the extent of the potts arrays read by the term.
+ * Terms with a {@code GLOBAL} footprint disable parallel sweeps. Terms that read the neighborhood
+ * of the candidate voxel should implement {@link NeighborhoodHamiltonian} to share the neighborhood
+ * gathered by {@link FusedHamiltonian} instead of reading it from the potts arrays.
+ */
+public interface HamiltonianPlugin {
+    /**
+     * Gets the name of the term.
+     *
+     * @return the term name
+     */
+    String getName();
+
+    /**
+     * Gets the footprint of the term.
+     *
+     * @return the term footprint
+     */
+    Footprint getFootprint();
+
+    /**
+     * Gets the default parameters of the term.
+     *
+     * @return the map of parameter id to default value
+     */
+    default MiniBox getDefaults() {
+        return new MiniBox();
+    }
+
+    /**
+     * Creates the term for the {@code Potts} Hamiltonian.
+     *
+     * @param series the associated Series instance
+     * @param potts the associated Potts instance
+     * @return the Hamiltonian term
+     */
+    Hamiltonian create(PottsSeries series, Potts potts);
+}
@@ -0,0 +1,80 @@
+package arcade.potts.sim.hamiltonian;
+
+import java.util.HashMap;
+import java.util.ServiceLoader;
+
+/**
+ * Container class for discovered {@link HamiltonianPlugin} instances.
+ *
+ * <p>Plugins are loaded once on first use and are looked up by name, ignoring case.
+ */
+public final class HamiltonianPlugins {
+    /** Map of lowercase plugin name to plugin, {@code null} until first use. */
+    private static HashMap<String, HamiltonianPlugin> plugins;
+
+    /** Hidden utility class constructor. */
+    protected HamiltonianPlugins() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Checks if a plugin with the given name exists.
+     *
+     * @param name the term name
+     * @return {@code true} if the plugin exists, {@code false} otherwise
+     */
+    public static synchronized boolean contains(String name) {
+        return getPlugins().containsKey(name.toLowerCase());
+    }
+
+    /**
+     * Gets the plugin with the given name.
+     *
+     * @param name the term name
+     * @return the plugin
+     * @throws IllegalArgumentException if no plugin with the name exists
+     */
+    public static synchronized HamiltonianPlugin get(String name) {
+        HamiltonianPlugin plugin = getPlugins().get(name.toLowerCase());
+
+        if (plugin == null) {
+            throw new IllegalArgumentException("no Hamiltonian term [ " + name + " ]");
+        }
+
+        return plugin;
+    }
+
+    /**
+     * Gets the map of discovered plugins, loading plugins on first use.
+     *
+     * @return the map of lowercase plugin name to plugin
+     */
+    private static HashMap<String, HamiltonianPlugin> getPlugins() {
+        if (plugins == null) {
+            plugins = load(ServiceLoader.load(HamiltonianPlugin.class));
+        }
+        return plugins;
+    }
+
+    /**
+     * Creates map of plugins by name.
+     *
+     * @param loaded the loaded plugins
+     * @return the map of lowercase plugin name to plugin
+     * @throws IllegalArgumentException if more than one plugin has the same name
+     */
+    static HashMap<String, HamiltonianPlugin> load(Iterable<HamiltonianPlugin> loaded) {
+        HashMap<String, HamiltonianPlugin> map = new HashMap<>();
+
+        for (HamiltonianPlugin plugin : loaded) {
+            String name = plugin.getName().toLowerCase();
+            if (map.containsKey(name)) {
+                throw new IllegalArgumentException(
+                        "duplicate Hamiltonian term [ " + plugin.getName() + " ]");
+            }
+            map.put(name, plugin);
+        }
+
+        return map;
+    }
+}
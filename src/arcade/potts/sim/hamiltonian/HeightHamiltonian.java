@@ -10,13 +10,14 @@ import arcade.potts.agent.cell.PottsCell;
 import arcade.potts.env.location.Location3D;
 import arcade.potts.env.location.Voxel;
 import arcade.potts.sim.PottsSeries;
+import arcade.potts.util.Registry;
 import static arcade.potts.sim.PottsSeries.TARGET_SEPARATOR;
 import static arcade.potts.util.PottsEnums.Region;
 
 /** Implementation of {@link Hamiltonian} for height energy. */
-public class HeightHamiltonian implements Hamiltonian {
-    /** Map of hamiltonian config objects. */
-    final HashMap<Integer, HeightHamiltonianConfig> configs;
+public class HeightHamiltonian implements NeighborhoodHamiltonian {
+    /** Registry of hamiltonian config objects. */
+    final Registry.Slot<HeightHamiltonianConfig> configs;
 
     /** Map of population to lambda values. */
     final HashMap<Integer, Double> popToLambda;
@@ -30,7 +31,17 @@ public class HeightHamiltonian implements Hamiltonian {
      * @param series the associated Series instance
      */
     public HeightHamiltonian(PottsSeries series) {
-        configs = new HashMap<>();
+        this(series, new Registry());
+    }
+
+    /**
+     * Creates the height energy term for the {@code Potts} Hamiltonian.
+     *
+     * @param series the associated Series instance
+     * @param registry the shared registry of cell records
+     */
+    public HeightHamiltonian(PottsSeries series, Registry registry) {
+        configs = registry.addSlot();
         popToLambda = new HashMap<>();
         popToLambdasRegion = new HashMap<>();
         initialize(series);
@@ -82,6 +93,49 @@ public class HeightHamiltonian implements Hamiltonian {
         return target + source;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Height energy only depends on the configs of the source and target cells.
+     */
+    @Override
+    public boolean usesNeighbors() {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Configs of the source and target cells are read from the shared records.
+     */
+    @Override
+    public double getDelta(Neighborhood neighborhood, int sourceID, int targetID) {
+        Voxel voxel = new Voxel(neighborhood.x, neighborhood.y, neighborhood.z);
+        HeightHamiltonianConfig sourceConfig = configs.get(neighborhood.source);
+        HeightHamiltonianConfig targetConfig = configs.get(neighborhood.target);
+        double source = getHeight(sourceConfig, voxel, -1) - getHeight(sourceConfig, voxel, 0);
+        double target = getHeight(targetConfig, voxel, 1) - getHeight(targetConfig, voxel, 0);
+        return target + source;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The config of the cell is read from the shared record.
+     */
+    @Override
+    public double getDelta(Neighborhood neighborhood, int id, int sourceRegion, int targetRegion) {
+        Voxel voxel = new Voxel(neighborhood.x, neighborhood.y, neighborhood.z);
+        HeightHamiltonianConfig config = configs.get(neighborhood.source);
+        double source =
+                getHeight(config, voxel, sourceRegion, -1)
+                        - getHeight(config, voxel, sourceRegion, 0);
+        double target =
+                getHeight(config, voxel, targetRegion, 1)
+                        - getHeight(config, voxel, targetRegion, 0);
+        return target + source;
+    }
+
     /**
      * Gets height energy for a given change in height.
      *
@@ -91,11 +145,22 @@ public class HeightHamiltonian implements Hamiltonian {
      * @return the energy
      */
     double getHeight(int id, Voxel voxel, int change) {
-        if (id == 0) {
+        return (id == 0 ? 0 : getHeight(configs.get(id), voxel, change));
+    }
+
+    /**
+     * Gets height energy for a given change in height.
+     *
+     * @param config the cell config, {@code null} for media
+     * @param voxel the changed voxel
+     * @param change the change in height
+     * @return the energy
+     */
+    double getHeight(HeightHamiltonianConfig config, Voxel voxel, int change) {
+        if (config == null) {
             return 0;
         }
 
-        HeightHamiltonianConfig config = configs.get(id);
         ArrayList<Voxel> voxels =
                 (ArrayList<Voxel>)
                         config.location.getVoxels().stream()
@@ -104,7 +169,10 @@ public class HeightHamiltonian implements Hamiltonian {
 
         double height = Location3D.calculateHeight(voxels);
         double targetHeight = config.cell.getCriticalHeight();
-        double changeHeight = (change == 0 ? 0 : change * Location3D.updateHeight(voxels, voxel));
+        double changeHeight =
+                (change == 0
+                        ? 0
+                        : change * Location3D.updateHeight(voxels, voxel.x, voxel.y, voxel.z));
         double lambda = config.getLambda();
 
         return lambda * Math.pow((height - targetHeight + changeHeight), 2);
@@ -120,13 +188,25 @@ public class HeightHamiltonian implements Hamiltonian {
      * @return the energy
      */
     double getHeight(int id, Voxel voxel, int t, double change) {
+        return (id == 0 ? 0 : getHeight(configs.get(id), voxel, t, change));
+    }
+
+    /**
+     * Gets height energy for a given change in height for region.
+     *
+     * @param config the cell config, {@code null} for media
+     * @param voxel the changed voxel
+     * @param t the voxel region
+     * @param change the change in height
+     * @return the energy
+     */
+    double getHeight(HeightHamiltonianConfig config, Voxel voxel, int t, double change) {
         Region region = Region.values()[t];
 
-        if (id == 0 || region == Region.DEFAULT) {
+        if (config == null || region == Region.DEFAULT) {
             return 0;
         }
 
-        HeightHamiltonianConfig config = configs.get(id);
         ArrayList<Voxel> voxels =
                 (ArrayList<Voxel>)
                         config.location.getVoxels(region).stream()
@@ -135,7 +215,10 @@ public class HeightHamiltonian implements Hamiltonian {
 
         double height = Location3D.calculateHeight(voxels);
         double targetHeight = config.cell.getCriticalHeight(region);
-        double changeHeight = (change == 0 ? 0 : change * Location3D.updateHeight(voxels, voxel));
+        double changeHeight =
+                (change == 0
+                        ? 0
+                        : change * Location3D.updateHeight(voxels, voxel.x, voxel.y, voxel.z));
         double lambda = config.getLambda(region);
 
         return lambda * Math.pow((height - targetHeight + changeHeight), 2);
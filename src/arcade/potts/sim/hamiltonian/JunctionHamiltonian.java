@@ -4,20 +4,22 @@ import java.util.HashMap;
 import java.util.Set;
 import arcade.core.util.MiniBox;
 import arcade.potts.agent.cell.PottsCell;
+import arcade.potts.env.grid.PottsArray;
 import arcade.potts.sim.Potts;
 import arcade.potts.sim.PottsSeries;
+import arcade.potts.util.Registry;
 import static arcade.potts.sim.PottsSeries.TARGET_SEPARATOR;
 
 /** Implementation of {@link Hamiltonian} for tight junction energy. */
-public class JunctionHamiltonian implements Hamiltonian {
-    /** Map of hamiltonian config objects. */
-    final HashMap<Integer, JunctionHamiltonianConfig> configs;
+public class JunctionHamiltonian implements NeighborhoodHamiltonian {
+    /** Registry of hamiltonian config objects. */
+    final Registry.Slot<JunctionHamiltonianConfig> configs;
 
     /** Map of population to lambda values. */
     final HashMap<Integer, Double> popToLambda;
 
     /** Potts array for ids. */
-    final int[][][] ids;
+    final PottsArray ids;
 
     /**
      * Creates the junction energy term for the {@code Potts} Hamiltonian.
@@ -26,7 +28,7 @@ public class JunctionHamiltonian implements Hamiltonian {
      * @param potts the associated Potts instance
      */
     public JunctionHamiltonian(PottsSeries series, Potts potts) {
-        configs = new HashMap<>();
+        configs = potts.registry.addSlot();
         popToLambda = new HashMap<>();
         initialize(series);
 
@@ -60,7 +62,7 @@ public class JunctionHamiltonian implements Hamiltonian {
 
         double lambda = configs.get(targetID).getLambda();
 
-        if (ids[z - 1][x][y] == targetID) {
+        if (ids.get(x, y, z - 1) == targetID) {
             return -lambda;
         }
 
@@ -77,6 +79,47 @@ public class JunctionHamiltonian implements Hamiltonian {
         return 0;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Junction energy only depends on the voxel below the candidate voxel, which is read from
+     * the potts array.
+     */
+    @Override
+    public boolean usesNeighbors() {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The config of the target cell is read from the shared record.
+     */
+    @Override
+    public double getDelta(Neighborhood neighborhood, int sourceID, int targetID) {
+        if (sourceID == 0 || targetID == 0) {
+            return 0;
+        }
+
+        double lambda = configs.get(neighborhood.target).getLambda();
+
+        if (ids.get(neighborhood.x, neighborhood.y, neighborhood.z - 1) == targetID) {
+            return -lambda;
+        }
+
+        return lambda;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Junction energy is set to zero. Region voxels do not form junctions.
+     */
+    @Override
+    public double getDelta(Neighborhood neighborhood, int id, int sourceRegion, int targetRegion) {
+        return 0;
+    }
+
     /**
      * Initializes parameters for junction hamiltonian term.
      *
@@ -0,0 +1,126 @@
+package arcade.potts.sim.hamiltonian;
+
+import arcade.potts.env.grid.PottsArray;
+import arcade.potts.util.Registry;
+import static arcade.potts.env.grid.PottsArray.NEIGHBORHOOD_SIZE;
+
+/**
+ * Neighborhood of a candidate voxel shared between Hamiltonian terms.
+ *
+ * <p>Ids (and regions) in the 3 x 3 x 3 neighborhood of the candidate voxel are gathered once per
+ * flip, in the same (z, x, y) order as the neighborhood offsets of {@link PottsArray}. For single
+ * layer arrays, only the plane of the candidate voxel is gathered.
+ *
+ * <p>The registry records of the source and target cells are also resolved once per flip, such
+ * that terms read their config objects from the records instead of looking up each id. For region
+ * flips, both records are the record of the cell.
+ */
+public final class Neighborhood {
+    /** Positions of face neighbors (N, E, S, W, U, D) in the neighborhood. */
+    public static final int[] FACES = {12, 16, 14, 10, 22, 4};
+
+    /** Start of the single plane within the neighborhood. */
+    static final int PLANE_START = 3 * 3;
+
+    /** End of the single plane within the neighborhood. */
+    static final int PLANE_END = 2 * 3 * 3;
+
+    /** Potts array for ids. */
+    private final PottsArray idArray;
+
+    /** Potts array for regions. */
+    private final PottsArray regionArray;
+
+    /** First gathered position in the neighborhood. */
+    public final int start;
+
+    /** End (exclusive) of gathered positions in the neighborhood. */
+    public final int end;
+
+    /** Number of face neighbors. */
+    public final int numberFaces;
+
+    /** Ids in the neighborhood. */
+    public final int[] ids;
+
+    /** Regions in the neighborhood. */
+    public final int[] regions;
+
+    /** The x coordinate of the candidate voxel. */
+    public int x;
+
+    /** The y coordinate of the candidate voxel. */
+    public int y;
+
+    /** The z coordinate of the candidate voxel. */
+    public int z;
+
+    /** Registry record of the source cell. */
+    public Registry.Record source;
+
+    /** Registry record of the target cell. */
+    public Registry.Record target;
+
+    /** Index of the candidate voxel in the values of the potts arrays. */
+    private int index;
+
+    /**
+     * Creates a {@code Neighborhood} for the given potts arrays.
+     *
+     * @param ids the potts array for ids
+     * @param regions the potts array for regions
+     */
+    public Neighborhood(PottsArray ids, PottsArray regions) {
+        this.idArray = ids;
+        this.regionArray = regions;
+
+        boolean isSingle = ids.height == 1;
+        start = (isSingle ? PLANE_START : 0);
+        end = (isSingle ? PLANE_END : NEIGHBORHOOD_SIZE);
+        numberFaces = (isSingle ? 4 : 6);
+
+        this.ids = new int[NEIGHBORHOOD_SIZE];
+        this.regions = new int[NEIGHBORHOOD_SIZE];
+    }
+
+    /**
+     * Sets the coordinates of the candidate voxel.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     */
+    public void locate(int x, int y, int z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.index = idArray.getIndex(x, y, z);
+    }
+
+    /** Gathers ids in the neighborhood of the candidate voxel. */
+    public void gatherIDs() {
+        int[] values = idArray.getValues(x, y, z);
+        int[] offsets = idArray.neighborhood;
+        for (int n = start; n < end; n++) {
+            ids[n] = values[index + offsets[n]];
+        }
+    }
+
+    /** Gathers regions in the neighborhood of the candidate voxel. */
+    public void gatherRegions() {
+        int[] values = regionArray.getValues(x, y, z);
+        int[] offsets = regionArray.neighborhood;
+        for (int n = start; n < end; n++) {
+            regions[n] = values[index + offsets[n]];
+        }
+    }
+
+    /**
+     * Gets the number of neighbors in the neighborhood, excluding the candidate voxel.
+     *
+     * @return the number of neighbors
+     */
+    public int getNumberNeighbors() {
+        return end - start - 1;
+    }
+}
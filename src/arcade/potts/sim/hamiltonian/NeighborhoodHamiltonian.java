@@ -0,0 +1,46 @@
+package arcade.potts.sim.hamiltonian;
+
+/**
+ * A {@code NeighborhoodHamiltonian} is a {@link Hamiltonian} term that calculates changes in energy
+ * from a shared {@link Neighborhood}.
+ *
+ * <p>Terms are evaluated within a {@link FusedHamiltonian}, which gathers the neighborhood of the
+ * candidate voxel once for all terms. Changes in energy must be identical to the corresponding
+ * {@link Hamiltonian#getDelta} methods.
+ *
+ * <p>Config objects for the source and target cells are read from the registry records resolved in
+ * the shared neighborhood.
+ */
+public interface NeighborhoodHamiltonian extends Hamiltonian {
+    /**
+     * Gets change in energy from the shared neighborhood.
+     *
+     * @param neighborhood the neighborhood of the candidate voxel
+     * @param sourceID the id of the source voxel
+     * @param targetID the id of the target voxel
+     * @return the change in energy
+     */
+    double getDelta(Neighborhood neighborhood, int sourceID, int targetID);
+
+    /**
+     * Gets change in energy for region from the shared neighborhood.
+     *
+     * @param neighborhood the neighborhood of the candidate voxel
+     * @param id the voxel id
+     * @param sourceRegion the region of the source voxel
+     * @param targetRegion the region of the target voxel
+     * @return the change in energy
+     */
+    double getDelta(Neighborhood neighborhood, int id, int sourceRegion, int targetRegion);
+
+    /**
+     * Checks if the term reads ids or regions from the shared neighborhood.
+     *
+     * <p>The neighborhood is only gathered if at least one term reads it.
+     *
+     * @return {@code true} if the term reads the neighborhood, {@code false} otherwise
+     */
+    default boolean usesNeighbors() {
+        return true;
+    }
+}
@@ -9,13 +9,17 @@ import arcade.core.util.MiniBox;
 import arcade.potts.agent.cell.PottsCell;
 import arcade.potts.env.location.PottsLocation;
 import arcade.potts.sim.PottsSeries;
+import arcade.potts.util.Registry;
 import static arcade.potts.sim.PottsSeries.TARGET_SEPARATOR;
 import static arcade.potts.util.PottsEnums.Region;
 
 /** Implementation of {@link Hamiltonian} for persistence energy. */
-public class PersistenceHamiltonian implements Hamiltonian {
-    /** Map of hamiltonian config objects. */
-    final HashMap<Integer, PersistenceHamiltonianConfig> configs;
+public class PersistenceHamiltonian implements NeighborhoodHamiltonian {
+    /** List of regions. */
+    private static final Region[] REGIONS = Region.values();
+
+    /** Registry of hamiltonian config objects. */
+    final Registry.Slot<PersistenceHamiltonianConfig> configs;
 
     /** Map of population to lambda values. */
     final HashMap<Integer, Double> popToLambda;
@@ -35,7 +39,17 @@ public class PersistenceHamiltonian implements Hamiltonian {
      * @param series the associated Series instance
      */
     public PersistenceHamiltonian(PottsSeries series) {
-        configs = new HashMap<>();
+        this(series, new Registry());
+    }
+
+    /**
+     * Creates the persistence energy term for the {@code Potts} Hamiltonian.
+     *
+     * @param series the associated Series instance
+     * @param registry the shared registry of cell records
+     */
+    public PersistenceHamiltonian(PottsSeries series, Registry registry) {
+        configs = registry.addSlot();
         popToLambda = new HashMap<>();
         popToDecay = new HashMap<>();
         popToLambdasRegion = new HashMap<>();
@@ -87,6 +101,47 @@ public class PersistenceHamiltonian implements Hamiltonian {
         return source + target;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Persistence energy only depends on the configs of the source and target cells.
+     */
+    @Override
+    public boolean usesNeighbors() {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Configs of the source and target cells are read from the shared records.
+     */
+    @Override
+    public double getDelta(Neighborhood neighborhood, int sourceID, int targetID) {
+        int x = neighborhood.x;
+        int y = neighborhood.y;
+        int z = neighborhood.z;
+        double source = getPersistence(configs.get(neighborhood.source), x, y, z, -1);
+        double target = getPersistence(configs.get(neighborhood.target), x, y, z, 1);
+        return source + target;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The config of the cell is read from the shared record.
+     */
+    @Override
+    public double getDelta(Neighborhood neighborhood, int id, int sourceRegion, int targetRegion) {
+        int x = neighborhood.x;
+        int y = neighborhood.y;
+        int z = neighborhood.z;
+        PersistenceHamiltonianConfig config = configs.get(neighborhood.source);
+        double source = getPersistence(config, sourceRegion, x, y, z, -1);
+        double target = getPersistence(config, targetRegion, x, y, z, 1);
+        return source + target;
+    }
+
     /**
      * Gets persistence energy for voxel added or removed.
      *
@@ -100,12 +155,26 @@ public class PersistenceHamiltonian implements Hamiltonian {
      * @return the energy
      */
     double getPersistence(int id, int x, int y, int z, int change) {
-        if (id <= 0) {
+        return (id <= 0 ? 0 : getPersistence(configs.get(id), x, y, z, change));
+    }
+
+    /**
+     * Gets persistence energy for voxel added or removed.
+     *
+     * <p>Persistence for non-cell voxels is zero.
+     *
+     * @param config the cell config, {@code null} for media
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @param change the direction of change (add = +1, remove = -1)
+     * @return the energy
+     */
+    double getPersistence(PersistenceHamiltonianConfig config, int x, int y, int z, int change) {
+        if (config == null) {
             return 0;
         }
 
-        PersistenceHamiltonianConfig config = configs.get(id);
-
         double[] vector = config.getVector();
         double[] displacement = config.getDisplacement(x, y, z, change);
 
@@ -130,12 +199,29 @@ public class PersistenceHamiltonian implements Hamiltonian {
      * @return the energy
      */
     double getPersistence(int id, int t, int x, int y, int z, int change) {
-        Region region = Region.values()[t];
-        if (id == 0 || region == Region.DEFAULT) {
+        return (id == 0 ? 0 : getPersistence(configs.get(id), t, x, y, z, change));
+    }
+
+    /**
+     * Gets the persistence energy for voxel added or removed in a region.
+     *
+     * <p>Persistence for the default region is zero.
+     *
+     * @param config the cell config, {@code null} for media
+     * @param t the voxel region
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @param change the direction of change (add = +1, remove = -1)
+     * @return the energy
+     */
+    double getPersistence(
+            PersistenceHamiltonianConfig config, int t, int x, int y, int z, int change) {
+        Region region = REGIONS[t];
+        if (config == null || region == Region.DEFAULT) {
             return 0;
         }
 
-        PersistenceHamiltonianConfig config = configs.get(id);
         double[] displacement = config.getDisplacement(x, y, z, change, region);
 
         double dot = Matrix.dot(config.vector, displacement);
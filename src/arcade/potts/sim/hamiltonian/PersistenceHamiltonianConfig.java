@@ -34,6 +34,12 @@ class PersistenceHamiltonianConfig {
     /** Displacement vector. */
     final double[] displacement;
 
+    /** Displacement vector for regions. */
+    final double[] regionDisplacement;
+
+    /** Buffer for location centroid. */
+    private final double[] centroid;
+
     /** Location volume used to check if location has changed. */
     private int volumeCheck;
 
@@ -58,6 +64,8 @@ class PersistenceHamiltonianConfig {
         this.threshold = threshold;
         this.vector = DEFAULT_UNIT_VECTOR.clone();
         this.displacement = new double[] {0, 0, 0};
+        this.regionDisplacement = new double[] {0, 0, 0};
+        this.centroid = new double[] {0, 0, 0};
         this.volumeCheck = (int) location.getVolume();
         this.hasRegions = (lambdasRegion != null) && (lambdasRegion.keySet().size() > 0);
 
@@ -140,7 +148,7 @@ class PersistenceHamiltonianConfig {
     public double[] getDisplacement(int x, int y, int z, int change) {
         // Get updated volume and current centroid.
         double volume = location.getVolume() + change;
-        double[] centroid = location.getCentroid();
+        location.copyCentroid(centroid);
 
         // Calculate displacement.
         displacement[0] = (change * (x - centroid[0])) / volume;
@@ -156,7 +164,8 @@ class PersistenceHamiltonianConfig {
     /**
      * Gets the updated displacement of the center of a region.
      *
-     * <p>Calling this method does not update the stored displacement vector.
+     * <p>Calling this method does not update the stored displacement vector. The returned vector
+     * is reused, and is only valid until this method is called again.
      *
      * @param x the x position of the changed voxel
      * @param y the y position of the changed voxel
@@ -168,17 +177,16 @@ class PersistenceHamiltonianConfig {
     public double[] getDisplacement(int x, int y, int z, int change, Region region) {
         // Get updated volume and current centroid for region.
         double volume = location.getVolume(region) + change;
-        double[] centroid = location.getCentroid(region);
+        location.copyCentroid(region, centroid);
 
         // Calculate displacement.
-        double[] disp = new double[3];
-        disp[0] = (change * (x - centroid[0])) / volume;
-        disp[1] = (change * (y - centroid[1])) / volume;
-        disp[2] = (change * (z - centroid[2])) / volume;
+        regionDisplacement[0] = (change * (x - centroid[0])) / volume;
+        regionDisplacement[1] = (change * (y - centroid[1])) / volume;
+        regionDisplacement[2] = (change * (z - centroid[2])) / volume;
 
         // Convert displacement to unit vector.
-        Matrix.unit(disp);
+        Matrix.unit(regionDisplacement);
 
-        return disp;
+        return regionDisplacement;
     }
 }
@@ -6,18 +6,19 @@ import arcade.core.util.MiniBox;
 import arcade.potts.agent.cell.PottsCell;
 import arcade.potts.sim.Potts;
 import arcade.potts.sim.PottsSeries;
+import arcade.potts.util.Registry;
 import static arcade.potts.sim.PottsSeries.TARGET_SEPARATOR;
 
 /** Implementation of {@link Hamiltonian} for substrate energy. */
-public class SubstrateHamiltonian implements Hamiltonian {
+public class SubstrateHamiltonian implements NeighborhoodHamiltonian {
     /** Number of neighbors considered for substrate adhesion. */
     static final int NUMBER_NEIGHBORS = 9;
 
     /** Scaling at threshold height. */
     static final double THRESHOLD_FRACTION = 0.01;
 
-    /** Map of hamiltonian config objects. */
-    final HashMap<Integer, SubstrateHamiltonianConfig> configs;
+    /** Registry of hamiltonian config objects. */
+    final Registry.Slot<SubstrateHamiltonianConfig> configs;
 
     /** Map of population to substrate adhesion values. */
     final HashMap<Integer, Double> popToSubstrate;
@@ -25,6 +26,12 @@ public class SubstrateHamiltonian implements Hamiltonian {
     /** Grid tracking substrate values. */
     final int[][] substrates;
 
+    /** Negative sums of substrate values in the neighborhood below each (x, y) position. */
+    final double[][] sums;
+
+    /** Scaling of substrate energy for each z position. */
+    final double[] scales;
+
     /** Power for scaling substrate energy. */
     double power;
 
@@ -35,12 +42,16 @@ public class SubstrateHamiltonian implements Hamiltonian {
      * @param potts the associated Potts instance
      */
     public SubstrateHamiltonian(PottsSeries series, Potts potts) {
-        configs = new HashMap<>();
+        configs = potts.registry.addSlot();
         popToSubstrate = new HashMap<>();
         initialize(series);
 
         // Create substrate array.
         substrates = createSubstrate(potts.length + 2, potts.width + 2);
+
+        // Substrate and scaling are fixed, so sums and scales are calculated once.
+        sums = createSums(substrates);
+        scales = createScales(potts.height + 2);
     }
 
     @Override
@@ -80,11 +91,47 @@ public class SubstrateHamiltonian implements Hamiltonian {
         return 0;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Substrate energy only depends on the configs of the source and target cells.
+     */
+    @Override
+    public boolean usesNeighbors() {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Configs of the source and target cells are read from the shared records.
+     */
+    @Override
+    public double getDelta(Neighborhood neighborhood, int sourceID, int targetID) {
+        int x = neighborhood.x;
+        int y = neighborhood.y;
+        int z = neighborhood.z;
+        double source = getSubstrate(configs.get(neighborhood.source), x, y, z);
+        double target = getSubstrate(configs.get(neighborhood.target), x, y, z);
+        return target - source;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Substrate energy is set to zero. Region voxels cannot adhere to substrate.
+     */
+    @Override
+    public double getDelta(Neighborhood neighborhood, int id, int sourceRegion, int targetRegion) {
+        return 0;
+    }
+
     /**
      * Gets substrate energy for a given voxel.
      *
      * <p>Substrate is assumed to be located at z = 0. Media (id = 0) returns zero for substrate
-     * energy. Substrate energy is scaled by distance from z = 0 by a power function.
+     * energy. Substrate energy is scaled by distance from z = 0 by a power function. Sums of
+     * substrate values and scales are looked up from the arrays calculated on construction.
      *
      * @param id the voxel id
      * @param x the x coordinate
@@ -93,21 +140,25 @@ public class SubstrateHamiltonian implements Hamiltonian {
      * @return the energy
      */
     double getSubstrate(int id, int x, int y, int z) {
-        if (id <= 0) {
-            return 0;
-        }
-
-        double substrate = configs.get(id).getSubstrate();
-        double substrateEnergy = 0;
+        return (id <= 0 ? 0 : getSubstrate(configs.get(id), x, y, z));
+    }
 
-        for (int i = x - 1; i <= x + 1; i++) {
-            for (int j = y - 1; j <= y + 1; j++) {
-                substrateEnergy -= substrates[i][j];
-            }
+    /**
+     * Gets substrate energy for a given voxel.
+     *
+     * @param config the cell config, {@code null} for media
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @return the energy
+     */
+    double getSubstrate(SubstrateHamiltonianConfig config, int x, int y, int z) {
+        if (config == null) {
+            return 0;
         }
 
-        substrateEnergy = Math.pow(z, power) * substrateEnergy / NUMBER_NEIGHBORS * substrate;
-        return substrateEnergy;
+        double substrate = config.getSubstrate();
+        return scales[z] * sums[x][y] / NUMBER_NEIGHBORS * substrate;
     }
 
     /**
@@ -155,4 +206,51 @@ public class SubstrateHamiltonian implements Hamiltonian {
 
         return arr;
     }
+
+    /**
+     * Creates array of negative sums of substrate values below each position.
+     *
+     * <p>Sums are calculated across the 3 x 3 neighborhood of substrate values for positions in
+     * the interior of the substrate array. Positions on the border are set to zero.
+     *
+     * @param substrates the substrate array
+     * @return the array of sums
+     */
+    double[][] createSums(int[][] substrates) {
+        int length = substrates.length;
+        int width = (length == 0 ? 0 : substrates[0].length);
+        double[][] arr = new double[length][width];
+
+        for (int x = 1; x < length - 1; x++) {
+            for (int y = 1; y < width - 1; y++) {
+                double sum = 0;
+
+                for (int i = x - 1; i <= x + 1; i++) {
+                    for (int j = y - 1; j <= y + 1; j++) {
+                        sum -= substrates[i][j];
+                    }
+                }
+
+                arr[x][y] = sum;
+            }
+        }
+
+        return arr;
+    }
+
+    /**
+     * Creates array of substrate energy scaling by distance from z = 0.
+     *
+     * @param height the height (z direction) of potts array
+     * @return the array of scales
+     */
+    double[] createScales(int height) {
+        double[] arr = new double[height];
+
+        for (int z = 0; z < height; z++) {
+            arr[z] = Math.pow(z, power);
+        }
+
+        return arr;
+    }
 }
@@ -6,15 +6,18 @@ import java.util.HashMap;
 import java.util.Set;
 import arcade.core.util.MiniBox;
 import arcade.potts.agent.cell.PottsCell;
+import arcade.potts.env.grid.PottsArray;
 import arcade.potts.sim.Potts;
 import arcade.potts.sim.PottsSeries;
+import arcade.potts.util.Registry;
 import static arcade.potts.sim.PottsSeries.TARGET_SEPARATOR;
+import static arcade.potts.sim.hamiltonian.Neighborhood.FACES;
 import static arcade.potts.util.PottsEnums.Region;
 
 /** Implementation of {@link Hamiltonian} for surface energy. */
-public abstract class SurfaceHamiltonian implements Hamiltonian {
-    /** Map of hamiltonian config objects. */
-    final HashMap<Integer, SurfaceHamiltonianConfig> configs;
+public abstract class SurfaceHamiltonian implements NeighborhoodHamiltonian {
+    /** Registry of hamiltonian config objects. */
+    final Registry.Slot<SurfaceHamiltonianConfig> configs;
 
     /** Map of population to lambda values. */
     final HashMap<Integer, Double> popToLambda;
@@ -23,10 +26,10 @@ public abstract class SurfaceHamiltonian implements Hamiltonian {
     final HashMap<Integer, EnumMap<Region, Double>> popToLambdasRegion;
 
     /** Potts array for ids. */
-    final int[][][] ids;
+    final PottsArray ids;
 
     /** Potts array for regions. */
-    final int[][][] regions;
+    final PottsArray regions;
 
     /**
      * Creates the surface energy term for the {@code Potts} Hamiltonian.
@@ -35,7 +38,7 @@ public abstract class SurfaceHamiltonian implements Hamiltonian {
      * @param potts the associated Potts instance
      */
     public SurfaceHamiltonian(PottsSeries series, Potts potts) {
-        configs = new HashMap<>();
+        configs = potts.registry.addSlot();
         popToLambda = new HashMap<>();
         popToLambdasRegion = new HashMap<>();
         initialize(series);
@@ -67,9 +70,11 @@ public abstract class SurfaceHamiltonian implements Hamiltonian {
      */
     @Override
     public double getDelta(int sourceID, int targetID, int x, int y, int z) {
-        int[] changes = calculateChange(sourceID, targetID, x, y, z);
-        double source = getSurface(sourceID, changes[0]) - getSurface(sourceID, 0);
-        double target = getSurface(targetID, changes[1]) - getSurface(targetID, 0);
+        long change = calculateChange(sourceID, targetID, x, y, z);
+        double source =
+                getSurface(sourceID, getSourceChange(change)) - getSurface(sourceID, 0);
+        double target =
+                getSurface(targetID, getTargetChange(change)) - getSurface(targetID, 0);
         return target + source;
     }
 
@@ -82,9 +87,71 @@ public abstract class SurfaceHamiltonian implements Hamiltonian {
      */
     @Override
     public double getDelta(int id, int sourceRegion, int targetRegion, int x, int y, int z) {
-        int[] changes = calculateChange(id, sourceRegion, targetRegion, x, y, z);
-        double source = getSurface(id, sourceRegion, changes[0]) - getSurface(id, sourceRegion, 0);
-        double target = getSurface(id, targetRegion, changes[1]) - getSurface(id, targetRegion, 0);
+        long change = calculateChange(id, sourceRegion, targetRegion, x, y, z);
+        int sourceChange = getSourceChange(change);
+        int targetChange = getTargetChange(change);
+        double source =
+                getSurface(id, sourceRegion, sourceChange) - getSurface(id, sourceRegion, 0);
+        double target =
+                getSurface(id, targetRegion, targetChange) - getSurface(id, targetRegion, 0);
+        return target + source;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Changes in surface are counted from the face neighbors in the shared neighborhood. Configs
+     * of the source and target cells are read from the shared records.
+     */
+    @Override
+    public double getDelta(Neighborhood neighborhood, int sourceID, int targetID) {
+        int numberSource = 0;
+        int numberTarget = 0;
+
+        for (int i = 0; i < neighborhood.numberFaces; i++) {
+            int neighbor = neighborhood.ids[FACES[i]];
+            numberSource += (neighbor == sourceID ? 1 : 0);
+            numberTarget += (neighbor == targetID ? 1 : 0);
+        }
+
+        long change = getChange(numberSource, numberTarget, neighborhood.numberFaces);
+        int sourceChange = getSourceChange(change);
+        int targetChange = getTargetChange(change);
+        SurfaceHamiltonianConfig sourceConfig = configs.get(neighborhood.source);
+        SurfaceHamiltonianConfig targetConfig = configs.get(neighborhood.target);
+        double source = getSurface(sourceConfig, sourceChange) - getSurface(sourceConfig, 0);
+        double target = getSurface(targetConfig, targetChange) - getSurface(targetConfig, 0);
+        return target + source;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Changes in surface are counted from the face neighbors in the shared neighborhood. The
+     * config of the cell is read from the shared record.
+     */
+    @Override
+    public double getDelta(Neighborhood neighborhood, int id, int sourceRegion, int targetRegion) {
+        int numberSource = 0;
+        int numberTarget = 0;
+
+        for (int i = 0; i < neighborhood.numberFaces; i++) {
+            boolean same = neighborhood.ids[FACES[i]] == id;
+            int neighborRegion = neighborhood.regions[FACES[i]];
+            numberSource += (same & neighborRegion == sourceRegion ? 1 : 0);
+            numberTarget += (same & neighborRegion == targetRegion ? 1 : 0);
+        }
+
+        long change = getChange(numberSource, numberTarget, neighborhood.numberFaces);
+        int sourceChange = getSourceChange(change);
+        int targetChange = getTargetChange(change);
+        SurfaceHamiltonianConfig config = configs.get(neighborhood.source);
+        double source =
+                getSurface(config, sourceRegion, sourceChange)
+                        - getSurface(config, sourceRegion, 0);
+        double target =
+                getSurface(config, targetRegion, targetChange)
+                        - getSurface(config, targetRegion, 0);
         return target + source;
     }
 
@@ -96,9 +163,9 @@ public abstract class SurfaceHamiltonian implements Hamiltonian {
      * @param x the x coordinate
      * @param y the y coordinate
      * @param z the z coordinate
-     * @return the list of changes in source and target
+     * @return the packed changes in source and target
      */
-    abstract int[] calculateChange(int sourceID, int targetID, int x, int y, int z);
+    abstract long calculateChange(int sourceID, int targetID, int x, int y, int z);
 
     /**
      * Calculates change in surface for region.
@@ -109,9 +176,77 @@ public abstract class SurfaceHamiltonian implements Hamiltonian {
      * @param x the x coordinate
      * @param y the y coordinate
      * @param z the z coordinate
-     * @return the list of changes in source and target
+     * @return the packed changes in source and target
+     */
+    abstract long calculateChange(int id, int sourceRegion, int targetRegion, int x, int y, int z);
+
+    /**
+     * Gets packed changes in surface from the number of neighbors matching source and target.
+     *
+     * <p>Each neighbor that does not match the source (or target) is part of the surface of the
+     * source (or target) before (or after) the flip, and neighbors cannot match both. The change
+     * in surface is therefore determined by the number of matching neighbors, which are counted
+     * without branches on the neighbor values. Changes in source and target surface are packed
+     * into the upper and lower 32 bits of a single value to avoid allocating an array per flip.
+     *
+     * @param numberSource the number of neighbors matching the source
+     * @param numberTarget the number of neighbors matching the target
+     * @param numberNeighbors the total number of neighbors
+     * @return the packed changes in source and target
+     */
+    static long getChange(int numberSource, int numberTarget, int numberNeighbors) {
+        int sourceChange = 2 * numberSource - numberNeighbors;
+        int targetChange = numberNeighbors - 2 * numberTarget;
+        return ((long) sourceChange << 32) | (targetChange & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Gets change in source surface from packed changes.
+     *
+     * @param change the packed changes in source and target
+     * @return the change in source surface
+     */
+    static int getSourceChange(long change) {
+        return (int) (change >> 32);
+    }
+
+    /**
+     * Gets change in target surface from packed changes.
+     *
+     * @param change the packed changes in source and target
+     * @return the change in target surface
+     */
+    static int getTargetChange(long change) {
+        return (int) change;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Total surface energy is the sum of surface energies for all registered cells and for all
+     * non-default regions of each cell.
      */
-    abstract int[] calculateChange(int id, int sourceRegion, int targetRegion, int x, int y, int z);
+    @Override
+    public double getEnergy() {
+        double energy = 0;
+
+        for (SurfaceHamiltonianConfig config : configs) {
+            PottsCell cell = config.cell;
+            energy += config.getLambda() * Math.pow(cell.getSurface() - cell.getTargetSurface(), 2);
+
+            if (config.hasRegions) {
+                for (Region region : Region.values()) {
+                    double lambda = config.getLambda(region);
+                    if (region != Region.DEFAULT && !Double.isNaN(lambda)) {
+                        double delta = cell.getSurface(region) - cell.getTargetSurface(region);
+                        energy += lambda * Math.pow(delta, 2);
+                    }
+                }
+            }
+        }
+
+        return energy;
+    }
 
     /**
      * Gets the surface energy for a given change in surface.
@@ -121,10 +256,20 @@ public abstract class SurfaceHamiltonian implements Hamiltonian {
      * @return the energy
      */
     double getSurface(int id, int change) {
-        if (id == 0) {
+        return (id == 0 ? 0 : getSurface(configs.get(id), change));
+    }
+
+    /**
+     * Gets the surface energy for a given change in surface.
+     *
+     * @param config the cell config, {@code null} for media
+     * @param change the change in surface
+     * @return the energy
+     */
+    double getSurface(SurfaceHamiltonianConfig config, int change) {
+        if (config == null) {
             return 0;
         }
-        SurfaceHamiltonianConfig config = configs.get(id);
         double surface = config.cell.getSurface();
         double targetSurface = config.cell.getTargetSurface();
         double lambda = config.getLambda();
@@ -140,11 +285,22 @@ public abstract class SurfaceHamiltonian implements Hamiltonian {
      * @return the energy
      */
     double getSurface(int id, int t, int change) {
+        return (id == 0 ? 0 : getSurface(configs.get(id), t, change));
+    }
+
+    /**
+     * Gets the surface energy for a given change in surface for region.
+     *
+     * @param config the cell config, {@code null} for media
+     * @param t the voxel region
+     * @param change the change in surface
+     * @return the energy
+     */
+    double getSurface(SurfaceHamiltonianConfig config, int t, int change) {
         Region region = Region.values()[t];
-        if (id == 0 || region == Region.DEFAULT) {
+        if (config == null || region == Region.DEFAULT) {
             return 0;
         }
-        SurfaceHamiltonianConfig config = configs.get(id);
         double surface = config.cell.getSurface(region);
         double targetSurface = config.cell.getTargetSurface(region);
         double lambda = config.getLambda(region);
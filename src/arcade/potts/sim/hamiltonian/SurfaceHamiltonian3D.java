@@ -2,9 +2,6 @@ package arcade.potts.sim.hamiltonian;
 
 import arcade.potts.sim.Potts;
 import arcade.potts.sim.PottsSeries;
-import static arcade.potts.sim.Potts3D.MOVES_X;
-import static arcade.potts.sim.Potts3D.MOVES_Y;
-import static arcade.potts.sim.Potts3D.MOVES_Z;
 import static arcade.potts.sim.Potts3D.NUMBER_NEIGHBORS;
 
 /** Extension of {@link SurfaceHamiltonian} for 3D. */
@@ -20,69 +17,40 @@ public class SurfaceHamiltonian3D extends SurfaceHamiltonian {
     }
 
     @Override
-    int[] calculateChange(int sourceID, int targetID, int x, int y, int z) {
-        int beforeSource = 0;
-        int afterSource = 0;
-        int beforeTarget = 0;
-        int afterTarget = 0;
-
-        // Iterate through each neighbor.
+    long calculateChange(int sourceID, int targetID, int x, int y, int z) {
+        int numberSource = 0;
+        int numberTarget = 0;
+        int[] idValues = ids.getValues(x, y, z);
+        int[] neighbors = ids.neighbors;
+        int index = ids.getIndex(x, y, z);
+
+        // Count neighbors matching source and target.
         for (int i = 0; i < NUMBER_NEIGHBORS; i++) {
-            int neighbor = ids[z + MOVES_Z[i]][x + MOVES_X[i]][y + MOVES_Y[i]];
-
-            if (neighbor != sourceID) {
-                beforeSource++;
-                if (neighbor == targetID) {
-                    beforeTarget++;
-                }
-            }
-
-            if (neighbor != targetID) {
-                afterTarget++;
-                if (neighbor == sourceID) {
-                    afterSource++;
-                }
-            }
+            int neighbor = idValues[index + neighbors[i]];
+            numberSource += (neighbor == sourceID ? 1 : 0);
+            numberTarget += (neighbor == targetID ? 1 : 0);
         }
 
-        // Save changes to surface.
-        int sourceSurfaceChange = afterSource - beforeSource;
-        int targetSurfaceChange = afterTarget - beforeTarget;
-
-        return new int[] {sourceSurfaceChange, targetSurfaceChange};
+        return getChange(numberSource, numberTarget, NUMBER_NEIGHBORS);
     }
 
     @Override
-    int[] calculateChange(int id, int sourceRegion, int targetRegion, int x, int y, int z) {
-        int beforeSource = 0;
-        int afterSource = 0;
-        int beforeTarget = 0;
-        int afterTarget = 0;
-
-        // Iterate through each neighbor.
+    long calculateChange(int id, int sourceRegion, int targetRegion, int x, int y, int z) {
+        int numberSource = 0;
+        int numberTarget = 0;
+        int[] idValues = ids.getValues(x, y, z);
+        int[] regionValues = regions.getValues(x, y, z);
+        int[] neighbors = ids.neighbors;
+        int index = ids.getIndex(x, y, z);
+
+        // Count neighbors matching source and target regions of the same id.
         for (int i = 0; i < NUMBER_NEIGHBORS; i++) {
-            int neighborID = ids[z + MOVES_Z[i]][x + MOVES_X[i]][y + MOVES_Y[i]];
-            int neighborRegion = regions[z + MOVES_Z[i]][x + MOVES_X[i]][y + MOVES_Y[i]];
-
-            if (neighborRegion != sourceRegion || neighborID != id) {
-                beforeSource++;
-                if (neighborRegion == targetRegion && neighborID == id) {
-                    beforeTarget++;
-                }
-            }
-
-            if (neighborRegion != targetRegion || neighborID != id) {
-                afterTarget++;
-                if (neighborRegion == sourceRegion && neighborID == id) {
-                    afterSource++;
-                }
-            }
+            boolean same = idValues[index + neighbors[i]] == id;
+            int neighborRegion = regionValues[index + neighbors[i]];
+            numberSource += (same & neighborRegion == sourceRegion ? 1 : 0);
+            numberTarget += (same & neighborRegion == targetRegion ? 1 : 0);
         }
 
-        // Save changes to surface.
-        int sourceSurfaceChange = afterSource - beforeSource;
-        int targetSurfaceChange = afterTarget - beforeTarget;
-
-        return new int[] {sourceSurfaceChange, targetSurfaceChange};
+        return getChange(numberSource, numberTarget, NUMBER_NEIGHBORS);
     }
 }
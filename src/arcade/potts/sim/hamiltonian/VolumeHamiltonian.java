@@ -7,13 +7,14 @@ import java.util.Set;
 import arcade.core.util.MiniBox;
 import arcade.potts.agent.cell.PottsCell;
 import arcade.potts.sim.PottsSeries;
+import arcade.potts.util.Registry;
 import static arcade.potts.sim.PottsSeries.TARGET_SEPARATOR;
 import static arcade.potts.util.PottsEnums.Region;
 
 /** Implementation of {@link Hamiltonian} for volume energy. */
-public class VolumeHamiltonian implements Hamiltonian {
-    /** Map of hamiltonian config objects. */
-    final HashMap<Integer, VolumeHamiltonianConfig> configs;
+public class VolumeHamiltonian implements NeighborhoodHamiltonian {
+    /** Registry of hamiltonian config objects. */
+    final Registry.Slot<VolumeHamiltonianConfig> configs;
 
     /** Map of population to lambda values. */
     final HashMap<Integer, Double> popToLambda;
@@ -27,7 +28,17 @@ public class VolumeHamiltonian implements Hamiltonian {
      * @param series the associated Series instance
      */
     public VolumeHamiltonian(PottsSeries series) {
-        configs = new HashMap<>();
+        this(series, new Registry());
+    }
+
+    /**
+     * Creates the volume energy term for the {@code Potts} Hamiltonian.
+     *
+     * @param series the associated Series instance
+     * @param registry the shared registry of cell records
+     */
+    public VolumeHamiltonian(PottsSeries series, Registry registry) {
+        configs = registry.addSlot();
         popToLambda = new HashMap<>();
         popToLambdasRegion = new HashMap<>();
         initialize(series);
@@ -75,6 +86,71 @@ public class VolumeHamiltonian implements Hamiltonian {
         return target + source;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Volume energy only depends on the configs of the source and target cells.
+     */
+    @Override
+    public boolean usesNeighbors() {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Configs of the source and target cells are read from the shared records.
+     */
+    @Override
+    public double getDelta(Neighborhood neighborhood, int sourceID, int targetID) {
+        VolumeHamiltonianConfig sourceConfig = configs.get(neighborhood.source);
+        VolumeHamiltonianConfig targetConfig = configs.get(neighborhood.target);
+        double source = getVolume(sourceConfig, -1) - getVolume(sourceConfig, 0);
+        double target = getVolume(targetConfig, 1) - getVolume(targetConfig, 0);
+        return target + source;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The config of the cell is read from the shared record.
+     */
+    @Override
+    public double getDelta(Neighborhood neighborhood, int id, int sourceRegion, int targetRegion) {
+        VolumeHamiltonianConfig config = configs.get(neighborhood.source);
+        double source = getVolume(config, sourceRegion, -1) - getVolume(config, sourceRegion, 0);
+        double target = getVolume(config, targetRegion, 1) - getVolume(config, targetRegion, 0);
+        return target + source;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Total volume energy is the sum of volume energies for all registered cells and for all
+     * non-default regions of each cell.
+     */
+    @Override
+    public double getEnergy() {
+        double energy = 0;
+
+        for (VolumeHamiltonianConfig config : configs) {
+            PottsCell cell = config.cell;
+            energy += config.getLambda() * Math.pow(cell.getVolume() - cell.getTargetVolume(), 2);
+
+            if (config.hasRegions) {
+                for (Region region : Region.values()) {
+                    double lambda = config.getLambda(region);
+                    if (region != Region.DEFAULT && !Double.isNaN(lambda)) {
+                        double delta = cell.getVolume(region) - cell.getTargetVolume(region);
+                        energy += lambda * Math.pow(delta, 2);
+                    }
+                }
+            }
+        }
+
+        return energy;
+    }
+
     /**
      * Gets volume energy for a given change in volume.
      *
@@ -83,10 +159,20 @@ public class VolumeHamiltonian implements Hamiltonian {
      * @return the energy
      */
     double getVolume(int id, int change) {
-        if (id == 0) {
+        return (id == 0 ? 0 : getVolume(configs.get(id), change));
+    }
+
+    /**
+     * Gets volume energy for a given change in volume.
+     *
+     * @param config the cell config, {@code null} for media
+     * @param change the change in volume
+     * @return the energy
+     */
+    double getVolume(VolumeHamiltonianConfig config, int change) {
+        if (config == null) {
             return 0;
         }
-        VolumeHamiltonianConfig config = configs.get(id);
         double volume = config.cell.getVolume();
         double targetVolume = config.cell.getTargetVolume();
         double lambda = config.getLambda();
@@ -102,11 +188,22 @@ public class VolumeHamiltonian implements Hamiltonian {
      * @return the energy
      */
     double getVolume(int id, int t, int change) {
+        return (id == 0 ? 0 : getVolume(configs.get(id), t, change));
+    }
+
+    /**
+     * Gets volume energy for a given change in volume for region.
+     *
+     * @param config the cell config, {@code null} for media
+     * @param t the voxel region
+     * @param change the change in volume
+     * @return the energy
+     */
+    double getVolume(VolumeHamiltonianConfig config, int t, int change) {
         Region region = Region.values()[t];
-        if (id == 0 || region == Region.DEFAULT) {
+        if (config == null || region == Region.DEFAULT) {
             return 0;
         }
-        VolumeHamiltonianConfig config = configs.get(id);
         double volume = config.cell.getVolume(region);
         double targetVolume = config.cell.getTargetVolume(region);
         double lambda = config.getLambda(region);
@@ -16,6 +16,7 @@ import arcade.core.util.Vector;
  *   <li>{@code Domain} defining domain for a given process
  *   <li>{@code Region} defining subcellular regions
  *   <li>{@code Term} defining different potts energy terms
+ *   <li>{@code Footprint} defining the extent of the potts arrays read by energy terms
  *   <li>{@code Phase} defining phase for a given state
  *   <li>{@code Direction} defining directions in the voxel environment
  * </ul>
@@ -131,6 +132,18 @@ public final class PottsEnums {
         }
     }
 
+    /** Extent of the potts arrays read by potts energy terms. */
+    public enum Footprint {
+        /** Code for terms that only read the candidate voxel. */
+        VOXEL,
+
+        /** Code for terms that read the neighborhood of the candidate voxel. */
+        NEIGHBORHOOD,
+
+        /** Code for terms that read beyond the neighborhood or update shared state. */
+        GLOBAL
+    }
+
     /** Module phase codes for potts simulations. */
     public enum Phase {
         /** Code for undefined phase. */
@@ -0,0 +1,275 @@
+package arcade.potts.util;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Dense registry of records indexed by cell id.
+ *
+ * <p>Cell ids are assigned sequentially from 1, so records are stored in an array indexed directly
+ * by id, rather than in a map with boxed keys. The array grows as records with larger ids are
+ * registered. A single registry is shared by the potts grid, the potts model, and all Hamiltonian
+ * terms.
+ *
+ * <p>Each {@link Record} holds one slot for each user of the registry. Users claim a slot with
+ * {@link #addSlot()}, and read and write their objects through the returned {@link Slot}. The
+ * record for an id is created when the first object is registered for the id, and removed once all
+ * objects are deregistered. Resolving the record for an id once therefore gives direct access to
+ * the objects of all users for that id.
+ */
+public final class Registry {
+    /** Initial number of ids in the registry. */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** Maximum number of slots in each record. */
+    static final int MAX_SLOTS = Long.SIZE;
+
+    /** Array of records indexed by id. */
+    private Record[] records;
+
+    /** Number of slots in each record. */
+    private int slots;
+
+    /** Creates an empty {@code Registry}. */
+    public Registry() {
+        records = new Record[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Adds a slot to all records in the registry.
+     *
+     * @param <T> the type of objects in the slot
+     * @return the slot
+     */
+    public <T> Slot<T> addSlot() {
+        if (slots == MAX_SLOTS) {
+            throw new IllegalStateException("Registry has no free slots.");
+        }
+
+        int index = slots++;
+
+        for (Record record : records) {
+            if (record != null) {
+                record.values = Arrays.copyOf(record.values, slots);
+            }
+        }
+
+        return new Slot<>(this, index);
+    }
+
+    /**
+     * Gets the record for the given id.
+     *
+     * @param id the cell id
+     * @return the record, {@code null} if no objects are registered for the id
+     */
+    public Record get(int id) {
+        return (id >= 0 && id < records.length ? records[id] : null);
+    }
+
+    /**
+     * Gets the record for the given id, creating the record if needed.
+     *
+     * @param id the cell id
+     * @return the record
+     */
+    Record getOrCreate(int id) {
+        if (id >= records.length) {
+            records = Arrays.copyOf(records, Math.max(2 * records.length, id + 1));
+        }
+
+        Record record = records[id];
+
+        if (record == null) {
+            record = new Record(id, slots);
+            records[id] = record;
+        }
+
+        return record;
+    }
+
+    /**
+     * Removes the record for the given id if no objects are registered for the id.
+     *
+     * @param record the record
+     */
+    void release(Record record) {
+        if (record.registered == 0) {
+            records[record.id] = null;
+        }
+    }
+
+    /** Record of objects registered for a single cell id. */
+    public static final class Record {
+        /** Cell id of the record. */
+        public final int id;
+
+        /** Objects registered in each slot. */
+        Object[] values;
+
+        /** Bits indicating which slots are registered. */
+        long registered;
+
+        /**
+         * Creates a {@code Record} for the given id.
+         *
+         * @param id the cell id
+         * @param slots the number of slots
+         */
+        Record(int id, int slots) {
+            this.id = id;
+            this.values = new Object[slots];
+        }
+    }
+
+    /**
+     * View of a single slot across all records of a registry.
+     *
+     * <p>Objects may be registered as {@code null} (such as id 0 for non-cell voxels), in which
+     * case the id is registered but {@link #get(int)} returns {@code null}. Iterating over the slot
+     * returns the registered non-null objects in order of id.
+     *
+     * @param <T> the type of objects in the slot
+     */
+    public static final class Slot<T> implements Iterable<T> {
+        /** Registry of the slot. */
+        private final Registry registry;
+
+        /** Index of the slot in each record. */
+        private final int index;
+
+        /** Bit of the slot in the registered bits of each record. */
+        private final long bit;
+
+        /** Number of registered ids. */
+        private int size;
+
+        /**
+         * Creates a {@code Slot} in the given registry.
+         *
+         * @param registry the registry
+         * @param index the index of the slot
+         */
+        Slot(Registry registry, int index) {
+            this.registry = registry;
+            this.index = index;
+            this.bit = 1L << index;
+        }
+
+        /**
+         * Gets the object in the slot of the given record.
+         *
+         * @param record the record, {@code null} if the id has no record
+         * @return the registered object, {@code null} if not registered
+         */
+        @SuppressWarnings("unchecked")
+        public T get(Record record) {
+            return (record == null ? null : (T) record.values[index]);
+        }
+
+        /**
+         * Gets the object for the given id.
+         *
+         * @param id the cell id
+         * @return the registered object, {@code null} if the id is not registered
+         */
+        public T get(int id) {
+            return get(registry.get(id));
+        }
+
+        /**
+         * Registers the object for the given id.
+         *
+         * <p>Any object previously registered for the id is replaced.
+         *
+         * @param id the cell id
+         * @param object the object
+         */
+        public void put(int id, T object) {
+            Record record = registry.getOrCreate(id);
+
+            if ((record.registered & bit) == 0) {
+                record.registered |= bit;
+                size++;
+            }
+
+            record.values[index] = object;
+        }
+
+        /**
+         * Deregisters the object for the given id.
+         *
+         * @param id the cell id
+         */
+        public void remove(int id) {
+            Record record = registry.get(id);
+
+            if (record != null && (record.registered & bit) != 0) {
+                record.registered &= ~bit;
+                record.values[index] = null;
+                size--;
+                registry.release(record);
+            }
+        }
+
+        /**
+         * Checks if the id is registered.
+         *
+         * @param id the cell id
+         * @return {@code true} if the id is registered, {@code false} otherwise
+         */
+        public boolean containsKey(int id) {
+            Record record = registry.get(id);
+            return record != null && (record.registered & bit) != 0;
+        }
+
+        /**
+         * Gets the number of registered ids.
+         *
+         * @return the number of registered ids
+         */
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new Iterator<T>() {
+                /** Id of the next object. */
+                private int next = advance(0);
+
+                /**
+                 * Gets the id of the first non-null object at or after the given id.
+                 *
+                 * @param id the cell id
+                 * @return the id of the next object
+                 */
+                private int advance(int id) {
+                    Record[] records = registry.records;
+                    while (id < records.length
+                            && (records[id] == null || records[id].values[index] == null)) {
+                        id++;
+                    }
+                    return id;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next < registry.records.length;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public T next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    T object = (T) registry.records[next].values[index];
+                    next = advance(next + 1);
+                    return object;
+                }
+            };
+        }
+    }
+}
@@ -289,8 +289,8 @@ public abstract class PottsDrawer extends Drawer {
 
             double[][] arr = array.field;
 
-            int[][][] ids = transpose(potts.ids, plane);
-            int[][][] regions = transpose(potts.regions, plane);
+            int[][][] ids = transpose(potts.ids.toArray(), plane);
+            int[][][] regions = transpose(potts.regions.toArray(), plane);
             int index = (ids.length - 1) / 2;
 
             switch (view) {
@@ -534,7 +534,7 @@ public abstract class PottsDrawer extends Drawer {
             field.clear();
             graph.clear();
 
-            int[][] arr = slice(sim.getPotts().ids, plane);
+            int[][] arr = slice(sim.getPotts().ids.toArray(), plane);
 
             int aa = arr.length;
             int bb = arr[0].length;
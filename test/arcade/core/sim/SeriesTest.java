@@ -19,6 +19,7 @@ import arcade.core.env.location.LocationContainer;
 import arcade.core.env.location.LocationFactory;
 import arcade.core.util.Box;
 import arcade.core.util.MiniBox;
+import arcade.core.util.RandomStreams;
 import arcade.core.vis.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -123,6 +124,11 @@ public class SeriesTest {
             return 0;
         }
 
+        @Override
+        public RandomStreams getRandomStreams() {
+            return null;
+        }
+
         @Override
         public int getID() {
             return 0;
@@ -0,0 +1,110 @@
+package arcade.core.util;
+
+import org.junit.jupiter.api.Test;
+import ec.util.MersenneTwisterFast;
+import static org.junit.jupiter.api.Assertions.*;
+import static arcade.core.ARCADETestUtilities.*;
+
+public class RandomStreamsTest {
+    private static final int NUMBER_DRAWS = 100;
+
+    static boolean isSameSequence(MersenneTwisterFast a, MersenneTwisterFast b) {
+        for (int i = 0; i < NUMBER_DRAWS; i++) {
+            if (a.nextLong() != b.nextLong()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Test
+    public void getSeed_initialized_returnsValue() {
+        long seed = randomIntBetween(1, 1000);
+        RandomStreams streams = new RandomStreams(seed);
+        assertEquals(seed, streams.getSeed());
+    }
+
+    @Test
+    public void getStream_sameKeyAndIndex_returnsSameSequence() {
+        long seed = randomIntBetween(1, 1000);
+        long index = randomIntBetween(0, 100);
+        RandomStreams streams = new RandomStreams(seed);
+
+        MersenneTwisterFast a = streams.getStream("key", index);
+        MersenneTwisterFast b = streams.getStream("key", index);
+
+        assertNotSame(a, b);
+        assertTrue(isSameSequence(a, b));
+    }
+
+    @Test
+    public void getStream_sameSeed_returnsSameSequence() {
+        long seed = randomIntBetween(1, 1000);
+        long index = randomIntBetween(0, 100);
+
+        MersenneTwisterFast a = new RandomStreams(seed).getStream("key", index);
+        MersenneTwisterFast b = new RandomStreams(seed).getStream("key", index);
+
+        assertTrue(isSameSequence(a, b));
+    }
+
+    @Test
+    public void getStream_differentSeed_returnsDifferentSequence() {
+        long seed = randomIntBetween(1, 1000);
+
+        MersenneTwisterFast a = new RandomStreams(seed).getStream("key");
+        MersenneTwisterFast b = new RandomStreams(seed + 1).getStream("key");
+
+        assertFalse(isSameSequence(a, b));
+    }
+
+    @Test
+    public void getStream_differentKey_returnsDifferentSequence() {
+        RandomStreams streams = new RandomStreams(randomIntBetween(1, 1000));
+
+        MersenneTwisterFast a = streams.getStream("keyA");
+        MersenneTwisterFast b = streams.getStream("keyB");
+
+        assertFalse(isSameSequence(a, b));
+    }
+
+    @Test
+    public void getStream_differentIndex_returnsDifferentSequence() {
+        RandomStreams streams = new RandomStreams(randomIntBetween(1, 1000));
+        long index = randomIntBetween(0, 100);
+
+        MersenneTwisterFast a = streams.getStream("key", index);
+        MersenneTwisterFast b = streams.getStream("key", index + 1);
+
+        assertFalse(isSameSequence(a, b));
+    }
+
+    @Test
+    public void getStream_noIndex_returnsFirstIndex() {
+        RandomStreams streams = new RandomStreams(randomIntBetween(1, 1000));
+        assertTrue(isSameSequence(streams.getStream("key"), streams.getStream("key", 0)));
+    }
+
+    @Test
+    public void getStream_afterDrawingOtherStreams_returnsSameSequence() {
+        long seed = randomIntBetween(1, 1000);
+        RandomStreams streams = new RandomStreams(seed);
+
+        MersenneTwisterFast other = streams.getStream("other");
+        for (int i = 0; i < NUMBER_DRAWS; i++) {
+            other.nextDouble();
+        }
+
+        MersenneTwisterFast a = streams.getStream("key", 1);
+        MersenneTwisterFast b = new RandomStreams(seed).getStream("key", 1);
+
+        assertTrue(isSameSequence(a, b));
+    }
+
+    @Test
+    public void getStreamSeed_givenIndices_returnsDistinctSeeds() {
+        RandomStreams streams = new RandomStreams(randomIntBetween(1, 1000));
+        assertNotEquals(streams.getStreamSeed("key", 0), streams.getStreamSeed("key", 1));
+        assertNotEquals(streams.getStreamSeed("keyA", 0), streams.getStreamSeed("keyB", 0));
+    }
+}
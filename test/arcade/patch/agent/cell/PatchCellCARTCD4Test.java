@@ -9,6 +9,7 @@ import ec.util.MersenneTwisterFast;
 import arcade.core.sim.Simulation;
 import arcade.core.util.MiniBox;
 import arcade.core.util.Parameters;
+import arcade.core.util.RandomStreams;
 import arcade.patch.agent.module.PatchModule;
 import arcade.patch.agent.process.PatchProcessInflammation;
 import arcade.patch.agent.process.PatchProcessMetabolism;
@@ -70,6 +71,9 @@ public class PatchCellCARTCD4Test {
         MersenneTwisterFast random = mock(MersenneTwisterFast.class);
         simMock = mock(PatchSimulation.class);
         simMock.random = random;
+        RandomStreams streams = mock(RandomStreams.class);
+        doReturn(random).when(streams).getStream(anyString(), anyLong());
+        doReturn(streams).when(simMock).getRandomStreams();
     }
 
     @Test
@@ -9,6 +9,7 @@ import ec.util.MersenneTwisterFast;
 import arcade.core.sim.Simulation;
 import arcade.core.util.MiniBox;
 import arcade.core.util.Parameters;
+import arcade.core.util.RandomStreams;
 import arcade.patch.agent.module.PatchModule;
 import arcade.patch.agent.process.PatchProcessInflammation;
 import arcade.patch.agent.process.PatchProcessMetabolism;
@@ -113,6 +114,9 @@ public class PatchCellCARTCD8Test {
                         any(MersenneTwisterFast.class));
         when(random.nextDouble()).thenReturn(0.49);
         sim.random = random;
+        RandomStreams streams = mock(RandomStreams.class);
+        doReturn(random).when(streams).getStream(anyString(), anyLong());
+        doReturn(streams).when(sim).getRandomStreams();
         cell.setState(State.UNDEFINED);
     }
 
@@ -6,6 +6,7 @@ import ec.util.MersenneTwisterFast;
 import arcade.core.util.GrabBag;
 import arcade.core.util.MiniBox;
 import arcade.core.util.Parameters;
+import arcade.core.util.RandomStreams;
 import arcade.patch.agent.process.PatchProcessMetabolism;
 import arcade.patch.agent.process.PatchProcessSignaling;
 import arcade.patch.env.grid.PatchGrid;
@@ -67,6 +68,9 @@ public class PatchCellCancerTest {
         doReturn(gridMock).when(simMock).getGrid();
         randomMock = mock(MersenneTwisterFast.class);
         simMock.random = randomMock;
+        RandomStreams streams = mock(RandomStreams.class);
+        doReturn(randomMock).when(streams).getStream(anyString(), anyLong());
+        doReturn(streams).when(simMock).getRandomStreams();
     }
 
     @Test
@@ -175,7 +175,7 @@ public class PatchCellRandomTest {
                     .setState(any(State.class));
 
             State state = State.values()[i];
-            sim.random = random;
+            cell.stream = random;
             cell.setState(State.UNDEFINED);
             cell.step(sim);
 
@@ -207,7 +207,7 @@ public class PatchCellRandomTest {
                     .setState(any(State.class));
 
             State state = State.values()[i];
-            sim.random = random;
+            cell.stream = random;
             cell.setState(state);
             cell.step(sim);
 
@@ -4,12 +4,14 @@ import java.util.ArrayList;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import sim.engine.Schedule;
+import sim.engine.Stoppable;
 import sim.util.Bag;
 import ec.util.MersenneTwisterFast;
 import arcade.core.agent.cell.CellState;
 import arcade.core.env.location.*;
 import arcade.core.util.MiniBox;
 import arcade.core.util.Parameters;
+import arcade.core.util.RandomStreams;
 import arcade.patch.agent.process.PatchProcessMetabolism;
 import arcade.patch.agent.process.PatchProcessSignaling;
 import arcade.patch.env.grid.PatchGrid;
@@ -112,6 +114,35 @@ public class PatchCellTest {
         assertEquals(0, cell.getCycles().size());
     }
 
+    @Test
+    public void getRandom_calledTwice_returnsCellStream() {
+        doReturn(0.0).when(parametersMock).getDouble(any(String.class));
+        doReturn(0).when(parametersMock).getInt(any(String.class));
+        PatchCell cell = new PatchCellMock(baseContainer, locationMock, parametersMock);
+        PatchSimulation sim = mock(PatchSimulation.class);
+        RandomStreams streams = mock(RandomStreams.class);
+        doReturn(randomMock).when(streams).getStream(PatchCell.STREAM_KEY, cellID);
+        doReturn(streams).when(sim).getRandomStreams();
+
+        assertSame(randomMock, cell.getRandom(sim));
+        assertSame(randomMock, cell.getRandom(sim));
+        verify(streams).getStream(PatchCell.STREAM_KEY, cellID);
+    }
+
+    @Test
+    public void stop_withStream_releasesStream() {
+        doReturn(0.0).when(parametersMock).getDouble(any(String.class));
+        doReturn(0).when(parametersMock).getInt(any(String.class));
+        PatchCell cell = new PatchCellMock(baseContainer, locationMock, parametersMock);
+        cell.stopper = mock(Stoppable.class);
+        cell.stream = randomMock;
+
+        cell.stop();
+
+        assertTrue(cell.isStopped());
+        assertNull(cell.stream);
+    }
+
     @Test
     public void addCycle_givenCycles_appendValues() {
         doReturn(0.0).when(parametersMock).getDouble(any(String.class));
@@ -9,6 +9,7 @@ import arcade.core.env.location.*;
 import arcade.core.util.GrabBag;
 import arcade.core.util.MiniBox;
 import arcade.core.util.Parameters;
+import arcade.core.util.RandomStreams;
 import arcade.patch.agent.module.PatchModule;
 import arcade.patch.agent.process.PatchProcessMetabolism;
 import arcade.patch.agent.process.PatchProcessSignaling;
@@ -90,6 +91,9 @@ public class PatchCellTissueTest {
         doReturn(gridMock).when(simMock).getGrid();
         randomMock = mock(MersenneTwisterFast.class);
         simMock.random = randomMock;
+        RandomStreams streams = mock(RandomStreams.class);
+        doReturn(randomMock).when(streams).getStream(anyString(), anyLong());
+        doReturn(streams).when(simMock).getRandomStreams();
     }
 
     @Test
@@ -0,0 +1,78 @@
+package arcade.patch.env.lattice;
+
+import java.util.ArrayList;
+import org.junit.jupiter.api.Test;
+import sim.engine.Schedule;
+import sim.engine.SimState;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static arcade.core.ARCADETestUtilities.*;
+import static arcade.patch.util.PatchEnums.Ordering;
+
+public class PatchLatticeGroupTest {
+    static ArrayList<PatchLattice> makeLattices(int n) {
+        ArrayList<PatchLattice> lattices = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            lattices.add(mock(PatchLattice.class));
+        }
+        return lattices;
+    }
+
+    @Test
+    public void constructor_givenThreads_limitsPoolToLattices() {
+        int n = randomIntBetween(2, 5);
+        PatchLatticeGroup group = new PatchLatticeGroup(makeLattices(n), n + 3);
+        assertEquals(n, group.pool.getParallelism());
+        group.finish();
+    }
+
+    @Test
+    public void schedule_givenSchedule_schedulesGroup() {
+        PatchLatticeGroup group = new PatchLatticeGroup(makeLattices(2), 2);
+        Schedule schedule = mock(Schedule.class);
+
+        group.schedule(schedule);
+
+        verify(schedule).scheduleOnce(group, Ordering.FIRST.ordinal());
+        verify(schedule).scheduleRepeating(group, Ordering.LATTICES.ordinal(), 1);
+        group.finish();
+    }
+
+    @Test
+    public void step_singleTick_stepsEachLatticeOnce() {
+        ArrayList<PatchLattice> lattices = makeLattices(randomIntBetween(2, 10));
+        PatchLatticeGroup group = new PatchLatticeGroup(lattices, randomIntBetween(2, 4));
+        SimState simstate = mock(SimState.class);
+
+        group.step(simstate);
+
+        for (PatchLattice lattice : lattices) {
+            verify(lattice).step(simstate);
+        }
+        group.finish();
+    }
+
+    @Test
+    public void step_multipleTicks_stepsEachLatticeOncePerTick() {
+        ArrayList<PatchLattice> lattices = makeLattices(randomIntBetween(2, 10));
+        PatchLatticeGroup group = new PatchLatticeGroup(lattices, randomIntBetween(2, 4));
+        SimState simstate = mock(SimState.class);
+        int ticks = randomIntBetween(2, 10);
+
+        for (int tick = 0; tick < ticks; tick++) {
+            group.step(simstate);
+        }
+
+        for (PatchLattice lattice : lattices) {
+            verify(lattice, times(ticks)).step(simstate);
+        }
+        group.finish();
+    }
+
+    @Test
+    public void finish_called_shutsDownPool() {
+        PatchLatticeGroup group = new PatchLatticeGroup(makeLattices(2), 2);
+        group.finish();
+        assertTrue(group.pool.isShutdown());
+    }
+}
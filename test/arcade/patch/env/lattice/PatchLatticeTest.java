@@ -0,0 +1,90 @@
+package arcade.patch.env.lattice;
+
+import org.junit.jupiter.api.Test;
+import arcade.core.util.MiniBox;
+import static org.junit.jupiter.api.Assertions.*;
+import static arcade.core.ARCADETestUtilities.*;
+
+public class PatchLatticeTest {
+    static double[][][] makeValues(int height, int length, int width) {
+        double[][][] values = new double[height][length][width];
+        for (int k = 0; k < height; k++) {
+            for (int i = 0; i < length; i++) {
+                for (int j = 0; j < width; j++) {
+                    values[k][i][j] = randomDoubleBetween(0, 100);
+                }
+            }
+        }
+        return values;
+    }
+
+    static double[][][] copyValues(double[][][] values) {
+        double[][][] copy = new double[values.length][][];
+        for (int k = 0; k < values.length; k++) {
+            copy[k] = new double[values[k].length][];
+            for (int i = 0; i < values[k].length; i++) {
+                copy[k][i] = values[k][i].clone();
+            }
+        }
+        return copy;
+    }
+
+    @Test
+    public void swapField_givenLayer_exchangesRows() {
+        int length = randomIntBetween(3, 10);
+        int width = randomIntBetween(3, 10);
+        int height = randomIntBetween(3, 10);
+        int index = randomIntBetween(0, height);
+        PatchLattice lattice = new PatchLatticeRect(length, width, height, 1, 1, new MiniBox());
+
+        double[][][] field = lattice.getField();
+        double[][] fieldLayer = field[index];
+        double[][] fieldValues = makeValues(1, length, width)[0];
+        for (int i = 0; i < length; i++) {
+            System.arraycopy(fieldValues[i], 0, fieldLayer[i], 0, width);
+        }
+
+        double[][] values = makeValues(1, length, width)[0];
+        double[][] expected = copyValues(new double[][][] {values})[0];
+
+        lattice.swapField(values, index);
+
+        assertSame(field, lattice.getField());
+        assertSame(fieldLayer, lattice.getField()[index]);
+        for (int i = 0; i < length; i++) {
+            assertArrayEquals(expected[i], lattice.getField()[index][i]);
+            assertArrayEquals(fieldValues[i], values[i]);
+        }
+    }
+
+    @Test
+    public void swapField_givenArray_exchangesRowsOfEachLayer() {
+        int length = randomIntBetween(3, 10);
+        int width = randomIntBetween(3, 10);
+        int height = randomIntBetween(3, 10);
+        PatchLattice lattice = new PatchLatticeRect(length, width, height, 1, 1, new MiniBox());
+
+        double[][][] field = lattice.getField();
+        double[][][] fieldValues = makeValues(height, length, width);
+        for (int k = 0; k < height; k++) {
+            for (int i = 0; i < length; i++) {
+                System.arraycopy(fieldValues[k][i], 0, field[k][i], 0, width);
+            }
+        }
+
+        double[][][] values = makeValues(height, length, width);
+        double[][][] expected = copyValues(values);
+        double[][] valuesLayer = values[0];
+
+        lattice.swapField(values);
+
+        assertSame(field, lattice.getField());
+        assertSame(valuesLayer, values[0]);
+        for (int k = 0; k < height; k++) {
+            for (int i = 0; i < length; i++) {
+                assertArrayEquals(expected[k][i], lattice.getField()[k][i]);
+                assertArrayEquals(fieldValues[k][i], values[k][i]);
+            }
+        }
+    }
+}
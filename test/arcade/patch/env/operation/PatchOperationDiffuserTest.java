@@ -0,0 +1,203 @@
+package arcade.patch.env.operation;
+
+import org.junit.jupiter.api.Test;
+import ec.util.MersenneTwisterFast;
+import arcade.core.util.MiniBox;
+import arcade.patch.env.lattice.PatchLattice;
+import arcade.patch.env.lattice.PatchLatticeRect;
+import arcade.patch.env.lattice.PatchLatticeTri;
+import static org.junit.jupiter.api.Assertions.*;
+import static arcade.core.ARCADETestUtilities.*;
+import static arcade.core.util.MiniBox.TAG_SEPARATOR;
+import static arcade.patch.util.PatchEnums.Category;
+
+public class PatchOperationDiffuserTest {
+    private static final int LENGTH = 31;
+
+    private static final int WIDTH = 23;
+
+    private static final int STEPS = 3;
+
+    static PatchLattice makeLattice(
+            boolean isTri, int height, int threads, double diffusivity, int seed) {
+        MiniBox parameters = new MiniBox();
+        parameters.put("(OPERATION)" + TAG_SEPARATOR + "DIFFUSER", "");
+        parameters.put("(OPERATION)" + TAG_SEPARATOR + "GENERATOR", "");
+        parameters.put("diffuser/DIFFUSIVITY", diffusivity);
+        parameters.put("diffuser/THREADS", threads);
+
+        PatchLattice lattice =
+                isTri
+                        ? new PatchLatticeTri(LENGTH, WIDTH, height, 1, 1, parameters)
+                        : new PatchLatticeRect(LENGTH, WIDTH, height, 1, 1, parameters);
+
+        MersenneTwisterFast random = new MersenneTwisterFast(seed);
+        double[][][] field = lattice.getField();
+        for (int k = 0; k < height; k++) {
+            for (int i = 0; i < LENGTH; i++) {
+                for (int j = 0; j < WIDTH; j++) {
+                    field[k][i][j] = random.nextDouble();
+                }
+            }
+        }
+
+        return lattice;
+    }
+
+    static void stepWithCopy(PatchOperationDiffuser diffuser, PatchLattice lattice, int height) {
+        double[][][] current = lattice.getField();
+        double[][][] next = new double[height][LENGTH][WIDTH];
+
+        for (int step = 0; step < 60; step++) {
+            for (int k = 0; k < height; k++) {
+                int up = Math.min(k + 1, height - 1);
+                int down = Math.max(k - 1, 0);
+
+                for (int i = 0; i < LENGTH; i++) {
+                    for (int j = 0; j < WIDTH; j++) {
+                        double oldConc = current[k][i][j] * diffuser.adjust;
+                        double sumConc = diffuser.calcSum(i, j, current[k]);
+
+                        if (height > 1) {
+                            sumConc += current[up][i][j] * diffuser.alpha;
+                            sumConc += current[down][i][j] * diffuser.alpha;
+                        }
+
+                        next[k][i][j] =
+                                diffuser.rate * (sumConc - diffuser.beta * oldConc) + oldConc;
+                    }
+                }
+            }
+
+            lattice.setField(next);
+        }
+    }
+
+    static void assertSwappedMatchesCopied(boolean isTri, int height) {
+        int seed = randomSeed();
+        double diffusivity = randomDoubleBetween(0.1, 0.5);
+
+        PatchLattice swapped = makeLattice(isTri, height, 1, diffusivity, seed);
+        PatchLattice copied = makeLattice(isTri, height, 1, diffusivity, seed);
+
+        PatchOperationDiffuser swappedDiffuser =
+                (PatchOperationDiffuser) swapped.getOperation(Category.DIFFUSER);
+        PatchOperationDiffuser copiedDiffuser =
+                (PatchOperationDiffuser) copied.getOperation(Category.DIFFUSER);
+        PatchOperationGenerator generator =
+                (PatchOperationGenerator) swapped.getOperation(Category.GENERATOR);
+
+        double[][][] field = swapped.getField();
+        double[][] layer = field[0];
+
+        for (int step = 0; step < STEPS; step++) {
+            swappedDiffuser.step(null, null);
+            stepWithCopy(copiedDiffuser, copied, height);
+        }
+
+        assertSame(field, swapped.getField());
+        assertSame(layer, swapped.getField()[0]);
+        assertSame(generator.latticePrevious, swappedDiffuser.latticeNew);
+
+        for (int k = 0; k < height; k++) {
+            for (int i = 0; i < LENGTH; i++) {
+                assertArrayEquals(copied.getField()[k][i], swapped.getField()[k][i]);
+                assertArrayEquals(swapped.getField()[k][i], generator.latticePrevious[k][i]);
+            }
+        }
+    }
+
+    static void assertParallelMatchesSequential(boolean isTri, int height) {
+        int seed = randomSeed();
+        double diffusivity = randomDoubleBetween(0.1, 0.5);
+        int threads = randomIntBetween(2, 8);
+
+        PatchLattice sequential = makeLattice(isTri, height, 1, diffusivity, seed);
+        PatchLattice parallel = makeLattice(isTri, height, threads, diffusivity, seed);
+
+        PatchOperationDiffuser sequentialDiffuser =
+                (PatchOperationDiffuser) sequential.getOperation(Category.DIFFUSER);
+        PatchOperationDiffuser parallelDiffuser =
+                (PatchOperationDiffuser) parallel.getOperation(Category.DIFFUSER);
+
+        assertNull(sequentialDiffuser.pool);
+        assertNotNull(parallelDiffuser.pool);
+
+        for (int step = 0; step < STEPS; step++) {
+            sequentialDiffuser.step(null, null);
+            parallelDiffuser.step(null, null);
+        }
+
+        parallel.finish();
+
+        for (int k = 0; k < height; k++) {
+            for (int i = 0; i < LENGTH; i++) {
+                assertArrayEquals(sequential.getField()[k][i], parallel.getField()[k][i]);
+                assertArrayEquals(
+                        sequentialDiffuser.latticeNew[k][i], parallelDiffuser.latticeNew[k][i]);
+            }
+        }
+    }
+
+    @Test
+    public void step_rect2D_matchesCopiedField() {
+        assertSwappedMatchesCopied(false, 1);
+    }
+
+    @Test
+    public void step_rect3D_matchesCopiedField() {
+        assertSwappedMatchesCopied(false, randomIntBetween(3, 6));
+    }
+
+    @Test
+    public void step_tri2D_matchesCopiedField() {
+        assertSwappedMatchesCopied(true, 1);
+    }
+
+    @Test
+    public void step_tri3D_matchesCopiedField() {
+        assertSwappedMatchesCopied(true, randomIntBetween(3, 6));
+    }
+
+    @Test
+    public void step_rect2DWithThreads_matchesSequential() {
+        assertParallelMatchesSequential(false, 1);
+    }
+
+    @Test
+    public void step_rect3DWithThreads_matchesSequential() {
+        assertParallelMatchesSequential(false, randomIntBetween(3, 6));
+    }
+
+    @Test
+    public void step_tri2DWithThreads_matchesSequential() {
+        assertParallelMatchesSequential(true, 1);
+    }
+
+    @Test
+    public void step_tri3DWithThreads_matchesSequential() {
+        assertParallelMatchesSequential(true, randomIntBetween(3, 6));
+    }
+
+    @Test
+    public void finish_withThreads_shutsDownPool() {
+        int threads = randomIntBetween(2, 8);
+        PatchLattice lattice = makeLattice(false, 1, threads, 0.1, randomSeed());
+        PatchOperationDiffuser diffuser =
+                (PatchOperationDiffuser) lattice.getOperation(Category.DIFFUSER);
+
+        lattice.finish();
+
+        assertTrue(diffuser.pool.isShutdown());
+    }
+
+    @Test
+    public void finish_withoutThreads_doesNothing() {
+        PatchLattice lattice = makeLattice(false, 1, 1, 0.1, randomSeed());
+        PatchOperationDiffuser diffuser =
+                (PatchOperationDiffuser) lattice.getOperation(Category.DIFFUSER);
+
+        lattice.finish();
+        assertNull(diffuser.pool);
+    }
+}
@@ -0,0 +1,180 @@
+package arcade.potts.agent.cell;
+
+import java.util.ArrayList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import sim.engine.Schedule;
+import sim.engine.SimState;
+import sim.engine.Stoppable;
+import ec.util.MersenneTwisterFast;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static arcade.core.ARCADETestUtilities.*;
+import static arcade.potts.util.PottsEnums.Ordering;
+
+public class PottsCellBatchTest {
+    Schedule schedule;
+
+    SimState simstate;
+
+    PottsCellBatch batch;
+
+    @BeforeEach
+    public void setupBatch() {
+        schedule = mock(Schedule.class);
+        simstate = mock(SimState.class);
+        simstate.random = new MersenneTwisterFast(randomSeed());
+        batch = new PottsCellBatch();
+        batch.schedule(schedule);
+    }
+
+    ArrayList<PottsCell> addCells(int n, double time) {
+        doReturn(time).when(schedule).getTime();
+        ArrayList<PottsCell> cells = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            PottsCell cell = mock(PottsCell.class);
+            batch.add(cell);
+            cells.add(cell);
+        }
+        return cells;
+    }
+
+    @Test
+    public void schedule_givenSchedule_schedulesRepeating() {
+        verify(schedule).scheduleRepeating(batch, Ordering.CELLS.ordinal(), 1);
+    }
+
+    @Test
+    public void add_givenCells_updatesSize() {
+        int n = randomIntBetween(1, 100);
+        addCells(n, 0);
+        assertEquals(n, batch.size());
+    }
+
+    @Test
+    public void step_givenCells_stepsAllCells() {
+        ArrayList<PottsCell> cells = addCells(randomIntBetween(1, 100), 0);
+
+        doReturn(1.0).when(schedule).getTime();
+        batch.step(simstate);
+
+        for (PottsCell cell : cells) {
+            verify(cell).step(simstate);
+        }
+    }
+
+    @Test
+    public void step_cellsAddedThisTick_skipsCells() {
+        ArrayList<PottsCell> cells = addCells(randomIntBetween(1, 100), 1);
+
+        batch.step(simstate);
+
+        for (PottsCell cell : cells) {
+            verify(cell, never()).step(simstate);
+        }
+    }
+
+    @Test
+    public void step_stoppedCell_skipsCell() {
+        doReturn(0.0).when(schedule).getTime();
+        PottsCell stoppedCell = mock(PottsCell.class);
+        Stoppable stopper = batch.add(stoppedCell);
+        ArrayList<PottsCell> cells = addCells(randomIntBetween(1, 100), 0);
+
+        stopper.stop();
+        doReturn(1.0).when(schedule).getTime();
+        batch.step(simstate);
+
+        verify(stoppedCell, never()).step(simstate);
+        for (PottsCell cell : cells) {
+            verify(cell).step(simstate);
+        }
+        assertEquals(cells.size(), batch.size());
+    }
+
+    @Test
+    public void step_cellStoppedDuringTick_skipsCell() {
+        doReturn(0.0).when(schedule).getTime();
+        PottsCell cellA = mock(PottsCell.class);
+        PottsCell cellB = mock(PottsCell.class);
+        Stoppable stopperA = batch.add(cellA);
+        Stoppable stopperB = batch.add(cellB);
+        int[] steps = new int[1];
+
+        doAnswer(
+                        invocation -> {
+                            steps[0]++;
+                            stopperB.stop();
+                            return null;
+                        })
+                .when(cellA)
+                .step(simstate);
+        doAnswer(
+                        invocation -> {
+                            steps[0]++;
+                            stopperA.stop();
+                            return null;
+                        })
+                .when(cellB)
+                .step(simstate);
+
+        doReturn(1.0).when(schedule).getTime();
+        batch.step(simstate);
+
+        assertEquals(1, steps[0]);
+        assertEquals(0, batch.size());
+    }
+
+    @Test
+    public void step_cellAddedDuringTick_stepsNextTick() {
+        doReturn(0.0).when(schedule).getTime();
+        PottsCell parent = mock(PottsCell.class);
+        PottsCell child = mock(PottsCell.class);
+        batch.add(parent);
+
+        doAnswer(
+                        invocation -> {
+                            batch.add(child);
+                            return null;
+                        })
+                .when(parent)
+                .step(simstate);
+
+        doReturn(1.0).when(schedule).getTime();
+        batch.step(simstate);
+        verify(child, never()).step(simstate);
+
+        doReturn(2.0).when(schedule).getTime();
+        batch.step(simstate);
+        verify(child).step(simstate);
+    }
+
+    @Test
+    public void step_sameSeed_stepsSameOrder() {
+        ArrayList<PottsCell> cells = addCells(randomIntBetween(10, 100), 0);
+        ArrayList<PottsCell> orderA = new ArrayList<>();
+        ArrayList<PottsCell> orderB = new ArrayList<>();
+        long seed = randomSeed();
+
+        for (PottsCell cell : cells) {
+            doAnswer(invocation -> orderA.add(cell)).when(cell).step(simstate);
+        }
+        simstate.random = new MersenneTwisterFast(seed);
+        doReturn(1.0).when(schedule).getTime();
+        batch.step(simstate);
+
+        PottsCellBatch other = new PottsCellBatch();
+        other.schedule(schedule);
+        doReturn(0.0).when(schedule).getTime();
+        cells.forEach(other::add);
+        for (PottsCell cell : cells) {
+            doAnswer(invocation -> orderB.add(cell)).when(cell).step(simstate);
+        }
+        simstate.random = new MersenneTwisterFast(seed);
+        doReturn(1.0).when(schedule).getTime();
+        other.step(simstate);
+
+        assertEquals(cells.size(), orderA.size());
+        assertEquals(orderA, orderB);
+    }
+}
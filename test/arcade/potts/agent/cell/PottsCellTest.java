@@ -15,7 +15,9 @@ import arcade.core.env.location.*;
 import arcade.core.util.GrabBag;
 import arcade.core.util.MiniBox;
 import arcade.core.util.Parameters;
+import arcade.core.util.RandomStreams;
 import arcade.potts.agent.module.PottsModule;
+import arcade.potts.env.grid.PottsArray;
 import arcade.potts.env.location.PottsLocation;
 import arcade.potts.sim.PottsSimulation;
 import static org.junit.jupiter.api.Assertions.*;
@@ -787,6 +789,15 @@ public class PottsCellTest {
         verify(cell.stopper).stop();
     }
 
+    @Test
+    public void stop_withStream_releasesStream() {
+        PottsCell cell = new PottsCellMock(containerWithoutRegions, locationMock, parametersMock);
+        cell.stopper = mock(Stoppable.class);
+        cell.stream = mock(MersenneTwisterFast.class);
+        cell.stop();
+        assertNull(cell.stream);
+    }
+
     @Test
     public void schedule_validInput_callsMethod() {
         Schedule schedule = mock(Schedule.class);
@@ -809,11 +820,24 @@ public class PottsCellTest {
         assertNotNull(cell.stopper);
     }
 
+    @Test
+    public void schedule_withBatch_addsToBatch() {
+        Schedule schedule = mock(Schedule.class);
+        PottsCell cell = new PottsCellMock(containerWithoutRegions, locationMock, parametersMock);
+        cell.batch = new PottsCellBatch();
+        cell.batch.schedule(schedule);
+        cell.schedule(schedule);
+
+        verify(schedule, never()).scheduleRepeating(cell, Ordering.CELLS.ordinal(), 1);
+        assertEquals(1, cell.batch.size());
+        assertNotNull(cell.stopper);
+    }
+
     @Test
     public void initialize_withoutRegions_callsMethod() {
         PottsLocation location = mock(PottsLocation.class);
         PottsCell cell = new PottsCellMock(containerWithoutRegions, location, parametersMock);
-        int[][][] array = new int[1][3][3];
+        PottsArray array = new PottsArray(3, 3, 1);
         cell.initialize(array, null);
 
         verify(location).update(cellID, array, null);
@@ -824,8 +848,8 @@ public class PottsCellTest {
         PottsLocation location = mock(PottsLocation.class);
         when(location.getRegions()).thenReturn(regionList);
         PottsCell cell = new PottsCellMock(containerWithRegions, location, parametersMock);
-        int[][][] array1 = new int[1][3][3];
-        int[][][] array2 = new int[1][3][3];
+        PottsArray array1 = new PottsArray(3, 3, 1);
+        PottsArray array2 = new PottsArray(3, 3, 1);
         cell.initialize(array1, array2);
 
         verify(location).update(cellID, array1, array2);
@@ -840,7 +864,7 @@ public class PottsCellTest {
         when(location.getSurface()).thenReturn((double) surface);
 
         PottsCell cell = new PottsCellMock(containerWithoutRegions, location, parametersMock);
-        cell.initialize(new int[1][3][3], null);
+        cell.initialize(new PottsArray(3, 3, 1), null);
 
         assertEquals(volume, cell.getTargetVolume(), EPSILON);
         assertEquals(surface, cell.getTargetSurface(), EPSILON);
@@ -864,7 +888,7 @@ public class PottsCellTest {
         when(location.getRegions()).thenReturn(regionList);
 
         PottsCell cell = new PottsCellMock(containerWithRegions, location, parametersMock);
-        cell.initialize(new int[1][3][3], new int[1][3][3]);
+        cell.initialize(new PottsArray(3, 3, 1), new PottsArray(3, 3, 1));
 
         assertEquals(volume1 + volume2, cell.getTargetVolume(), EPSILON);
         assertEquals(surface1 + surface2, cell.getTargetSurface(), EPSILON);
@@ -880,7 +904,7 @@ public class PottsCellTest {
     public void reset_withoutRegions_callsMethod() {
         PottsLocation location = mock(PottsLocation.class);
         PottsCell cell = new PottsCellMock(containerWithoutRegions, location, parametersMock);
-        int[][][] array = new int[1][3][3];
+        PottsArray array = new PottsArray(3, 3, 1);
         cell.initialize(array, null);
         cell.reset(array, null);
 
@@ -892,8 +916,8 @@ public class PottsCellTest {
         PottsLocation location = mock(PottsLocation.class);
         when(location.getRegions()).thenReturn(regionList);
         PottsCell cell = new PottsCellMock(containerWithRegions, location, parametersMock);
-        int[][][] array1 = new int[1][3][3];
-        int[][][] array2 = new int[1][3][3];
+        PottsArray array1 = new PottsArray(3, 3, 1);
+        PottsArray array2 = new PottsArray(3, 3, 1);
         cell.initialize(array1, array2);
         cell.reset(array1, array2);
 
@@ -903,9 +927,9 @@ public class PottsCellTest {
     @Test
     public void reset_withoutRegions_updatesTargets() {
         PottsCell cell = new PottsCellMock(containerWithoutRegions, locationMock, parametersMock);
-        cell.initialize(new int[1][3][3], new int[1][3][3]);
+        cell.initialize(new PottsArray(3, 3, 1), new PottsArray(3, 3, 1));
         cell.updateTarget(randomDoubleBetween(0, 10), randomDoubleBetween(0, 10));
-        cell.reset(new int[1][3][3], null);
+        cell.reset(new PottsArray(3, 3, 1), null);
 
         assertEquals(cellCriticalVolume, cell.getTargetVolume(), EPSILON);
         assertEquals(cellCriticalVolume * cellCriticalHeight, cell.getTargetSurface(), EPSILON);
@@ -916,10 +940,10 @@ public class PottsCellTest {
     @Test
     public void reset_withRegions_updatesTargets() {
         PottsCell cell = new PottsCellMock(containerWithRegions, locationMock, parametersMock);
-        cell.initialize(new int[1][3][3], new int[1][3][3]);
+        cell.initialize(new PottsArray(3, 3, 1), new PottsArray(3, 3, 1));
         cell.updateTarget(Region.DEFAULT, randomDoubleBetween(0, 10), randomDoubleBetween(0, 10));
         cell.updateTarget(Region.NUCLEUS, randomDoubleBetween(0, 10), randomDoubleBetween(0, 10));
-        cell.reset(new int[1][3][3], new int[1][3][3]);
+        cell.reset(new PottsArray(3, 3, 1), new PottsArray(3, 3, 1));
 
         assertEquals(cellCriticalVolume, cell.getTargetVolume(), EPSILON);
         assertEquals(cellCriticalVolume * cellCriticalHeight, cell.getTargetSurface(), EPSILON);
@@ -939,12 +963,30 @@ public class PottsCellTest {
     public void step_singleStep_updatesAge() {
         PottsCell cell = new PottsCellMock(containerWithoutRegions, locationMock, parametersMock);
         PottsSimulation sim = mock(PottsSimulation.class);
+        doReturn(new RandomStreams(randomSeed())).when(sim).getRandomStreams();
         cell.module = mock(Module.class);
 
         cell.step(sim);
         assertEquals(cellAge + 1, cell.getAge(), EPSILON);
     }
 
+    @Test
+    public void step_multipleSteps_stepsModuleWithCellStream() {
+        PottsCell cell = new PottsCellMock(containerWithoutRegions, locationMock, parametersMock);
+        PottsSimulation sim = mock(PottsSimulation.class);
+        RandomStreams streams = mock(RandomStreams.class);
+        MersenneTwisterFast random = mock(MersenneTwisterFast.class);
+        doReturn(random).when(streams).getStream(PottsCell.STREAM_KEY, cellID);
+        doReturn(streams).when(sim).getRandomStreams();
+        cell.module = mock(Module.class);
+
+        cell.step(sim);
+        cell.step(sim);
+
+        verify(streams).getStream(PottsCell.STREAM_KEY, cellID);
+        verify(cell.module, times(2)).step(random, sim);
+    }
+
     @Test
     public void setTargets_noRegions_updateValues() {
         double targetVolume = randomDoubleBetween(0, 10);
@@ -6,6 +6,7 @@ import arcade.core.env.grid.Grid;
 import arcade.core.sim.Simulation;
 import arcade.core.util.Parameters;
 import arcade.potts.agent.cell.PottsCell;
+import arcade.potts.env.grid.PottsArray;
 import arcade.potts.env.location.PottsLocation;
 import arcade.potts.sim.Potts;
 import arcade.potts.sim.PottsSimulation;
@@ -115,8 +116,8 @@ public class PottsModuleApoptosisTest {
         doReturn(grid).when(sim).getGrid();
         doReturn(location).when(cell).getLocation();
 
-        potts.ids = new int[][][] {{{}}};
-        potts.regions = new int[][][] {{{}}};
+        potts.ids = new PottsArray(new int[][][] {{{}}});
+        potts.regions = new PottsArray(new int[][][] {{{}}});
 
         PottsModuleApoptosis module = new PottsModuleApoptosisMock(cell);
         module.removeCell(sim);
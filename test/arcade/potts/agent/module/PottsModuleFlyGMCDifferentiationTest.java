@@ -16,6 +16,7 @@ import arcade.potts.agent.cell.PottsCellContainer;
 import arcade.potts.agent.cell.PottsCellFactory;
 import arcade.potts.agent.cell.PottsCellFlyGMC;
 import arcade.potts.agent.cell.PottsCellFlyNeuron;
+import arcade.potts.env.grid.PottsArray;
 import arcade.potts.env.location.PottsLocation;
 import arcade.potts.env.location.PottsLocation2D;
 import arcade.potts.sim.Potts;
@@ -29,9 +30,9 @@ import static arcade.potts.util.PottsEnums.Region;
 import static arcade.potts.util.PottsEnums.State;
 
 public class PottsModuleFlyGMCDifferentiationTest {
-    private int[][][] dummyIDs;
+    private PottsArray dummyIDs;
 
-    private int[][][] dummyRegions;
+    private PottsArray dummyRegions;
 
     private Simulation sim;
 
@@ -63,8 +64,8 @@ public class PottsModuleFlyGMCDifferentiationTest {
 
     @BeforeEach
     public final void setupMocks() {
-        dummyIDs = new int[1][1][1];
-        dummyRegions = new int[0][0][0];
+        dummyIDs = new PottsArray(1, 1, 1);
+        dummyRegions = new PottsArray(0, 0, 0);
 
         sim = mock(PottsSimulation.class);
         potts = mock(Potts.class);
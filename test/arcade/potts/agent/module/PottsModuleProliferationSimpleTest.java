@@ -7,6 +7,7 @@ import ec.util.MersenneTwisterFast;
 import arcade.core.util.MiniBox;
 import arcade.core.util.Parameters;
 import arcade.potts.agent.cell.PottsCell;
+import arcade.potts.env.grid.PottsArray;
 import arcade.potts.env.location.PottsLocations;
 import arcade.potts.sim.Potts;
 import arcade.potts.sim.PottsSimulation;
@@ -625,8 +626,8 @@ public class PottsModuleProliferationSimpleTest {
         PottsLocations loc = mock(PottsLocations.class);
         doReturn(loc).when(cell).getLocation();
 
-        int[][][] ids = new int[0][0][0];
-        int[][][] regions = new int[0][0][0];
+        PottsArray ids = new PottsArray(0, 0, 0);
+        PottsArray regions = new PottsArray(0, 0, 0);
         pottsMock.ids = ids;
         pottsMock.regions = regions;
 
@@ -667,8 +668,8 @@ public class PottsModuleProliferationSimpleTest {
         PottsLocations loc = mock(PottsLocations.class);
         doReturn(loc).when(cell).getLocation();
 
-        int[][][] ids = new int[0][0][0];
-        int[][][] regions = new int[0][0][0];
+        PottsArray ids = new PottsArray(0, 0, 0);
+        PottsArray regions = new PottsArray(0, 0, 0);
         pottsMock.ids = ids;
         pottsMock.regions = regions;
 
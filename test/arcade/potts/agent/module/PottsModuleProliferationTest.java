@@ -9,6 +9,7 @@ import arcade.core.sim.Simulation;
 import arcade.core.util.Parameters;
 import arcade.potts.agent.cell.PottsCell;
 import arcade.potts.agent.cell.PottsCellContainer;
+import arcade.potts.env.grid.PottsArray;
 import arcade.potts.env.location.PottsLocation;
 import arcade.potts.sim.Potts;
 import arcade.potts.sim.PottsSimulation;
@@ -162,8 +163,8 @@ public class PottsModuleProliferationTest {
         doReturn(schedule).when(sim).getSchedule();
         doReturn(cellFactory).when(sim).getCellFactory();
 
-        potts.ids = new int[][][] {{{}}};
-        potts.regions = new int[][][] {{{}}};
+        potts.ids = new PottsArray(new int[][][] {{{}}});
+        potts.regions = new PottsArray(new int[][][] {{{}}});
 
         PottsLocation newLocation = mock(PottsLocation.class);
         PottsCellContainer newContainer = mock(PottsCellContainer.class);
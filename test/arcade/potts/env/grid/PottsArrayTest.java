@@ -0,0 +1,313 @@
+package arcade.potts.env.grid;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static arcade.core.ARCADETestUtilities.*;
+import static arcade.potts.env.grid.PottsArray.*;
+
+public class PottsArrayTest {
+    private static final int[][][] ARRAY = {
+        {
+            {1, 2, 3},
+            {4, 5, 6},
+        },
+        {
+            {7, 8, 9},
+            {10, 11, 12},
+        },
+    };
+
+    @Test
+    public void constructor_givenSize_setsFields() {
+        PottsArray array = new PottsArray(4, 5, 6);
+        assertEquals(4, array.length);
+        assertEquals(5, array.width);
+        assertEquals(6, array.height);
+        assertEquals(4 * 5 * 6, array.values.length);
+    }
+
+    @Test
+    public void constructor_givenArray_copiesValues() {
+        PottsArray array = new PottsArray(ARRAY);
+        assertEquals(2, array.length);
+        assertEquals(3, array.width);
+        assertEquals(2, array.height);
+
+        for (int k = 0; k < 2; k++) {
+            for (int i = 0; i < 2; i++) {
+                for (int j = 0; j < 3; j++) {
+                    assertEquals(ARRAY[k][i][j], array.get(i, j, k));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void constructor_givenEmptyArray_createsEmpty() {
+        PottsArray array = new PottsArray(new int[0][0][0]);
+        assertEquals(0, array.values.length);
+    }
+
+    @Test
+    public void set_givenValue_updatesValue() {
+        PottsArray array = new PottsArray(2, 3, 2);
+        array.set(1, 2, 1, 5);
+        assertEquals(5, array.get(1, 2, 1));
+        assertEquals(5, array.values[array.index(1, 2, 1)]);
+    }
+
+    @Test
+    public void neighbors_givenIndex_returnsFaceNeighbors() {
+        PottsArray array = new PottsArray(5, 5, 5);
+        int index = array.index(2, 2, 2);
+        assertEquals(array.index(2, 1, 2), index + array.neighbors[0]);
+        assertEquals(array.index(3, 2, 2), index + array.neighbors[1]);
+        assertEquals(array.index(2, 3, 2), index + array.neighbors[2]);
+        assertEquals(array.index(1, 2, 2), index + array.neighbors[3]);
+        assertEquals(array.index(2, 2, 3), index + array.neighbors[4]);
+        assertEquals(array.index(2, 2, 1), index + array.neighbors[5]);
+    }
+
+    @Test
+    public void neighborhood_givenIndex_returnsNeighborhood() {
+        PottsArray array = new PottsArray(5, 5, 5);
+        int index = array.index(2, 2, 2);
+        int n = 0;
+        for (int k = 1; k <= 3; k++) {
+            for (int i = 1; i <= 3; i++) {
+                for (int j = 1; j <= 3; j++) {
+                    assertEquals(array.index(i, j, k), index + array.neighborhood[n++]);
+                }
+            }
+        }
+        assertEquals(0, array.neighborhood[NEIGHBORHOOD_CENTER]);
+    }
+
+    @Test
+    public void toArray_givenValues_returnsCopy() {
+        PottsArray array = new PottsArray(ARRAY);
+        int[][][] copy = array.toArray();
+        assertArrayEquals(ARRAY, copy);
+        copy[0][0][0] = 0;
+        assertEquals(1, array.get(0, 0, 0));
+    }
+
+    @Test
+    public void set_withoutTracking_logsNothing() {
+        PottsArray array = new PottsArray(2, 3, 2);
+        array.set(1, 2, 1, 5);
+        assertEquals(0, array.getNumberChanges());
+    }
+
+    @Test
+    public void set_withTracking_logsChanges() {
+        PottsArray array = new PottsArray(2, 3, 2);
+        array.trackChanges(2);
+        array.set(1, 2, 1, 5);
+        array.set(0, 1, 0, 3);
+        assertEquals(2, array.getNumberChanges());
+        assertEquals(array.index(1, 2, 1), array.getChange(0));
+        assertEquals(array.index(0, 1, 0), array.getChange(1));
+    }
+
+    @Test
+    public void set_overCapacity_setsOverflow() {
+        PottsArray array = new PottsArray(2, 3, 2);
+        array.trackChanges(1);
+        array.set(1, 2, 1, 5);
+        array.set(0, 1, 0, 3);
+        array.set(0, 0, 0, 3);
+        assertEquals(-1, array.getNumberChanges());
+    }
+
+    @Test
+    public void update_differentValue_setsValue() {
+        PottsArray array = new PottsArray(2, 3, 2);
+        array.trackChanges(2);
+        assertTrue(array.update(1, 2, 1, 5));
+        assertEquals(5, array.get(1, 2, 1));
+        assertEquals(1, array.getNumberChanges());
+        assertEquals(array.index(1, 2, 1), array.getChange(0));
+    }
+
+    @Test
+    public void update_sameValue_logsNothing() {
+        PottsArray array = new PottsArray(2, 3, 2);
+        array.values[array.index(1, 2, 1)] = 5;
+        array.trackChanges(2);
+        assertFalse(array.update(1, 2, 1, 5));
+        assertEquals(5, array.get(1, 2, 1));
+        assertEquals(0, array.getNumberChanges());
+    }
+
+    @Test
+    public void clearChanges_withChanges_clearsLog() {
+        PottsArray array = new PottsArray(2, 3, 2);
+        array.trackChanges(1);
+        array.set(1, 2, 1, 5);
+        array.set(0, 1, 0, 3);
+        array.clearChanges();
+        assertEquals(0, array.getNumberChanges());
+        array.set(0, 1, 0, 3);
+        assertEquals(1, array.getNumberChanges());
+    }
+
+    @Test
+    public void values_withTracking_doesNotLogChanges() {
+        PottsArray array = new PottsArray(2, 3, 2);
+        array.trackChanges(1);
+        array.values[array.index(1, 2, 1)] = 5;
+        assertEquals(0, array.getNumberChanges());
+    }
+
+    @Test
+    public void write_withTracking_logsNothing() {
+        PottsArray array = new PottsArray(2, 3, 2);
+        array.trackChanges(1);
+        array.write(1, 2, 1, 5);
+        assertEquals(5, array.get(1, 2, 1));
+        assertEquals(0, array.getNumberChanges());
+    }
+
+    @Test
+    public void constructor_givenTileSize_createsNoTiles() {
+        PottsArray array = new PottsArray(8, 9, 10, 4);
+        assertEquals(4, array.tileSize);
+        assertNull(array.values);
+        assertEquals(0, array.getNumberTiles());
+        assertEquals(0, array.get(5, 6, 7));
+    }
+
+    @Test
+    public void getIndex_givenDense_returnsIndex() {
+        PottsArray array = new PottsArray(5, 6, 7);
+        assertSame(array.values, array.getValues(1, 2, 3));
+        assertEquals(array.index(1, 2, 3), array.getIndex(1, 2, 3));
+    }
+
+    @Test
+    public void set_tiledValue_updatesValue() {
+        PottsArray array = new PottsArray(8, 8, 8, 4);
+        array.set(5, 6, 5, 3);
+        assertEquals(3, array.get(5, 6, 5));
+        assertEquals(0, array.get(5, 5, 5));
+        assertEquals(1, array.getNumberTiles());
+    }
+
+    @Test
+    public void set_tiledZero_createsNoTiles() {
+        PottsArray array = new PottsArray(8, 8, 8, 4);
+        array.set(5, 6, 5, 0);
+        assertEquals(0, array.getNumberTiles());
+    }
+
+    @Test
+    public void set_tiledCorner_createsAdjacentTiles() {
+        PottsArray array = new PottsArray(8, 8, 8, 4);
+        array.set(4, 4, 4, 3);
+        assertEquals(8, array.getNumberTiles());
+    }
+
+    @Test
+    public void set_tiledFace_createsAdjacentTile() {
+        PottsArray array = new PottsArray(8, 8, 8, 4);
+        array.set(3, 5, 6, 3);
+        assertEquals(2, array.getNumberTiles());
+    }
+
+    @Test
+    public void set_tiledCleared_dropsTiles() {
+        PottsArray array = new PottsArray(8, 8, 8, 4);
+        array.set(4, 4, 4, 3);
+        array.set(4, 4, 4, 0);
+        assertEquals(0, array.getNumberTiles());
+    }
+
+    @Test
+    public void set_tiledPartiallyCleared_keepsTiles() {
+        PottsArray array = new PottsArray(8, 8, 8, 4);
+        array.set(4, 4, 4, 3);
+        array.set(3, 5, 5, 2);
+        array.set(4, 4, 4, 0);
+        assertEquals(2, array.getNumberTiles());
+        assertEquals(2, array.get(3, 5, 5));
+        assertEquals(0, array.get(4, 4, 4));
+    }
+
+    @Test
+    public void set_tiledAfterCleared_reusesEmptyTiles() {
+        PottsArray array = new PottsArray(8, 8, 8, 4);
+        array.set(4, 4, 4, 3);
+        array.set(4, 4, 4, 0);
+        array.set(1, 2, 1, 5);
+
+        assertEquals(1, array.getNumberTiles());
+        int[][][] expected = new int[8][8][8];
+        expected[1][1][2] = 5;
+        assertArrayEquals(expected, array.toArray());
+    }
+
+    @Test
+    public void set_tiledWithTracking_logsChanges() {
+        PottsArray array = new PottsArray(8, 8, 8, 4);
+        array.trackChanges(1);
+        array.set(1, 2, 3, 5);
+        assertEquals(1, array.getNumberChanges());
+        assertEquals(array.index(1, 2, 3), array.getChange(0));
+    }
+
+    @Test
+    public void getValues_tiledValues_containsNeighborhood() {
+        PottsArray dense = new PottsArray(9, 10, 11);
+        PottsArray tiled = new PottsArray(9, 10, 11, 3);
+
+        for (int k = 0; k < 11; k++) {
+            for (int i = 0; i < 9; i++) {
+                for (int j = 0; j < 10; j++) {
+                    int value = (i + j + k) % 4 == 0 ? 0 : randomIntBetween(1, 10);
+                    dense.set(i, j, k, value);
+                    tiled.set(i, j, k, value);
+                }
+            }
+        }
+
+        for (int k = 1; k < 10; k++) {
+            for (int i = 1; i < 8; i++) {
+                for (int j = 1; j < 9; j++) {
+                    int[] denseValues = dense.getValues(i, j, k);
+                    int[] tiledValues = tiled.getValues(i, j, k);
+                    int denseIndex = dense.getIndex(i, j, k);
+                    int tiledIndex = tiled.getIndex(i, j, k);
+                    for (int n = 0; n < NEIGHBORHOOD_SIZE; n++) {
+                        assertEquals(
+                                denseValues[denseIndex + dense.neighborhood[n]],
+                                tiledValues[tiledIndex + tiled.neighborhood[n]]);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void getValues_tiledOverwritten_updatesHalo() {
+        PottsArray array = new PottsArray(8, 8, 8, 4);
+        array.set(4, 4, 4, 3);
+        array.set(4, 4, 4, 0);
+        int[] values = array.getValues(3, 3, 3);
+        int index = array.getIndex(3, 3, 3);
+        assertEquals(0, values[index + array.getOffset(1, 1, 1)]);
+    }
+
+    @Test
+    public void toArray_tiledValues_returnsCopy() {
+        PottsArray array = new PottsArray(2, 3, 2, 1);
+        for (int k = 0; k < 2; k++) {
+            for (int i = 0; i < 2; i++) {
+                for (int j = 0; j < 3; j++) {
+                    array.set(i, j, k, ARRAY[k][i][j]);
+                }
+            }
+        }
+        assertArrayEquals(ARRAY, array.toArray());
+    }
+}
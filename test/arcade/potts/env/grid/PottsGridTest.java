@@ -3,6 +3,7 @@ package arcade.potts.env.grid;
 import org.junit.jupiter.api.Test;
 import sim.util.Bag;
 import arcade.core.agent.cell.Cell;
+import arcade.potts.util.Registry;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -13,6 +14,20 @@ public class PottsGridTest {
         return object;
     }
 
+    @Test
+    public void constructor_givenRegistry_sharesRecords() {
+        Cell object = createObjectMock(1);
+        Registry registry = new Registry();
+        Registry.Slot<Object> slot = registry.addSlot();
+        PottsGrid grid = new PottsGrid(registry);
+        slot.put(1, new Object());
+        grid.addObject(object, null);
+
+        assertSame(object, grid.objects.get(registry.get(1)));
+        assertNotNull(slot.get(1));
+        assertTrue(grid.objects.containsKey(0));
+    }
+
     @Test
     public void getAllObjects_withoutContents_returnsEmpty() {
         PottsGrid grid = new PottsGrid();
@@ -73,7 +73,13 @@ public class Location2DTest {
         voxels.add(new Voxel(0, 1, 0));
 
         PottsLocation2D loc = new PottsLocation2D(new ArrayList<>());
-        ArrayList<Voxel> neighbors = loc.getNeighbors(new Voxel(0, 0, 0));
+        long[] keys = new long[PottsLocation.MAX_NEIGHBORS];
+        int n = loc.getNeighbors(Voxel.pack(0, 0, 0), keys);
+
+        ArrayList<Voxel> neighbors = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            neighbors.add(Voxel.unpack(keys[i]));
+        }
 
         voxels.sort(VOXEL_COMPARATOR);
         neighbors.sort(VOXEL_COMPARATOR);
@@ -90,7 +96,13 @@ public class Location2DTest {
         voxels.add(new Voxel(0, 1, 0));
 
         PottsLocations2D loc = new PottsLocations2D(new ArrayList<>());
-        ArrayList<Voxel> neighbors = loc.getNeighbors(new Voxel(0, 0, 0));
+        long[] keys = new long[PottsLocation.MAX_NEIGHBORS];
+        int n = loc.getNeighbors(Voxel.pack(0, 0, 0), keys);
+
+        ArrayList<Voxel> neighbors = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            neighbors.add(Voxel.unpack(keys[i]));
+        }
 
         voxels.sort(VOXEL_COMPARATOR);
         neighbors.sort(VOXEL_COMPARATOR);
@@ -226,7 +238,7 @@ public class Location2DTest {
                 voxels.add(new Voxel(v[0], v[1], v[2]));
             }
             PottsLocation2D loc = new PottsLocation2D(voxels);
-            assertEquals(surfaces[i], loc.updateSurface(new Voxel(1, 1, 0)));
+            assertEquals(surfaces[i], loc.updateSurface(1, 1, 0));
         }
     }
 
@@ -248,7 +260,7 @@ public class Location2DTest {
                 voxels.add(new Voxel(v[0], v[1], v[2]));
             }
             PottsLocation2D loc = new PottsLocation2D(voxels);
-            assertEquals(surfaces[i], loc.updateSurface(new Voxel(1, 1, 0)));
+            assertEquals(surfaces[i], loc.updateSurface(1, 1, 0));
         }
     }
 
@@ -270,7 +282,7 @@ public class Location2DTest {
                 voxels.add(new Voxel(v[0], v[1], v[2]));
             }
             PottsLocation2D loc = new PottsLocation2D(voxels);
-            assertEquals(heights[i], loc.updateHeight(new Voxel(1, 1, 0)));
+            assertEquals(heights[i], loc.updateHeight(1, 1, 0));
         }
     }
 
@@ -292,7 +304,7 @@ public class Location2DTest {
                 voxels.add(new Voxel(v[0], v[1], v[2]));
             }
             PottsLocation2D loc = new PottsLocation2D(voxels);
-            assertEquals(heights[i], loc.updateHeight(new Voxel(1, 1, 0)));
+            assertEquals(heights[i], loc.updateHeight(1, 1, 0));
         }
     }
 
@@ -519,7 +519,13 @@ public class Location3DTest {
         voxels.add(new Voxel(0, 0, 1));
 
         PottsLocation3D loc = new PottsLocation3D(new ArrayList<>());
-        ArrayList<Voxel> neighbors = loc.getNeighbors(new Voxel(0, 0, 0));
+        long[] keys = new long[PottsLocation.MAX_NEIGHBORS];
+        int n = loc.getNeighbors(Voxel.pack(0, 0, 0), keys);
+
+        ArrayList<Voxel> neighbors = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            neighbors.add(Voxel.unpack(keys[i]));
+        }
 
         voxels.sort(VOXEL_COMPARATOR);
         neighbors.sort(VOXEL_COMPARATOR);
@@ -538,7 +544,13 @@ public class Location3DTest {
         voxels.add(new Voxel(0, 0, 1));
 
         PottsLocations3D loc = new PottsLocations3D(new ArrayList<>());
-        ArrayList<Voxel> neighbors = loc.getNeighbors(new Voxel(0, 0, 0));
+        long[] keys = new long[PottsLocation.MAX_NEIGHBORS];
+        int n = loc.getNeighbors(Voxel.pack(0, 0, 0), keys);
+
+        ArrayList<Voxel> neighbors = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            neighbors.add(Voxel.unpack(keys[i]));
+        }
 
         voxels.sort(VOXEL_COMPARATOR);
         neighbors.sort(VOXEL_COMPARATOR);
@@ -754,7 +766,7 @@ public class Location3DTest {
                 voxels.add(new Voxel(v[0], v[1], v[2]));
             }
             PottsLocation3D loc = new PottsLocation3D(voxels);
-            assertEquals(surfaces[i], loc.updateSurface(new Voxel(1, 1, 0)));
+            assertEquals(surfaces[i], loc.updateSurface(1, 1, 0));
         }
     }
 
@@ -778,7 +790,7 @@ public class Location3DTest {
                 voxels.add(new Voxel(v[0], v[1], v[2]));
             }
             PottsLocation3D loc = new PottsLocation3D(voxels);
-            assertEquals(surfaces[i], loc.updateSurface(new Voxel(1, 1, 0)));
+            assertEquals(surfaces[i], loc.updateSurface(1, 1, 0));
         }
     }
 
@@ -805,7 +817,7 @@ public class Location3DTest {
                 voxels.add(new Voxel(v[0], v[1], v[2]));
             }
             PottsLocation3D loc = new PottsLocation3D(voxels);
-            assertEquals(heights[i], loc.updateHeight(new Voxel(1, 1, 2)));
+            assertEquals(heights[i], loc.updateHeight(1, 1, 2));
         }
     }
 
@@ -832,7 +844,7 @@ public class Location3DTest {
                 voxels.add(new Voxel(v[0], v[1], v[2]));
             }
             PottsLocation3D loc = new PottsLocation3D(voxels);
-            assertEquals(heights[i], loc.updateHeight(new Voxel(1, 1, 2)));
+            assertEquals(heights[i], loc.updateHeight(1, 1, 2));
         }
     }
 
@@ -9,6 +9,7 @@ import sim.util.Double3D;
 import ec.util.MersenneTwisterFast;
 import arcade.core.util.Plane;
 import arcade.core.util.Vector;
+import arcade.potts.env.grid.PottsArray;
 import arcade.potts.util.PottsEnums.Direction;
 import arcade.potts.util.PottsEnums.Region;
 import static org.junit.jupiter.api.Assertions.*;
@@ -114,27 +115,30 @@ public class PottsLocationTest {
         }
 
         @Override
-        int updateSurface(Voxel voxel) {
+        int updateSurface(int x, int y, int z) {
             return DELTA_SURFACE;
         }
 
         @Override
-        int updateHeight(Voxel voxel) {
+        int updateHeight(int x, int y, int z) {
             return DELTA_HEIGHT;
         }
 
         @Override
-        ArrayList<Voxel> getNeighbors(Voxel voxel) {
+        int getNeighbors(long key, long[] neighbors) {
             int num = 6;
             int[] x = {0, 1, 0, -1, 0, 0};
             int[] y = {-1, 0, 1, 0, 0, 0};
             int[] z = {0, 0, 0, 0, 1, -1};
 
-            ArrayList<Voxel> neighbors = new ArrayList<>();
             for (int i = 0; i < num; i++) {
-                neighbors.add(new Voxel(voxel.x + x[i], voxel.y + y[i], voxel.z + z[i]));
+                neighbors[i] =
+                        Voxel.pack(
+                                Voxel.getX(key) + x[i],
+                                Voxel.getY(key) + y[i],
+                                Voxel.getZ(key) + z[i]);
             }
-            return neighbors;
+            return num;
         }
 
         @Override
@@ -367,6 +371,32 @@ public class PottsLocationTest {
         assertEquals(cz, loc.cz, EPSILON);
     }
 
+    @Test
+    public void remove_manyVoxels_keepsExactCenter() {
+        ArrayList<Voxel> voxels = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < 10; j++) {
+                voxels.add(new Voxel(i, j, i + j));
+            }
+        }
+
+        PottsLocationMock loc = new PottsLocationMock(voxels);
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < 10; j++) {
+                if (i != 3 || j != 7) {
+                    loc.remove(i, j, i + j);
+                }
+            }
+        }
+
+        assertEquals(3, loc.cx, 0);
+        assertEquals(7, loc.cy, 0);
+        assertEquals(10, loc.cz, 0);
+        assertEquals(3, loc.sumX);
+        assertEquals(7, loc.sumY);
+        assertEquals(10, loc.sumZ);
+    }
+
     @Test
     public void add_existingVoxel_doesNothing() {
         PottsLocationMock loc = new PottsLocationMock(new ArrayList<>());
@@ -575,29 +605,46 @@ public class PottsLocationTest {
     @Test
     public void clear_hasVoxels_updatesArray() {
         PottsLocationMock loc = new PottsLocationMock(voxelListForAddRemove);
-        int[][][] array = new int[][][] {{{1, 0, 0}, {1, 0, 0}}};
+        PottsArray array = new PottsArray(new int[][][] {{{1, 0, 0}, {1, 0, 0}}});
         loc.clear(array, null);
 
-        assertArrayEquals(new int[] {0, 0, 0}, array[0][0]);
-        assertArrayEquals(new int[] {0, 0, 0}, array[0][1]);
+        assertArrayEquals(new int[] {0, 0, 0}, array.toArray()[0][0]);
+        assertArrayEquals(new int[] {0, 0, 0}, array.toArray()[0][1]);
     }
 
     @Test
     public void clear_hasVoxels_updatesLists() {
         PottsLocationMock loc = new PottsLocationMock(voxelListForAddRemove);
-        loc.clear(new int[1][3][3], new int[1][3][3]);
+        loc.clear(new PottsArray(3, 3, 1), new PottsArray(3, 3, 1));
         assertEquals(0, loc.voxels.size());
     }
 
     @Test
     public void update_validID_updatesArray() {
-        int[][][] array = new int[][][] {{{0, 1, 2}}};
+        PottsArray array = new PottsArray(new int[][][] {{{0, 1, 2}}});
         ArrayList<Voxel> voxels = new ArrayList<>();
         voxels.add(new Voxel(0, 1, 0));
         PottsLocationMock loc = new PottsLocationMock(voxels);
 
         loc.update(3, array, null);
-        assertArrayEquals(new int[] {0, 3, 2}, array[0][0]);
+        assertArrayEquals(new int[] {0, 3, 2}, array.toArray()[0][0]);
+    }
+
+    @Test
+    public void update_unchangedVoxels_logsChangedVoxels() {
+        PottsArray array = new PottsArray(new int[][][] {{{3, 1, 3}}});
+        ArrayList<Voxel> voxels = new ArrayList<>();
+        voxels.add(new Voxel(0, 0, 0));
+        voxels.add(new Voxel(0, 1, 0));
+        voxels.add(new Voxel(0, 2, 0));
+        PottsLocationMock loc = new PottsLocationMock(voxels);
+
+        array.trackChanges(3);
+        loc.update(3, array, null);
+
+        assertArrayEquals(new int[] {3, 3, 3}, array.toArray()[0][0]);
+        assertEquals(1, array.getNumberChanges());
+        assertEquals(array.index(0, 1, 0), array.getChange(0));
     }
 
     @Test
@@ -754,6 +801,40 @@ public class PottsLocationTest {
         assertEquals(0, centroid[2], EPSILON);
     }
 
+    @Test
+    public void copyCentroid_hasVoxels_copiesCentroid() {
+        ArrayList<Voxel> voxels = new ArrayList<>();
+        voxels.add(new Voxel(0, 1, 1));
+        voxels.add(new Voxel(1, 1, 2));
+        voxels.add(new Voxel(2, 2, 2));
+        voxels.add(new Voxel(2, 3, 3));
+        PottsLocationMock loc = new PottsLocationMock(voxels);
+
+        double[] centroid = new double[3];
+        loc.copyCentroid(centroid);
+
+        assertEquals(5 / 4., centroid[0], EPSILON);
+        assertEquals(7 / 4., centroid[1], EPSILON);
+        assertEquals(8 / 4., centroid[2], EPSILON);
+    }
+
+    @Test
+    public void copyCentroid_hasVoxelsWithRegion_copiesCentroid() {
+        ArrayList<Voxel> voxels = new ArrayList<>();
+        voxels.add(new Voxel(0, 1, 1));
+        voxels.add(new Voxel(1, 1, 2));
+        voxels.add(new Voxel(2, 2, 2));
+        voxels.add(new Voxel(2, 3, 3));
+        PottsLocationMock loc = new PottsLocationMock(voxels);
+
+        double[] centroid = new double[3];
+        loc.copyCentroid(Region.DEFAULT, centroid);
+
+        assertEquals(5 / 4., centroid[0], EPSILON);
+        assertEquals(7 / 4., centroid[1], EPSILON);
+        assertEquals(8 / 4., centroid[2], EPSILON);
+    }
+
     @Test
     public void getDirection_oneMaximumDiameter_returnsValue() {
         PottsLocationMock loc = new PottsLocationMock(new ArrayList<>());
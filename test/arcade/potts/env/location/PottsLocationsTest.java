@@ -6,6 +6,7 @@ import java.util.HashMap;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import ec.util.MersenneTwisterFast;
+import arcade.potts.env.grid.PottsArray;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static arcade.core.ARCADETestUtilities.*;
@@ -137,27 +138,30 @@ public class PottsLocationsTest {
         }
 
         @Override
-        int updateSurface(Voxel voxel) {
+        int updateSurface(int x, int y, int z) {
             return DELTA_SURFACE;
         }
 
         @Override
-        int updateHeight(Voxel voxel) {
+        int updateHeight(int x, int y, int z) {
             return DELTA_HEIGHT;
         }
 
         @Override
-        ArrayList<Voxel> getNeighbors(Voxel voxel) {
+        int getNeighbors(long key, long[] neighbors) {
             int num = 6;
             int[] x = {0, 1, 0, -1, 0, 0};
             int[] y = {-1, 0, 1, 0, 0, 0};
             int[] z = {0, 0, 0, 0, 1, -1};
 
-            ArrayList<Voxel> neighbors = new ArrayList<>();
             for (int i = 0; i < num; i++) {
-                neighbors.add(new Voxel(voxel.x + x[i], voxel.y + y[i], voxel.z + z[i]));
+                neighbors[i] =
+                        Voxel.pack(
+                                Voxel.getX(key) + x[i],
+                                Voxel.getY(key) + y[i],
+                                Voxel.getZ(key) + z[i]);
             }
-            return neighbors;
+            return num;
         }
 
         @Override
@@ -771,27 +775,27 @@ public class PottsLocationsTest {
     @Test
     public void clear_hasVoxels_updatesArray() {
         PottsLocationsMock location = new PottsLocationsMock(voxelListForAddRemove);
-        int[][][] ids = new int[][][] {{{1, 0, 0}, {1, 0, 0}}};
-        int[][][] regions = new int[][][] {{{-1, 0, 0}, {-2, 0, 0}}};
+        PottsArray ids = new PottsArray(new int[][][] {{{1, 0, 0}, {1, 0, 0}}});
+        PottsArray regions = new PottsArray(new int[][][] {{{-1, 0, 0}, {-2, 0, 0}}});
         location.clear(ids, regions);
 
-        assertArrayEquals(new int[] {0, 0, 0}, ids[0][0]);
-        assertArrayEquals(new int[] {0, 0, 0}, ids[0][1]);
-        assertArrayEquals(new int[] {0, 0, 0}, regions[0][0]);
-        assertArrayEquals(new int[] {0, 0, 0}, regions[0][1]);
+        assertArrayEquals(new int[] {0, 0, 0}, ids.toArray()[0][0]);
+        assertArrayEquals(new int[] {0, 0, 0}, ids.toArray()[0][1]);
+        assertArrayEquals(new int[] {0, 0, 0}, regions.toArray()[0][0]);
+        assertArrayEquals(new int[] {0, 0, 0}, regions.toArray()[0][1]);
     }
 
     @Test
     public void clear_hasVoxels_updatesLists() {
         PottsLocationsMock location = new PottsLocationsMock(voxelListForAddRemove);
-        location.clear(new int[1][3][3], new int[1][3][3]);
+        location.clear(new PottsArray(3, 3, 1), new PottsArray(3, 3, 1));
         assertEquals(0, location.locations.size());
     }
 
     @Test
     public void update_validRegion_updatesArrays() {
-        int[][][] ids = new int[][][] {{{0, 1, 2}}};
-        int[][][] regions = new int[][][] {{{0, 0, 0}}};
+        PottsArray ids = new PottsArray(new int[][][] {{{0, 1, 2}}});
+        PottsArray regions = new PottsArray(new int[][][] {{{0, 0, 0}}});
 
         ArrayList<Voxel> voxels = new ArrayList<>();
         voxels.add(new Voxel(0, 1, 0));
@@ -799,9 +803,10 @@ public class PottsLocationsTest {
         loc.add(Region.UNDEFINED, 0, 0, 0);
 
         loc.update(3, ids, regions);
-        assertArrayEquals(new int[] {3, 3, 2}, ids[0][0]);
+        assertArrayEquals(new int[] {3, 3, 2}, ids.toArray()[0][0]);
         assertArrayEquals(
-                new int[] {Region.UNDEFINED.ordinal(), Region.DEFAULT.ordinal(), 0}, regions[0][0]);
+                new int[] {Region.UNDEFINED.ordinal(), Region.DEFAULT.ordinal(), 0},
+                regions.toArray()[0][0]);
     }
 
     @Test
@@ -883,6 +888,30 @@ public class PottsLocationsTest {
         assertEquals(7 / 3., centroidUndefined[2], EPSILON);
     }
 
+    @Test
+    public void copyCentroid_multipleRegions_copiesCentroid() {
+        PottsLocationsMock loc = new PottsLocationsMock(new ArrayList<>());
+        loc.add(Region.DEFAULT, 0, 1, 1);
+        loc.add(Region.UNDEFINED, 1, 1, 2);
+        loc.add(Region.UNDEFINED, 2, 2, 2);
+        loc.add(Region.UNDEFINED, 2, 3, 3);
+
+        double[] centroid = new double[3];
+        loc.copyCentroid(Region.UNDEFINED, centroid);
+
+        assertEquals(5 / 3., centroid[0], EPSILON);
+        assertEquals(6 / 3., centroid[1], EPSILON);
+        assertEquals(7 / 3., centroid[2], EPSILON);
+    }
+
+    @Test
+    public void copyCentroid_invalidRegion_setsZeros() {
+        PottsLocationsMock loc = new PottsLocationsMock(new ArrayList<>());
+        double[] centroid = new double[] {1, 2, 3};
+        loc.copyCentroid(Region.NUCLEUS, centroid);
+        assertArrayEquals(new double[] {0, 0, 0}, centroid, EPSILON);
+    }
+
     @Test
     public void separateVoxels_validListsNoRegions_updatesLists() {
         PottsLocationsMock loc = new PottsLocationsMock(voxelListAB);
@@ -0,0 +1,98 @@
+package arcade.potts.env.location;
+
+import java.util.ArrayList;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static arcade.core.ARCADETestUtilities.*;
+
+public class VoxelGridTest {
+    @Test
+    public void constructor_givenLists_setsBoundingBox() {
+        ArrayList<Voxel> voxelsA = new ArrayList<>();
+        voxelsA.add(new Voxel(2, 5, 1));
+        voxelsA.add(new Voxel(4, 3, 1));
+        ArrayList<Voxel> voxelsB = new ArrayList<>();
+        voxelsB.add(new Voxel(-1, 4, 3));
+
+        VoxelGrid grid = new VoxelGrid(voxelsA, voxelsB);
+
+        assertEquals(-1, grid.minX);
+        assertEquals(3, grid.minY);
+        assertEquals(1, grid.minZ);
+        assertEquals(6, grid.length);
+        assertEquals(3, grid.width);
+        assertEquals(3, grid.height);
+        assertEquals(6 * 3 * 3, grid.values.length);
+    }
+
+    @Test
+    public void constructor_noVoxels_createsEmpty() {
+        VoxelGrid grid = new VoxelGrid(new ArrayList<>());
+        assertEquals(0, grid.values.length);
+        assertEquals(-1, grid.index(new Voxel(0, 0, 0)));
+        assertEquals(0, grid.get(new Voxel(0, 0, 0)));
+    }
+
+    @Test
+    public void index_insideGrid_returnsUniqueIndex() {
+        ArrayList<Voxel> voxels = new ArrayList<>();
+        voxels.add(new Voxel(0, 0, 0));
+        voxels.add(new Voxel(3, 4, 2));
+        VoxelGrid grid = new VoxelGrid(voxels);
+
+        boolean[] found = new boolean[grid.values.length];
+        for (int i = 0; i <= 3; i++) {
+            for (int j = 0; j <= 4; j++) {
+                for (int k = 0; k <= 2; k++) {
+                    int index = grid.index(new Voxel(i, j, k));
+                    assertFalse(found[index]);
+                    found[index] = true;
+                }
+            }
+        }
+    }
+
+    @Test
+    public void index_outsideGrid_returnsNegative() {
+        ArrayList<Voxel> voxels = new ArrayList<>();
+        voxels.add(new Voxel(1, 1, 1));
+        voxels.add(new Voxel(2, 2, 2));
+        VoxelGrid grid = new VoxelGrid(voxels);
+
+        assertEquals(-1, grid.index(new Voxel(0, 1, 1)));
+        assertEquals(-1, grid.index(new Voxel(1, 3, 1)));
+        assertEquals(-1, grid.index(new Voxel(1, 1, 0)));
+    }
+
+    @Test
+    public void set_givenVoxel_setsValue() {
+        ArrayList<Voxel> voxels = new ArrayList<>();
+        voxels.add(new Voxel(0, 0, 0));
+        voxels.add(new Voxel(5, 5, 0));
+        VoxelGrid grid = new VoxelGrid(voxels);
+        int value = randomIntBetween(1, 10);
+
+        grid.set(new Voxel(2, 3, 0), value);
+
+        assertEquals(value, grid.get(new Voxel(2, 3, 0)));
+        assertEquals(0, grid.get(new Voxel(3, 2, 0)));
+        assertEquals(0, grid.get(new Voxel(10, 10, 0)));
+    }
+
+    @Test
+    public void set_givenList_setsValues() {
+        ArrayList<Voxel> voxels = new ArrayList<>();
+        voxels.add(new Voxel(0, 0, 0));
+        voxels.add(new Voxel(1, 2, 0));
+        voxels.add(new Voxel(2, 1, 0));
+        VoxelGrid grid = new VoxelGrid(voxels);
+        int value = randomIntBetween(1, 10);
+
+        grid.set(voxels, value);
+
+        for (Voxel voxel : voxels) {
+            assertEquals(value, grid.get(voxel));
+        }
+        assertEquals(0, grid.get(new Voxel(1, 1, 0)));
+    }
+}
@@ -0,0 +1,335 @@
+package arcade.potts.env.location;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static arcade.core.ARCADETestUtilities.*;
+import static arcade.potts.env.location.Voxel.VOXEL_COMPARATOR;
+
+public class VoxelListTest {
+    static ArrayList<Voxel> makeVoxels(int n) {
+        ArrayList<Voxel> voxels = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            voxels.add(new Voxel(i % 7 - 3, i / 7, i % 3));
+        }
+        Collections.shuffle(voxels);
+        return voxels;
+    }
+
+    @Test
+    public void constructor_noVoxels_createsEmpty() {
+        VoxelList list = new VoxelList();
+        assertEquals(0, list.size());
+        assertFalse(list.iterator().hasNext());
+    }
+
+    @Test
+    public void constructor_givenVoxels_copiesInOrder() {
+        ArrayList<Voxel> voxels = makeVoxels(randomIntBetween(10, 100));
+        VoxelList list = new VoxelList(voxels);
+        assertEquals(voxels, list);
+    }
+
+    @Test
+    public void constructor_duplicateVoxels_skipsDuplicates() {
+        ArrayList<Voxel> voxels = new ArrayList<>();
+        voxels.add(new Voxel(1, 2, 3));
+        voxels.add(new Voxel(4, 5, 6));
+        voxels.add(new Voxel(1, 2, 3));
+
+        VoxelList list = new VoxelList(voxels);
+
+        assertEquals(2, list.size());
+        assertEquals(voxels.subList(0, 2), list);
+    }
+
+    @Test
+    public void contains_givenVoxelList_checksCoordinates() {
+        ArrayList<Voxel> voxels = makeVoxels(10);
+        VoxelList list = new VoxelList(voxels);
+        Voxel voxel = voxels.get(randomIntBetween(0, 10));
+
+        assertTrue(VoxelList.contains(list, voxel.x, voxel.y, voxel.z));
+        assertFalse(VoxelList.contains(list, 100, 100, 100));
+    }
+
+    @Test
+    public void contains_givenArrayList_checksVoxels() {
+        ArrayList<Voxel> voxels = makeVoxels(10);
+        Voxel voxel = voxels.get(randomIntBetween(0, 10));
+
+        assertTrue(VoxelList.contains(voxels, voxel.x, voxel.y, voxel.z));
+        assertFalse(VoxelList.contains(voxels, 100, 100, 100));
+    }
+
+    @Test
+    public void add_givenCoordinates_addsVoxel() {
+        VoxelList list = new VoxelList();
+        int x = randomIntBetween(-10, 10);
+        int y = randomIntBetween(-10, 10);
+        int z = randomIntBetween(-10, 10);
+
+        assertTrue(list.add(x, y, z));
+        assertFalse(list.add(x, y, z));
+        assertEquals(1, list.size());
+        assertEquals(Voxel.pack(x, y, z), list.getKey(0));
+        assertEquals(new Voxel(x, y, z), list.get(0));
+    }
+
+    @Test
+    public void remove_givenCoordinates_removesVoxel() {
+        ArrayList<Voxel> voxels = makeVoxels(10);
+        VoxelList list = new VoxelList(voxels);
+        Voxel voxel = voxels.remove(randomIntBetween(0, 10));
+
+        assertTrue(list.remove(voxel.x, voxel.y, voxel.z));
+        assertFalse(list.remove(voxel.x, voxel.y, voxel.z));
+        assertEquals(voxels, list);
+    }
+
+    @Test
+    public void getKey_givenIndex_returnsPackedCoordinates() {
+        ArrayList<Voxel> voxels = makeVoxels(20);
+        VoxelList list = new VoxelList(voxels);
+        list.remove(voxels.remove(randomIntBetween(0, 20)));
+
+        for (int i = 0; i < voxels.size(); i++) {
+            Voxel voxel = voxels.get(i);
+            assertEquals(Voxel.pack(voxel.x, voxel.y, voxel.z), list.getKey(i));
+        }
+    }
+
+    @Test
+    public void add_newVoxel_addsVoxel() {
+        VoxelList list = new VoxelList();
+        Voxel voxel = new Voxel(randomIntBetween(0, 10), randomIntBetween(0, 10), 0);
+
+        assertTrue(list.add(voxel));
+        assertEquals(1, list.size());
+        assertTrue(list.contains(voxel));
+        assertTrue(list.contains(voxel.x, voxel.y, voxel.z));
+        assertEquals(voxel, list.get(0));
+    }
+
+    @Test
+    public void add_existingVoxel_doesNothing() {
+        VoxelList list = new VoxelList();
+        list.add(new Voxel(1, 2, 3));
+        assertFalse(list.add(new Voxel(1, 2, 3)));
+        assertEquals(1, list.size());
+    }
+
+    @Test
+    public void add_manyVoxels_growsList() {
+        ArrayList<Voxel> voxels = makeVoxels(randomIntBetween(1000, 2000));
+        VoxelList list = new VoxelList();
+        voxels.forEach(list::add);
+
+        assertEquals(voxels, list);
+        for (Voxel voxel : voxels) {
+            assertTrue(list.contains(voxel));
+        }
+    }
+
+    @Test
+    public void remove_existingVoxel_removesVoxelInOrder() {
+        ArrayList<Voxel> voxels = makeVoxels(randomIntBetween(100, 200));
+        VoxelList list = new VoxelList(voxels);
+
+        for (int i = 0; i < voxels.size() / 2; i++) {
+            Voxel voxel = voxels.get(i * 2 % voxels.size());
+            assertEquals(voxels.remove(voxel), list.remove(voxel));
+            assertFalse(list.contains(voxel));
+            assertEquals(voxels.size(), list.size());
+        }
+
+        assertEquals(voxels, list);
+    }
+
+    @Test
+    public void remove_missingVoxel_returnsFalse() {
+        VoxelList list = new VoxelList(makeVoxels(10));
+        assertFalse(list.remove(new Voxel(100, 100, 100)));
+        assertFalse(list.remove(new Object()));
+        assertEquals(10, list.size());
+    }
+
+    @Test
+    public void remove_givenIndex_removesVoxel() {
+        ArrayList<Voxel> voxels = makeVoxels(20);
+        VoxelList list = new VoxelList(voxels);
+        int index = randomIntBetween(0, 20);
+
+        assertEquals(voxels.remove(index), list.remove(index));
+        assertEquals(voxels, list);
+    }
+
+    @Test
+    public void add_afterRemove_appendsVoxel() {
+        ArrayList<Voxel> voxels = makeVoxels(20);
+        VoxelList list = new VoxelList(voxels);
+        Voxel voxel = voxels.get(5);
+
+        voxels.remove(voxel);
+        voxels.add(voxel);
+        list.remove(voxel);
+        list.add(voxel);
+
+        assertEquals(voxels, list);
+        assertEquals(voxels.size() - 1, list.indexOf(voxel));
+    }
+
+    @Test
+    public void indexOf_givenVoxels_returnsIndex() {
+        ArrayList<Voxel> voxels = makeVoxels(50);
+        VoxelList list = new VoxelList(voxels);
+        list.remove(voxels.remove(10));
+
+        for (Voxel voxel : voxels) {
+            assertEquals(voxels.indexOf(voxel), list.indexOf(voxel));
+        }
+        assertEquals(-1, list.indexOf(new Voxel(100, 100, 100)));
+    }
+
+    @Test
+    public void set_givenVoxel_replacesVoxel() {
+        VoxelList list = new VoxelList(makeVoxels(10));
+        Voxel previous = list.get(3);
+        Voxel voxel = new Voxel(100, 100, 100);
+
+        assertEquals(previous, list.set(3, voxel));
+        assertEquals(voxel, list.get(3));
+        assertTrue(list.contains(voxel));
+        assertFalse(list.contains(previous));
+    }
+
+    @Test
+    public void set_existingVoxel_throwsException() {
+        VoxelList list = new VoxelList(makeVoxels(10));
+        Voxel voxel = list.get(5);
+        assertThrows(IllegalArgumentException.class, () -> list.set(3, voxel));
+    }
+
+    @Test
+    public void sort_givenComparator_sortsVoxels() {
+        ArrayList<Voxel> voxels = makeVoxels(50);
+        VoxelList list = new VoxelList(voxels);
+
+        voxels.sort(VOXEL_COMPARATOR);
+        list.sort(VOXEL_COMPARATOR);
+
+        assertEquals(voxels, list);
+        for (int i = 0; i < voxels.size(); i++) {
+            assertEquals(i, list.indexOf(voxels.get(i)));
+        }
+    }
+
+    @Test
+    public void clear_called_removesAll() {
+        ArrayList<Voxel> voxels = makeVoxels(50);
+        VoxelList list = new VoxelList(voxels);
+        list.clear();
+
+        assertEquals(0, list.size());
+        for (Voxel voxel : voxels) {
+            assertFalse(list.contains(voxel));
+        }
+    }
+
+    @Test
+    public void getRange_afterAddRemove_returnsBounds() {
+        ArrayList<Voxel> voxels = makeVoxels(randomIntBetween(50, 100));
+        VoxelList list = new VoxelList(voxels);
+
+        for (int i = 0; i < voxels.size() - 1; i++) {
+            Voxel voxel = voxels.get(i);
+            list.remove(voxel);
+            list.add(new Voxel(voxel.x * 3, voxel.y * 2, voxel.z * 5));
+            list.remove(voxels.get(i + 1));
+
+            ArrayList<Voxel> remaining = new ArrayList<>(list);
+            remaining.sort(Comparator.comparingInt(v -> v.x));
+            assertEquals(remaining.get(0).x, list.getRangeX().getMin());
+            assertEquals(remaining.get(remaining.size() - 1).x, list.getRangeX().getMax());
+            remaining.sort(Comparator.comparingInt(v -> v.y));
+            assertEquals(remaining.get(0).y, list.getRangeY().getMin());
+            assertEquals(remaining.get(remaining.size() - 1).y, list.getRangeY().getMax());
+            remaining.sort(Comparator.comparingInt(v -> v.z));
+            assertEquals(remaining.get(0).z, list.getRangeZ().getMin());
+            assertEquals(remaining.get(remaining.size() - 1).z, list.getRangeZ().getMax());
+        }
+    }
+
+    @Test
+    public void getRange_afterClear_resetsBounds() {
+        VoxelList list = new VoxelList(makeVoxels(50));
+        list.clear();
+        list.add(new Voxel(100, -100, 50));
+
+        assertEquals(100, list.getRangeX().getMin());
+        assertEquals(100, list.getRangeX().getMax());
+        assertEquals(-100, list.getRangeY().getMin());
+        assertEquals(-100, list.getRangeY().getMax());
+        assertEquals(50, list.getRangeZ().getMin());
+        assertEquals(50, list.getRangeZ().getMax());
+    }
+
+    @Test
+    public void getMinWithout_givenCoordinate_returnsMinimum() {
+        VoxelList list = new VoxelList();
+        list.add(new Voxel(0, 0, 2));
+        list.add(new Voxel(0, 0, 5));
+        list.add(new Voxel(1, 0, 5));
+        list.add(new Voxel(0, 0, 8));
+
+        assertEquals(5, list.getRangeZ().getMinWithout(2));
+        assertEquals(2, list.getRangeZ().getMinWithout(5));
+        assertEquals(2, list.getRangeZ().getMinWithout(8));
+    }
+
+    @Test
+    public void getMaxWithout_givenCoordinate_returnsMaximum() {
+        VoxelList list = new VoxelList();
+        list.add(new Voxel(0, 0, 2));
+        list.add(new Voxel(0, 0, 5));
+        list.add(new Voxel(1, 0, 5));
+        list.add(new Voxel(0, 0, 8));
+
+        assertEquals(5, list.getRangeZ().getMaxWithout(8));
+        assertEquals(8, list.getRangeZ().getMaxWithout(5));
+        assertEquals(8, list.getRangeZ().getMaxWithout(2));
+    }
+
+    @Test
+    public void getDiameter_givenLine_returnsDiameter() {
+        VoxelList list = new VoxelList();
+        list.add(new Voxel(0, 0, 0));
+        list.add(new Voxel(3, 0, 0));
+        list.add(new Voxel(1, 1, 0));
+        list.add(new Voxel(-1, 1, 0));
+        list.add(new Voxel(0, 2, 1));
+
+        assertEquals(4, list.getDiameter(0, 0, 0, 1, 0, 0));
+        assertEquals(1, list.getDiameter(0, 0, 0, 0, 1, 0));
+        assertEquals(2, list.getDiameter(0, 0, 0, 1, 1, 0));
+        assertEquals(2, list.getDiameter(0, 0, 0, 1, -1, 0));
+        assertEquals(1, list.getDiameter(0, 0, 0, 0, 1, 1));
+        assertEquals(3, list.getDiameter(-2, 1, 0, 1, 0, 0));
+    }
+
+    @Test
+    public void getDiameter_noVoxelsOnLine_returnsZero() {
+        VoxelList list = new VoxelList(makeVoxels(10));
+        assertEquals(0, list.getDiameter(100, 100, 100, 1, 0, 0));
+        assertEquals(0, new VoxelList().getDiameter(0, 0, 0, 1, 0, 0));
+    }
+
+    @Test
+    public void get_outsideList_throwsException() {
+        VoxelList list = new VoxelList(makeVoxels(10));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(10));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(-1));
+    }
+}
@@ -11,7 +11,36 @@ public class VoxelTest {
         int y = randomIntBetween(0, 100);
         int z = randomIntBetween(0, 100);
         Voxel voxel = new Voxel(x, y, z);
-        assertEquals(x + y * (int) Math.pow(2, 8) + z * (int) Math.pow(2, 16), voxel.hashCode());
+        long expected = Voxel.pack(x, y, z) * 0x9E3779B97F4A7C15L;
+        assertEquals(Long.hashCode(expected), voxel.hashCode());
+    }
+
+    @Test
+    public void hashCode_largeCoordinates_returnsDifferentCodes() {
+        assertNotEquals(new Voxel(256, 0, 0).hashCode(), new Voxel(0, 1, 0).hashCode());
+        assertNotEquals(new Voxel(0, 256, 0).hashCode(), new Voxel(0, 0, 1).hashCode());
+    }
+
+    @Test
+    public void pack_givenCoordinates_returnsUniqueKeys() {
+        assertNotEquals(Voxel.pack(1, 0, 0), Voxel.pack(0, 1, 0));
+        assertNotEquals(Voxel.pack(0, 1, 0), Voxel.pack(0, 0, 1));
+        assertNotEquals(Voxel.pack(256, 0, 0), Voxel.pack(0, 1, 0));
+        assertNotEquals(Voxel.pack(-1, 0, 0), Voxel.pack(1, 0, 0));
+        assertTrue(Voxel.pack(-1, -1, -1) >= 0);
+    }
+
+    @Test
+    public void unpack_givenKey_returnsCoordinates() {
+        int x = randomIntBetween(-1000, 1000);
+        int y = randomIntBetween(-1000, 1000);
+        int z = randomIntBetween(-1000, 1000);
+        long key = Voxel.pack(x, y, z);
+
+        assertEquals(x, Voxel.getX(key));
+        assertEquals(y, Voxel.getY(key));
+        assertEquals(z, Voxel.getZ(key));
+        assertEquals(new Voxel(x, y, z), Voxel.unpack(key));
     }
 
     @Test
@@ -3,6 +3,7 @@ package arcade.potts.sim;
 import java.util.HashSet;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import arcade.potts.env.grid.PottsArray;
 import arcade.potts.sim.hamiltonian.AdhesionHamiltonian2D;
 import arcade.potts.sim.hamiltonian.Hamiltonian;
 import arcade.potts.sim.hamiltonian.PersistenceHamiltonian;
@@ -36,29 +37,31 @@ public class Potts2DTest {
         potts = new Potts2D(series);
 
         potts.ids =
-                new int[][][] {
-                    {
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 1, 1, 3, 3, 0},
-                        {0, 1, 1, 3, 3, 0},
-                        {0, 2, 2, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                    }
-                };
+                new PottsArray(
+                        new int[][][] {
+                            {
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 1, 1, 3, 3, 0},
+                                {0, 1, 1, 3, 3, 0},
+                                {0, 2, 2, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                            }
+                        });
 
         int d = Region.DEFAULT.ordinal();
         int n = Region.NUCLEUS.ordinal();
 
         potts.regions =
-                new int[][][] {
-                    {
-                        {0, 0, 0, 0, 0, 0},
-                        {0, d, d, d, 0, 0},
-                        {0, 0, n, n, 0, 0},
-                        {0, d, d, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                    }
-                };
+                new PottsArray(
+                        new int[][][] {
+                            {
+                                {0, 0, 0, 0, 0, 0},
+                                {0, d, d, d, 0, 0},
+                                {0, 0, n, n, 0, 0},
+                                {0, d, d, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                            }
+                        });
     }
 
     private static boolean[][][] duplicate(boolean[][][] array) {
@@ -135,17 +138,17 @@ public class Potts2DTest {
 
     @Test
     public void getNeighborhood_givenID_createsArray() {
-        boolean[][][] array1 = potts.getNeighborhood(1, 2, 2, 0);
+        boolean[][][] array1 = toArray(potts.getNeighborhood(1, 2, 2, 0), 1);
         assertArrayEquals(new boolean[] {true, true, false}, array1[0][0]);
         assertArrayEquals(new boolean[] {true, true, false}, array1[0][1]);
         assertArrayEquals(new boolean[] {false, false, false}, array1[0][2]);
 
-        boolean[][][] array2 = potts.getNeighborhood(2, 2, 2, 0);
+        boolean[][][] array2 = toArray(potts.getNeighborhood(2, 2, 2, 0), 1);
         assertArrayEquals(new boolean[] {false, false, false}, array2[0][0]);
         assertArrayEquals(new boolean[] {false, false, false}, array2[0][1]);
         assertArrayEquals(new boolean[] {true, true, false}, array2[0][2]);
 
-        boolean[][][] array3 = potts.getNeighborhood(3, 2, 2, 0);
+        boolean[][][] array3 = toArray(potts.getNeighborhood(3, 2, 2, 0), 1);
         assertArrayEquals(new boolean[] {false, false, true}, array3[0][0]);
         assertArrayEquals(new boolean[] {false, false, true}, array3[0][1]);
         assertArrayEquals(new boolean[] {false, false, false}, array3[0][2]);
@@ -153,20 +156,31 @@ public class Potts2DTest {
 
     @Test
     public void getNeighborhood_givenRegion_createsArray() {
-        boolean[][][] array1 = potts.getNeighborhood(1, Region.DEFAULT.ordinal(), 2, 2, 0);
+        boolean[][][] array1 =
+                toArray(potts.getNeighborhood(1, Region.DEFAULT.ordinal(), 2, 2, 0), 1);
         assertArrayEquals(new boolean[] {true, true, false}, array1[0][0]);
         assertArrayEquals(new boolean[] {false, false, false}, array1[0][1]);
         assertArrayEquals(new boolean[] {false, false, false}, array1[0][2]);
 
-        boolean[][][] array2 = potts.getNeighborhood(1, Region.NUCLEUS.ordinal(), 2, 2, 0);
+        boolean[][][] array2 =
+                toArray(potts.getNeighborhood(1, Region.NUCLEUS.ordinal(), 2, 2, 0), 1);
         assertArrayEquals(new boolean[] {false, false, false}, array2[0][0]);
         assertArrayEquals(new boolean[] {false, true, false}, array2[0][1]);
         assertArrayEquals(new boolean[] {false, false, false}, array2[0][2]);
     }
 
+    private static HashSet<Integer> toSet(int[] buffer, int n) {
+        HashSet<Integer> set = new HashSet<>();
+        for (int i = 0; i < n; i++) {
+            set.add(buffer[i]);
+        }
+        return set;
+    }
+
     private HashSet<Integer> checkUniqueID(Potts2D potts2D, int[][] ids) {
-        potts2D.ids = new int[][][] {ids};
-        return potts2D.getUniqueIDs(1, 1, 0);
+        potts2D.ids = new PottsArray(new int[][][] {ids});
+        int n = potts2D.getUniqueIDs(1, 1, 0);
+        return toSet(potts2D.uniqueIDs, n);
     }
 
     @Test
@@ -211,9 +225,10 @@ public class Potts2DTest {
     }
 
     private HashSet<Integer> checkUniqueRegion(Potts2D potts2D, int[][] ids, int[][] regions) {
-        potts2D.ids = new int[][][] {ids};
-        potts2D.regions = new int[][][] {regions};
-        return potts2D.getUniqueRegions(1, 1, 0);
+        potts2D.ids = new PottsArray(new int[][][] {ids});
+        potts2D.regions = new PottsArray(new int[][][] {regions});
+        int n = potts2D.getUniqueRegions(1, 1, 0);
+        return toSet(potts2D.uniqueRegions, n);
     }
 
     @Test
@@ -279,13 +294,14 @@ public class Potts2DTest {
     public void getConnectivity_zeroNeighbors_returnsFalse() {
         assertFalse(
                 potts.getConnectivity(
-                        new boolean[][][] {
-                            {
-                                {false, false, false},
-                                {false, true, false},
-                                {false, false, false}
-                            }
-                        },
+                        toMask(
+                                new boolean[][][] {
+                                    {
+                                        {false, false, false},
+                                        {false, true, false},
+                                        {false, false, false}
+                                    }
+                                }),
                         false));
     }
 
@@ -310,7 +326,7 @@ public class Potts2DTest {
     public void getConnectivity_oneNeighbor_returnsTrue() {
         for (int rotation = 0; rotation < 4; rotation++) {
             boolean[][][] array = rotate(BASE_ONE_NEIGHBOR, rotation);
-            assertTrue(potts.getConnectivity(array, false));
+            assertTrue(potts.getConnectivity(toMask(array), false));
         }
     }
 
@@ -357,7 +373,7 @@ public class Potts2DTest {
     public void getConnectivity_twoNeighborsOpposite_returnsFalse() {
         for (int rotation = 0; rotation < 2; rotation++) {
             boolean[][][] array = rotate(BASE_TWO_NEIGHBORS_OPPOSITE, rotation);
-            assertFalse(potts.getConnectivity(array, false));
+            assertFalse(potts.getConnectivity(toMask(array), false));
         }
     }
 
@@ -372,7 +388,7 @@ public class Potts2DTest {
                                         combo,
                                         LINKS_TWO_NEIGHBORS_ADJACENT),
                                 rotation);
-                assertFalse(potts.getConnectivity(array, false));
+                assertFalse(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -388,7 +404,7 @@ public class Potts2DTest {
                                         combo,
                                         LINKS_TWO_NEIGHBORS_ADJACENT),
                                 rotation);
-                assertTrue(potts.getConnectivity(array, false));
+                assertTrue(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -440,7 +456,7 @@ public class Potts2DTest {
                         rotate(
                                 combine(BASE_THREE_NEIGHBORS, combo, LINKS_THREE_NEIGHBORS),
                                 rotation);
-                assertFalse(potts.getConnectivity(array, false));
+                assertFalse(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -453,7 +469,7 @@ public class Potts2DTest {
                         rotate(
                                 combine(BASE_THREE_NEIGHBORS, combo, LINKS_THREE_NEIGHBORS),
                                 rotation);
-                assertFalse(potts.getConnectivity(array, false));
+                assertFalse(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -466,7 +482,7 @@ public class Potts2DTest {
                         rotate(
                                 combine(BASE_THREE_NEIGHBORS, combo, LINKS_THREE_NEIGHBORS),
                                 rotation);
-                assertTrue(potts.getConnectivity(array, false));
+                assertTrue(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -483,13 +499,14 @@ public class Potts2DTest {
     public void getConnectivity_fourNeighborsNonZeroID_returnsFalse() {
         assertFalse(
                 potts.getConnectivity(
-                        new boolean[][][] {
-                            {
-                                {false, true, false},
-                                {true, true, true},
-                                {false, true, false}
-                            }
-                        },
+                        toMask(
+                                new boolean[][][] {
+                                    {
+                                        {false, true, false},
+                                        {true, true, true},
+                                        {false, true, false}
+                                    }
+                                }),
                         false));
     }
 
@@ -497,13 +514,14 @@ public class Potts2DTest {
     public void getConnectivity_fourNeighborsZeroID_returnsTrue() {
         assertTrue(
                 potts.getConnectivity(
-                        new boolean[][][] {
-                            {
-                                {false, true, false},
-                                {true, true, true},
-                                {false, true, false}
-                            }
-                        },
+                        toMask(
+                                new boolean[][][] {
+                                    {
+                                        {false, true, false},
+                                        {true, true, true},
+                                        {false, true, false}
+                                    }
+                                }),
                         true));
     }
 }
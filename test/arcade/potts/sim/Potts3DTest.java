@@ -3,6 +3,7 @@ package arcade.potts.sim;
 import java.util.HashSet;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import arcade.potts.env.grid.PottsArray;
 import arcade.potts.sim.hamiltonian.AdhesionHamiltonian3D;
 import arcade.potts.sim.hamiltonian.Hamiltonian;
 import arcade.potts.sim.hamiltonian.HeightHamiltonian;
@@ -51,85 +52,87 @@ public class Potts3DTest {
         potts = new Potts3D(series);
 
         potts.ids =
-                new int[][][] {
-                    {
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                    },
-                    {
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 1, 0, 3, 0},
-                        {0, 0, 1, 3, 3, 0},
-                        {0, 2, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                    },
-                    {
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 1, 1, 3, 3, 0},
-                        {0, 1, 1, 3, 3, 0},
-                        {0, 2, 2, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                    },
-                    {
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 1, 1, 0, 0, 0},
-                        {0, 1, 2, 0, 3, 0},
-                        {0, 2, 2, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                    },
-                    {
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                    },
-                };
+                new PottsArray(
+                        new int[][][] {
+                            {
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                            },
+                            {
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 1, 0, 3, 0},
+                                {0, 0, 1, 3, 3, 0},
+                                {0, 2, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                            },
+                            {
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 1, 1, 3, 3, 0},
+                                {0, 1, 1, 3, 3, 0},
+                                {0, 2, 2, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                            },
+                            {
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 1, 1, 0, 0, 0},
+                                {0, 1, 2, 0, 3, 0},
+                                {0, 2, 2, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                            },
+                            {
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                            },
+                        });
 
         int d = Region.DEFAULT.ordinal();
         int n = Region.NUCLEUS.ordinal();
 
         potts.regions =
-                new int[][][] {
-                    {
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                    },
-                    {
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, d, 0, d, 0},
-                        {0, 0, d, d, d, 0},
-                        {0, d, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                    },
-                    {
-                        {0, 0, 0, 0, 0, 0},
-                        {0, d, d, d, 0, 0},
-                        {0, 0, n, n, 0, 0},
-                        {0, d, d, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                    },
-                    {
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, d, 0, 0, 0},
-                        {0, 0, n, 0, d, 0},
-                        {0, d, d, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                    },
-                    {
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                    },
-                };
+                new PottsArray(
+                        new int[][][] {
+                            {
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                            },
+                            {
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, d, 0, d, 0},
+                                {0, 0, d, d, d, 0},
+                                {0, d, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                            },
+                            {
+                                {0, 0, 0, 0, 0, 0},
+                                {0, d, d, d, 0, 0},
+                                {0, 0, n, n, 0, 0},
+                                {0, d, d, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                            },
+                            {
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, d, 0, 0, 0},
+                                {0, 0, n, 0, d, 0},
+                                {0, d, d, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                            },
+                            {
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                            },
+                        });
     }
 
     private static boolean[][][] duplicate(boolean[][][] array) {
@@ -269,7 +272,7 @@ public class Potts3DTest {
 
     @Test
     public void getNeighborhood_givenID_createsArray() {
-        boolean[][][] array1 = potts.getNeighborhood(1, 2, 2, 2);
+        boolean[][][] array1 = toArray(potts.getNeighborhood(1, 2, 2, 2), 3);
         assertArrayEquals(new boolean[] {false, true, false}, array1[0][0]);
         assertArrayEquals(new boolean[] {false, true, false}, array1[0][1]);
         assertArrayEquals(new boolean[] {false, false, false}, array1[0][2]);
@@ -280,7 +283,7 @@ public class Potts3DTest {
         assertArrayEquals(new boolean[] {true, false, false}, array1[2][1]);
         assertArrayEquals(new boolean[] {false, false, false}, array1[2][2]);
 
-        boolean[][][] array2 = potts.getNeighborhood(2, 2, 2, 2);
+        boolean[][][] array2 = toArray(potts.getNeighborhood(2, 2, 2, 2), 3);
         assertArrayEquals(new boolean[] {false, false, false}, array2[0][0]);
         assertArrayEquals(new boolean[] {false, false, false}, array2[0][1]);
         assertArrayEquals(new boolean[] {true, false, false}, array2[0][2]);
@@ -291,7 +294,7 @@ public class Potts3DTest {
         assertArrayEquals(new boolean[] {false, true, false}, array2[2][1]);
         assertArrayEquals(new boolean[] {true, true, false}, array2[2][2]);
 
-        boolean[][][] array3 = potts.getNeighborhood(3, 2, 2, 2);
+        boolean[][][] array3 = toArray(potts.getNeighborhood(3, 2, 2, 2), 3);
         assertArrayEquals(new boolean[] {false, false, false}, array3[0][0]);
         assertArrayEquals(new boolean[] {false, false, true}, array3[0][1]);
         assertArrayEquals(new boolean[] {false, false, false}, array3[0][2]);
@@ -305,7 +308,8 @@ public class Potts3DTest {
 
     @Test
     public void getNeighborhood_givenRegion_createsArray() {
-        boolean[][][] array1 = potts.getNeighborhood(1, Region.DEFAULT.ordinal(), 2, 2, 2);
+        boolean[][][] array1 =
+                toArray(potts.getNeighborhood(1, Region.DEFAULT.ordinal(), 2, 2, 2), 3);
         assertArrayEquals(new boolean[] {false, true, false}, array1[0][0]);
         assertArrayEquals(new boolean[] {false, true, false}, array1[0][1]);
         assertArrayEquals(new boolean[] {false, false, false}, array1[0][2]);
@@ -316,7 +320,8 @@ public class Potts3DTest {
         assertArrayEquals(new boolean[] {false, false, false}, array1[2][1]);
         assertArrayEquals(new boolean[] {false, false, false}, array1[2][2]);
 
-        boolean[][][] array2 = potts.getNeighborhood(1, Region.NUCLEUS.ordinal(), 2, 2, 2);
+        boolean[][][] array2 =
+                toArray(potts.getNeighborhood(1, Region.NUCLEUS.ordinal(), 2, 2, 2), 3);
         assertArrayEquals(new boolean[] {false, false, false}, array2[0][0]);
         assertArrayEquals(new boolean[] {false, false, false}, array2[0][1]);
         assertArrayEquals(new boolean[] {false, false, false}, array2[0][2]);
@@ -328,9 +333,18 @@ public class Potts3DTest {
         assertArrayEquals(new boolean[] {false, false, false}, array2[2][2]);
     }
 
+    private static HashSet<Integer> toSet(int[] buffer, int n) {
+        HashSet<Integer> set = new HashSet<>();
+        for (int i = 0; i < n; i++) {
+            set.add(buffer[i]);
+        }
+        return set;
+    }
+
     private HashSet<Integer> checkUniqueID(Potts3D potts3D, int[][][] ids) {
-        potts3D.ids = ids;
-        return potts3D.getUniqueIDs(1, 1, 1);
+        potts3D.ids = new PottsArray(ids);
+        int n = potts3D.getUniqueIDs(1, 1, 1);
+        return toSet(potts3D.uniqueIDs, n);
     }
 
     @Test
@@ -411,9 +425,10 @@ public class Potts3DTest {
     }
 
     private HashSet<Integer> checkUniqueRegion(Potts3D potts3D, int[][][] ids, int[][][] regions) {
-        potts3D.ids = ids;
-        potts3D.regions = regions;
-        return potts3D.getUniqueRegions(1, 1, 1);
+        potts3D.ids = new PottsArray(ids);
+        potts3D.regions = new PottsArray(regions);
+        int n = potts3D.getUniqueRegions(1, 1, 1);
+        return toSet(potts3D.uniqueRegions, n);
     }
 
     @Test
@@ -552,23 +567,24 @@ public class Potts3DTest {
     public void getConnectivity_zeroNeighbors_returnsFalse() {
         assertFalse(
                 potts.getConnectivity(
-                        new boolean[][][] {
-                            {
-                                {false, false, false},
-                                {false, false, false},
-                                {false, false, false}
-                            },
-                            {
-                                {false, false, false},
-                                {false, true, false},
-                                {false, false, false}
-                            },
-                            {
-                                {false, false, false},
-                                {false, false, false},
-                                {false, false, false}
-                            }
-                        },
+                        toMask(
+                                new boolean[][][] {
+                                    {
+                                        {false, false, false},
+                                        {false, false, false},
+                                        {false, false, false}
+                                    },
+                                    {
+                                        {false, false, false},
+                                        {false, true, false},
+                                        {false, false, false}
+                                    },
+                                    {
+                                        {false, false, false},
+                                        {false, false, false},
+                                        {false, false, false}
+                                    }
+                                }),
                         false));
     }
 
@@ -603,7 +619,7 @@ public class Potts3DTest {
     public void getConnectivity_oneNeighbor_returnsTrue() {
         for (int rotation = 0; rotation < 6; rotation++) {
             boolean[][][] array = rotate(BASE_ONE_NEIGHBOR, rotation);
-            assertTrue(potts.getConnectivity(array, false));
+            assertTrue(potts.getConnectivity(toMask(array), false));
         }
     }
 
@@ -724,7 +740,7 @@ public class Potts3DTest {
     public void getConnectivity_twoNeighborsOpposite_returnsFalse() {
         for (int rotation = 0; rotation < 3; rotation++) {
             boolean[][][] array = rotate(BASE_TWO_NEIGHBORS_OPPOSITE, rotation);
-            assertFalse(potts.getConnectivity(array, false));
+            assertFalse(potts.getConnectivity(toMask(array), false));
         }
     }
 
@@ -740,7 +756,7 @@ public class Potts3DTest {
                                         LINKS_TWO_NEIGHBORS_ADJACENT_XY),
                                 Axis.Z_AXIS,
                                 rotation);
-                assertFalse(potts.getConnectivity(array, false));
+                assertFalse(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -757,7 +773,7 @@ public class Potts3DTest {
                                         LINKS_TWO_NEIGHBORS_ADJACENT_YZ),
                                 Axis.X_AXIS,
                                 rotation);
-                assertFalse(potts.getConnectivity(array, false));
+                assertFalse(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -774,7 +790,7 @@ public class Potts3DTest {
                                         LINKS_TWO_NEIGHBORS_ADJACENT_ZX),
                                 Axis.Y_AXIS,
                                 rotation);
-                assertFalse(potts.getConnectivity(array, false));
+                assertFalse(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -791,7 +807,7 @@ public class Potts3DTest {
                                         LINKS_TWO_NEIGHBORS_ADJACENT_XY),
                                 Axis.Z_AXIS,
                                 rotation);
-                assertTrue(potts.getConnectivity(array, false));
+                assertTrue(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -808,7 +824,7 @@ public class Potts3DTest {
                                         LINKS_TWO_NEIGHBORS_ADJACENT_YZ),
                                 Axis.X_AXIS,
                                 rotation);
-                assertTrue(potts.getConnectivity(array, false));
+                assertTrue(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -825,7 +841,7 @@ public class Potts3DTest {
                                         LINKS_TWO_NEIGHBORS_ADJACENT_ZX),
                                 Axis.Y_AXIS,
                                 rotation);
-                assertTrue(potts.getConnectivity(array, false));
+                assertTrue(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -1021,7 +1037,7 @@ public class Potts3DTest {
                                         LINKS_THREE_NEIGHBORS_PLANE_XY),
                                 Axis.Z_AXIS,
                                 rotation);
-                assertFalse(potts.getConnectivity(array, false));
+                assertFalse(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -1038,7 +1054,7 @@ public class Potts3DTest {
                                         LINKS_THREE_NEIGHBORS_PLANE_YZ),
                                 Axis.X_AXIS,
                                 rotation);
-                assertFalse(potts.getConnectivity(array, false));
+                assertFalse(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -1055,7 +1071,7 @@ public class Potts3DTest {
                                         LINKS_THREE_NEIGHBORS_PLANE_ZX),
                                 Axis.Y_AXIS,
                                 rotation);
-                assertFalse(potts.getConnectivity(array, false));
+                assertFalse(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -1072,7 +1088,7 @@ public class Potts3DTest {
                                         LINKS_THREE_NEIGHBORS_PLANE_XY),
                                 Axis.Z_AXIS,
                                 rotation);
-                assertFalse(potts.getConnectivity(array, false));
+                assertFalse(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -1089,7 +1105,7 @@ public class Potts3DTest {
                                         LINKS_THREE_NEIGHBORS_PLANE_YZ),
                                 Axis.X_AXIS,
                                 rotation);
-                assertFalse(potts.getConnectivity(array, false));
+                assertFalse(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -1106,7 +1122,7 @@ public class Potts3DTest {
                                         LINKS_THREE_NEIGHBORS_PLANE_ZX),
                                 Axis.Y_AXIS,
                                 rotation);
-                assertFalse(potts.getConnectivity(array, false));
+                assertFalse(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -1123,7 +1139,7 @@ public class Potts3DTest {
                                         LINKS_THREE_NEIGHBORS_PLANE_XY),
                                 Axis.Z_AXIS,
                                 rotation);
-                assertTrue(potts.getConnectivity(array, false));
+                assertTrue(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -1140,7 +1156,7 @@ public class Potts3DTest {
                                         LINKS_THREE_NEIGHBORS_PLANE_YZ),
                                 Axis.X_AXIS,
                                 rotation);
-                assertTrue(potts.getConnectivity(array, false));
+                assertTrue(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -1157,7 +1173,7 @@ public class Potts3DTest {
                                         LINKS_THREE_NEIGHBORS_PLANE_ZX),
                                 Axis.Y_AXIS,
                                 rotation);
-                assertTrue(potts.getConnectivity(array, false));
+                assertTrue(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -1174,7 +1190,7 @@ public class Potts3DTest {
                                         LINKS_THREE_NEIGHBORS_CORNER_A),
                                 Axis.Z_AXIS,
                                 rotation);
-                assertFalse(potts.getConnectivity(arrayA, false));
+                assertFalse(potts.getConnectivity(toMask(arrayA), false));
 
                 boolean[][][] arrayB =
                         rotate(
@@ -1184,7 +1200,7 @@ public class Potts3DTest {
                                         LINKS_THREE_NEIGHBORS_CORNER_B),
                                 Axis.Z_AXIS,
                                 rotation);
-                assertFalse(potts.getConnectivity(arrayB, false));
+                assertFalse(potts.getConnectivity(toMask(arrayB), false));
             }
         }
     }
@@ -1201,7 +1217,7 @@ public class Potts3DTest {
                                         LINKS_THREE_NEIGHBORS_CORNER_A),
                                 Axis.Z_AXIS,
                                 rotation);
-                assertFalse(potts.getConnectivity(arrayA, false));
+                assertFalse(potts.getConnectivity(toMask(arrayA), false));
 
                 boolean[][][] arrayB =
                         rotate(
@@ -1211,7 +1227,7 @@ public class Potts3DTest {
                                         LINKS_THREE_NEIGHBORS_CORNER_B),
                                 Axis.Z_AXIS,
                                 rotation);
-                assertFalse(potts.getConnectivity(arrayB, false));
+                assertFalse(potts.getConnectivity(toMask(arrayB), false));
             }
         }
     }
@@ -1228,7 +1244,7 @@ public class Potts3DTest {
                                         LINKS_THREE_NEIGHBORS_CORNER_A),
                                 Axis.Z_AXIS,
                                 rotation);
-                assertTrue(potts.getConnectivity(arrayA, false));
+                assertTrue(potts.getConnectivity(toMask(arrayA), false));
 
                 boolean[][][] arrayB =
                         rotate(
@@ -1238,7 +1254,7 @@ public class Potts3DTest {
                                         LINKS_THREE_NEIGHBORS_CORNER_B),
                                 Axis.Z_AXIS,
                                 rotation);
-                assertTrue(potts.getConnectivity(arrayB, false));
+                assertTrue(potts.getConnectivity(toMask(arrayB), false));
             }
         }
     }
@@ -1255,7 +1271,7 @@ public class Potts3DTest {
                                         LINKS_THREE_NEIGHBORS_CORNER_A),
                                 Axis.Z_AXIS,
                                 rotation);
-                assertTrue(potts.getConnectivity(arrayA, false));
+                assertTrue(potts.getConnectivity(toMask(arrayA), false));
 
                 boolean[][][] arrayB =
                         rotate(
@@ -1265,7 +1281,7 @@ public class Potts3DTest {
                                         LINKS_THREE_NEIGHBORS_CORNER_B),
                                 Axis.Z_AXIS,
                                 rotation);
-                assertTrue(potts.getConnectivity(arrayB, false));
+                assertTrue(potts.getConnectivity(toMask(arrayB), false));
             }
         }
     }
@@ -1537,15 +1553,15 @@ public class Potts3DTest {
         for (int[] combo : COMBOS_FOUR_NEIGHBORS_PLANE_ZERO_LINKS) {
             boolean[][][] arrayXY =
                     combine(BASE_FOUR_NEIGHBORS_PLANE_XY, combo, LINKS_FOUR_NEIGHBORS_PLANE_XY);
-            assertFalse(potts.getConnectivity(arrayXY, false));
+            assertFalse(potts.getConnectivity(toMask(arrayXY), false));
 
             boolean[][][] arrayYZ =
                     combine(BASE_FOUR_NEIGHBORS_PLANE_YZ, combo, LINKS_FOUR_NEIGHBORS_PLANE_YZ);
-            assertFalse(potts.getConnectivity(arrayYZ, false));
+            assertFalse(potts.getConnectivity(toMask(arrayYZ), false));
 
             boolean[][][] arrayZX =
                     combine(BASE_FOUR_NEIGHBORS_PLANE_ZX, combo, LINKS_FOUR_NEIGHBORS_PLANE_ZX);
-            assertFalse(potts.getConnectivity(arrayZX, false));
+            assertFalse(potts.getConnectivity(toMask(arrayZX), false));
         }
     }
 
@@ -1554,15 +1570,15 @@ public class Potts3DTest {
         for (int[] combo : COMBOS_FOUR_NEIGHBORS_PLANE_ONE_LINK) {
             boolean[][][] arrayXY =
                     combine(BASE_FOUR_NEIGHBORS_PLANE_XY, combo, LINKS_FOUR_NEIGHBORS_PLANE_XY);
-            assertFalse(potts.getConnectivity(arrayXY, false));
+            assertFalse(potts.getConnectivity(toMask(arrayXY), false));
 
             boolean[][][] arrayYZ =
                     combine(BASE_FOUR_NEIGHBORS_PLANE_YZ, combo, LINKS_FOUR_NEIGHBORS_PLANE_YZ);
-            assertFalse(potts.getConnectivity(arrayYZ, false));
+            assertFalse(potts.getConnectivity(toMask(arrayYZ), false));
 
             boolean[][][] arrayZX =
                     combine(BASE_FOUR_NEIGHBORS_PLANE_ZX, combo, LINKS_FOUR_NEIGHBORS_PLANE_ZX);
-            assertFalse(potts.getConnectivity(arrayZX, false));
+            assertFalse(potts.getConnectivity(toMask(arrayZX), false));
         }
     }
 
@@ -1571,15 +1587,15 @@ public class Potts3DTest {
         for (int[] combo : COMBOS_FOUR_NEIGHBORS_PLANE_TWO_LINKS) {
             boolean[][][] arrayXY =
                     combine(BASE_FOUR_NEIGHBORS_PLANE_XY, combo, LINKS_FOUR_NEIGHBORS_PLANE_XY);
-            assertFalse(potts.getConnectivity(arrayXY, false));
+            assertFalse(potts.getConnectivity(toMask(arrayXY), false));
 
             boolean[][][] arrayYZ =
                     combine(BASE_FOUR_NEIGHBORS_PLANE_YZ, combo, LINKS_FOUR_NEIGHBORS_PLANE_YZ);
-            assertFalse(potts.getConnectivity(arrayYZ, false));
+            assertFalse(potts.getConnectivity(toMask(arrayYZ), false));
 
             boolean[][][] arrayZX =
                     combine(BASE_FOUR_NEIGHBORS_PLANE_ZX, combo, LINKS_FOUR_NEIGHBORS_PLANE_ZX);
-            assertFalse(potts.getConnectivity(arrayZX, false));
+            assertFalse(potts.getConnectivity(toMask(arrayZX), false));
         }
     }
 
@@ -1588,15 +1604,15 @@ public class Potts3DTest {
         for (int[] combo : COMBOS_FOUR_NEIGHBORS_PLANE_THREE_LINKS) {
             boolean[][][] arrayXY =
                     combine(BASE_FOUR_NEIGHBORS_PLANE_XY, combo, LINKS_FOUR_NEIGHBORS_PLANE_XY);
-            assertTrue(potts.getConnectivity(arrayXY, false));
+            assertTrue(potts.getConnectivity(toMask(arrayXY), false));
 
             boolean[][][] arrayYZ =
                     combine(BASE_FOUR_NEIGHBORS_PLANE_YZ, combo, LINKS_FOUR_NEIGHBORS_PLANE_YZ);
-            assertTrue(potts.getConnectivity(arrayYZ, false));
+            assertTrue(potts.getConnectivity(toMask(arrayYZ), false));
 
             boolean[][][] arrayZX =
                     combine(BASE_FOUR_NEIGHBORS_PLANE_ZX, combo, LINKS_FOUR_NEIGHBORS_PLANE_ZX);
-            assertTrue(potts.getConnectivity(arrayZX, false));
+            assertTrue(potts.getConnectivity(toMask(arrayZX), false));
         }
     }
 
@@ -1605,15 +1621,15 @@ public class Potts3DTest {
         for (int[] combo : COMBOS_FOUR_NEIGHBORS_PLANE_FOUR_LINKS) {
             boolean[][][] arrayXY =
                     combine(BASE_FOUR_NEIGHBORS_PLANE_XY, combo, LINKS_FOUR_NEIGHBORS_PLANE_XY);
-            assertTrue(potts.getConnectivity(arrayXY, false));
+            assertTrue(potts.getConnectivity(toMask(arrayXY), false));
 
             boolean[][][] arrayYZ =
                     combine(BASE_FOUR_NEIGHBORS_PLANE_YZ, combo, LINKS_FOUR_NEIGHBORS_PLANE_YZ);
-            assertTrue(potts.getConnectivity(arrayYZ, false));
+            assertTrue(potts.getConnectivity(toMask(arrayYZ), false));
 
             boolean[][][] arrayZX =
                     combine(BASE_FOUR_NEIGHBORS_PLANE_ZX, combo, LINKS_FOUR_NEIGHBORS_PLANE_ZX);
-            assertTrue(potts.getConnectivity(arrayZX, false));
+            assertTrue(potts.getConnectivity(toMask(arrayZX), false));
         }
     }
 
@@ -1629,7 +1645,7 @@ public class Potts3DTest {
                                         LINKS_FOUR_NEIGHBORS_AXIS_X),
                                 Axis.X_AXIS,
                                 rotation);
-                assertFalse(potts.getConnectivity(array, false));
+                assertFalse(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -1646,7 +1662,7 @@ public class Potts3DTest {
                                         LINKS_FOUR_NEIGHBORS_AXIS_Y),
                                 Axis.Y_AXIS,
                                 rotation);
-                assertFalse(potts.getConnectivity(array, false));
+                assertFalse(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -1663,7 +1679,7 @@ public class Potts3DTest {
                                         LINKS_FOUR_NEIGHBORS_AXIS_Z),
                                 Axis.Z_AXIS,
                                 rotation);
-                assertFalse(potts.getConnectivity(array, false));
+                assertFalse(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -1680,7 +1696,7 @@ public class Potts3DTest {
                                         LINKS_FOUR_NEIGHBORS_AXIS_X),
                                 Axis.X_AXIS,
                                 rotation);
-                assertFalse(potts.getConnectivity(array, false));
+                assertFalse(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -1697,7 +1713,7 @@ public class Potts3DTest {
                                         LINKS_FOUR_NEIGHBORS_AXIS_Y),
                                 Axis.Y_AXIS,
                                 rotation);
-                assertFalse(potts.getConnectivity(array, false));
+                assertFalse(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -1714,7 +1730,7 @@ public class Potts3DTest {
                                         LINKS_FOUR_NEIGHBORS_AXIS_Z),
                                 Axis.Z_AXIS,
                                 rotation);
-                assertFalse(potts.getConnectivity(array, false));
+                assertFalse(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -1731,7 +1747,7 @@ public class Potts3DTest {
                                         LINKS_FOUR_NEIGHBORS_AXIS_X),
                                 Axis.X_AXIS,
                                 rotation);
-                assertFalse(potts.getConnectivity(array, false));
+                assertFalse(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -1748,7 +1764,7 @@ public class Potts3DTest {
                                         LINKS_FOUR_NEIGHBORS_AXIS_Y),
                                 Axis.Y_AXIS,
                                 rotation);
-                assertFalse(potts.getConnectivity(array, false));
+                assertFalse(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -1765,7 +1781,7 @@ public class Potts3DTest {
                                         LINKS_FOUR_NEIGHBORS_AXIS_Z),
                                 Axis.Z_AXIS,
                                 rotation);
-                assertFalse(potts.getConnectivity(array, false));
+                assertFalse(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -1782,7 +1798,7 @@ public class Potts3DTest {
                                         LINKS_FOUR_NEIGHBORS_AXIS_X),
                                 Axis.X_AXIS,
                                 rotation);
-                assertTrue(potts.getConnectivity(array, false));
+                assertTrue(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -1799,7 +1815,7 @@ public class Potts3DTest {
                                         LINKS_FOUR_NEIGHBORS_AXIS_Y),
                                 Axis.Y_AXIS,
                                 rotation);
-                assertTrue(potts.getConnectivity(array, false));
+                assertTrue(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -1816,7 +1832,7 @@ public class Potts3DTest {
                                         LINKS_FOUR_NEIGHBORS_AXIS_Z),
                                 Axis.Z_AXIS,
                                 rotation);
-                assertTrue(potts.getConnectivity(array, false));
+                assertTrue(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -1833,7 +1849,7 @@ public class Potts3DTest {
                                         LINKS_FOUR_NEIGHBORS_AXIS_X),
                                 Axis.X_AXIS,
                                 rotation);
-                assertFalse(potts.getConnectivity(array, false));
+                assertFalse(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -1850,7 +1866,7 @@ public class Potts3DTest {
                                         LINKS_FOUR_NEIGHBORS_AXIS_Y),
                                 Axis.Y_AXIS,
                                 rotation);
-                assertFalse(potts.getConnectivity(array, false));
+                assertFalse(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -1867,7 +1883,7 @@ public class Potts3DTest {
                                         LINKS_FOUR_NEIGHBORS_AXIS_Z),
                                 Axis.Z_AXIS,
                                 rotation);
-                assertFalse(potts.getConnectivity(array, false));
+                assertFalse(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -1884,7 +1900,7 @@ public class Potts3DTest {
                                         LINKS_FOUR_NEIGHBORS_AXIS_X),
                                 Axis.X_AXIS,
                                 rotation);
-                assertTrue(potts.getConnectivity(array, false));
+                assertTrue(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -1901,7 +1917,7 @@ public class Potts3DTest {
                                         LINKS_FOUR_NEIGHBORS_AXIS_Y),
                                 Axis.Y_AXIS,
                                 rotation);
-                assertTrue(potts.getConnectivity(array, false));
+                assertTrue(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -1918,7 +1934,7 @@ public class Potts3DTest {
                                         LINKS_FOUR_NEIGHBORS_AXIS_Z),
                                 Axis.Z_AXIS,
                                 rotation);
-                assertTrue(potts.getConnectivity(array, false));
+                assertTrue(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -1935,7 +1951,7 @@ public class Potts3DTest {
                                         LINKS_FOUR_NEIGHBORS_AXIS_X),
                                 Axis.X_AXIS,
                                 rotation);
-                assertTrue(potts.getConnectivity(array, false));
+                assertTrue(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -1952,7 +1968,7 @@ public class Potts3DTest {
                                         LINKS_FOUR_NEIGHBORS_AXIS_Y),
                                 Axis.Y_AXIS,
                                 rotation);
-                assertTrue(potts.getConnectivity(array, false));
+                assertTrue(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -1969,7 +1985,7 @@ public class Potts3DTest {
                                         LINKS_FOUR_NEIGHBORS_AXIS_Z),
                                 Axis.Z_AXIS,
                                 rotation);
-                assertTrue(potts.getConnectivity(array, false));
+                assertTrue(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -2136,7 +2152,7 @@ public class Potts3DTest {
             for (int[] combo : COMBOS_FIVE_NEIGHBORS_ZERO_LINKS) {
                 boolean[][][] array =
                         rotate(combine(BASE_FIVE_NEIGHBORS, combo, LINKS_FIVE_NEIGHBORS), rotation);
-                assertFalse(potts.getConnectivity(array, false));
+                assertFalse(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -2147,7 +2163,7 @@ public class Potts3DTest {
             for (int[] combo : COMBOS_FIVE_NEIGHBORS_ONE_LINK) {
                 boolean[][][] array =
                         rotate(combine(BASE_FIVE_NEIGHBORS, combo, LINKS_FIVE_NEIGHBORS), rotation);
-                assertFalse(potts.getConnectivity(array, false));
+                assertFalse(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -2158,7 +2174,7 @@ public class Potts3DTest {
             for (int[] combo : COMBOS_FIVE_NEIGHBORS_TWO_LINKS) {
                 boolean[][][] array =
                         rotate(combine(BASE_FIVE_NEIGHBORS, combo, LINKS_FIVE_NEIGHBORS), rotation);
-                assertFalse(potts.getConnectivity(array, false));
+                assertFalse(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -2169,7 +2185,7 @@ public class Potts3DTest {
             for (int[] combo : COMBOS_FIVE_NEIGHBORS_THREE_LINKS) {
                 boolean[][][] array =
                         rotate(combine(BASE_FIVE_NEIGHBORS, combo, LINKS_FIVE_NEIGHBORS), rotation);
-                assertFalse(potts.getConnectivity(array, false));
+                assertFalse(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -2180,7 +2196,7 @@ public class Potts3DTest {
             for (int[] combo : COMBOS_FIVE_NEIGHBORS_FOUR_LINKS_VALID) {
                 boolean[][][] array =
                         rotate(combine(BASE_FIVE_NEIGHBORS, combo, LINKS_FIVE_NEIGHBORS), rotation);
-                assertTrue(potts.getConnectivity(array, false));
+                assertTrue(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -2191,7 +2207,7 @@ public class Potts3DTest {
             for (int[] combo : COMBOS_FIVE_NEIGHBORS_FOUR_LINKS_INVALID) {
                 boolean[][][] array =
                         rotate(combine(BASE_FIVE_NEIGHBORS, combo, LINKS_FIVE_NEIGHBORS), rotation);
-                assertFalse(potts.getConnectivity(array, false));
+                assertFalse(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -2211,7 +2227,7 @@ public class Potts3DTest {
                                             Axis.Z_AXIS,
                                             symmetry),
                                     rotation);
-                    assertTrue(potts.getConnectivity(array, false));
+                    assertTrue(potts.getConnectivity(toMask(array), false));
                 }
             }
         }
@@ -2232,7 +2248,7 @@ public class Potts3DTest {
                                             Axis.Z_AXIS,
                                             symmetry),
                                     rotation);
-                    assertFalse(potts.getConnectivity(array, false));
+                    assertFalse(potts.getConnectivity(toMask(array), false));
                 }
             }
         }
@@ -2253,7 +2269,7 @@ public class Potts3DTest {
                                             Axis.Z_AXIS,
                                             symmetry),
                                     rotation);
-                    assertTrue(potts.getConnectivity(array, false));
+                    assertTrue(potts.getConnectivity(toMask(array), false));
                 }
             }
         }
@@ -2274,7 +2290,7 @@ public class Potts3DTest {
                                             Axis.Z_AXIS,
                                             symmetry),
                                     rotation);
-                    assertFalse(potts.getConnectivity(array, false));
+                    assertFalse(potts.getConnectivity(toMask(array), false));
                 }
             }
         }
@@ -2286,7 +2302,7 @@ public class Potts3DTest {
             for (int[] combo : COMBOS_FIVE_NEIGHBORS_SIX_LINKS) {
                 boolean[][][] array =
                         rotate(combine(BASE_FIVE_NEIGHBORS, combo, LINKS_FIVE_NEIGHBORS), rotation);
-                assertTrue(potts.getConnectivity(array, false));
+                assertTrue(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -2297,7 +2313,7 @@ public class Potts3DTest {
             for (int[] combo : COMBOS_FIVE_NEIGHBORS_SEVEN_LINKS) {
                 boolean[][][] array =
                         rotate(combine(BASE_FIVE_NEIGHBORS, combo, LINKS_FIVE_NEIGHBORS), rotation);
-                assertTrue(potts.getConnectivity(array, false));
+                assertTrue(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -2308,7 +2324,7 @@ public class Potts3DTest {
             for (int[] combo : COMBOS_FIVE_NEIGHBORS_EIGHT_LINKS) {
                 boolean[][][] array =
                         rotate(combine(BASE_FIVE_NEIGHBORS, combo, LINKS_FIVE_NEIGHBORS), rotation);
-                assertTrue(potts.getConnectivity(array, false));
+                assertTrue(potts.getConnectivity(toMask(array), false));
             }
         }
     }
@@ -2325,23 +2341,24 @@ public class Potts3DTest {
     public void getConnectivity_sixNeighborsNonZeroID_returnsFalse() {
         assertFalse(
                 potts.getConnectivity(
-                        new boolean[][][] {
-                            {
-                                {false, false, false},
-                                {false, true, false},
-                                {false, false, false}
-                            },
-                            {
-                                {false, true, false},
-                                {true, true, true},
-                                {false, true, false}
-                            },
-                            {
-                                {false, false, false},
-                                {false, true, false},
-                                {false, false, false}
-                            }
-                        },
+                        toMask(
+                                new boolean[][][] {
+                                    {
+                                        {false, false, false},
+                                        {false, true, false},
+                                        {false, false, false}
+                                    },
+                                    {
+                                        {false, true, false},
+                                        {true, true, true},
+                                        {false, true, false}
+                                    },
+                                    {
+                                        {false, false, false},
+                                        {false, true, false},
+                                        {false, false, false}
+                                    }
+                                }),
                         false));
     }
 
@@ -2349,23 +2366,24 @@ public class Potts3DTest {
     public void getConnectivity_sixNeighborsZeroID_returnsTrue() {
         assertTrue(
                 potts.getConnectivity(
-                        new boolean[][][] {
-                            {
-                                {false, false, false},
-                                {false, true, false},
-                                {false, false, false}
-                            },
-                            {
-                                {false, true, false},
-                                {true, true, true},
-                                {false, true, false}
-                            },
-                            {
-                                {false, false, false},
-                                {false, true, false},
-                                {false, false, false}
-                            }
-                        },
+                        toMask(
+                                new boolean[][][] {
+                                    {
+                                        {false, false, false},
+                                        {false, true, false},
+                                        {false, false, false}
+                                    },
+                                    {
+                                        {false, true, false},
+                                        {true, true, true},
+                                        {false, true, false}
+                                    },
+                                    {
+                                        {false, false, false},
+                                        {false, true, false},
+                                        {false, false, false}
+                                    }
+                                }),
                         true));
     }
 }
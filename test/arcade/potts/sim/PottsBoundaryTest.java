@@ -0,0 +1,148 @@
+package arcade.potts.sim;
+
+import java.util.HashSet;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static arcade.potts.sim.PottsTest.*;
+
+public class PottsBoundaryTest {
+    private static HashSet<Integer> getMembers(PottsBoundary boundary) {
+        HashSet<Integer> members = new HashSet<>();
+        for (int i = 0; i < boundary.size; i++) {
+            members.add(boundary.members[i]);
+        }
+        return members;
+    }
+
+    private static HashSet<Integer> getExpected(Potts potts) {
+        HashSet<Integer> expected = new HashSet<>();
+        int[][] moves = {{0, -1, 0}, {1, 0, 0}, {0, 1, 0}, {-1, 0, 0}, {0, 0, 1}, {0, 0, -1}};
+        int z0 = potts.isSingle ? 0 : 1;
+        int n = potts.isSingle ? 4 : 6;
+
+        for (int k = z0; k < z0 + potts.height; k++) {
+            for (int i = 1; i <= potts.length; i++) {
+                for (int j = 1; j <= potts.width; j++) {
+                    for (int m = 0; m < n; m++) {
+                        int x = i + moves[m][0];
+                        int y = j + moves[m][1];
+                        int z = k + moves[m][2];
+                        if (potts.ids.get(x, y, z) != potts.ids.get(i, j, k)
+                                || potts.regions.get(x, y, z) != potts.regions.get(i, j, k)) {
+                            expected.add(potts.ids.index(i, j, k));
+                        }
+                    }
+                }
+            }
+        }
+
+        return expected;
+    }
+
+    private static PottsMock makePotts(int length, int width, int height) {
+        return new PottsMock(makeSeries(length + 2, width + 2, height == 1 ? 1 : height + 2));
+    }
+
+    @Test
+    public void constructor_2D_addsBoundaryVoxels() {
+        PottsMock potts = makePotts(5, 5, 1);
+        potts.ids.set(2, 2, 0, 1);
+        potts.ids.set(2, 3, 0, 1);
+        potts.ids.set(3, 3, 0, 2);
+        potts.regions.set(3, 2, 0, 1);
+
+        PottsBoundary boundary = new PottsBoundary(potts);
+        assertEquals(getExpected(potts), getMembers(boundary));
+    }
+
+    @Test
+    public void constructor_3D_addsBoundaryVoxels() {
+        PottsMock potts = makePotts(4, 4, 4);
+        potts.ids.set(2, 2, 2, 1);
+        potts.ids.set(2, 2, 3, 1);
+        potts.ids.set(3, 3, 1, 2);
+
+        PottsBoundary boundary = new PottsBoundary(potts);
+        assertEquals(getExpected(potts), getMembers(boundary));
+    }
+
+    @Test
+    public void constructor_uniformArray_addsNothing() {
+        PottsMock potts = makePotts(3, 3, 3);
+        PottsBoundary boundary = new PottsBoundary(potts);
+        assertEquals(0, boundary.size);
+    }
+
+    @Test
+    public void constructor_filledArray_addsBorderAdjacentVoxels() {
+        PottsMock potts = makePotts(3, 3, 1);
+        for (int i = 1; i <= 3; i++) {
+            for (int j = 1; j <= 3; j++) {
+                potts.ids.set(i, j, 0, 1);
+            }
+        }
+
+        PottsBoundary boundary = new PottsBoundary(potts);
+        assertEquals(8, boundary.size);
+        assertFalse(getMembers(boundary).contains(potts.ids.index(2, 2, 0)));
+    }
+
+    @Test
+    public void change_givenFlip_updatesSet() {
+        PottsMock potts = makePotts(5, 5, 1);
+        potts.ids.set(3, 3, 0, 1);
+        PottsBoundary boundary = new PottsBoundary(potts);
+
+        potts.ids.values[potts.ids.index(3, 3, 0)] = 0;
+        boundary.change(potts.ids.index(3, 3, 0));
+        assertEquals(0, boundary.size);
+
+        potts.ids.values[potts.ids.index(1, 1, 0)] = 2;
+        boundary.change(potts.ids.index(1, 1, 0));
+        assertEquals(getExpected(potts), getMembers(boundary));
+    }
+
+    @Test
+    public void change_borderVoxel_doesNothing() {
+        PottsMock potts = makePotts(3, 3, 1);
+        PottsBoundary boundary = new PottsBoundary(potts);
+
+        potts.ids.values[0] = 1;
+        boundary.change(0);
+        assertEquals(0, boundary.size);
+    }
+
+    @Test
+    public void refresh_givenChanges_updatesSet() {
+        PottsMock potts = makePotts(5, 5, 1);
+        PottsBoundary boundary = new PottsBoundary(potts);
+
+        potts.ids.set(2, 2, 0, 1);
+        potts.regions.set(4, 4, 0, 1);
+        boundary.refresh();
+
+        assertEquals(getExpected(potts), getMembers(boundary));
+        assertEquals(0, potts.ids.getNumberChanges());
+        assertEquals(0, potts.regions.getNumberChanges());
+    }
+
+    @Test
+    public void refresh_givenOverflow_reinitializesSet() {
+        PottsMock potts = makePotts(3, 3, 1);
+        PottsBoundary boundary = new PottsBoundary(potts);
+
+        for (int n = 0; n < 4; n++) {
+            for (int i = 1; i <= 3; i++) {
+                for (int j = 1; j <= 3; j++) {
+                    potts.ids.set(i, j, 0, (i + j + n) % 3);
+                }
+            }
+        }
+
+        assertEquals(-1, potts.ids.getNumberChanges());
+        boundary.refresh();
+
+        assertEquals(getExpected(potts), getMembers(boundary));
+        assertEquals(0, potts.ids.getNumberChanges());
+    }
+}
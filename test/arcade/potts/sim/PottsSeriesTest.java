@@ -10,6 +10,7 @@ import ec.util.MersenneTwisterFast;
 import arcade.core.sim.Series;
 import arcade.core.util.Box;
 import arcade.core.util.MiniBox;
+import arcade.potts.sim.hamiltonian.HamiltonianPluginsTest;
 import arcade.potts.vis.PottsVisualization;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -574,6 +575,7 @@ public class PottsSeriesTest {
         series.populations = new HashMap<>();
         series.updatePotts(null, POTTS, new MiniBox());
         assertNotNull(series.terms);
+        assertNotNull(series.plugins);
     }
 
     @Test
@@ -601,6 +603,95 @@ public class PottsSeriesTest {
         assertTrue(series.terms.contains(term2));
     }
 
+    @Test
+    public void updatePotts_withPluginTerm_addsPlugin() {
+        HashMap<String, ArrayList<Box>> setupLists = makeLists();
+        PottsSeries series = mock(PottsSeries.class, CALLS_REAL_METHODS);
+        series.populations = new HashMap<>();
+        ArrayList<Box> potts = setupLists.get("potts");
+
+        Box box = new Box();
+        potts.add(box);
+        box.addTag(HamiltonianPluginsTest.MOCK_NAME, "TERM");
+
+        series.updatePotts(potts, POTTS, new MiniBox());
+
+        assertEquals(0, series.terms.size());
+        assertEquals(1, series.plugins.size());
+        assertTrue(series.plugins.get(0) instanceof HamiltonianPluginsTest.MockPlugin);
+    }
+
+    @Test
+    public void updatePotts_withPluginTerm_addsPluginDefaults() {
+        HashMap<String, ArrayList<Box>> setupLists = makeLists();
+        PottsSeries series = mock(PottsSeries.class, CALLS_REAL_METHODS);
+        String pop = randomString();
+        series.populations = new HashMap<>();
+        series.populations.put(pop, new MiniBox());
+        ArrayList<Box> potts = setupLists.get("potts");
+
+        Box box = new Box();
+        potts.add(box);
+        box.addTag(HamiltonianPluginsTest.MOCK_NAME, "TERM");
+
+        series.updatePotts(potts, POTTS, new MiniBox());
+
+        String parameter =
+                HamiltonianPluginsTest.MOCK_NAME.toLowerCase()
+                        + TAG_SEPARATOR
+                        + HamiltonianPluginsTest.MOCK_PARAMETER;
+        double value = Double.parseDouble(HamiltonianPluginsTest.MOCK_VALUE);
+        assertEquals(value, series.potts.getDouble(parameter), EPSILON);
+        assertEquals(value, series.potts.getDouble(parameter + TARGET_SEPARATOR + pop), EPSILON);
+        assertFalse(POTTS.contains(parameter));
+    }
+
+    @Test
+    public void updatePotts_withPluginTermDifferentCase_updatesPluginParameters() {
+        HashMap<String, ArrayList<Box>> setupLists = makeLists();
+        PottsSeries series = mock(PottsSeries.class, CALLS_REAL_METHODS);
+        series.populations = new HashMap<>();
+        ArrayList<Box> potts = setupLists.get("potts");
+
+        String parameter =
+                HamiltonianPluginsTest.MOCK_NAME.toLowerCase()
+                        + TAG_SEPARATOR
+                        + HamiltonianPluginsTest.MOCK_PARAMETER;
+        double value = randomDoubleBetween(10, 100);
+
+        Box box = new Box();
+        potts.add(box);
+        box.addTag(HamiltonianPluginsTest.MOCK_NAME.toUpperCase(), "TERM");
+        box.addAtt(parameter, "value", "" + value);
+        box.addTag(parameter, "PARAMETER");
+
+        series.updatePotts(potts, POTTS, new MiniBox());
+
+        assertEquals(1, series.plugins.size());
+        assertEquals(value, series.potts.getDouble(parameter), EPSILON);
+        String original =
+                HamiltonianPluginsTest.MOCK_NAME
+                        + TAG_SEPARATOR
+                        + HamiltonianPluginsTest.MOCK_PARAMETER;
+        assertFalse(series.potts.contains(original));
+    }
+
+    @Test
+    public void updatePotts_withUnknownTerm_throwsException() {
+        HashMap<String, ArrayList<Box>> setupLists = makeLists();
+        PottsSeries series = mock(PottsSeries.class, CALLS_REAL_METHODS);
+        series.populations = new HashMap<>();
+        ArrayList<Box> potts = setupLists.get("potts");
+
+        Box box = new Box();
+        potts.add(box);
+        box.addTag(randomString(), "TERM");
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> series.updatePotts(potts, POTTS, new MiniBox()));
+    }
+
     private PottsSeries makeSeriesForPopulation(Box[] boxes) {
         return makeSeriesForPopulation(boxes, new MiniBox());
     }
@@ -4,8 +4,10 @@ import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import sim.engine.Schedule;
 import sim.util.Bag;
 import ec.util.MersenneTwisterFast;
@@ -16,12 +18,14 @@ import arcade.core.sim.Series;
 import arcade.core.sim.output.*;
 import arcade.core.util.MiniBox;
 import arcade.potts.agent.cell.PottsCell;
+import arcade.potts.agent.cell.PottsCellBatch;
 import arcade.potts.agent.cell.PottsCellContainer;
 import arcade.potts.agent.cell.PottsCellFactory;
 import arcade.potts.env.location.PottsLocation;
 import arcade.potts.env.location.PottsLocationContainer;
 import arcade.potts.env.location.PottsLocationFactory;
 import arcade.potts.env.location.Voxel;
+import arcade.potts.util.Registry;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static arcade.core.ARCADETestUtilities.*;
@@ -62,6 +66,7 @@ public class PottsSimulationTest {
         }
 
         series.populations = populations;
+        ((PottsSeries) series).potts = new MiniBox();
 
         return series;
     }
@@ -108,7 +113,9 @@ public class PottsSimulationTest {
 
         @Override
         public Potts makePotts() {
-            return mock(Potts.class);
+            Potts potts = mock(Potts.class);
+            potts.registry = new Registry();
+            return potts;
         }
 
         private void mockLocations(
@@ -244,6 +251,10 @@ public class PottsSimulationTest {
                 Field popField = PottsCellFactory.class.getDeclaredField("popToIDs");
                 popField.setAccessible(true);
                 popField.set(factory, new HashMap<Integer, ArrayList<Integer>>());
+
+                Field batchField = PottsCellFactory.class.getDeclaredField("popToBatch");
+                batchField.setAccessible(true);
+                batchField.set(factory, new HashMap<Integer, PottsCellBatch>());
             } catch (Exception ignored) {
             }
 
@@ -316,6 +327,13 @@ public class PottsSimulationTest {
         assertEquals(RANDOM_SEED, sim.getSeed());
     }
 
+    @Test
+    public void getRandomStreams_initialized_returnsStreams() {
+        Series series = mock(PottsSeries.class);
+        PottsSimulationMock sim = new PottsSimulationMock(RANDOM_SEED + SEED_OFFSET, series);
+        assertEquals(RANDOM_SEED + SEED_OFFSET, sim.getRandomStreams().getSeed());
+    }
+
     @Test
     public void getID_initialized_incrementsValue() {
         Series series = mock(PottsSeries.class);
@@ -483,6 +501,17 @@ public class PottsSimulationTest {
         verify(sim).doOutput(false);
     }
 
+    @Test
+    public void finish_withPotts_finishesPotts() {
+        Series series = createSeries(new int[0], new String[0]);
+        PottsSimulationMock sim = spy(new PottsSimulationMock(RANDOM_SEED, series));
+        doNothing().when(sim).doOutput(anyBoolean());
+        sim.potts = sim.makePotts();
+        sim.finish();
+
+        verify(sim.potts).finish();
+    }
+
     @Test
     public void setupPotts_mockSeries_initializesPotts() {
         Series series = mock(PottsSeries.class);
@@ -504,7 +533,7 @@ public class PottsSimulationTest {
     @Test
     public void setupAgents_anyPopulation_setsPotts() {
         PottsSimulationMock sim = new PottsSimulationMock(RANDOM_SEED, seriesZeroPop);
-        sim.potts = mock(Potts.class);
+        sim.potts = sim.makePotts();
         sim.setupAgents();
         assertEquals(sim.grid, sim.potts.grid);
     }
@@ -512,7 +541,7 @@ public class PottsSimulationTest {
     @Test
     public void setupAgents_zeroPopulations_initializesGrid() {
         PottsSimulationMock sim = new PottsSimulationMock(RANDOM_SEED, seriesZeroPop);
-        sim.potts = mock(Potts.class);
+        sim.potts = sim.makePotts();
         sim.setupAgents();
         assertNotNull(sim.grid);
     }
@@ -520,7 +549,7 @@ public class PottsSimulationTest {
     @Test
     public void setupAgents_zeroPopulations_createsNoAgents() {
         PottsSimulationMock sim = new PottsSimulationMock(RANDOM_SEED, seriesZeroPop);
-        sim.potts = mock(Potts.class);
+        sim.potts = sim.makePotts();
         sim.setupAgents();
         assertEquals(0, sim.grid.getAllObjects().numObjs);
     }
@@ -528,7 +557,7 @@ public class PottsSimulationTest {
     @Test
     public void setupAgents_onePopulation_createsAgents() {
         PottsSimulationMock sim = new PottsSimulationMock(RANDOM_SEED, seriesOnePop);
-        sim.potts = mock(Potts.class);
+        sim.potts = sim.makePotts();
         sim.setupAgents();
         assertEquals(TOTAL_LOCATIONS - 1, sim.grid.getAllObjects().numObjs);
 
@@ -548,20 +577,25 @@ public class PottsSimulationTest {
     @Test
     public void setupAgents_onePopulation_callMethods() {
         PottsSimulationMock sim = spy(new PottsSimulationMock(RANDOM_SEED, seriesOnePop));
-        sim.potts = mock(Potts.class);
+        sim.potts = sim.makePotts();
         sim.setupAgents();
 
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<PottsCell>> cells = ArgumentCaptor.forClass(List.class);
+        verify(sim.potts).register(cells.capture());
+        assertEquals(sim.grid.getAllObjects().numObjs, cells.getValue().size());
+
         for (Object obj : sim.grid.getAllObjects()) {
             verify((PottsCell) obj).initialize(sim.potts.ids, sim.potts.regions);
             verify((Cell) obj).schedule(sim.schedule);
-            verify(sim.potts).register((PottsCell) obj);
+            assertTrue(cells.getValue().contains(obj));
         }
     }
 
     @Test
     public void setupAgents_multiplePopulations_createsAgents() {
         PottsSimulationMock sim = new PottsSimulationMock(RANDOM_SEED, seriesMultiPop);
-        sim.potts = mock(Potts.class);
+        sim.potts = sim.makePotts();
         sim.setupAgents();
         assertEquals(TOTAL_LOCATIONS, sim.grid.getAllObjects().numObjs);
 
@@ -580,20 +614,48 @@ public class PottsSimulationTest {
     @Test
     public void setupAgents_multiplePopulations_callMethods() {
         PottsSimulationMock sim = spy(new PottsSimulationMock(RANDOM_SEED, seriesMultiPop));
-        sim.potts = mock(Potts.class);
+        sim.potts = sim.makePotts();
         sim.setupAgents();
 
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<PottsCell>> cells = ArgumentCaptor.forClass(List.class);
+        verify(sim.potts).register(cells.capture());
+        assertEquals(sim.grid.getAllObjects().numObjs, cells.getValue().size());
+
         for (Object obj : sim.grid.getAllObjects()) {
             verify((PottsCell) obj).initialize(sim.potts.ids, sim.potts.regions);
             verify((PottsCell) obj).schedule(sim.schedule);
-            verify(sim.potts).register((PottsCell) obj);
+            assertTrue(cells.getValue().contains(obj));
         }
     }
 
+    @Test
+    public void setupAgents_batchedCells_createsBatches() {
+        PottsSimulationMock sim = new PottsSimulationMock(RANDOM_SEED, seriesMultiPop);
+        sim.potts = sim.makePotts();
+        MiniBox potts = ((PottsSeries) seriesMultiPop).potts;
+        potts.put("BATCH_CELLS", 1);
+        sim.setupAgents();
+        potts.put("BATCH_CELLS", 0);
+
+        assertEquals(3, sim.cellFactory.popToBatch.size());
+        assertNotNull(sim.cellFactory.popToBatch.get(1));
+        assertNotNull(sim.cellFactory.popToBatch.get(2));
+        assertNotNull(sim.cellFactory.popToBatch.get(3));
+    }
+
+    @Test
+    public void setupAgents_individualCells_createsNoBatches() {
+        PottsSimulationMock sim = new PottsSimulationMock(RANDOM_SEED, seriesMultiPop);
+        sim.potts = sim.makePotts();
+        sim.setupAgents();
+        assertEquals(0, sim.cellFactory.popToBatch.size());
+    }
+
     @Test
     public void setupAgents_insufficientLocations_excludesExtra() {
         PottsSimulationMock sim = spy(new PottsSimulationMock(RANDOM_SEED, seriesNullLocation));
-        sim.potts = mock(Potts.class);
+        sim.potts = sim.makePotts();
         sim.setupAgents();
         assertEquals(1, sim.grid.getAllObjects().numObjs);
         assertEquals(2, sim.getID());
@@ -602,7 +664,7 @@ public class PottsSimulationTest {
     @Test
     public void setupAgents_insufficientCells_excludesExtra() {
         PottsSimulationMock sim = spy(new PottsSimulationMock(RANDOM_SEED, seriesNullCell));
-        sim.potts = mock(Potts.class);
+        sim.potts = sim.makePotts();
         sim.setupAgents();
         assertEquals(1, sim.grid.getAllObjects().numObjs);
         assertEquals(2, sim.getID());
@@ -611,7 +673,7 @@ public class PottsSimulationTest {
     @Test
     public void setupAgents_insufficientBoth_excludesExtra() {
         PottsSimulationMock sim = spy(new PottsSimulationMock(RANDOM_SEED, seriesNullBoth));
-        sim.potts = mock(Potts.class);
+        sim.potts = sim.makePotts();
         sim.setupAgents();
         assertEquals(1, sim.grid.getAllObjects().numObjs);
         assertEquals(2, sim.getID());
@@ -0,0 +1,206 @@
+package arcade.potts.sim;
+
+import org.junit.jupiter.api.Test;
+import arcade.core.util.RandomStreams;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static arcade.core.ARCADETestUtilities.*;
+import static arcade.potts.sim.PottsTest.*;
+
+public class PottsSweepTest {
+    private static final double EPSILON = 1E-10;
+
+    private static PottsMock makePotts(int length, int width, int height, int threads) {
+        PottsSeries series = makeSeries(length + 2, width + 2, height == 1 ? 1 : height + 2);
+        doReturn(threads).when(series.potts).getInt("THREADS");
+        return new PottsMock(series);
+    }
+
+    private static void checkBlocks(PottsSweep sweep, int length, int width, int height) {
+        int[][][] counts = new int[height][length + 2][width + 2];
+        int offset = (height == 1 ? 0 : 1);
+
+        for (int[][] colorBlocks : sweep.blocks) {
+            for (int[] block : colorBlocks) {
+                for (int k = block[2]; k < block[5]; k++) {
+                    for (int i = block[0]; i < block[3]; i++) {
+                        for (int j = block[1]; j < block[4]; j++) {
+                            counts[k - offset][i][j]++;
+                        }
+                    }
+                }
+            }
+        }
+
+        for (int k = 0; k < height; k++) {
+            for (int i = 1; i <= length; i++) {
+                for (int j = 1; j <= width; j++) {
+                    assertEquals(1, counts[k][i][j]);
+                }
+            }
+        }
+    }
+
+    private static void checkSeparated(PottsSweep sweep) {
+        for (int[][] colorBlocks : sweep.blocks) {
+            for (int a = 0; a < colorBlocks.length; a++) {
+                for (int b = a + 1; b < colorBlocks.length; b++) {
+                    int[] blockA = colorBlocks[a];
+                    int[] blockB = colorBlocks[b];
+                    boolean separated = false;
+                    for (int i = 0; i < 3; i++) {
+                        if (blockA[i + 3] < blockB[i] || blockB[i + 3] < blockA[i]) {
+                            separated = true;
+                        }
+                    }
+                    assertTrue(separated);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void constructor_2D_coversArray() {
+        int length = randomIntBetween(1, 40);
+        int width = randomIntBetween(1, 40);
+        PottsMock potts = makePotts(length, width, 1, 2);
+        PottsSweep sweep = new PottsSweep(potts, new RandomStreams(randomIntBetween(1, 100)));
+        assertEquals(4, sweep.blocks.length);
+        checkBlocks(sweep, length, width, 1);
+    }
+
+    @Test
+    public void constructor_3D_coversArray() {
+        int length = randomIntBetween(1, 30);
+        int width = randomIntBetween(1, 30);
+        int height = randomIntBetween(2, 30);
+        PottsMock potts = makePotts(length, width, height, 2);
+        PottsSweep sweep = new PottsSweep(potts, new RandomStreams(randomIntBetween(1, 100)));
+        assertEquals(8, sweep.blocks.length);
+        checkBlocks(sweep, length, width, height);
+    }
+
+    @Test
+    public void constructor_2D_separatesColors() {
+        PottsMock potts = makePotts(40, 40, 1, 2);
+        PottsSweep sweep = new PottsSweep(potts, new RandomStreams(randomIntBetween(1, 100)));
+        checkSeparated(sweep);
+    }
+
+    @Test
+    public void constructor_3D_separatesColors() {
+        PottsMock potts = makePotts(30, 30, 30, 2);
+        PottsSweep sweep = new PottsSweep(potts, new RandomStreams(randomIntBetween(1, 100)));
+        checkSeparated(sweep);
+    }
+
+    @Test
+    public void constructor_givenThreads_createsWorkers() {
+        int threads = randomIntBetween(2, 10);
+        PottsMock potts = makePotts(10, 10, 1, threads);
+        PottsSweep sweep = new PottsSweep(potts, new RandomStreams(randomIntBetween(1, 100)));
+
+        assertEquals(threads, sweep.workers.length);
+        for (Potts worker : sweep.workers) {
+            assertNotSame(potts, worker);
+            assertSame(potts.ids, worker.ids);
+            assertNotNull(worker.deferred);
+        }
+    }
+
+    @Test
+    public void constructor_givenSteps_setsAttempts() {
+        int size = PottsSweep.BLOCK_SIZE * randomIntBetween(1, 4);
+        PottsMock potts = makePotts(size, size, 1, 2);
+        PottsSweep sweep = new PottsSweep(potts, new RandomStreams(randomIntBetween(1, 100)));
+
+        int attempts = 0;
+        for (int[] colorAttempts : sweep.attempts) {
+            for (int a : colorAttempts) {
+                attempts += a;
+            }
+        }
+
+        assertEquals(potts.steps, attempts * sweep.rounds);
+    }
+
+    @Test
+    public void shutdown_called_shutsDownPool() {
+        PottsMock potts = makePotts(10, 10, 1, 2);
+        PottsSweep sweep = new PottsSweep(potts, new RandomStreams(randomIntBetween(1, 100)));
+        sweep.shutdown();
+        assertTrue(sweep.pool.isShutdown());
+    }
+
+    @Test
+    public void step_givenWorkers_sweepsBlocks() {
+        PottsMock potts = makePotts(20, 20, 1, 2);
+        PottsSweep sweep = new PottsSweep(potts, new RandomStreams(randomIntBetween(1, 100)));
+
+        for (int i = 0; i < sweep.workers.length; i++) {
+            Potts worker = spy(sweep.workers[i]);
+            doNothing().when(worker).attempt(anyInt(), anyInt(), anyInt(), anyDouble(), any());
+            sweep.workers[i] = worker;
+        }
+
+        sweep.step();
+
+        for (int i = 0; i < sweep.workers.length; i++) {
+            int attempts = 0;
+            for (int[] colorAttempts : sweep.attempts) {
+                for (int b = i; b < colorAttempts.length; b += sweep.workers.length) {
+                    attempts += colorAttempts[b];
+                }
+            }
+
+            Potts worker = sweep.workers[i];
+            verify(worker, times(attempts * sweep.rounds))
+                    .attempt(anyInt(), anyInt(), anyInt(), anyDouble(), any());
+            verify(worker, times(sweep.rounds * sweep.blocks.length)).applyDeferred();
+        }
+    }
+
+    @Test
+    public void step_withEnergy_addsWorkerEnergies() {
+        PottsMock potts = makePotts(20, 20, 1, 2);
+        potts.energies = new double[] {1, 2};
+        PottsSweep sweep = new PottsSweep(potts, new RandomStreams(randomIntBetween(1, 100)));
+
+        for (int i = 0; i < sweep.workers.length; i++) {
+            Potts worker = spy(sweep.workers[i]);
+            doNothing().when(worker).attempt(anyInt(), anyInt(), anyInt(), anyDouble(), any());
+            worker.energies = new double[] {i + 1, -(i + 1)};
+            sweep.workers[i] = worker;
+        }
+
+        sweep.step();
+
+        assertArrayEquals(new double[] {4, -1}, potts.energies, EPSILON);
+        for (Potts worker : sweep.workers) {
+            assertArrayEquals(new double[] {0, 0}, worker.energies, EPSILON);
+        }
+    }
+
+    @Test
+    public void sweep_givenWorker_attemptsWithinBlock() {
+        int size = PottsSweep.BLOCK_SIZE * 2;
+        PottsMock potts = makePotts(size, size, 1, 2);
+        PottsSweep sweep = new PottsSweep(potts, new RandomStreams(randomIntBetween(1, 100)));
+        Potts worker = spy(sweep.workers[0]);
+        doNothing().when(worker).attempt(anyInt(), anyInt(), anyInt(), anyDouble(), any());
+        sweep.workers[0] = worker;
+
+        sweep.sweep(0, 0);
+
+        int[] block = sweep.blocks[0][0];
+        verify(worker, times(sweep.attempts[0][0]))
+                .attempt(anyInt(), anyInt(), anyInt(), anyDouble(), any());
+        verify(worker, times(sweep.attempts[0][0]))
+                .attempt(
+                        intThat(x -> x >= block[0] && x < block[3]),
+                        intThat(y -> y >= block[1] && y < block[4]),
+                        eq(0),
+                        anyDouble(),
+                        any());
+    }
+}
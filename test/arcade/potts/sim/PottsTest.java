@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import sim.engine.SimState;
 import ec.util.MersenneTwisterFast;
 import arcade.core.agent.cell.Cell;
@@ -14,11 +15,14 @@ import arcade.core.sim.Series;
 import arcade.core.util.MiniBox;
 import arcade.potts.agent.cell.PottsCell;
 import arcade.potts.env.location.PottsLocation;
+import arcade.potts.sim.hamiltonian.FusedHamiltonian;
 import arcade.potts.sim.hamiltonian.Hamiltonian;
+import arcade.potts.sim.hamiltonian.HamiltonianPlugin;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static arcade.core.ARCADETestUtilities.*;
 import static arcade.core.util.MiniBox.TAG_SEPARATOR;
+import static arcade.potts.util.PottsEnums.Footprint;
 import static arcade.potts.util.PottsEnums.Region;
 import static arcade.potts.util.PottsEnums.Term;
 
@@ -36,6 +40,14 @@ public class PottsTest {
     static class PottsMock extends Potts {
         PottsMock(PottsSeries series) {
             super(series);
+            uniqueIDs = new int[2];
+            uniqueRegions = new int[2];
+        }
+
+        PottsMock(PottsMock potts) {
+            super(potts);
+            uniqueIDs = new int[2];
+            uniqueRegions = new int[2];
         }
 
         @Override
@@ -46,39 +58,70 @@ public class PottsTest {
         }
 
         @Override
-        boolean[][][] getNeighborhood(int id, int x, int y, int z) {
-            return new boolean[][][] {{{x != 0}}};
+        Potts copy() {
+            return new PottsMock(this);
         }
 
         @Override
-        boolean[][][] getNeighborhood(int id, int region, int x, int y, int z) {
-            return new boolean[][][] {{{y != 0}}};
+        int getNeighborhood(int id, int x, int y, int z) {
+            return x != 0 ? 1 : 0;
         }
 
         @Override
-        boolean getConnectivity(boolean[][][] array, boolean zero) {
-            return array[0][0][0];
+        int getNeighborhood(int id, int region, int x, int y, int z) {
+            return y != 0 ? 1 : 0;
         }
 
         @Override
-        HashSet<Integer> getUniqueIDs(int x, int y, int z) {
-            HashSet<Integer> set = new HashSet<>();
+        boolean getConnectivity(int mask, boolean zero) {
+            return mask != 0;
+        }
+
+        @Override
+        int getUniqueIDs(int x, int y, int z) {
+            int n = 0;
             if (x == 0 && y == 0) {
-                set.add(1);
-                set.add(2);
+                n = addUnique(uniqueIDs, n, 1);
+                n = addUnique(uniqueIDs, n, 2);
             }
-            return set;
+            return n;
         }
 
         @Override
-        HashSet<Integer> getUniqueRegions(int x, int y, int z) {
-            HashSet<Integer> set = new HashSet<>();
+        int getUniqueRegions(int x, int y, int z) {
+            int n = 0;
             if (x == 1 && y == 0) {
-                set.add(Region.DEFAULT.ordinal());
-                set.add(Region.NUCLEUS.ordinal());
+                n = addUnique(uniqueRegions, n, Region.DEFAULT.ordinal());
+                n = addUnique(uniqueRegions, n, Region.NUCLEUS.ordinal());
+            }
+            return n;
+        }
+    }
+
+    static int toMask(boolean[][][] array) {
+        int mask = 0;
+        int n = 0;
+        for (boolean[][] plane : array) {
+            for (boolean[] row : plane) {
+                for (boolean value : row) {
+                    mask |= (value ? 1 : 0) << n++;
+                }
+            }
+        }
+        return mask;
+    }
+
+    static boolean[][][] toArray(int mask, int depth) {
+        boolean[][][] array = new boolean[depth][3][3];
+        int n = 0;
+        for (int k = 0; k < depth; k++) {
+            for (int i = 0; i < 3; i++) {
+                for (int j = 0; j < 3; j++) {
+                    array[k][i][j] = (mask & (1 << n++)) != 0;
+                }
             }
-            return set;
         }
+        return array;
     }
 
     static PottsSeries makeSeries() {
@@ -127,10 +170,10 @@ public class PottsTest {
         PottsSeries series = makeSeries(4, 4, 1);
         PottsMock spy = spy(new PottsMock(series));
 
-        spy.regions[0][0][0] = Region.NUCLEUS.ordinal();
-        spy.regions[0][0][1] = Region.NUCLEUS.ordinal();
-        spy.regions[0][1][0] = Region.NUCLEUS.ordinal();
-        spy.regions[0][1][1] = Region.NUCLEUS.ordinal();
+        spy.regions.set(0, 0, 0, Region.NUCLEUS.ordinal());
+        spy.regions.set(0, 1, 0, Region.NUCLEUS.ordinal());
+        spy.regions.set(1, 0, 0, Region.NUCLEUS.ordinal());
+        spy.regions.set(1, 1, 0, Region.NUCLEUS.ordinal());
 
         doNothing().when(spy).change(anyInt(), anyInt(), anyInt(), anyInt(), anyInt(), anyDouble());
         doNothing()
@@ -220,12 +263,12 @@ public class PottsTest {
         assertEquals(width, pottsMock.width);
         assertEquals(1, pottsMock.height);
 
-        assertEquals(1, pottsMock.ids.length);
-        assertEquals(1, pottsMock.regions.length);
-        assertEquals(length + 2, pottsMock.ids[0].length);
-        assertEquals(length + 2, pottsMock.regions[0].length);
-        assertEquals(width + 2, pottsMock.ids[0][0].length);
-        assertEquals(width + 2, pottsMock.regions[0][0].length);
+        assertEquals(1, pottsMock.ids.height);
+        assertEquals(1, pottsMock.regions.height);
+        assertEquals(length + 2, pottsMock.ids.length);
+        assertEquals(length + 2, pottsMock.regions.length);
+        assertEquals(width + 2, pottsMock.ids.width);
+        assertEquals(width + 2, pottsMock.regions.width);
     }
 
     @Test
@@ -239,12 +282,12 @@ public class PottsTest {
         assertEquals(width, pottsMock.width);
         assertEquals(2, pottsMock.height);
 
-        assertEquals(4, pottsMock.ids.length);
-        assertEquals(4, pottsMock.regions.length);
-        assertEquals(length + 2, pottsMock.ids[0].length);
-        assertEquals(length + 2, pottsMock.regions[0].length);
-        assertEquals(width + 2, pottsMock.ids[0][0].length);
-        assertEquals(width + 2, pottsMock.regions[0][0].length);
+        assertEquals(4, pottsMock.ids.height);
+        assertEquals(4, pottsMock.regions.height);
+        assertEquals(length + 2, pottsMock.ids.length);
+        assertEquals(length + 2, pottsMock.regions.length);
+        assertEquals(width + 2, pottsMock.ids.width);
+        assertEquals(width + 2, pottsMock.regions.width);
     }
 
     @Test
@@ -343,6 +386,192 @@ public class PottsTest {
         }
     }
 
+    @Test
+    public void constructor_withPlugins_addsAfterTerms() {
+        PottsSeries series = makeSeries(0, 0, 0);
+        series.terms.add(Term.VOLUME);
+
+        int n = randomIntBetween(1, 5);
+        series.plugins = new ArrayList<>();
+        ArrayList<Hamiltonian> created = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            HamiltonianPlugin plugin = mock(HamiltonianPlugin.class);
+            Hamiltonian hamiltonian = mock(Hamiltonian.class);
+            doReturn(hamiltonian).when(plugin).create(eq(series), any(Potts.class));
+            series.plugins.add(plugin);
+            created.add(hamiltonian);
+        }
+
+        PottsMock pottsMock = new PottsMock(series);
+
+        assertEquals(n + 1, pottsMock.hamiltonian.size());
+        assertEquals("VOLUME", pottsMock.hamiltonian.get(0).toString());
+        for (int i = 0; i < n; i++) {
+            assertSame(created.get(i), pottsMock.hamiltonian.get(i + 1));
+            verify(series.plugins.get(i)).create(series, pottsMock);
+        }
+    }
+
+    @Test
+    public void constructor_givenThreads_setsParallel() {
+        PottsSeries series = makeSeries(0, 0, 0);
+        doReturn(randomIntBetween(2, 10)).when(series.potts).getInt("THREADS");
+        PottsMock pottsMock = new PottsMock(series);
+        assertTrue(pottsMock.isParallel);
+        assertNull(pottsMock.getSequentialOption(series));
+    }
+
+    @Test
+    public void constructor_givenSingleThread_setsSequential() {
+        PottsSeries series = makeSeries(0, 0, 0);
+        doReturn(1).when(series.potts).getInt("THREADS");
+        PottsMock pottsMock = new PottsMock(series);
+        assertFalse(pottsMock.isParallel);
+    }
+
+    @Test
+    public void constructor_givenThreadsWithPersistence_setsSequential() {
+        PottsSeries series = makeSeries(0, 0, 0);
+        series.terms.add(Term.PERSISTENCE);
+        doReturn(randomIntBetween(2, 10)).when(series.potts).getInt("THREADS");
+        PottsMock pottsMock = new PottsMock(series);
+        assertFalse(pottsMock.isParallel);
+        assertEquals("PERSISTENCE", pottsMock.getSequentialOption(series));
+    }
+
+    @Test
+    public void constructor_givenThreadsWithGlobalPlugin_setsSequential() {
+        PottsSeries series = makeSeries(0, 0, 0);
+        HamiltonianPlugin plugin = mock(HamiltonianPlugin.class);
+        doReturn("global").when(plugin).getName();
+        doReturn(Footprint.GLOBAL).when(plugin).getFootprint();
+        doReturn(mock(Hamiltonian.class)).when(plugin).create(any(), any());
+        series.plugins = new ArrayList<>();
+        series.plugins.add(plugin);
+        doReturn(randomIntBetween(2, 10)).when(series.potts).getInt("THREADS");
+        PottsMock pottsMock = new PottsMock(series);
+        assertFalse(pottsMock.isParallel);
+        assertEquals("global", pottsMock.getSequentialOption(series));
+    }
+
+    @Test
+    public void constructor_givenThreadsWithNeighborhoodPlugin_setsParallel() {
+        PottsSeries series = makeSeries(0, 0, 0);
+        HamiltonianPlugin plugin = mock(HamiltonianPlugin.class);
+        doReturn(Footprint.NEIGHBORHOOD).when(plugin).getFootprint();
+        doReturn(mock(Hamiltonian.class)).when(plugin).create(any(), any());
+        series.plugins = new ArrayList<>();
+        series.plugins.add(plugin);
+        doReturn(randomIntBetween(2, 10)).when(series.potts).getInt("THREADS");
+        PottsMock pottsMock = new PottsMock(series);
+        assertTrue(pottsMock.isParallel);
+        assertNull(pottsMock.getSequentialOption(series));
+    }
+
+    @Test
+    public void constructor_givenThreadsWithBoundarySampling_setsSequential() {
+        PottsSeries series = makeSeries(4, 4, 1);
+        doReturn(randomIntBetween(2, 10)).when(series.potts).getInt("THREADS");
+        doReturn(1).when(series.potts).getInt("BOUNDARY_SAMPLING");
+        PottsMock pottsMock = new PottsMock(series);
+        assertFalse(pottsMock.isParallel);
+        assertEquals("BOUNDARY_SAMPLING", pottsMock.getSequentialOption(series));
+    }
+
+    @Test
+    public void constructor_givenThreadsWithTileSampling_setsSequential() {
+        PottsSeries series = makeSeries(4, 4, 1);
+        doReturn(randomIntBetween(2, 10)).when(series.potts).getInt("THREADS");
+        doReturn(2).when(series.potts).getInt("TILE_SAMPLING");
+        PottsMock pottsMock = new PottsMock(series);
+        assertFalse(pottsMock.isParallel);
+        assertEquals("TILE_SAMPLING", pottsMock.getSequentialOption(series));
+    }
+
+    @Test
+    public void constructor_givenBoundaryAndTileSampling_throwsException() {
+        PottsSeries series = makeSeries(4, 4, 1);
+        doReturn(1).when(series.potts).getInt("BOUNDARY_SAMPLING");
+        doReturn(2).when(series.potts).getInt("TILE_SAMPLING");
+        assertThrows(IllegalArgumentException.class, () -> new PottsMock(series));
+    }
+
+    @Test
+    public void constructor_givenTileSamplingMultipleLayers_storesTiles() {
+        PottsSeries series = makeSeries(6, 6, 6);
+        doReturn(2).when(series.potts).getInt("TILE_SAMPLING");
+        PottsMock pottsMock = new PottsMock(series);
+        assertEquals(2, pottsMock.ids.tileSize);
+        assertEquals(2, pottsMock.regions.tileSize);
+        assertEquals(0, pottsMock.ids.getNumberTiles());
+    }
+
+    @Test
+    public void constructor_givenTileSamplingSingleLayer_storesDense() {
+        PottsSeries series = makeSeries(6, 6, 1);
+        doReturn(2).when(series.potts).getInt("TILE_SAMPLING");
+        PottsMock pottsMock = new PottsMock(series);
+        assertEquals(0, pottsMock.ids.tileSize);
+        assertEquals(0, pottsMock.regions.tileSize);
+    }
+
+    @Test
+    public void constructor_givenThreadsWithAdaptiveSweeps_setsSequential() {
+        PottsSeries series = makeSeries(4, 4, 1);
+        doReturn(randomIntBetween(2, 10)).when(series.potts).getInt("THREADS");
+        doReturn(4).when(series.potts).getInt("ADAPTIVE_SWEEPS");
+        PottsMock pottsMock = new PottsMock(series);
+        assertFalse(pottsMock.isParallel);
+        assertEquals("ADAPTIVE_SWEEPS", pottsMock.getSequentialOption(series));
+    }
+
+    @Test
+    public void constructor_givenPotts_sharesFields() {
+        PottsSeries series = makeSeries(4, 5, 6);
+        series.terms.add(Term.VOLUME);
+        PottsMock pottsMock = new PottsMock(series);
+        pottsMock.grid = mock(Grid.class);
+
+        PottsMock copy = (PottsMock) pottsMock.copy();
+
+        assertSame(pottsMock.ids, copy.ids);
+        assertSame(pottsMock.regions, copy.regions);
+        assertSame(pottsMock.grid, copy.grid);
+        assertSame(pottsMock.hamiltonian, copy.hamiltonian);
+        assertNotSame(pottsMock.uniqueIDs, copy.uniqueIDs);
+        assertNotSame(pottsMock.uniqueRegions, copy.uniqueRegions);
+        assertEquals(pottsMock.steps, copy.steps);
+        assertFalse(copy.isParallel);
+        assertNull(pottsMock.deferred);
+        assertNotNull(copy.deferred);
+    }
+
+    @Test
+    public void getFusedHamiltonian_called_buildsOnce() {
+        PottsSeries series = makeSeries(4, 5, 6);
+        series.terms.add(Term.VOLUME);
+        series.terms.add(Term.SURFACE);
+        PottsMock pottsMock = new PottsMock(series);
+
+        FusedHamiltonian fused = pottsMock.getFusedHamiltonian();
+
+        assertNotNull(fused);
+        assertSame(fused, pottsMock.getFusedHamiltonian());
+    }
+
+    @Test
+    public void getFusedHamiltonian_givenCopy_buildsSeparately() {
+        PottsSeries series = makeSeries(4, 5, 6);
+        series.terms.add(Term.VOLUME);
+        PottsMock pottsMock = new PottsMock(series);
+        FusedHamiltonian fused = pottsMock.getFusedHamiltonian();
+
+        PottsMock copy = (PottsMock) pottsMock.copy();
+
+        assertNull(copy.fused);
+        assertNotSame(fused, copy.getFusedHamiltonian());
+    }
+
     @Test
     public void register_called_callsMethods() {
         PottsSeries series = makeSeries(0, 0, 0);
@@ -364,6 +593,33 @@ public class PottsTest {
         }
     }
 
+    @Test
+    public void register_givenList_callsMethods() {
+        PottsSeries series = makeSeries(0, 0, 0);
+        PottsMock pottsMock = new PottsMock(series);
+        ArrayList<Hamiltonian> hamiltonian = new ArrayList<>();
+
+        int n = randomIntBetween(3, 10);
+        for (int i = 0; i < n; i++) {
+            Hamiltonian h = mock(Hamiltonian.class);
+            pottsMock.hamiltonian.add(h);
+            hamiltonian.add(h);
+        }
+
+        ArrayList<PottsCell> cells = new ArrayList<>();
+        int m = randomIntBetween(3, 10);
+        for (int i = 0; i < m; i++) {
+            cells.add(mock(PottsCell.class));
+        }
+
+        pottsMock.register(cells);
+        for (int i = 0; i < n; i++) {
+            for (PottsCell cell : cells) {
+                verify(hamiltonian.get(i)).register(cell);
+            }
+        }
+    }
+
     @Test
     public void deregister_called_callsMethods() {
         PottsSeries series = makeSeries(0, 0, 0);
@@ -451,7 +707,7 @@ public class PottsTest {
         PottsSeries series = makeSeries(3, 3, 1);
 
         PottsMock spy = spy(new PottsMock(series));
-        spy.ids[0][0][0] = 1;
+        spy.ids.set(0, 0, 0, 1);
 
         PottsCell cell = mock(PottsCell.class);
         doReturn(false).when(cell).hasRegions();
@@ -480,7 +736,7 @@ public class PottsTest {
         PottsSeries series = makeSeries(3, 3, 1);
 
         PottsMock spy = spy(new PottsMock(series));
-        spy.ids[0][0][0] = 1;
+        spy.ids.set(0, 0, 0, 1);
 
         PottsCell cell = mock(PottsCell.class);
         doReturn(true).when(cell).hasRegions();
@@ -509,8 +765,8 @@ public class PottsTest {
         PottsSeries series = makeSeries(3, 3, 1);
 
         PottsMock spy = spy(new PottsMock(series));
-        spy.ids[0][1][0] = 1;
-        spy.regions[0][1][0] = Region.DEFAULT.ordinal();
+        spy.ids.set(1, 0, 0, 1);
+        spy.regions.set(1, 0, 0, Region.DEFAULT.ordinal());
 
         PottsCell cell = mock(PottsCell.class);
         doReturn(false).when(cell).hasRegions();
@@ -539,8 +795,8 @@ public class PottsTest {
         PottsSeries series = makeSeries(3, 3, 1);
 
         PottsMock spy = spy(new PottsMock(series));
-        spy.ids[0][1][0] = 1;
-        spy.regions[0][1][0] = Region.DEFAULT.ordinal();
+        spy.ids.set(1, 0, 0, 1);
+        spy.regions.set(1, 0, 0, Region.DEFAULT.ordinal());
 
         PottsCell cell = mock(PottsCell.class);
         doReturn(true).when(cell).hasRegions();
@@ -567,7 +823,7 @@ public class PottsTest {
     @Test
     public void flip_unconnectedSourceIDNeighbor_returns() {
         PottsMock spy = makeFlipMock();
-        spy.ids[0][0][0] = 1;
+        spy.ids.set(0, 0, 0, 1);
         spy.flip(1, 0, 0, 0, 0, R);
         verify(spy).getNeighborhood(1, 0, 0, 0);
         verify(spy, never()).change(anyInt(), anyInt(), anyInt(), anyInt(), anyInt(), eq(R));
@@ -594,7 +850,7 @@ public class PottsTest {
     @Test
     public void flip_connectedSourceDefaultRegion_completes() {
         PottsMock spy = makeFlipMock();
-        spy.regions[0][1][1] = Region.DEFAULT.ordinal();
+        spy.regions.set(1, 1, 0, Region.DEFAULT.ordinal());
         spy.flip(1, 0, 1, 1, 0, R);
         verify(spy).getNeighborhood(1, 1, 1, 0);
         verify(spy, never()).getNeighborhood(1, Region.DEFAULT.ordinal(), 1, 1, 0);
@@ -612,7 +868,7 @@ public class PottsTest {
     @Test
     public void flip_unconnectedTargetIDNeighbor_returns() {
         PottsMock spy = makeFlipMock();
-        spy.ids[0][0][0] = 1;
+        spy.ids.set(0, 0, 0, 1);
         spy.flip(0, 2, 0, 0, 0, R);
         verify(spy).getNeighborhood(2, 0, 0, 0);
         verify(spy, never()).change(anyInt(), anyInt(), anyInt(), anyInt(), anyInt(), eq(R));
@@ -639,7 +895,7 @@ public class PottsTest {
     @Test
     public void flip_connectedTargetDefaultRegion_completes() {
         PottsMock spy = makeFlipMock();
-        spy.regions[0][1][1] = Region.DEFAULT.ordinal();
+        spy.regions.set(1, 1, 0, Region.DEFAULT.ordinal());
         spy.flip(0, 2, 1, 1, 0, R);
         verify(spy).getNeighborhood(2, 1, 1, 0);
         verify(spy, never()).getNeighborhood(2, Region.DEFAULT.ordinal(), 1, 1, 0);
@@ -649,33 +905,629 @@ public class PottsTest {
     @Test
     public void flip_connectedSourceZeroFalse_returns() {
         PottsMock spy = makeFlipMock();
-        spy.ids[0][0][0] = 1;
+        spy.ids.set(0, 0, 0, 1);
         spy.flip(1, 0, 0, 0, 0, R);
-        verify(spy).getConnectivity(any(), eq(false));
+        verify(spy).getConnectivity(anyInt(), eq(false));
     }
 
     @Test
     public void flip_connectedSourceZeroTrue_completes() {
         PottsMock spy = makeFlipMock();
-        spy.ids[0][0][0] = 0;
+        spy.ids.set(0, 0, 0, 0);
         spy.flip(1, 0, 0, 0, 0, R);
-        verify(spy).getConnectivity(any(), eq(true));
+        verify(spy).getConnectivity(anyInt(), eq(true));
     }
 
     @Test
     public void flip_connectedTargetZeroFalse_returns() {
         PottsMock spy = makeFlipMock();
-        spy.ids[0][0][0] = 1;
+        spy.ids.set(0, 0, 0, 1);
         spy.flip(0, 1, 0, 0, 0, R);
-        verify(spy).getConnectivity(any(), eq(false));
+        verify(spy).getConnectivity(anyInt(), eq(false));
     }
 
     @Test
     public void flip_connectedTargetZeroTrue_completes() {
         PottsMock spy = makeFlipMock();
-        spy.ids[0][0][0] = 0;
+        spy.ids.set(0, 0, 0, 0);
         spy.flip(0, 1, 0, 0, 0, R);
-        verify(spy).getConnectivity(any(), eq(true));
+        verify(spy).getConnectivity(anyInt(), eq(true));
+    }
+
+    @Test
+    public void step_parallel_callsSweep() {
+        SimState simstate = mock(SimState.class);
+        simstate.random = new MersenneTwisterFast(1);
+
+        PottsSeries series = makeSeries(4, 4, 1);
+        doReturn(2).when(series.potts).getInt("THREADS");
+        PottsMock spy = spy(new PottsMock(series));
+        PottsSweep sweep = mock(PottsSweep.class);
+        spy.sweep = sweep;
+
+        spy.step(simstate);
+        verify(sweep).step();
+        verify(spy, never()).getUniqueIDs(anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    public void finish_withSweep_shutsDownSweep() {
+        PottsSeries series = makeSeries(4, 4, 1);
+        PottsMock pottsMock = new PottsMock(series);
+        PottsSweep sweep = mock(PottsSweep.class);
+        pottsMock.sweep = sweep;
+
+        pottsMock.finish();
+
+        verify(sweep).shutdown();
+        assertNull(pottsMock.sweep);
+    }
+
+    @Test
+    public void finish_withoutSweep_doesNothing() {
+        PottsSeries series = makeSeries(4, 4, 1);
+        PottsMock pottsMock = new PottsMock(series);
+        pottsMock.finish();
+        assertNull(pottsMock.sweep);
+    }
+
+    @Test
+    public void step_boundarySampling_attemptsBoundaryVoxels() {
+        SimState simstate = mock(SimState.class);
+        simstate.random = new MersenneTwisterFast(1);
+
+        PottsSeries series = makeSeries(6, 4, 1);
+        doReturn(1).when(series.potts).getInt("BOUNDARY_SAMPLING");
+        PottsMock spy = spy(new PottsMock(series));
+        doNothing().when(spy).attempt(anyInt(), anyInt(), anyInt(), anyDouble(), any());
+
+        for (int i = 1; i <= spy.length; i++) {
+            for (int j = 1; j <= spy.width; j++) {
+                spy.ids.set(i, j, 0, 1);
+            }
+        }
+
+        spy.step(simstate);
+
+        assertNotNull(spy.boundary);
+        assertEquals(spy.steps, spy.boundary.size);
+        verify(spy, times(spy.steps))
+                .attempt(
+                        intThat(i -> i > 0 && i <= spy.length),
+                        intThat(i -> i > 0 && i <= spy.width),
+                        eq(0),
+                        anyDouble(),
+                        any());
+    }
+
+    @Test
+    public void step_boundarySamplingNoBoundary_skipsAttempts() {
+        SimState simstate = mock(SimState.class);
+        simstate.random = new MersenneTwisterFast(1);
+
+        PottsSeries series = makeSeries(6, 4, 1);
+        doReturn(1).when(series.potts).getInt("BOUNDARY_SAMPLING");
+        PottsMock spy = spy(new PottsMock(series));
+
+        spy.step(simstate);
+
+        assertEquals(0, spy.boundary.size);
+        verify(spy, never()).attempt(anyInt(), anyInt(), anyInt(), anyDouble(), any());
+    }
+
+    @Test
+    public void step_boundarySamplingExistingBoundary_refreshesBoundary() {
+        SimState simstate = mock(SimState.class);
+        simstate.random = new MersenneTwisterFast(1);
+
+        PottsSeries series = makeSeries(6, 4, 1);
+        doReturn(1).when(series.potts).getInt("BOUNDARY_SAMPLING");
+        PottsMock spy = spy(new PottsMock(series));
+        PottsBoundary boundary = mock(PottsBoundary.class);
+        spy.boundary = boundary;
+
+        spy.step(simstate);
+
+        verify(boundary).refresh();
+    }
+
+    @Test
+    public void step_tileSampling_attemptsActiveVoxels() {
+        SimState simstate = mock(SimState.class);
+        simstate.random = new MersenneTwisterFast(1);
+
+        PottsSeries series = makeSeries(10, 10, 1);
+        doReturn(4).when(series.potts).getInt("TILE_SAMPLING");
+        PottsMock spy = spy(new PottsMock(series));
+        doNothing().when(spy).attempt(anyInt(), anyInt(), anyInt(), anyDouble(), any());
+        spy.ids.set(1, 1, 0, 1);
+
+        spy.step(simstate);
+
+        assertNotNull(spy.tiles);
+        assertEquals(3, spy.tiles.size);
+        verify(spy, atLeastOnce())
+                .attempt(
+                        intThat(i -> i > 0 && i <= spy.length),
+                        intThat(i -> i > 0 && i <= spy.width),
+                        eq(0),
+                        anyDouble(),
+                        any());
+        verify(spy, never())
+                .attempt(intThat(i -> i > 4), intThat(i -> i > 4), anyInt(), anyDouble(), any());
+    }
+
+    @Test
+    public void step_tileSamplingNoCells_skipsAttempts() {
+        SimState simstate = mock(SimState.class);
+        simstate.random = new MersenneTwisterFast(1);
+
+        PottsSeries series = makeSeries(10, 10, 1);
+        doReturn(4).when(series.potts).getInt("TILE_SAMPLING");
+        PottsMock spy = spy(new PottsMock(series));
+
+        spy.step(simstate);
+
+        assertEquals(0, spy.tiles.size);
+        verify(spy, never()).attempt(anyInt(), anyInt(), anyInt(), anyDouble(), any());
+    }
+
+    @Test
+    public void step_tileSamplingExistingTiles_refreshesTiles() {
+        SimState simstate = mock(SimState.class);
+        simstate.random = new MersenneTwisterFast(1);
+
+        PottsSeries series = makeSeries(10, 10, 1);
+        doReturn(4).when(series.potts).getInt("TILE_SAMPLING");
+        PottsMock spy = spy(new PottsMock(series));
+        PottsTiles tiles = mock(PottsTiles.class);
+        spy.tiles = tiles;
+
+        spy.step(simstate);
+
+        verify(tiles).refresh();
+    }
+
+    @Test
+    public void step_adaptiveRelaxed_endsStepEarly() {
+        SimState simstate = mock(SimState.class);
+        simstate.random = new MersenneTwisterFast(1);
+
+        PottsSeries series = makeSeries(6, 6, 1);
+        doReturn(4).when(series.potts).getInt("ADAPTIVE_SWEEPS");
+        PottsMock spy = spy(new PottsMock(series));
+        doNothing().when(spy).attempt(anyInt(), anyInt(), anyInt(), anyDouble(), any());
+
+        spy.step(simstate);
+
+        assertEquals(4, spy.adaptiveSteps);
+        verify(spy, times(4)).attempt(anyInt(), anyInt(), anyInt(), anyDouble(), any());
+    }
+
+    @Test
+    public void step_adaptiveNotRelaxed_completesStep() {
+        SimState simstate = mock(SimState.class);
+        simstate.random = new MersenneTwisterFast(1);
+
+        PottsSeries series = makeSeries(6, 6, 1);
+        doReturn(4).when(series.potts).getInt("ADAPTIVE_SWEEPS");
+        doReturn(0.5).when(series.potts).getDouble("ADAPTIVE_ACCEPTANCE");
+        PottsMock spy = spy(new PottsMock(series));
+        doAnswer(
+                        invocation -> {
+                            spy.evaluated++;
+                            spy.accepted++;
+                            return null;
+                        })
+                .when(spy)
+                .attempt(anyInt(), anyInt(), anyInt(), anyDouble(), any());
+
+        spy.step(simstate);
+
+        verify(spy, times(spy.steps)).attempt(anyInt(), anyInt(), anyInt(), anyDouble(), any());
+    }
+
+    @Test
+    public void step_adaptiveBoundarySamplingRelaxed_endsStepEarly() {
+        SimState simstate = mock(SimState.class);
+        simstate.random = new MersenneTwisterFast(1);
+
+        PottsSeries series = makeSeries(6, 6, 1);
+        doReturn(1).when(series.potts).getInt("BOUNDARY_SAMPLING");
+        doReturn(4).when(series.potts).getInt("ADAPTIVE_SWEEPS");
+        PottsMock spy = spy(new PottsMock(series));
+        doNothing().when(spy).attempt(anyInt(), anyInt(), anyInt(), anyDouble(), any());
+
+        for (int i = 1; i <= spy.length; i++) {
+            for (int j = 1; j <= spy.width; j++) {
+                spy.ids.set(i, j, 0, 1);
+            }
+        }
+
+        spy.step(simstate);
+
+        verify(spy, times(4)).attempt(anyInt(), anyInt(), anyInt(), anyDouble(), any());
+    }
+
+    @Test
+    public void step_adaptiveTileSamplingRelaxed_endsStepEarly() {
+        SimState simstate = mock(SimState.class);
+        simstate.random = new MersenneTwisterFast(1);
+
+        PottsSeries series = makeSeries(10, 10, 1);
+        doReturn(4).when(series.potts).getInt("TILE_SAMPLING");
+        doReturn(16).when(series.potts).getInt("ADAPTIVE_SWEEPS");
+        PottsMock spy = spy(new PottsMock(series));
+        doNothing().when(spy).attempt(anyInt(), anyInt(), anyInt(), anyDouble(), any());
+
+        for (int i = 1; i <= spy.length; i++) {
+            for (int j = 1; j <= spy.width; j++) {
+                spy.ids.set(i, j, 0, 1);
+            }
+        }
+
+        spy.step(simstate);
+
+        verify(spy, times(4)).attempt(anyInt(), anyInt(), anyInt(), anyDouble(), any());
+    }
+
+    @Test
+    public void isRelaxed_noEvaluatedFlips_returnsTrue() {
+        PottsMock potts = new PottsMock(makeSeries(3, 3, 1));
+        assertTrue(potts.isRelaxed());
+    }
+
+    @Test
+    public void isRelaxed_belowThresholds_returnsTrue() {
+        PottsSeries series = makeSeries(3, 3, 1);
+        doReturn(0.5).when(series.potts).getDouble("ADAPTIVE_ACCEPTANCE");
+        doReturn(10.0).when(series.potts).getDouble("ADAPTIVE_ENERGY");
+        PottsMock potts = new PottsMock(series);
+
+        potts.evaluated = 10;
+        potts.accepted = 4;
+        potts.delta = -9;
+
+        assertTrue(potts.isRelaxed());
+    }
+
+    @Test
+    public void isRelaxed_aboveAcceptanceThreshold_returnsFalse() {
+        PottsSeries series = makeSeries(3, 3, 1);
+        doReturn(0.5).when(series.potts).getDouble("ADAPTIVE_ACCEPTANCE");
+        doReturn(10.0).when(series.potts).getDouble("ADAPTIVE_ENERGY");
+        PottsMock potts = new PottsMock(series);
+
+        potts.evaluated = 10;
+        potts.accepted = 5;
+        potts.delta = 0;
+
+        assertFalse(potts.isRelaxed());
+    }
+
+    @Test
+    public void isRelaxed_aboveEnergyThreshold_returnsFalse() {
+        PottsSeries series = makeSeries(3, 3, 1);
+        doReturn(0.5).when(series.potts).getDouble("ADAPTIVE_ACCEPTANCE");
+        doReturn(10.0).when(series.potts).getDouble("ADAPTIVE_ENERGY");
+        PottsMock potts = new PottsMock(series);
+
+        potts.evaluated = 10;
+        potts.accepted = 1;
+        potts.delta = -10;
+
+        assertFalse(potts.isRelaxed());
+    }
+
+    @Test
+    public void isRelaxed_givenCounts_resetsCounts() {
+        PottsMock potts = new PottsMock(makeSeries(3, 3, 1));
+
+        potts.evaluated = randomIntBetween(1, 10);
+        potts.accepted = randomIntBetween(1, 10);
+        potts.delta = randomDoubleBetween(-10, 10);
+        potts.isRelaxed();
+
+        assertEquals(0, potts.evaluated);
+        assertEquals(0, potts.accepted);
+        assertEquals(0, potts.delta, EPSILON);
+    }
+
+    @Test
+    public void change_accepted_updatesCounts() {
+        PottsMock spy = makeChangeMock(1, 2, new double[] {1, -1, -1}, false);
+        spy.ids.set(0, 0, 0, 1);
+        spy.change(1, 2, 0, 0, 0, 0);
+        assertEquals(1, spy.evaluated);
+        assertEquals(1, spy.accepted);
+        assertEquals(-1, spy.delta, EPSILON);
+    }
+
+    @Test
+    public void change_rejected_updatesCounts() {
+        PottsMock spy = makeChangeMock(1, 2, new double[] {1, -1, -1}, false);
+        spy.ids.set(0, 0, 0, 1);
+        spy.change(1, 2, 0, 0, 0, 1);
+        assertEquals(1, spy.evaluated);
+        assertEquals(0, spy.accepted);
+        assertEquals(0, spy.delta, EPSILON);
+    }
+
+    @Test
+    public void change_acceptedRegions_updatesCounts() {
+        PottsMock spy = makeChangeMock(0, 1, new double[] {1, -1, -1});
+        spy.change(1, 0, 1, 0, 0, 0, 0);
+        assertEquals(1, spy.evaluated);
+        assertEquals(1, spy.accepted);
+        assertEquals(-1, spy.delta, EPSILON);
+    }
+
+    @Test
+    public void change_withBoundary_updatesBoundary() {
+        PottsMock spy = makeChangeMock(1, 2, new double[] {1, -1, -1});
+        PottsBoundary boundary = mock(PottsBoundary.class);
+        spy.boundary = boundary;
+        spy.change(1, 2, 1, 1, 0, 0);
+        verify(boundary).change(spy.ids.index(1, 1, 0));
+    }
+
+    @Test
+    public void change_withTiles_updatesTiles() {
+        PottsMock spy = makeChangeMock(1, 2, new double[] {1, -1, -1});
+        PottsTiles tiles = mock(PottsTiles.class);
+        spy.tiles = tiles;
+        spy.change(1, 2, 1, 1, 0, 0);
+        verify(tiles).change(1, 2, 1, 1, 0);
+    }
+
+    @Test
+    public void change_withEnergyAccepted_tracksEnergy() {
+        PottsMock spy = makeChangeMock(1, 2, new double[] {1, -1, -1}, false);
+        spy.energies = new double[] {1, 2, 3};
+        spy.ids.set(0, 0, 0, 1);
+        spy.change(1, 2, 0, 0, 0, 0);
+        assertArrayEquals(new double[] {2, 1, 2}, spy.energies, EPSILON);
+    }
+
+    @Test
+    public void change_withEnergyRejected_doesNotTrackEnergy() {
+        PottsMock spy = makeChangeMock(1, 2, new double[] {1, -1, -1}, false);
+        spy.energies = new double[] {1, 2, 3};
+        spy.ids.set(0, 0, 0, 1);
+        spy.change(1, 2, 0, 0, 0, 1);
+        assertArrayEquals(new double[] {1, 2, 3}, spy.energies, EPSILON);
+    }
+
+    @Test
+    public void change_withEnergyRegions_tracksEnergy() {
+        PottsMock spy = makeChangeMock(0, 1, new double[] {1, -1, -1});
+        spy.energies = new double[] {1, 2, 3};
+        spy.change(1, 0, 1, 0, 0, 0, 0);
+        assertArrayEquals(new double[] {2, 1, 2}, spy.energies, EPSILON);
+    }
+
+    @Test
+    public void step_energyCheckFirstStep_calculatesEnergy() {
+        SimState simstate = mock(SimState.class);
+        simstate.random = new MersenneTwisterFast(1);
+
+        PottsSeries series = makeSeries(4, 4, 1);
+        doReturn(2).when(series.potts).getInt("ENERGY_CHECK");
+        PottsMock spy = spy(new PottsMock(series));
+        doNothing().when(spy).attempt(anyInt(), anyInt(), anyInt(), anyDouble(), any());
+
+        double energy = randomDoubleBetween(0, 100);
+        Hamiltonian hamiltonian1 = mock(Hamiltonian.class);
+        doReturn(energy).when(hamiltonian1).getEnergy();
+        Hamiltonian hamiltonian2 = mock(Hamiltonian.class);
+        doReturn(Double.NaN).when(hamiltonian2).getEnergy();
+        spy.hamiltonian.add(hamiltonian1);
+        spy.hamiltonian.add(hamiltonian2);
+
+        spy.step(simstate);
+
+        assertArrayEquals(new double[] {energy, 0}, spy.getEnergies(), EPSILON);
+        assertArrayEquals(new double[] {0, 0}, spy.getDrifts(), EPSILON);
+        assertEquals(energy, spy.getEnergy(), EPSILON);
+        verify(hamiltonian1, times(2)).getEnergy();
+    }
+
+    @Test
+    public void step_energyCheckWithFlips_calculatesDrift() {
+        SimState simstate = mock(SimState.class);
+        simstate.random = new MersenneTwisterFast(1);
+
+        PottsSeries series = makeSeries(4, 4, 1);
+        doReturn(2).when(series.potts).getInt("ENERGY_CHECK");
+        PottsMock spy = spy(new PottsMock(series));
+
+        double energy = randomDoubleBetween(0, 100);
+        double change = randomDoubleBetween(1, 10);
+        double drift = randomDoubleBetween(1, 10);
+        Hamiltonian hamiltonian1 = mock(Hamiltonian.class);
+        doReturn(energy, energy + change).when(hamiltonian1).getEnergy();
+        Hamiltonian hamiltonian2 = mock(Hamiltonian.class);
+        doReturn(Double.NaN).when(hamiltonian2).getEnergy();
+        spy.hamiltonian.add(hamiltonian1);
+        spy.hamiltonian.add(hamiltonian2);
+
+        doAnswer(
+                        invocation -> {
+                            spy.energies[0] += change + drift;
+                            spy.energies[1] += change;
+                            return null;
+                        })
+                .when(spy)
+                .stepUniform(any());
+
+        spy.step(simstate);
+
+        assertArrayEquals(new double[] {energy + change, change}, spy.getEnergies(), EPSILON);
+        assertArrayEquals(new double[] {drift, 0}, spy.getDrifts(), EPSILON);
+    }
+
+    @Test
+    public void step_energyCheckInterval_excludesChangesBetweenSteps() {
+        SimState simstate = mock(SimState.class);
+        simstate.random = new MersenneTwisterFast(1);
+
+        PottsSeries series = makeSeries(4, 4, 1);
+        doReturn(2).when(series.potts).getInt("ENERGY_CHECK");
+        PottsMock spy = spy(new PottsMock(series));
+        doNothing().when(spy).attempt(anyInt(), anyInt(), anyInt(), anyDouble(), any());
+
+        double energy = randomDoubleBetween(0, 100);
+        double drift = randomDoubleBetween(1, 10);
+        Hamiltonian hamiltonian1 = mock(Hamiltonian.class);
+        doReturn(energy).when(hamiltonian1).getEnergy();
+        Hamiltonian hamiltonian2 = mock(Hamiltonian.class);
+        doReturn(Double.NaN).when(hamiltonian2).getEnergy();
+        spy.hamiltonian.add(hamiltonian1);
+        spy.hamiltonian.add(hamiltonian2);
+
+        spy.step(simstate);
+        spy.energies[0] += drift;
+        spy.energies[1] += drift;
+
+        spy.step(simstate);
+        assertArrayEquals(new double[] {energy + drift, drift}, spy.getEnergies(), EPSILON);
+        verify(hamiltonian1, times(2)).getEnergy();
+
+        spy.step(simstate);
+        assertArrayEquals(new double[] {energy, drift}, spy.getEnergies(), EPSILON);
+        assertArrayEquals(new double[] {0, 0}, spy.getDrifts(), EPSILON);
+        verify(hamiltonian1, times(4)).getEnergy();
+    }
+
+    @Test
+    public void step_energyCheckWithListener_notifiesListener() {
+        SimState simstate = mock(SimState.class);
+        simstate.random = new MersenneTwisterFast(1);
+
+        PottsSeries series = makeSeries(4, 4, 1);
+        doReturn(2).when(series.potts).getInt("ENERGY_CHECK");
+        PottsMock spy = spy(new PottsMock(series));
+        doNothing().when(spy).attempt(anyInt(), anyInt(), anyInt(), anyDouble(), any());
+
+        double energy = randomDoubleBetween(0, 100);
+        Hamiltonian hamiltonian = mock(Hamiltonian.class);
+        doReturn(energy).when(hamiltonian).getEnergy();
+        spy.hamiltonian.add(hamiltonian);
+
+        ArrayList<double[]> checked = new ArrayList<>();
+        spy.addEnergyListener((potts, energies, drifts) -> checked.add(energies));
+
+        spy.step(simstate);
+        spy.step(simstate);
+        spy.step(simstate);
+
+        assertEquals(2, checked.size());
+        assertArrayEquals(new double[] {energy}, checked.get(0), EPSILON);
+        assertArrayEquals(new double[] {energy}, checked.get(1), EPSILON);
+    }
+
+    @Test
+    public void step_noEnergyCheck_doesNotTrackEnergy() {
+        SimState simstate = mock(SimState.class);
+        simstate.random = new MersenneTwisterFast(1);
+
+        PottsSeries series = makeSeries(4, 4, 1);
+        PottsMock spy = spy(new PottsMock(series));
+        doNothing().when(spy).attempt(anyInt(), anyInt(), anyInt(), anyDouble(), any());
+        Hamiltonian hamiltonian = mock(Hamiltonian.class);
+        spy.hamiltonian.add(hamiltonian);
+
+        spy.step(simstate);
+
+        assertNull(spy.getEnergies());
+        assertNull(spy.getDrifts());
+        assertTrue(Double.isNaN(spy.getEnergy()));
+        verify(hamiltonian, never()).getEnergy();
+    }
+
+    @Test
+    public void change_deferred_defersLocationChanges() {
+        PottsMock spy = makeChangeMock(1, 2, new double[] {1, -1, -1});
+        spy.deferred = new int[Potts.DEFERRED_SIZE];
+        spy.ids.set(0, 0, 0, 1);
+        spy.change(1, 2, 0, 0, 0, 0);
+
+        assertEquals(2, spy.ids.get(0, 0, 0));
+        assertEquals(Potts.DEFERRED_SIZE, spy.numberDeferred);
+        verify(spy, never()).update(anyInt(), anyInt(), anyInt(), anyInt(), anyInt());
+
+        spy.applyDeferred();
+        assertEquals(0, spy.numberDeferred);
+        verify(spy).update(1, 2, 0, 0, 0);
+        verify(((PottsLocation) ((Cell) spy.grid.getObjectAt(2)).getLocation())).add(0, 0, 0);
+        verify(((PottsLocation) ((Cell) spy.grid.getObjectAt(1)).getLocation())).remove(0, 0, 0);
+    }
+
+    @Test
+    public void defer_givenChanges_appliesInOrder() {
+        PottsMock spy = spy(new PottsMock(makeSeries(3, 3, 1)));
+        doNothing().when(spy).update(anyInt(), anyInt(), anyInt(), anyInt(), anyInt());
+        doNothing().when(spy).update(anyInt(), anyInt(), anyInt(), anyInt(), anyInt(), anyInt());
+        spy.deferred = new int[Potts.DEFERRED_SIZE];
+
+        int n = randomIntBetween(3, 10);
+        for (int i = 0; i < n; i++) {
+            spy.defer(i % 2 == 0 ? 0 : i, i, i + 1, 0, 0, 0);
+        }
+        assertEquals(n * Potts.DEFERRED_SIZE, spy.numberDeferred);
+
+        spy.applyDeferred();
+
+        InOrder inOrder = inOrder(spy);
+        for (int i = 0; i < n; i++) {
+            if (i % 2 == 0) {
+                inOrder.verify(spy).update(i, i + 1, 0, 0, 0);
+            } else {
+                inOrder.verify(spy).update(i, i, i + 1, 0, 0, 0);
+            }
+        }
+        assertEquals(0, spy.numberDeferred);
+    }
+
+    @Test
+    public void accept_negativeEnergy_returnsTrue() {
+        PottsMock potts = makeChangeMock(1, 2, new double[0]);
+        assertTrue(potts.accept(-randomDoubleBetween(0, 100), randomDoubleBetween(0, 1)));
+        assertFalse(potts.accept(-randomDoubleBetween(0, 100), 1));
+    }
+
+    @Test
+    public void accept_largeEnergy_returnsFalse() {
+        PottsMock potts = makeChangeMock(1, 2, new double[0]);
+        double dH = TEMPERATURE * (Potts.ACCEPTANCE_RANGE + randomDoubleBetween(1, 10));
+        assertFalse(potts.accept(dH, randomDoubleBetween(EPSILON, 1)));
+        assertTrue(potts.accept(dH, 0));
+    }
+
+    @Test
+    public void accept_givenEnergy_matchesProbability() {
+        PottsMock potts = makeChangeMock(1, 2, new double[0]);
+
+        for (int i = 0; i < 1000; i++) {
+            double dH = randomDoubleBetween(0, TEMPERATURE * Potts.ACCEPTANCE_RANGE);
+            double p = Math.exp(-dH / TEMPERATURE);
+            double r = randomDoubleBetween(0, 1);
+            assertEquals(r < p, potts.accept(dH, r));
+            assertTrue(potts.accept(dH, p * (1 - EPSILON)));
+            assertFalse(potts.accept(dH, p));
+        }
+    }
+
+    @Test
+    public void accept_tabulatedEnergy_matchesProbability() {
+        PottsMock potts = makeChangeMock(1, 2, new double[0]);
+        int k = randomIntBetween(0, Potts.ACCEPTANCE.length - 1);
+        double dH = TEMPERATURE * k / Potts.ACCEPTANCE_RESOLUTION;
+        double p = Math.exp(-dH / TEMPERATURE);
+
+        assertEquals(p, Potts.ACCEPTANCE[k], EPSILON);
+        assertTrue(potts.accept(dH, Math.nextDown(p)));
+        assertFalse(potts.accept(dH, p));
     }
 
     @Test
@@ -693,33 +1545,33 @@ public class PottsTest {
     @Test
     public void change_negativeEnergyZeroSourceNonzeroTargetRegions_updatesFields() {
         PottsMock spy = makeChangeMock(0, 1, new double[] {1, -1, -1}, true);
-        spy.ids[0][0][0] = 0;
-        spy.regions[0][0][0] = Region.UNDEFINED.ordinal();
+        spy.ids.set(0, 0, 0, 0);
+        spy.regions.set(0, 0, 0, Region.UNDEFINED.ordinal());
         spy.change(0, 1, 0, 0, 0, 0);
-        assertEquals(1, spy.ids[0][0][0]);
-        assertEquals(Region.DEFAULT.ordinal(), spy.regions[0][0][0]);
+        assertEquals(1, spy.ids.get(0, 0, 0));
+        assertEquals(Region.DEFAULT.ordinal(), spy.regions.get(0, 0, 0));
         verify(((PottsLocation) ((Cell) spy.grid.getObjectAt(1)).getLocation())).add(0, 0, 0);
     }
 
     @Test
     public void change_negativeEnergyNonzeroSourceZeroTargetRegions_updatesFields() {
         PottsMock spy = makeChangeMock(1, 0, new double[] {1, -1, -1}, true);
-        spy.ids[0][0][0] = 1;
-        spy.regions[0][0][0] = Region.DEFAULT.ordinal();
+        spy.ids.set(0, 0, 0, 1);
+        spy.regions.set(0, 0, 0, Region.DEFAULT.ordinal());
         spy.change(1, 0, 0, 0, 0, 0);
-        assertEquals(0, spy.ids[0][0][0]);
-        assertEquals(Region.UNDEFINED.ordinal(), spy.regions[0][0][0]);
+        assertEquals(0, spy.ids.get(0, 0, 0));
+        assertEquals(Region.UNDEFINED.ordinal(), spy.regions.get(0, 0, 0));
         verify(((PottsLocation) ((Cell) spy.grid.getObjectAt(1)).getLocation())).remove(0, 0, 0);
     }
 
     @Test
     public void change_negativeEnergyNonzeroSourceNonzeroTargetRegions_updatesFields() {
         PottsMock spy = makeChangeMock(1, 2, new double[] {1, -1, -1}, true);
-        spy.ids[0][0][0] = 1;
-        spy.regions[0][0][0] = Region.DEFAULT.ordinal();
+        spy.ids.set(0, 0, 0, 1);
+        spy.regions.set(0, 0, 0, Region.DEFAULT.ordinal());
         spy.change(1, 2, 0, 0, 0, 0);
-        assertEquals(2, spy.ids[0][0][0]);
-        assertEquals(Region.DEFAULT.ordinal(), spy.regions[0][0][0]);
+        assertEquals(2, spy.ids.get(0, 0, 0));
+        assertEquals(Region.DEFAULT.ordinal(), spy.regions.get(0, 0, 0));
         verify(((PottsLocation) ((Cell) spy.grid.getObjectAt(2)).getLocation())).add(0, 0, 0);
         verify(((PottsLocation) ((Cell) spy.grid.getObjectAt(1)).getLocation())).remove(0, 0, 0);
     }
@@ -727,18 +1579,18 @@ public class PottsTest {
     @Test
     public void change_positiveEnergyZeroSourceNonzeroTargetRegions_updatesFields() {
         PottsMock spy = makeChangeMock(0, 1, new double[] {-1, 1, 3}, true);
-        spy.ids[0][0][0] = 0;
-        spy.regions[0][0][0] = Region.UNDEFINED.ordinal();
+        spy.ids.set(0, 0, 0, 0);
+        spy.regions.set(0, 0, 0, Region.UNDEFINED.ordinal());
 
         spy.change(0, 1, 0, 0, 0, R_PLUS);
-        assertEquals(0, spy.ids[0][0][0]);
-        assertEquals(Region.UNDEFINED.ordinal(), spy.regions[0][0][0]);
+        assertEquals(0, spy.ids.get(0, 0, 0));
+        assertEquals(Region.UNDEFINED.ordinal(), spy.regions.get(0, 0, 0));
         verify(((PottsLocation) ((Cell) spy.grid.getObjectAt(1)).getLocation()), never())
                 .add(0, 0, 0);
 
         spy.change(0, 1, 0, 0, 0, R_MINUS);
-        assertEquals(1, spy.ids[0][0][0]);
-        assertEquals(Region.DEFAULT.ordinal(), spy.regions[0][0][0]);
+        assertEquals(1, spy.ids.get(0, 0, 0));
+        assertEquals(Region.DEFAULT.ordinal(), spy.regions.get(0, 0, 0));
         Cell cell2 = (Cell) spy.grid.getObjectAt(1);
         verify((PottsLocation) cell2.getLocation()).add(0, 0, 0);
     }
@@ -746,38 +1598,38 @@ public class PottsTest {
     @Test
     public void change_positiveEnergyNonzeroSourceZeroTargetRegions_updatesFields() {
         PottsMock spy = makeChangeMock(1, 0, new double[] {-1, 1, 3}, true);
-        spy.ids[0][0][0] = 1;
-        spy.regions[0][0][0] = Region.DEFAULT.ordinal();
+        spy.ids.set(0, 0, 0, 1);
+        spy.regions.set(0, 0, 0, Region.DEFAULT.ordinal());
 
         spy.change(1, 0, 0, 0, 0, R_PLUS);
-        assertEquals(1, spy.ids[0][0][0]);
-        assertEquals(Region.DEFAULT.ordinal(), spy.regions[0][0][0]);
+        assertEquals(1, spy.ids.get(0, 0, 0));
+        assertEquals(Region.DEFAULT.ordinal(), spy.regions.get(0, 0, 0));
         verify(((PottsLocation) ((Cell) spy.grid.getObjectAt(1)).getLocation()), never())
                 .remove(0, 0, 0);
 
         spy.change(1, 0, 0, 0, 0, R_MINUS);
-        assertEquals(0, spy.ids[0][0][0]);
-        assertEquals(Region.UNDEFINED.ordinal(), spy.regions[0][0][0]);
+        assertEquals(0, spy.ids.get(0, 0, 0));
+        assertEquals(Region.UNDEFINED.ordinal(), spy.regions.get(0, 0, 0));
         verify(((PottsLocation) ((Cell) spy.grid.getObjectAt(1)).getLocation())).remove(0, 0, 0);
     }
 
     @Test
     public void change_positiveEnergyNonzeroSourceNonzeroTargetRegions_updatesFields() {
         PottsMock spy = makeChangeMock(1, 2, new double[] {-1, 1, 3}, true);
-        spy.ids[0][0][0] = 1;
-        spy.regions[0][0][0] = Region.DEFAULT.ordinal();
+        spy.ids.set(0, 0, 0, 1);
+        spy.regions.set(0, 0, 0, Region.DEFAULT.ordinal());
 
         spy.change(1, 2, 0, 0, 0, R_PLUS);
-        assertEquals(1, spy.ids[0][0][0]);
-        assertEquals(Region.DEFAULT.ordinal(), spy.regions[0][0][0]);
+        assertEquals(1, spy.ids.get(0, 0, 0));
+        assertEquals(Region.DEFAULT.ordinal(), spy.regions.get(0, 0, 0));
         verify(((PottsLocation) ((Cell) spy.grid.getObjectAt(1)).getLocation()), never())
                 .remove(0, 0, 0);
         verify(((PottsLocation) ((Cell) spy.grid.getObjectAt(2)).getLocation()), never())
                 .add(0, 0, 0);
 
         spy.change(1, 2, 0, 0, 0, R_MINUS);
-        assertEquals(2, spy.ids[0][0][0]);
-        assertEquals(Region.DEFAULT.ordinal(), spy.regions[0][0][0]);
+        assertEquals(2, spy.ids.get(0, 0, 0));
+        assertEquals(Region.DEFAULT.ordinal(), spy.regions.get(0, 0, 0));
         verify(((PottsLocation) ((Cell) spy.grid.getObjectAt(1)).getLocation())).remove(0, 0, 0);
         verify(((PottsLocation) ((Cell) spy.grid.getObjectAt(2)).getLocation())).add(0, 0, 0);
     }
@@ -785,33 +1637,33 @@ public class PottsTest {
     @Test
     public void change_negativeEnergyZeroSourceNonzeroTargetNoRegions_updatesFields() {
         PottsMock spy = makeChangeMock(0, 1, new double[] {1, -1, -1}, false);
-        spy.ids[0][0][0] = 0;
-        spy.regions[0][0][0] = Region.UNDEFINED.ordinal();
+        spy.ids.set(0, 0, 0, 0);
+        spy.regions.set(0, 0, 0, Region.UNDEFINED.ordinal());
         spy.change(0, 1, 0, 0, 0, 0);
-        assertEquals(1, spy.ids[0][0][0]);
-        assertEquals(Region.UNDEFINED.ordinal(), spy.regions[0][0][0]);
+        assertEquals(1, spy.ids.get(0, 0, 0));
+        assertEquals(Region.UNDEFINED.ordinal(), spy.regions.get(0, 0, 0));
         verify(((PottsLocation) ((Cell) spy.grid.getObjectAt(1)).getLocation())).add(0, 0, 0);
     }
 
     @Test
     public void change_negativeEnergyNonzeroSourceZeroTargetNoRegions_updatesFields() {
         PottsMock spy = makeChangeMock(1, 0, new double[] {1, -1, -1}, false);
-        spy.ids[0][0][0] = 1;
-        spy.regions[0][0][0] = Region.UNDEFINED.ordinal();
+        spy.ids.set(0, 0, 0, 1);
+        spy.regions.set(0, 0, 0, Region.UNDEFINED.ordinal());
         spy.change(1, 0, 0, 0, 0, 0);
-        assertEquals(0, spy.ids[0][0][0]);
-        assertEquals(Region.UNDEFINED.ordinal(), spy.regions[0][0][0]);
+        assertEquals(0, spy.ids.get(0, 0, 0));
+        assertEquals(Region.UNDEFINED.ordinal(), spy.regions.get(0, 0, 0));
         verify(((PottsLocation) ((Cell) spy.grid.getObjectAt(1)).getLocation())).remove(0, 0, 0);
     }
 
     @Test
     public void change_negativeEnergyNonzeroSourceNonzeroTargetNoRegions_updatesFields() {
         PottsMock spy = makeChangeMock(1, 2, new double[] {1, -1, -1}, false);
-        spy.ids[0][0][0] = 1;
-        spy.regions[0][0][0] = Region.UNDEFINED.ordinal();
+        spy.ids.set(0, 0, 0, 1);
+        spy.regions.set(0, 0, 0, Region.UNDEFINED.ordinal());
         spy.change(1, 2, 0, 0, 0, 0);
-        assertEquals(2, spy.ids[0][0][0]);
-        assertEquals(Region.UNDEFINED.ordinal(), spy.regions[0][0][0]);
+        assertEquals(2, spy.ids.get(0, 0, 0));
+        assertEquals(Region.UNDEFINED.ordinal(), spy.regions.get(0, 0, 0));
         verify(((PottsLocation) ((Cell) spy.grid.getObjectAt(2)).getLocation())).add(0, 0, 0);
         verify(((PottsLocation) ((Cell) spy.grid.getObjectAt(1)).getLocation())).remove(0, 0, 0);
     }
@@ -819,56 +1671,56 @@ public class PottsTest {
     @Test
     public void change_positiveEnergyZeroSourceNonzeroTargetNoRegions_updatesFields() {
         PottsMock spy = makeChangeMock(0, 1, new double[] {-1, 1, 3}, false);
-        spy.ids[0][0][0] = 0;
-        spy.regions[0][0][0] = Region.UNDEFINED.ordinal();
+        spy.ids.set(0, 0, 0, 0);
+        spy.regions.set(0, 0, 0, Region.UNDEFINED.ordinal());
 
         spy.change(0, 1, 0, 0, 0, R_PLUS);
-        assertEquals(0, spy.ids[0][0][0]);
-        assertEquals(Region.UNDEFINED.ordinal(), spy.regions[0][0][0]);
+        assertEquals(0, spy.ids.get(0, 0, 0));
+        assertEquals(Region.UNDEFINED.ordinal(), spy.regions.get(0, 0, 0));
         verify(((PottsLocation) ((Cell) spy.grid.getObjectAt(1)).getLocation()), never())
                 .add(0, 0, 0);
 
         spy.change(0, 1, 0, 0, 0, R_MINUS);
-        assertEquals(1, spy.ids[0][0][0]);
-        assertEquals(Region.UNDEFINED.ordinal(), spy.regions[0][0][0]);
+        assertEquals(1, spy.ids.get(0, 0, 0));
+        assertEquals(Region.UNDEFINED.ordinal(), spy.regions.get(0, 0, 0));
         verify(((PottsLocation) ((Cell) spy.grid.getObjectAt(1)).getLocation())).add(0, 0, 0);
     }
 
     @Test
     public void change_positiveEnergyNonzeroSourceZeroTargetNoRegions_updatesFields() {
         PottsMock spy = makeChangeMock(1, 0, new double[] {-1, 1, 3}, false);
-        spy.ids[0][0][0] = 1;
-        spy.regions[0][0][0] = Region.UNDEFINED.ordinal();
+        spy.ids.set(0, 0, 0, 1);
+        spy.regions.set(0, 0, 0, Region.UNDEFINED.ordinal());
 
         spy.change(1, 0, 0, 0, 0, R_PLUS);
-        assertEquals(1, spy.ids[0][0][0]);
-        assertEquals(Region.UNDEFINED.ordinal(), spy.regions[0][0][0]);
+        assertEquals(1, spy.ids.get(0, 0, 0));
+        assertEquals(Region.UNDEFINED.ordinal(), spy.regions.get(0, 0, 0));
         verify(((PottsLocation) ((Cell) spy.grid.getObjectAt(1)).getLocation()), never())
                 .remove(0, 0, 0);
 
         spy.change(1, 0, 0, 0, 0, R_MINUS);
-        assertEquals(0, spy.ids[0][0][0]);
-        assertEquals(Region.UNDEFINED.ordinal(), spy.regions[0][0][0]);
+        assertEquals(0, spy.ids.get(0, 0, 0));
+        assertEquals(Region.UNDEFINED.ordinal(), spy.regions.get(0, 0, 0));
         verify(((PottsLocation) ((Cell) spy.grid.getObjectAt(1)).getLocation())).remove(0, 0, 0);
     }
 
     @Test
     public void change_positiveEnergyNonzeroSourceNonzeroTargetNoRegions_updatesFields() {
         PottsMock spy = makeChangeMock(1, 2, new double[] {-1, 1, 3}, false);
-        spy.ids[0][0][0] = 1;
-        spy.regions[0][0][0] = Region.UNDEFINED.ordinal();
+        spy.ids.set(0, 0, 0, 1);
+        spy.regions.set(0, 0, 0, Region.UNDEFINED.ordinal());
 
         spy.change(1, 2, 0, 0, 0, R_PLUS);
-        assertEquals(1, spy.ids[0][0][0]);
-        assertEquals(Region.UNDEFINED.ordinal(), spy.regions[0][0][0]);
+        assertEquals(1, spy.ids.get(0, 0, 0));
+        assertEquals(Region.UNDEFINED.ordinal(), spy.regions.get(0, 0, 0));
         verify(((PottsLocation) ((Cell) spy.grid.getObjectAt(1)).getLocation()), never())
                 .remove(0, 0, 0);
         verify(((PottsLocation) ((Cell) spy.grid.getObjectAt(2)).getLocation()), never())
                 .add(0, 0, 0);
 
         spy.change(1, 2, 0, 0, 0, R_MINUS);
-        assertEquals(2, spy.ids[0][0][0]);
-        assertEquals(Region.UNDEFINED.ordinal(), spy.regions[0][0][0]);
+        assertEquals(2, spy.ids.get(0, 0, 0));
+        assertEquals(Region.UNDEFINED.ordinal(), spy.regions.get(0, 0, 0));
         verify(((PottsLocation) ((Cell) spy.grid.getObjectAt(1)).getLocation())).remove(0, 0, 0);
         verify(((PottsLocation) ((Cell) spy.grid.getObjectAt(2)).getLocation())).add(0, 0, 0);
     }
@@ -910,33 +1762,33 @@ public class PottsTest {
     @Test
     public void flip_connectedSourceRegionZeroFalse_returns() {
         PottsMock spy = makeFlipMock();
-        spy.regions[0][0][0] = Region.UNDEFINED.ordinal();
+        spy.regions.set(0, 0, 0, Region.UNDEFINED.ordinal());
         spy.flip(1, Region.NUCLEUS.ordinal(), Region.UNDEFINED.ordinal(), 0, 0, 0, R);
-        verify(spy).getConnectivity(any(), eq(false));
+        verify(spy).getConnectivity(anyInt(), eq(false));
     }
 
     @Test
     public void flip_connectedSourceRegionZeroTrue_completes() {
         PottsMock spy = makeFlipMock();
-        spy.regions[0][0][0] = Region.DEFAULT.ordinal();
+        spy.regions.set(0, 0, 0, Region.DEFAULT.ordinal());
         spy.flip(1, Region.NUCLEUS.ordinal(), Region.UNDEFINED.ordinal(), 0, 0, 0, R);
-        verify(spy).getConnectivity(any(), eq(true));
+        verify(spy).getConnectivity(anyInt(), eq(true));
     }
 
     @Test
     public void flip_connectedTargetRegionZeroFalse_returns() {
         PottsMock spy = makeFlipMock();
-        spy.regions[0][0][0] = Region.UNDEFINED.ordinal();
+        spy.regions.set(0, 0, 0, Region.UNDEFINED.ordinal());
         spy.flip(1, Region.NUCLEUS.ordinal(), Region.UNDEFINED.ordinal(), 0, 0, 0, R);
-        verify(spy).getConnectivity(any(), eq(false));
+        verify(spy).getConnectivity(anyInt(), eq(false));
     }
 
     @Test
     public void flip_connectedTargetRegionZeroTrue_completes() {
         PottsMock spy = makeFlipMock();
-        spy.regions[0][0][0] = Region.DEFAULT.ordinal();
+        spy.regions.set(0, 0, 0, Region.DEFAULT.ordinal());
         spy.flip(1, Region.NUCLEUS.ordinal(), Region.UNDEFINED.ordinal(), 0, 0, 0, R);
-        verify(spy).getConnectivity(any(), eq(true));
+        verify(spy).getConnectivity(anyInt(), eq(true));
     }
 
     @Test
@@ -957,12 +1809,12 @@ public class PottsTest {
                         Region.DEFAULT.ordinal(),
                         Region.NUCLEUS.ordinal(),
                         new double[] {1, -1, -1});
-        spy.ids[0][0][0] = 1;
-        spy.regions[0][0][0] = Region.DEFAULT.ordinal();
+        spy.ids.set(0, 0, 0, 1);
+        spy.regions.set(0, 0, 0, Region.DEFAULT.ordinal());
         Grid grid = spy.grid;
 
         spy.change(1, Region.DEFAULT.ordinal(), Region.NUCLEUS.ordinal(), 0, 0, 0, 0);
-        assertEquals(Region.NUCLEUS.ordinal(), spy.regions[0][0][0]);
+        assertEquals(Region.NUCLEUS.ordinal(), spy.regions.get(0, 0, 0));
         verify(((PottsLocation) ((Cell) grid.getObjectAt(1)).getLocation()))
                 .remove(Region.DEFAULT, 0, 0, 0);
         verify(((PottsLocation) ((Cell) grid.getObjectAt(1)).getLocation()))
@@ -976,19 +1828,19 @@ public class PottsTest {
                         Region.DEFAULT.ordinal(),
                         Region.NUCLEUS.ordinal(),
                         new double[] {-1, 1, 3});
-        spy.ids[0][0][0] = 1;
-        spy.regions[0][0][0] = Region.DEFAULT.ordinal();
+        spy.ids.set(0, 0, 0, 1);
+        spy.regions.set(0, 0, 0, Region.DEFAULT.ordinal());
         Grid grid = spy.grid;
 
         spy.change(1, Region.DEFAULT.ordinal(), Region.NUCLEUS.ordinal(), 0, 0, 0, R_PLUS);
-        assertEquals(Region.DEFAULT.ordinal(), spy.regions[0][0][0]);
+        assertEquals(Region.DEFAULT.ordinal(), spy.regions.get(0, 0, 0));
         verify(((PottsLocation) ((Cell) grid.getObjectAt(1)).getLocation()), never())
                 .remove(Region.DEFAULT, 0, 0, 0);
         verify(((PottsLocation) ((Cell) grid.getObjectAt(1)).getLocation()), never())
                 .add(Region.NUCLEUS, 0, 0, 0);
 
         spy.change(1, Region.DEFAULT.ordinal(), Region.NUCLEUS.ordinal(), 0, 0, 0, R_MINUS);
-        assertEquals(Region.NUCLEUS.ordinal(), spy.regions[0][0][0]);
+        assertEquals(Region.NUCLEUS.ordinal(), spy.regions.get(0, 0, 0));
         verify(((PottsLocation) ((Cell) grid.getObjectAt(1)).getLocation()))
                 .remove(Region.DEFAULT, 0, 0, 0);
         verify(((PottsLocation) ((Cell) grid.getObjectAt(1)).getLocation()))
@@ -1028,4 +1880,42 @@ public class PottsTest {
         assertNull(potts.getCell(0));
         assertNull(potts.getCell(-1));
     }
+
+    @Test
+    public void addUnique_duplicateValue_skipsValue() {
+        int[] buffer = new int[3];
+        int n = 0;
+
+        n = Potts.addUnique(buffer, n, 5);
+        n = Potts.addUnique(buffer, n, 5);
+        n = Potts.addUnique(buffer, n, 3);
+        n = Potts.addUnique(buffer, n, 5);
+
+        assertEquals(2, n);
+        assertEquals(3, buffer[0]);
+        assertEquals(5, buffer[1]);
+    }
+
+    @Test
+    public void addUnique_givenValues_matchesHashSetOrder() {
+        int n = 6;
+        int[] buffer = new int[n];
+
+        for (int k = 0; k < 100; k++) {
+            HashSet<Integer> set = new HashSet<>();
+            int count = 0;
+
+            for (int i = 0; i < n; i++) {
+                int value = randomIntBetween(-10, 100000);
+                set.add(value);
+                count = Potts.addUnique(buffer, count, value);
+            }
+
+            Object[] expected = set.toArray();
+            assertEquals(expected.length, count);
+            for (int i = 0; i < count; i++) {
+                assertEquals(expected[i], buffer[i]);
+            }
+        }
+    }
 }
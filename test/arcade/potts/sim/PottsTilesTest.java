@@ -0,0 +1,206 @@
+package arcade.potts.sim;
+
+import java.util.HashSet;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static arcade.potts.sim.PottsTest.*;
+
+public class PottsTilesTest {
+    private static HashSet<Integer> getMembers(PottsTiles tiles) {
+        HashSet<Integer> members = new HashSet<>();
+        for (int i = 0; i < tiles.size; i++) {
+            members.add(tiles.members[i]);
+        }
+        return members;
+    }
+
+    private static HashSet<Integer> getExpected(Potts potts, PottsTiles tiles) {
+        HashSet<Integer> occupied = new HashSet<>();
+        for (int k = tiles.z0; k < tiles.z0 + potts.height; k++) {
+            for (int i = 1; i <= potts.length; i++) {
+                for (int j = 1; j <= potts.width; j++) {
+                    if (potts.ids.get(i, j, k) != 0) {
+                        occupied.add(tiles.getTile(i, j, k));
+                    }
+                }
+            }
+        }
+
+        HashSet<Integer> expected = new HashSet<>();
+        int[][] moves = {{0, -1, 0}, {1, 0, 0}, {0, 1, 0}, {-1, 0, 0}, {0, 0, 1}, {0, 0, -1}};
+
+        for (int tile : occupied) {
+            expected.add(tile);
+            for (int[] move : moves) {
+                int x = tiles.getX(tile) + move[0] * tiles.side;
+                int y = tiles.getY(tile) + move[1] * tiles.side;
+                int z = tiles.getZ(tile) + move[2] * tiles.sideZ;
+                if (tiles.isInterior(x, y, z)) {
+                    expected.add(tiles.getTile(x, y, z));
+                }
+            }
+        }
+
+        return expected;
+    }
+
+    private static PottsMock makePotts(int length, int width, int height) {
+        return new PottsMock(makeSeries(length + 2, width + 2, height == 1 ? 1 : height + 2));
+    }
+
+    @Test
+    public void constructor_2D_setsTiles() {
+        PottsMock potts = makePotts(7, 5, 1);
+        PottsTiles tiles = new PottsTiles(potts, 3);
+
+        assertEquals(3, tiles.numberX);
+        assertEquals(2, tiles.numberY);
+        assertEquals(1, tiles.numberZ);
+        assertEquals(1, tiles.sideZ);
+        assertEquals(9, tiles.volume);
+        assertEquals(0, tiles.size);
+    }
+
+    @Test
+    public void constructor_3D_setsTiles() {
+        PottsMock potts = makePotts(4, 4, 5);
+        PottsTiles tiles = new PottsTiles(potts, 2);
+
+        assertEquals(2, tiles.numberX);
+        assertEquals(2, tiles.numberY);
+        assertEquals(3, tiles.numberZ);
+        assertEquals(2, tiles.sideZ);
+        assertEquals(8, tiles.volume);
+        assertEquals(0, tiles.size);
+    }
+
+    @Test
+    public void constructor_2D_addsActiveTiles() {
+        PottsMock potts = makePotts(9, 9, 1);
+        potts.ids.set(1, 1, 0, 1);
+        potts.ids.set(3, 4, 0, 2);
+
+        PottsTiles tiles = new PottsTiles(potts, 3);
+        assertEquals(getExpected(potts, tiles), getMembers(tiles));
+        assertEquals(5, tiles.size);
+    }
+
+    @Test
+    public void constructor_3D_addsActiveTiles() {
+        PottsMock potts = makePotts(6, 6, 6);
+        potts.ids.set(2, 2, 2, 1);
+        potts.ids.set(2, 2, 3, 1);
+        potts.ids.set(5, 6, 1, 2);
+
+        PottsTiles tiles = new PottsTiles(potts, 2);
+        assertEquals(getExpected(potts, tiles), getMembers(tiles));
+    }
+
+    @Test
+    public void count_givenTile_countsOccupiedVoxels() {
+        PottsMock potts = makePotts(5, 5, 1);
+        potts.ids.set(4, 4, 0, 1);
+        potts.ids.set(4, 5, 0, 1);
+        potts.ids.set(5, 5, 0, 2);
+        potts.ids.set(1, 1, 0, 1);
+
+        PottsTiles tiles = new PottsTiles(potts, 3);
+        assertEquals(3, tiles.count(tiles.getTile(4, 4, 0)));
+        assertEquals(3, tiles.occupied[tiles.getTile(4, 4, 0)]);
+        assertEquals(1, tiles.occupied[tiles.getTile(1, 1, 0)]);
+    }
+
+    @Test
+    public void getTile_givenCorner_returnsTile() {
+        PottsMock potts = makePotts(7, 8, 9);
+        PottsTiles tiles = new PottsTiles(potts, 3);
+
+        for (int tile = 0; tile < tiles.occupied.length; tile++) {
+            int x = tiles.getX(tile);
+            int y = tiles.getY(tile);
+            int z = tiles.getZ(tile);
+            assertTrue(tiles.isInterior(x, y, z));
+            assertEquals(tile, tiles.getTile(x, y, z));
+        }
+    }
+
+    @Test
+    public void isInterior_givenBorder_returnsFalse() {
+        PottsMock potts = makePotts(3, 3, 3);
+        PottsTiles tiles = new PottsTiles(potts, 2);
+
+        assertFalse(tiles.isInterior(0, 1, 1));
+        assertFalse(tiles.isInterior(1, 4, 1));
+        assertFalse(tiles.isInterior(1, 1, 0));
+        assertFalse(tiles.isInterior(1, 1, 4));
+        assertTrue(tiles.isInterior(3, 3, 3));
+    }
+
+    @Test
+    public void change_givenFlip_updatesSet() {
+        PottsMock potts = makePotts(9, 9, 1);
+        potts.ids.set(2, 2, 0, 1);
+        PottsTiles tiles = new PottsTiles(potts, 3);
+
+        potts.ids.values[potts.ids.index(4, 2, 0)] = 1;
+        tiles.change(0, 1, 4, 2, 0);
+        assertEquals(getExpected(potts, tiles), getMembers(tiles));
+
+        potts.ids.values[potts.ids.index(2, 2, 0)] = 0;
+        tiles.change(1, 0, 2, 2, 0);
+        assertEquals(getExpected(potts, tiles), getMembers(tiles));
+        assertEquals(0, tiles.occupied[tiles.getTile(2, 2, 0)]);
+
+        potts.ids.values[potts.ids.index(4, 2, 0)] = 0;
+        tiles.change(1, 0, 4, 2, 0);
+        assertEquals(0, tiles.size);
+    }
+
+    @Test
+    public void change_betweenCells_doesNothing() {
+        PottsMock potts = makePotts(6, 6, 1);
+        potts.ids.set(2, 2, 0, 1);
+        PottsTiles tiles = new PottsTiles(potts, 3);
+
+        potts.ids.values[potts.ids.index(2, 2, 0)] = 2;
+        tiles.change(1, 2, 2, 2, 0);
+        assertEquals(1, tiles.occupied[tiles.getTile(2, 2, 0)]);
+        assertEquals(getExpected(potts, tiles), getMembers(tiles));
+    }
+
+    @Test
+    public void refresh_givenChanges_updatesSet() {
+        PottsMock potts = makePotts(9, 9, 9);
+        potts.ids.set(2, 2, 2, 1);
+        PottsTiles tiles = new PottsTiles(potts, 3);
+
+        potts.ids.set(2, 2, 2, 0);
+        potts.ids.set(8, 8, 8, 2);
+        potts.ids.set(8, 9, 8, 2);
+        tiles.refresh();
+
+        assertEquals(getExpected(potts, tiles), getMembers(tiles));
+        assertEquals(2, tiles.occupied[tiles.getTile(8, 8, 8)]);
+        assertEquals(0, potts.ids.getNumberChanges());
+    }
+
+    @Test
+    public void refresh_givenOverflow_reinitializesSet() {
+        PottsMock potts = makePotts(3, 3, 1);
+        PottsTiles tiles = new PottsTiles(potts, 2);
+
+        for (int n = 0; n < 4; n++) {
+            for (int i = 1; i <= 3; i++) {
+                for (int j = 1; j <= 3; j++) {
+                    potts.ids.set(i, j, 0, (i + j + n) % 3);
+                }
+            }
+        }
+
+        assertEquals(-1, potts.ids.getNumberChanges());
+        tiles.refresh();
+
+        assertEquals(getExpected(potts, tiles), getMembers(tiles));
+        assertEquals(0, potts.ids.getNumberChanges());
+    }
+}
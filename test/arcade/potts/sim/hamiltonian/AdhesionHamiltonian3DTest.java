@@ -3,10 +3,13 @@ package arcade.potts.sim.hamiltonian;
 import java.lang.reflect.Field;
 import org.junit.jupiter.api.Test;
 import arcade.potts.agent.cell.PottsCell;
+import arcade.potts.env.grid.PottsArray;
 import arcade.potts.sim.Potts;
 import arcade.potts.sim.PottsSeries;
+import arcade.potts.util.Registry;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
+import static arcade.core.ARCADETestUtilities.*;
 import static arcade.potts.sim.hamiltonian.AdhesionHamiltonian3D.NEIGHBORHOOD_SIZE;
 import static arcade.potts.util.PottsEnums.Region;
 
@@ -19,87 +22,90 @@ public class AdhesionHamiltonian3DTest {
 
     static Potts makePottsMock() {
         Potts potts = mock(Potts.class);
+        potts.registry = new Registry();
 
         potts.ids =
-                new int[][][] {
-                    {
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                    },
-                    {
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 1, 0, 3, 0},
-                        {0, 0, 1, 3, 3, 0},
-                        {0, 2, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                    },
-                    {
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 1, 1, 3, 3, 0},
-                        {0, 1, 1, 3, 3, 0},
-                        {0, 2, 2, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                    },
-                    {
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 1, 1, 0, 0, 0},
-                        {0, 1, 2, 0, 3, 0},
-                        {0, 2, 2, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                    },
-                    {
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                    },
-                };
+                new PottsArray(
+                        new int[][][] {
+                            {
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                            },
+                            {
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 1, 0, 3, 0},
+                                {0, 0, 1, 3, 3, 0},
+                                {0, 2, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                            },
+                            {
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 1, 1, 3, 3, 0},
+                                {0, 1, 1, 3, 3, 0},
+                                {0, 2, 2, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                            },
+                            {
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 1, 1, 0, 0, 0},
+                                {0, 1, 2, 0, 3, 0},
+                                {0, 2, 2, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                            },
+                            {
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                            },
+                        });
 
         int d = REGION_DEFAULT;
         int n = REGION_NUCLEUS;
 
         potts.regions =
-                new int[][][] {
-                    {
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                    },
-                    {
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, d, 0, d, 0},
-                        {0, 0, d, d, d, 0},
-                        {0, d, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                    },
-                    {
-                        {0, 0, 0, 0, 0, 0},
-                        {0, d, d, d, 0, 0},
-                        {0, 0, n, n, 0, 0},
-                        {0, d, d, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                    },
-                    {
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, d, 0, 0, 0},
-                        {0, 0, n, 0, d, 0},
-                        {0, d, d, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                    },
-                    {
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                    },
-                };
+                new PottsArray(
+                        new int[][][] {
+                            {
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                            },
+                            {
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, d, 0, d, 0},
+                                {0, 0, d, d, d, 0},
+                                {0, d, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                            },
+                            {
+                                {0, 0, 0, 0, 0, 0},
+                                {0, d, d, d, 0, 0},
+                                {0, 0, n, n, 0, 0},
+                                {0, d, d, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                            },
+                            {
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, d, 0, 0, 0},
+                                {0, 0, n, 0, d, 0},
+                                {0, d, d, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                            },
+                            {
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                            },
+                        });
 
         return potts;
     }
@@ -151,9 +157,9 @@ public class AdhesionHamiltonian3DTest {
         doReturn(adhesions[1][1]).when(config3).getAdhesion(1);
         doReturn(adhesions[1][2]).when(config3).getAdhesion(2);
 
-        ah.configs.put(1, config1);
-        ah.configs.put(2, config2);
-        ah.configs.put(3, config3);
+        ah.add(1, config1);
+        ah.add(2, config2);
+        ah.add(3, config3);
 
         assertEquals(
                 adhesions[1][0] * 11 + adhesions[2][0] * 6,
@@ -208,7 +214,7 @@ public class AdhesionHamiltonian3DTest {
                 .when(config)
                 .getAdhesion(any(Region.class), any(Region.class));
 
-        ah.configs.put(1, config);
+        ah.add(1, config);
 
         assertEquals(
                 subadhesion / NEIGHBORHOOD_SIZE,
@@ -216,4 +222,64 @@ public class AdhesionHamiltonian3DTest {
                 EPSILON);
         assertEquals(0, ah.getAdhesion(1, REGION_NUCLEUS, 1, 2, 2), EPSILON);
     }
+
+    @Test
+    public void getDelta_givenNeighborhood_matchesCoordinates() {
+        Potts potts = makePottsMock();
+        AdhesionHamiltonian3D ah = new AdhesionHamiltonian3D(mock(PottsSeries.class), potts);
+
+        for (int id = 1; id <= 3; id++) {
+            PottsCell cell = mock(PottsCell.class);
+            doReturn(id % 2 + 1).when(cell).getPop();
+
+            AdhesionHamiltonianConfig config = mock(AdhesionHamiltonianConfig.class);
+            try {
+                Field cellField = AdhesionHamiltonianConfig.class.getDeclaredField("cell");
+                cellField.setAccessible(true);
+                cellField.set(config, cell);
+            } catch (Exception ignored) {
+            }
+
+            for (int pop = 0; pop <= 2; pop++) {
+                doReturn(randomDoubleBetween(0, 10)).when(config).getAdhesion(pop);
+            }
+
+            double scale = randomDoubleBetween(0, 10);
+            doAnswer(
+                            invocation -> {
+                                int a = ((Region) invocation.getArgument(0)).ordinal();
+                                int b = ((Region) invocation.getArgument(1)).ordinal();
+                                return scale * (a * 3 + b);
+                            })
+                    .when(config)
+                    .getAdhesion(any(Region.class), any(Region.class));
+
+            ah.add(id, config);
+        }
+
+        Neighborhood neighborhood = new Neighborhood(potts.ids, potts.regions);
+        neighborhood.locate(2, 2, 2);
+        neighborhood.gatherIDs();
+        neighborhood.gatherRegions();
+
+        for (int source = 0; source <= 3; source++) {
+            for (int target = 0; target <= 3; target++) {
+                if (source != target) {
+                    assertEquals(
+                            ah.getDelta(source, target, 2, 2, 2),
+                            ah.getDelta(neighborhood, source, target),
+                            EPSILON);
+                }
+            }
+        }
+
+        assertEquals(
+                ah.getDelta(1, REGION_DEFAULT, REGION_NUCLEUS, 2, 2, 2),
+                ah.getDelta(neighborhood, 1, REGION_DEFAULT, REGION_NUCLEUS),
+                EPSILON);
+        assertEquals(
+                ah.getDelta(1, REGION_NUCLEUS, REGION_DEFAULT, 2, 2, 2),
+                ah.getDelta(neighborhood, 1, REGION_NUCLEUS, REGION_DEFAULT),
+                EPSILON);
+    }
 }
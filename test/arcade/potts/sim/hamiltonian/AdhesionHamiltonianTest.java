@@ -5,8 +5,10 @@ import java.util.HashMap;
 import org.junit.jupiter.api.Test;
 import arcade.core.util.MiniBox;
 import arcade.potts.agent.cell.PottsCell;
+import arcade.potts.env.grid.PottsArray;
 import arcade.potts.sim.Potts;
 import arcade.potts.sim.PottsSeries;
+import arcade.potts.util.Registry;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static arcade.core.ARCADETestUtilities.*;
@@ -41,10 +43,16 @@ public class AdhesionHamiltonianTest {
         }
     }
 
+    static Potts makePottsMock() {
+        Potts potts = mock(Potts.class);
+        potts.registry = new Registry();
+        return potts;
+    }
+
     @Test
     public void constructor_called_initializesMaps() {
         AdhesionHamiltonianMock ahm =
-                new AdhesionHamiltonianMock(mock(PottsSeries.class), mock(Potts.class));
+                new AdhesionHamiltonianMock(mock(PottsSeries.class), makePottsMock());
         assertNotNull(ahm.configs);
         assertNotNull(ahm.popToAdhesion);
         assertNotNull(ahm.popToAdhesionRegion);
@@ -52,9 +60,9 @@ public class AdhesionHamiltonianTest {
 
     @Test
     public void constructor_called_setsArrays() {
-        Potts potts = mock(Potts.class);
-        int[][][] ids = new int[0][0][0];
-        int[][][] regions = new int[0][0][0];
+        Potts potts = makePottsMock();
+        PottsArray ids = new PottsArray(0, 0, 0);
+        PottsArray regions = new PottsArray(0, 0, 0);
         potts.ids = ids;
         potts.regions = regions;
 
@@ -67,7 +75,7 @@ public class AdhesionHamiltonianTest {
     @Test
     public void constructor_called_setsConfig() {
         AdhesionHamiltonianMock ahm =
-                new AdhesionHamiltonianMock(mock(PottsSeries.class), mock(Potts.class));
+                new AdhesionHamiltonianMock(mock(PottsSeries.class), makePottsMock());
         assertEquals(1, ahm.configs.size());
         assertNull(ahm.configs.get(0));
     }
@@ -166,7 +174,7 @@ public class AdhesionHamiltonianTest {
                         + Region.NUCLEUS.name(),
                 adhesionNucleus[1]);
 
-        AdhesionHamiltonianMock ahm = new AdhesionHamiltonianMock(series, mock(Potts.class));
+        AdhesionHamiltonianMock ahm = new AdhesionHamiltonianMock(series, makePottsMock());
 
         assertEquals(2, ahm.popToAdhesion.size());
         assertTrue(ahm.popToAdhesion.containsKey(1));
@@ -199,18 +207,20 @@ public class AdhesionHamiltonianTest {
     @Test
     public void register_noRegions_addsConfig() {
         AdhesionHamiltonianMock ahm =
-                new AdhesionHamiltonianMock(mock(PottsSeries.class), mock(Potts.class));
+                new AdhesionHamiltonianMock(mock(PottsSeries.class), makePottsMock());
         PottsCell cell = mock(PottsCell.class);
 
         int id = randomIntBetween(1, 10);
-        int pop = randomIntBetween(1, 10);
+        int pop = randomIntBetween(1, 3);
 
         doReturn(id).when(cell).getID();
         doReturn(pop).when(cell).getPop();
 
         double[] adhesion =
                 new double[] {
-                    randomDoubleBetween(1, 100), randomDoubleBetween(1, 100),
+                    randomDoubleBetween(1, 100),
+                    randomDoubleBetween(1, 100),
+                    randomDoubleBetween(1, 100),
                 };
         EnumMap<Region, EnumMap<Region, Double>> adhesionRegion = null;
         ahm.popToAdhesion.put(pop, adhesion);
@@ -229,18 +239,20 @@ public class AdhesionHamiltonianTest {
     @Test
     public void register_withRegions_addsConfig() {
         AdhesionHamiltonianMock ahm =
-                new AdhesionHamiltonianMock(mock(PottsSeries.class), mock(Potts.class));
+                new AdhesionHamiltonianMock(mock(PottsSeries.class), makePottsMock());
         PottsCell cell = mock(PottsCell.class);
 
         int id = randomIntBetween(1, 10);
-        int pop = randomIntBetween(1, 10);
+        int pop = randomIntBetween(1, 3);
 
         doReturn(id).when(cell).getID();
         doReturn(pop).when(cell).getPop();
 
         double[] adhesion =
                 new double[] {
-                    randomDoubleBetween(1, 100), randomDoubleBetween(1, 100),
+                    randomDoubleBetween(1, 100),
+                    randomDoubleBetween(1, 100),
+                    randomDoubleBetween(1, 100),
                 };
         EnumMap<Region, Double> adhesionNucleus = new EnumMap<>(Region.class);
         adhesionNucleus.put(Region.NUCLEUS, randomDoubleBetween(1, 100));
@@ -264,10 +276,71 @@ public class AdhesionHamiltonianTest {
                 EPSILON);
     }
 
+    @Test
+    public void register_givenCells_calculatesMatrices() {
+        AdhesionHamiltonianMock ahm =
+                new AdhesionHamiltonianMock(mock(PottsSeries.class), makePottsMock());
+
+        double[][] adhesion = new double[3][3];
+        for (int i = 1; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                adhesion[i][j] = randomDoubleBetween(1, 100);
+            }
+        }
+
+        EnumMap<Region, Double> adhesionNucleus = new EnumMap<>(Region.class);
+        adhesionNucleus.put(Region.NUCLEUS, randomDoubleBetween(1, 100));
+        adhesionNucleus.put(Region.DEFAULT, randomDoubleBetween(1, 100));
+        EnumMap<Region, Double> adhesionDefault = new EnumMap<>(Region.class);
+        adhesionDefault.put(Region.NUCLEUS, randomDoubleBetween(1, 100));
+        adhesionDefault.put(Region.DEFAULT, randomDoubleBetween(1, 100));
+        EnumMap<Region, EnumMap<Region, Double>> adhesionRegion = new EnumMap<>(Region.class);
+        adhesionRegion.put(Region.NUCLEUS, adhesionNucleus);
+        adhesionRegion.put(Region.DEFAULT, adhesionDefault);
+
+        for (int pop = 1; pop < 3; pop++) {
+            ahm.popToAdhesion.put(pop, adhesion[pop]);
+            ahm.popToAdhesionRegion.put(pop, adhesionRegion);
+        }
+
+        int[] pops = new int[] {0, 1, 2, 1};
+        for (int id = 1; id < pops.length; id++) {
+            PottsCell cell = mock(PottsCell.class);
+            doReturn(id).when(cell).getID();
+            doReturn(pops[id]).when(cell).getPop();
+            ahm.register(cell);
+        }
+
+        for (int id = 0; id < pops.length; id++) {
+            assertEquals(pops[id], ahm.getPop(id));
+        }
+
+        assertEquals(adhesion[1][0], ahm.adhesionMatrix[0][1], EPSILON);
+        assertEquals(adhesion[2][0], ahm.adhesionMatrix[2][0], EPSILON);
+        assertEquals(adhesion[1][1], ahm.adhesionMatrix[1][1], EPSILON);
+        assertEquals((adhesion[1][2] + adhesion[2][1]) / 2, ahm.adhesionMatrix[1][2], EPSILON);
+        assertEquals((adhesion[1][2] + adhesion[2][1]) / 2, ahm.adhesionMatrix[2][1], EPSILON);
+
+        int nucleus = Region.NUCLEUS.ordinal();
+        int defaults = Region.DEFAULT.ordinal();
+        double expected =
+                (adhesionNucleus.get(Region.DEFAULT) + adhesionDefault.get(Region.NUCLEUS)) / 2;
+        assertEquals(expected, ahm.adhesionRegionMatrix[1][nucleus][defaults], EPSILON);
+        assertEquals(expected, ahm.adhesionRegionMatrix[2][defaults][nucleus], EPSILON);
+    }
+
+    @Test
+    public void getPop_unregisteredID_returnsZero() {
+        AdhesionHamiltonianMock ahm =
+                new AdhesionHamiltonianMock(mock(PottsSeries.class), makePottsMock());
+        assertEquals(0, ahm.getPop(randomIntBetween(1, 10)));
+        assertEquals(0, ahm.getPop(randomIntBetween(1000, 10000)));
+    }
+
     @Test
     public void deregister_exists_removesConfig() {
         AdhesionHamiltonianMock ahm =
-                new AdhesionHamiltonianMock(mock(PottsSeries.class), mock(Potts.class));
+                new AdhesionHamiltonianMock(mock(PottsSeries.class), makePottsMock());
         PottsCell cell = mock(PottsCell.class);
 
         int id = randomIntBetween(1, 10);
@@ -279,12 +352,13 @@ public class AdhesionHamiltonianTest {
         ahm.deregister(cell);
 
         assertFalse(ahm.configs.containsKey(id));
+        assertEquals(0, ahm.getPop(id));
     }
 
     @Test
     public void getDelta_validIDs_calculatesValue() {
         AdhesionHamiltonianMock ahm =
-                new AdhesionHamiltonianMock(mock(PottsSeries.class), mock(Potts.class));
+                new AdhesionHamiltonianMock(mock(PottsSeries.class), makePottsMock());
         assertEquals(ADHESION_ID[1] - ADHESION_ID[2], ahm.getDelta(2, 1, 0, 0, 0), EPSILON);
         assertEquals(ADHESION_ID[2] - ADHESION_ID[1], ahm.getDelta(1, 2, 0, 0, 0), EPSILON);
     }
@@ -292,7 +366,7 @@ public class AdhesionHamiltonianTest {
     @Test
     public void getDelta_validRegions_calculatesValue() {
         AdhesionHamiltonianMock ahm =
-                new AdhesionHamiltonianMock(mock(PottsSeries.class), mock(Potts.class));
+                new AdhesionHamiltonianMock(mock(PottsSeries.class), makePottsMock());
         assertEquals(
                 ADHESION_REGION[1] - ADHESION_REGION[2], ahm.getDelta(1, 2, 1, 0, 0, 0), EPSILON);
         assertEquals(
@@ -0,0 +1,203 @@
+package arcade.potts.sim.hamiltonian;
+
+import java.util.ArrayList;
+import org.junit.jupiter.api.Test;
+import arcade.potts.agent.cell.PottsCell;
+import arcade.potts.env.grid.PottsArray;
+import arcade.potts.util.Registry;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static arcade.core.ARCADETestUtilities.*;
+import static arcade.potts.sim.hamiltonian.FusedHamiltonian.CoordinateHamiltonian;
+
+public class FusedHamiltonianTest {
+    private static final double EPSILON = 1E-10;
+
+    static PottsArray makeArray() {
+        PottsArray array = new PottsArray(5, 5, 5);
+        for (int i = 0; i < array.values.length; i++) {
+            array.values[i] = i;
+        }
+        return array;
+    }
+
+    @Test
+    public void constructor_givenTerms_setsTerms() {
+        Hamiltonian term1 = mock(Hamiltonian.class);
+        NeighborhoodHamiltonian term2 = mock(NeighborhoodHamiltonian.class);
+        doReturn(true).when(term2).usesNeighbors();
+        ArrayList<Hamiltonian> hamiltonian = new ArrayList<>();
+        hamiltonian.add(term1);
+        hamiltonian.add(term2);
+
+        FusedHamiltonian fused =
+                new FusedHamiltonian(hamiltonian, makeArray(), makeArray(), new Registry());
+
+        assertEquals(2, fused.terms.length);
+        assertTrue(fused.terms[0] instanceof CoordinateHamiltonian);
+        assertSame(term1, ((CoordinateHamiltonian) fused.terms[0]).term);
+        assertSame(term2, fused.terms[1]);
+        assertTrue(fused.isShared);
+    }
+
+    @Test
+    public void constructor_noNeighborhoodTerms_setsNotShared() {
+        ArrayList<Hamiltonian> hamiltonian = new ArrayList<>();
+        hamiltonian.add(mock(Hamiltonian.class));
+        FusedHamiltonian fused =
+                new FusedHamiltonian(hamiltonian, makeArray(), makeArray(), new Registry());
+        assertFalse(fused.isShared);
+    }
+
+    @Test
+    public void constructor_noNeighborTerms_setsNotShared() {
+        NeighborhoodHamiltonian term = mock(NeighborhoodHamiltonian.class);
+        doReturn(false).when(term).usesNeighbors();
+        ArrayList<Hamiltonian> hamiltonian = new ArrayList<>();
+        hamiltonian.add(term);
+        FusedHamiltonian fused =
+                new FusedHamiltonian(hamiltonian, makeArray(), makeArray(), new Registry());
+        assertFalse(fused.isShared);
+    }
+
+    @Test
+    public void register_givenCell_registersTerms() {
+        ArrayList<Hamiltonian> hamiltonian = new ArrayList<>();
+        hamiltonian.add(mock(Hamiltonian.class));
+        hamiltonian.add(mock(NeighborhoodHamiltonian.class));
+        FusedHamiltonian fused =
+                new FusedHamiltonian(hamiltonian, makeArray(), makeArray(), new Registry());
+
+        PottsCell cell = mock(PottsCell.class);
+        fused.register(cell);
+
+        for (Hamiltonian h : hamiltonian) {
+            verify(h).register(cell);
+        }
+    }
+
+    @Test
+    public void deregister_givenCell_deregistersTerms() {
+        ArrayList<Hamiltonian> hamiltonian = new ArrayList<>();
+        hamiltonian.add(mock(Hamiltonian.class));
+        hamiltonian.add(mock(NeighborhoodHamiltonian.class));
+        FusedHamiltonian fused =
+                new FusedHamiltonian(hamiltonian, makeArray(), makeArray(), new Registry());
+
+        PottsCell cell = mock(PottsCell.class);
+        fused.deregister(cell);
+
+        for (Hamiltonian h : hamiltonian) {
+            verify(h).deregister(cell);
+        }
+    }
+
+    @Test
+    public void getDelta_givenIDs_sumsTerms() {
+        int source = randomIntBetween(1, 10);
+        int target = source + randomIntBetween(1, 10);
+        double delta1 = randomDoubleBetween(-10, 10);
+        double delta2 = randomDoubleBetween(-10, 10);
+
+        Hamiltonian term1 = mock(Hamiltonian.class);
+        doReturn(delta1).when(term1).getDelta(source, target, 1, 2, 3);
+
+        NeighborhoodHamiltonian term2 = mock(NeighborhoodHamiltonian.class);
+        doReturn(true).when(term2).usesNeighbors();
+        doReturn(delta2).when(term2).getDelta(any(Neighborhood.class), eq(source), eq(target));
+
+        ArrayList<Hamiltonian> hamiltonian = new ArrayList<>();
+        hamiltonian.add(term1);
+        hamiltonian.add(term2);
+        PottsArray ids = makeArray();
+        FusedHamiltonian fused =
+                new FusedHamiltonian(hamiltonian, ids, makeArray(), new Registry());
+
+        assertEquals(delta1 + delta2, fused.getDelta(source, target, 1, 2, 3), EPSILON);
+        assertEquals(delta1, fused.getLastDelta(0), EPSILON);
+        assertEquals(delta2, fused.getLastDelta(1), EPSILON);
+        verify(term1).getDelta(source, target, 1, 2, 3);
+        verify(term2).getDelta(fused.neighborhood, source, target);
+        assertEquals(ids.get(1, 2, 3), fused.neighborhood.ids[PottsArray.NEIGHBORHOOD_CENTER]);
+    }
+
+    @Test
+    public void getDelta_givenRegions_sumsTerms() {
+        int id = randomIntBetween(1, 10);
+        int source = randomIntBetween(1, 10);
+        int target = source + randomIntBetween(1, 10);
+        double delta1 = randomDoubleBetween(-10, 10);
+        double delta2 = randomDoubleBetween(-10, 10);
+
+        Hamiltonian term1 = mock(Hamiltonian.class);
+        doReturn(delta1).when(term1).getDelta(id, source, target, 1, 2, 3);
+
+        NeighborhoodHamiltonian term2 = mock(NeighborhoodHamiltonian.class);
+        doReturn(true).when(term2).usesNeighbors();
+        doReturn(delta2)
+                .when(term2)
+                .getDelta(any(Neighborhood.class), eq(id), eq(source), eq(target));
+
+        ArrayList<Hamiltonian> hamiltonian = new ArrayList<>();
+        hamiltonian.add(term1);
+        hamiltonian.add(term2);
+        PottsArray regions = makeArray();
+        FusedHamiltonian fused =
+                new FusedHamiltonian(hamiltonian, makeArray(), regions, new Registry());
+
+        assertEquals(delta1 + delta2, fused.getDelta(id, source, target, 1, 2, 3), EPSILON);
+        assertEquals(delta1, fused.getLastDelta(0), EPSILON);
+        assertEquals(delta2, fused.getLastDelta(1), EPSILON);
+        verify(term1).getDelta(id, source, target, 1, 2, 3);
+        verify(term2).getDelta(fused.neighborhood, id, source, target);
+        assertEquals(
+                regions.get(1, 2, 3), fused.neighborhood.regions[PottsArray.NEIGHBORHOOD_CENTER]);
+    }
+
+    @Test
+    public void getDelta_noNeighborhoodTerms_doesNotGather() {
+        ArrayList<Hamiltonian> hamiltonian = new ArrayList<>();
+        hamiltonian.add(mock(Hamiltonian.class));
+        PottsArray ids = new PottsArray(1, 1, 1);
+        FusedHamiltonian fused = new FusedHamiltonian(hamiltonian, ids, ids, new Registry());
+
+        assertEquals(0, fused.getDelta(1, 2, 0, 0, 0), EPSILON);
+        assertEquals(0, fused.getDelta(1, 2, 3, 0, 0, 0), EPSILON);
+    }
+
+    @Test
+    public void getDelta_givenIDs_resolvesRecords() {
+        int source = randomIntBetween(1, 10);
+        int target = source + randomIntBetween(1, 10);
+        Registry registry = new Registry();
+        Registry.Slot<Object> slot = registry.addSlot();
+        slot.put(source, new Object());
+        slot.put(target, new Object());
+
+        ArrayList<Hamiltonian> hamiltonian = new ArrayList<>();
+        hamiltonian.add(mock(NeighborhoodHamiltonian.class));
+        FusedHamiltonian fused =
+                new FusedHamiltonian(hamiltonian, makeArray(), makeArray(), registry);
+        fused.getDelta(source, target, 1, 2, 3);
+
+        assertSame(registry.get(source), fused.neighborhood.source);
+        assertSame(registry.get(target), fused.neighborhood.target);
+    }
+
+    @Test
+    public void getDelta_givenRegions_resolvesRecords() {
+        int id = randomIntBetween(1, 10);
+        Registry registry = new Registry();
+        Registry.Slot<Object> slot = registry.addSlot();
+        slot.put(id, new Object());
+
+        ArrayList<Hamiltonian> hamiltonian = new ArrayList<>();
+        hamiltonian.add(mock(NeighborhoodHamiltonian.class));
+        FusedHamiltonian fused =
+                new FusedHamiltonian(hamiltonian, makeArray(), makeArray(), registry);
+        fused.getDelta(id, 1, 2, 1, 2, 3);
+
+        assertSame(registry.get(id), fused.neighborhood.source);
+        assertSame(registry.get(id), fused.neighborhood.target);
+    }
+}
@@ -0,0 +1,101 @@
+package arcade.potts.sim.hamiltonian;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import org.junit.jupiter.api.Test;
+import arcade.core.util.MiniBox;
+import arcade.potts.sim.Potts;
+import arcade.potts.sim.PottsSeries;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static arcade.potts.util.PottsEnums.Footprint;
+
+public class HamiltonianPluginsTest {
+    public static final String MOCK_NAME = "Mock";
+
+    public static final String MOCK_PARAMETER = "MOCK_PARAMETER";
+
+    public static final String MOCK_VALUE = "5.0";
+
+    public static class MockPlugin implements HamiltonianPlugin {
+        @Override
+        public String getName() {
+            return MOCK_NAME;
+        }
+
+        @Override
+        public Footprint getFootprint() {
+            return Footprint.VOXEL;
+        }
+
+        @Override
+        public MiniBox getDefaults() {
+            MiniBox defaults = new MiniBox();
+            defaults.put(MOCK_PARAMETER, MOCK_VALUE);
+            return defaults;
+        }
+
+        @Override
+        public Hamiltonian create(PottsSeries series, Potts potts) {
+            return mock(Hamiltonian.class);
+        }
+    }
+
+    static HamiltonianPlugin makePlugin(String name) {
+        HamiltonianPlugin plugin = mock(HamiltonianPlugin.class);
+        doReturn(name).when(plugin).getName();
+        return plugin;
+    }
+
+    @Test
+    public void constructor_called_throwsUnsupportedOperationException() {
+        assertThrows(UnsupportedOperationException.class, HamiltonianPlugins::new);
+    }
+
+    @Test
+    public void contains_registeredPlugin_returnsTrue() {
+        assertTrue(HamiltonianPlugins.contains(MOCK_NAME));
+        assertTrue(HamiltonianPlugins.contains(MOCK_NAME.toUpperCase()));
+    }
+
+    @Test
+    public void contains_unknownPlugin_returnsFalse() {
+        assertFalse(HamiltonianPlugins.contains("volume"));
+    }
+
+    @Test
+    public void get_registeredPlugin_returnsPlugin() {
+        HamiltonianPlugin plugin = HamiltonianPlugins.get(MOCK_NAME);
+        assertTrue(plugin instanceof MockPlugin);
+        assertSame(plugin, HamiltonianPlugins.get(MOCK_NAME.toUpperCase()));
+    }
+
+    @Test
+    public void get_unknownPlugin_throwsException() {
+        assertThrows(IllegalArgumentException.class, () -> HamiltonianPlugins.get("volume"));
+    }
+
+    @Test
+    public void load_givenPlugins_createsMap() {
+        HamiltonianPlugin plugin1 = makePlugin("pluginA");
+        HamiltonianPlugin plugin2 = makePlugin("pluginB");
+        ArrayList<HamiltonianPlugin> loaded = new ArrayList<>();
+        loaded.add(plugin1);
+        loaded.add(plugin2);
+
+        HashMap<String, HamiltonianPlugin> plugins = HamiltonianPlugins.load(loaded);
+
+        assertEquals(2, plugins.size());
+        assertSame(plugin1, plugins.get("plugina"));
+        assertSame(plugin2, plugins.get("pluginb"));
+    }
+
+    @Test
+    public void load_duplicatePlugins_throwsException() {
+        ArrayList<HamiltonianPlugin> loaded = new ArrayList<>();
+        loaded.add(makePlugin("plugin"));
+        loaded.add(makePlugin("PLUGIN"));
+
+        assertThrows(IllegalArgumentException.class, () -> HamiltonianPlugins.load(loaded));
+    }
+}
@@ -7,9 +7,11 @@ import java.util.HashMap;
 import org.junit.jupiter.api.Test;
 import arcade.core.util.MiniBox;
 import arcade.potts.agent.cell.PottsCell;
+import arcade.potts.env.grid.PottsArray;
 import arcade.potts.env.location.PottsLocation;
 import arcade.potts.env.location.Voxel;
 import arcade.potts.sim.PottsSeries;
+import arcade.potts.util.Registry;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static arcade.core.ARCADETestUtilities.*;
@@ -352,4 +354,42 @@ public class HeightHamiltonianTest {
         assertEquals(0, hh.getHeight(id, voxel, Region.DEFAULT.ordinal(), 0), EPSILON);
         assertEquals(0, hh.getHeight(id, voxel, Region.DEFAULT.ordinal(), -1), EPSILON);
     }
+
+    @Test
+    public void getDelta_givenNeighborhood_calculatesValue() {
+        Registry registry = new Registry();
+        HeightHamiltonian hh = spy(new HeightHamiltonian(mock(PottsSeries.class), registry));
+        Voxel voxel = new Voxel(1, 1, 1);
+        int id1 = randomIntBetween(1, 100);
+        int id2 = id1 + randomIntBetween(1, 10);
+
+        HeightHamiltonianConfig config1 = mock(HeightHamiltonianConfig.class);
+        HeightHamiltonianConfig config2 = mock(HeightHamiltonianConfig.class);
+        hh.configs.put(id1, config1);
+        hh.configs.put(id2, config2);
+
+        double cell1 = randomDoubleBetween(1, 100);
+        doReturn(cell1).when(hh).getHeight(config1, voxel, 0);
+
+        double cell1minus1 = randomDoubleBetween(1, 100);
+        doReturn(cell1minus1).when(hh).getHeight(config1, voxel, -1);
+
+        double cell2 = randomDoubleBetween(1, 100);
+        doReturn(cell2).when(hh).getHeight(config2, voxel, 0);
+
+        double cell2plus1 = randomDoubleBetween(1, 100);
+        doReturn(cell2plus1).when(hh).getHeight(config2, voxel, 1);
+
+        PottsArray array = new PottsArray(3, 3, 3);
+        Neighborhood neighborhood = new Neighborhood(array, array);
+        neighborhood.locate(1, 1, 1);
+        neighborhood.source = registry.get(id1);
+        neighborhood.target = registry.get(id2);
+
+        assertEquals(
+                (cell1minus1 - cell1 + cell2plus1 - cell2),
+                hh.getDelta(neighborhood, id1, id2),
+                EPSILON);
+        verify(hh, never()).getHeight(anyInt(), any(Voxel.class), anyInt());
+    }
 }
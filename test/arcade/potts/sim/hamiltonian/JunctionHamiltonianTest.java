@@ -4,8 +4,10 @@ import java.util.HashMap;
 import org.junit.jupiter.api.Test;
 import arcade.core.util.MiniBox;
 import arcade.potts.agent.cell.PottsCell;
+import arcade.potts.env.grid.PottsArray;
 import arcade.potts.sim.Potts;
 import arcade.potts.sim.PottsSeries;
+import arcade.potts.util.Registry;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static arcade.core.ARCADETestUtilities.*;
@@ -15,18 +17,24 @@ import static arcade.potts.util.PottsEnums.Region;
 public class JunctionHamiltonianTest {
     private static final double EPSILON = 1E-5;
 
+    static Potts makePottsMock() {
+        Potts potts = mock(Potts.class);
+        potts.registry = new Registry();
+        return potts;
+    }
+
     @Test
     public void constructor_called_initializesMaps() {
         JunctionHamiltonian jh =
-                new JunctionHamiltonian(mock(PottsSeries.class), mock(Potts.class));
+                new JunctionHamiltonian(mock(PottsSeries.class), makePottsMock());
         assertNotNull(jh.configs);
         assertNotNull(jh.popToLambda);
     }
 
     @Test
     public void constructor_called_setsArrays() {
-        Potts potts = mock(Potts.class);
-        int[][][] ids = new int[0][0][0];
+        Potts potts = makePottsMock();
+        PottsArray ids = new PottsArray(0, 0, 0);
         potts.ids = ids;
 
         JunctionHamiltonian jh = new JunctionHamiltonian(mock(PottsSeries.class), potts);
@@ -59,7 +67,7 @@ public class JunctionHamiltonianTest {
         series.potts.put("junction/LAMBDA" + TARGET_SEPARATOR + key1, lambda1);
         series.potts.put("junction/LAMBDA" + TARGET_SEPARATOR + key2, lambda2);
 
-        JunctionHamiltonian jh = new JunctionHamiltonian(series, mock(Potts.class));
+        JunctionHamiltonian jh = new JunctionHamiltonian(series, makePottsMock());
 
         assertEquals(2, jh.popToLambda.size());
         assertTrue(jh.popToLambda.containsKey(code1));
@@ -71,7 +79,7 @@ public class JunctionHamiltonianTest {
     @Test
     public void register_givenCell_addsConfig() {
         JunctionHamiltonian jh =
-                new JunctionHamiltonian(mock(PottsSeries.class), mock(Potts.class));
+                new JunctionHamiltonian(mock(PottsSeries.class), makePottsMock());
         PottsCell cell = mock(PottsCell.class);
 
         int id = randomIntBetween(1, 10);
@@ -93,7 +101,7 @@ public class JunctionHamiltonianTest {
     @Test
     public void deregister_exists_removesConfig() {
         JunctionHamiltonian jh =
-                new JunctionHamiltonian(mock(PottsSeries.class), mock(Potts.class));
+                new JunctionHamiltonian(mock(PottsSeries.class), makePottsMock());
         PottsCell cell = mock(PottsCell.class);
 
         int id = randomIntBetween(1, 10);
@@ -112,20 +120,21 @@ public class JunctionHamiltonianTest {
         int id1 = randomIntBetween(1, 100);
         int id2 = id1 + randomIntBetween(1, 100);
 
-        Potts potts = mock(Potts.class);
+        Potts potts = makePottsMock();
         potts.ids =
-                new int[][][] {
-                    {
-                        {0, 0, 0, 0},
-                        {0, 0, id1, 0},
-                        {0, 0, 0, 0},
-                    },
-                    {
-                        {0, 0, 0, 0},
-                        {0, 0, id2, 0},
-                        {0, 0, 0, 0},
-                    },
-                };
+                new PottsArray(
+                        new int[][][] {
+                            {
+                                {0, 0, 0, 0},
+                                {0, 0, id1, 0},
+                                {0, 0, 0, 0},
+                            },
+                            {
+                                {0, 0, 0, 0},
+                                {0, 0, id2, 0},
+                                {0, 0, 0, 0},
+                            },
+                        });
 
         JunctionHamiltonianConfig config = mock(JunctionHamiltonianConfig.class);
         double lambda = randomDoubleBetween(10, 100);
@@ -144,20 +153,21 @@ public class JunctionHamiltonianTest {
         int id1 = randomIntBetween(1, 100);
         int id2 = id1 + randomIntBetween(1, 100);
 
-        Potts potts = mock(Potts.class);
+        Potts potts = makePottsMock();
         potts.ids =
-                new int[][][] {
-                    {
-                        {0, 0, 0, 0},
-                        {0, 0, id2, 0},
-                        {0, 0, 0, 0},
-                    },
-                    {
-                        {0, 0, 0, 0},
-                        {0, 0, id2, 0},
-                        {0, 0, 0, 0},
-                    },
-                };
+                new PottsArray(
+                        new int[][][] {
+                            {
+                                {0, 0, 0, 0},
+                                {0, 0, id2, 0},
+                                {0, 0, 0, 0},
+                            },
+                            {
+                                {0, 0, 0, 0},
+                                {0, 0, id2, 0},
+                                {0, 0, 0, 0},
+                            },
+                        });
 
         JunctionHamiltonianConfig config = mock(JunctionHamiltonianConfig.class);
         double lambda = randomDoubleBetween(10, 100);
@@ -177,7 +187,7 @@ public class JunctionHamiltonianTest {
         int id2 = id1 + randomIntBetween(1, 100);
 
         JunctionHamiltonian jh =
-                new JunctionHamiltonian(mock(PottsSeries.class), mock(Potts.class));
+                new JunctionHamiltonian(mock(PottsSeries.class), makePottsMock());
 
         double delta1 = jh.getDelta(0, 0, 0, 0, 0);
         assertEquals(0, delta1, EPSILON);
@@ -192,7 +202,7 @@ public class JunctionHamiltonianTest {
     @Test
     public void getDelta_validRegions_returnsZero() {
         JunctionHamiltonian jh =
-                new JunctionHamiltonian(mock(PottsSeries.class), mock(Potts.class));
+                new JunctionHamiltonian(mock(PottsSeries.class), makePottsMock());
         int id = randomIntBetween(1, 100);
 
         double delta1 =
@@ -203,4 +213,40 @@ public class JunctionHamiltonianTest {
                 jh.getDelta(id, Region.NUCLEUS.ordinal(), Region.DEFAULT.ordinal(), 0, 0, 0);
         assertEquals(0, delta2, EPSILON);
     }
+
+    @Test
+    public void getDelta_givenNeighborhood_calculatesValue() {
+        int id1 = randomIntBetween(1, 100);
+        int id2 = id1 + randomIntBetween(1, 100);
+
+        Potts potts = makePottsMock();
+        potts.ids =
+                new PottsArray(
+                        new int[][][] {
+                            {
+                                {0, 0, 0, 0},
+                                {0, 0, id1, 0},
+                                {0, 0, 0, 0},
+                            },
+                            {
+                                {0, 0, 0, 0},
+                                {0, 0, id2, 0},
+                                {0, 0, 0, 0},
+                            },
+                        });
+
+        JunctionHamiltonianConfig config = mock(JunctionHamiltonianConfig.class);
+        double lambda = randomDoubleBetween(10, 100);
+        doReturn(lambda).when(config).getLambda();
+
+        JunctionHamiltonian jh = new JunctionHamiltonian(mock(PottsSeries.class), potts);
+        jh.configs.put(id1, config);
+
+        Neighborhood neighborhood = new Neighborhood(potts.ids, potts.ids);
+        neighborhood.locate(1, 2, 1);
+        neighborhood.source = potts.registry.get(id2);
+        neighborhood.target = potts.registry.get(id1);
+
+        assertEquals(-lambda, jh.getDelta(neighborhood, id2, id1), EPSILON);
+    }
 }
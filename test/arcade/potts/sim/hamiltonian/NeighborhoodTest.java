@@ -0,0 +1,128 @@
+package arcade.potts.sim.hamiltonian;
+
+import org.junit.jupiter.api.Test;
+import arcade.potts.env.grid.PottsArray;
+import static org.junit.jupiter.api.Assertions.*;
+import static arcade.potts.env.grid.PottsArray.NEIGHBORHOOD_SIZE;
+import static arcade.potts.sim.hamiltonian.Neighborhood.*;
+
+public class NeighborhoodTest {
+    static PottsArray makeArray(int length, int width, int height, int offset) {
+        PottsArray array = new PottsArray(length, width, height);
+        for (int i = 0; i < array.values.length; i++) {
+            array.values[i] = i + offset;
+        }
+        return array;
+    }
+
+    @Test
+    public void constructor_2D_setsPlane() {
+        Neighborhood neighborhood =
+                new Neighborhood(makeArray(3, 3, 1, 0), makeArray(3, 3, 1, 0));
+        assertEquals(PLANE_START, neighborhood.start);
+        assertEquals(PLANE_END, neighborhood.end);
+        assertEquals(4, neighborhood.numberFaces);
+        assertEquals(8, neighborhood.getNumberNeighbors());
+    }
+
+    @Test
+    public void constructor_3D_setsNeighborhood() {
+        Neighborhood neighborhood =
+                new Neighborhood(makeArray(3, 3, 3, 0), makeArray(3, 3, 3, 0));
+        assertEquals(0, neighborhood.start);
+        assertEquals(NEIGHBORHOOD_SIZE, neighborhood.end);
+        assertEquals(6, neighborhood.numberFaces);
+        assertEquals(26, neighborhood.getNumberNeighbors());
+    }
+
+    @Test
+    public void gatherIDs_2D_gathersPlane() {
+        PottsArray ids = makeArray(5, 5, 1, 1);
+        Neighborhood neighborhood = new Neighborhood(ids, makeArray(5, 5, 1, 0));
+        neighborhood.locate(2, 3, 0);
+        neighborhood.gatherIDs();
+
+        int n = PLANE_START;
+        for (int i = 1; i <= 3; i++) {
+            for (int j = 2; j <= 4; j++) {
+                assertEquals(ids.get(i, j, 0), neighborhood.ids[n++]);
+            }
+        }
+
+        for (n = 0; n < PLANE_START; n++) {
+            assertEquals(0, neighborhood.ids[n]);
+        }
+        for (n = PLANE_END; n < NEIGHBORHOOD_SIZE; n++) {
+            assertEquals(0, neighborhood.ids[n]);
+        }
+    }
+
+    @Test
+    public void gatherIDs_3D_gathersNeighborhood() {
+        PottsArray ids = makeArray(5, 5, 5, 1);
+        Neighborhood neighborhood = new Neighborhood(ids, makeArray(5, 5, 5, 0));
+        neighborhood.locate(2, 3, 1);
+        neighborhood.gatherIDs();
+
+        int n = 0;
+        for (int k = 0; k <= 2; k++) {
+            for (int i = 1; i <= 3; i++) {
+                for (int j = 2; j <= 4; j++) {
+                    assertEquals(ids.get(i, j, k), neighborhood.ids[n++]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void gatherIDs_givenLocation_doesNotGatherRegions() {
+        Neighborhood neighborhood =
+                new Neighborhood(makeArray(5, 5, 5, 1), makeArray(5, 5, 5, 1));
+        neighborhood.locate(2, 2, 2);
+        neighborhood.gatherIDs();
+
+        for (int n = 0; n < NEIGHBORHOOD_SIZE; n++) {
+            assertEquals(0, neighborhood.regions[n]);
+        }
+    }
+
+    @Test
+    public void gatherRegions_3D_gathersNeighborhood() {
+        PottsArray regions = makeArray(5, 5, 5, 7);
+        Neighborhood neighborhood = new Neighborhood(makeArray(5, 5, 5, 0), regions);
+        neighborhood.locate(3, 2, 3);
+        neighborhood.gatherRegions();
+
+        int n = 0;
+        for (int k = 2; k <= 4; k++) {
+            for (int i = 2; i <= 4; i++) {
+                for (int j = 1; j <= 3; j++) {
+                    assertEquals(regions.get(i, j, k), neighborhood.regions[n++]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void locate_givenCoordinates_setsCoordinates() {
+        Neighborhood neighborhood =
+                new Neighborhood(makeArray(5, 5, 5, 0), makeArray(5, 5, 5, 0));
+        neighborhood.locate(1, 2, 3);
+        assertEquals(1, neighborhood.x);
+        assertEquals(2, neighborhood.y);
+        assertEquals(3, neighborhood.z);
+    }
+
+    @Test
+    public void faces_givenNeighborhood_matchesNeighbors() {
+        PottsArray ids = makeArray(5, 5, 5, 0);
+        Neighborhood neighborhood = new Neighborhood(ids, makeArray(5, 5, 5, 0));
+        neighborhood.locate(2, 2, 2);
+        neighborhood.gatherIDs();
+
+        int index = ids.index(2, 2, 2);
+        for (int i = 0; i < FACES.length; i++) {
+            assertEquals(ids.values[index + ids.neighbors[i]], neighborhood.ids[FACES[i]]);
+        }
+    }
+}
@@ -199,7 +199,14 @@ public class PersistenceHamiltonianConfigTest {
                 };
 
         doReturn((double) volume).when(location).getVolume();
-        doReturn(centroid).when(location).getCentroid();
+        doAnswer(
+                        invocation -> {
+                            double[] array = invocation.getArgument(0);
+                            System.arraycopy(centroid, 0, array, 0, 3);
+                            return null;
+                        })
+                .when(location)
+                .copyCentroid(any(double[].class));
 
         PersistenceHamiltonianConfig phc =
                 new PersistenceHamiltonianConfig(location, 0, null, 0, 0);
@@ -242,7 +249,14 @@ public class PersistenceHamiltonianConfigTest {
                 };
 
         doReturn((double) volume).when(location).getVolume();
-        doReturn(centroid).when(location).getCentroid();
+        doAnswer(
+                        invocation -> {
+                            double[] array = invocation.getArgument(0);
+                            System.arraycopy(centroid, 0, array, 0, 3);
+                            return null;
+                        })
+                .when(location)
+                .copyCentroid(any(double[].class));
 
         PersistenceHamiltonianConfig phc =
                 new PersistenceHamiltonianConfig(location, 0, null, 0, 0);
@@ -286,7 +300,14 @@ public class PersistenceHamiltonianConfigTest {
 
         Region region = Region.NUCLEUS;
         doReturn((double) volume).when(location).getVolume(region);
-        doReturn(centroid).when(location).getCentroid(region);
+        doAnswer(
+                        invocation -> {
+                            double[] array = invocation.getArgument(1);
+                            System.arraycopy(centroid, 0, array, 0, 3);
+                            return null;
+                        })
+                .when(location)
+                .copyCentroid(eq(region), any(double[].class));
 
         PersistenceHamiltonianConfig phc =
                 new PersistenceHamiltonianConfig(location, 0, null, 0, 0);
@@ -342,7 +363,14 @@ public class PersistenceHamiltonianConfigTest {
 
         Region region = Region.NUCLEUS;
         doReturn((double) volume).when(location).getVolume(region);
-        doReturn(centroid).when(location).getCentroid(region);
+        doAnswer(
+                        invocation -> {
+                            double[] array = invocation.getArgument(1);
+                            System.arraycopy(centroid, 0, array, 0, 3);
+                            return null;
+                        })
+                .when(location)
+                .copyCentroid(eq(region), any(double[].class));
 
         PersistenceHamiltonianConfig phc =
                 new PersistenceHamiltonianConfig(location, 0, null, 0, 0);
@@ -384,4 +412,20 @@ public class PersistenceHamiltonianConfigTest {
         assertArrayEquals(expected, regionDisplacement, EPSILON);
         assertArrayEquals(displacement, phc.displacement, EPSILON);
     }
+
+    @Test
+    public void getDisplacement_givenRegion_reusesVector() {
+        PottsLocation location = mock(PottsLocation.class);
+        doReturn(10.0).when(location).getVolume(Region.NUCLEUS);
+
+        PersistenceHamiltonianConfig phc =
+                new PersistenceHamiltonianConfig(location, 0, null, 0, 0);
+
+        double[] displacement1 = phc.getDisplacement(1, 2, 3, 1, Region.NUCLEUS);
+        double[] displacement2 = phc.getDisplacement(3, 2, 1, -1, Region.NUCLEUS);
+
+        assertSame(phc.regionDisplacement, displacement1);
+        assertSame(phc.regionDisplacement, displacement2);
+        assertNotSame(phc.displacement, displacement1);
+    }
 }
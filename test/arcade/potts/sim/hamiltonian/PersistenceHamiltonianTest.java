@@ -7,8 +7,10 @@ import org.junit.jupiter.api.Test;
 import arcade.core.util.Matrix;
 import arcade.core.util.MiniBox;
 import arcade.potts.agent.cell.PottsCell;
+import arcade.potts.env.grid.PottsArray;
 import arcade.potts.env.location.PottsLocation;
 import arcade.potts.sim.PottsSeries;
+import arcade.potts.util.Registry;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static arcade.core.ARCADETestUtilities.*;
@@ -448,4 +450,36 @@ public class PersistenceHamiltonianTest {
         assertEquals(0, ph.getPersistence(0, 1, 1, 1, -1), EPSILON);
         assertEquals(0, ph.getPersistence(-1, 1, 1, 1, -1), EPSILON);
     }
+
+    @Test
+    public void getDelta_givenNeighborhood_calculatesValue() {
+        Registry registry = new Registry();
+        PersistenceHamiltonian ph =
+                spy(new PersistenceHamiltonian(mock(PottsSeries.class), registry));
+        int id1 = randomIntBetween(1, 100);
+        int id2 = id1 + randomIntBetween(1, 10);
+
+        PersistenceHamiltonianConfig config1 = mock(PersistenceHamiltonianConfig.class);
+        PersistenceHamiltonianConfig config2 = mock(PersistenceHamiltonianConfig.class);
+        ph.configs.put(id1, config1);
+        ph.configs.put(id2, config2);
+
+        double persistence1minus = randomDoubleBetween(10, 100);
+        doReturn(persistence1minus).when(ph).getPersistence(config1, 1, 1, 1, -1);
+
+        double persistence2plus = randomDoubleBetween(10, 100);
+        doReturn(persistence2plus).when(ph).getPersistence(config2, 1, 1, 1, 1);
+
+        PottsArray array = new PottsArray(3, 3, 3);
+        Neighborhood neighborhood = new Neighborhood(array, array);
+        neighborhood.locate(1, 1, 1);
+        neighborhood.source = registry.get(id1);
+        neighborhood.target = registry.get(id2);
+
+        assertEquals(
+                persistence1minus + persistence2plus,
+                ph.getDelta(neighborhood, id1, id2),
+                EPSILON);
+        verify(ph, never()).getPersistence(anyInt(), anyInt(), anyInt(), anyInt(), anyInt());
+    }
 }
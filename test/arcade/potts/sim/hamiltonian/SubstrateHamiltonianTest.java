@@ -6,8 +6,10 @@ import java.util.HashMap;
 import org.junit.jupiter.api.Test;
 import arcade.core.util.MiniBox;
 import arcade.potts.agent.cell.PottsCell;
+import arcade.potts.env.grid.PottsArray;
 import arcade.potts.sim.Potts;
 import arcade.potts.sim.PottsSeries;
+import arcade.potts.util.Registry;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static arcade.core.ARCADETestUtilities.*;
@@ -17,10 +19,16 @@ import static arcade.potts.util.PottsEnums.Region;
 public class SubstrateHamiltonianTest {
     private static final double EPSILON = 1E-5;
 
+    static Potts makePottsMock() {
+        Potts potts = mock(Potts.class);
+        potts.registry = new Registry();
+        return potts;
+    }
+
     @Test
     public void constructor_called_initializesMaps() {
         SubstrateHamiltonian sh =
-                new SubstrateHamiltonian(mock(PottsSeries.class), mock(Potts.class));
+                new SubstrateHamiltonian(mock(PottsSeries.class), makePottsMock());
         assertNotNull(sh.configs);
         assertNotNull(sh.popToSubstrate);
     }
@@ -29,7 +37,7 @@ public class SubstrateHamiltonianTest {
     public void constructor_called_createsArray() {
         int length = randomIntBetween(10, 100);
         int width = randomIntBetween(10, 100);
-        Potts potts = mock(Potts.class);
+        Potts potts = makePottsMock();
 
         try {
             Field lengthField = Potts.class.getDeclaredField("length");
@@ -53,6 +61,41 @@ public class SubstrateHamiltonianTest {
         }
     }
 
+    @Test
+    public void createSums_givenSubstrate_sumsNeighborhood() {
+        SubstrateHamiltonian sh =
+                new SubstrateHamiltonian(mock(PottsSeries.class), makePottsMock());
+        int[][] substrates = {
+            {1, 2, 3, 4},
+            {5, 6, 7, 8},
+            {9, 10, 11, 12},
+        };
+
+        double[][] sums = sh.createSums(substrates);
+
+        assertEquals(3, sums.length);
+        assertEquals(4, sums[0].length);
+        assertArrayEquals(new double[] {0, 0, 0, 0}, sums[0], EPSILON);
+        assertArrayEquals(new double[] {0, -54, -63, 0}, sums[1], EPSILON);
+        assertArrayEquals(new double[] {0, 0, 0, 0}, sums[2], EPSILON);
+    }
+
+    @Test
+    public void createScales_givenHeight_scalesByPower() {
+        SubstrateHamiltonian sh =
+                new SubstrateHamiltonian(mock(PottsSeries.class), makePottsMock());
+        double power = randomDoubleBetween(1, 5);
+        int height = randomIntBetween(2, 20);
+        sh.power = power;
+
+        double[] scales = sh.createScales(height);
+
+        assertEquals(height, scales.length);
+        for (int z = 0; z < height; z++) {
+            assertEquals(Math.pow(z, power), scales[z], EPSILON * Math.pow(z, power));
+        }
+    }
+
     @Test
     public void constructor_called_initializesParameters() {
         PottsSeries series = mock(PottsSeries.class);
@@ -84,7 +127,7 @@ public class SubstrateHamiltonianTest {
 
         series.potts.put("substrate/HEIGHT_THRESHOLD", heightThreshold);
 
-        SubstrateHamiltonian sh = new SubstrateHamiltonian(series, mock(Potts.class));
+        SubstrateHamiltonian sh = new SubstrateHamiltonian(series, makePottsMock());
 
         assertEquals(2, sh.popToSubstrate.size());
         assertTrue(sh.popToSubstrate.containsKey(code1));
@@ -97,7 +140,7 @@ public class SubstrateHamiltonianTest {
     @Test
     public void register_givenCell_addsConfig() {
         SubstrateHamiltonian sh =
-                new SubstrateHamiltonian(mock(PottsSeries.class), mock(Potts.class));
+                new SubstrateHamiltonian(mock(PottsSeries.class), makePottsMock());
         PottsCell cell = mock(PottsCell.class);
 
         int id = randomIntBetween(1, 10);
@@ -119,7 +162,7 @@ public class SubstrateHamiltonianTest {
     @Test
     public void deregister_exists_removesConfig() {
         SubstrateHamiltonian sh =
-                new SubstrateHamiltonian(mock(PottsSeries.class), mock(Potts.class));
+                new SubstrateHamiltonian(mock(PottsSeries.class), makePottsMock());
         PottsCell cell = mock(PottsCell.class);
 
         int id = randomIntBetween(1, 10);
@@ -136,7 +179,7 @@ public class SubstrateHamiltonianTest {
     @Test
     public void getDelta_validIDs_calculatesValue() {
         SubstrateHamiltonian sh =
-                spy(new SubstrateHamiltonian(mock(PottsSeries.class), mock(Potts.class)));
+                spy(new SubstrateHamiltonian(mock(PottsSeries.class), makePottsMock()));
         int id1 = randomIntBetween(1, 100);
         int id2 = id1 + randomIntBetween(1, 10);
 
@@ -153,7 +196,7 @@ public class SubstrateHamiltonianTest {
     @Test
     public void getDelta_validRegions_returnsZero() {
         SubstrateHamiltonian sh =
-                new SubstrateHamiltonian(mock(PottsSeries.class), mock(Potts.class));
+                new SubstrateHamiltonian(mock(PottsSeries.class), makePottsMock());
         int id = randomIntBetween(1, 100);
 
         double delta1 =
@@ -167,7 +210,7 @@ public class SubstrateHamiltonianTest {
 
     @Test
     public void getSubstrate_validID_returnsValue() {
-        Potts potts = mock(Potts.class);
+        Potts potts = makePottsMock();
         int id = randomIntBetween(1, 100);
 
         try {
@@ -178,13 +221,22 @@ public class SubstrateHamiltonianTest {
             Field widthField = Potts.class.getDeclaredField("width");
             widthField.setAccessible(true);
             widthField.setInt(potts, 3);
+
+            Field heightField = Potts.class.getDeclaredField("height");
+            heightField.setAccessible(true);
+            heightField.setInt(potts, 10);
         } catch (Exception ignored) {
         }
 
         double power = randomDoubleBetween(1, 5);
+        double threshold = Math.exp(Math.log(SubstrateHamiltonian.THRESHOLD_FRACTION) / power);
 
-        SubstrateHamiltonian sh = new SubstrateHamiltonian(mock(PottsSeries.class), potts);
-        sh.power = power;
+        PottsSeries series = mock(PottsSeries.class);
+        series.potts = new MiniBox();
+        series.populations = new HashMap<>();
+        series.potts.put("substrate/HEIGHT_THRESHOLD", threshold);
+
+        SubstrateHamiltonian sh = new SubstrateHamiltonian(series, potts);
 
         SubstrateHamiltonianConfig config = mock(SubstrateHamiltonianConfig.class);
         double substrate = randomDoubleBetween(10, 20);
@@ -202,8 +254,36 @@ public class SubstrateHamiltonianTest {
     @Test
     public void getSubstrate_invalidID_returnsZero() {
         SubstrateHamiltonian sh =
-                new SubstrateHamiltonian(mock(PottsSeries.class), mock(Potts.class));
+                new SubstrateHamiltonian(mock(PottsSeries.class), makePottsMock());
         assertEquals(0, sh.getSubstrate(0, 1, 1, 1), EPSILON);
         assertEquals(0, sh.getSubstrate(-1, 1, 1, 1), EPSILON);
     }
+
+    @Test
+    public void getDelta_givenNeighborhood_calculatesValue() {
+        Potts potts = makePottsMock();
+        SubstrateHamiltonian sh = spy(new SubstrateHamiltonian(mock(PottsSeries.class), potts));
+        int id1 = randomIntBetween(1, 100);
+        int id2 = id1 + randomIntBetween(1, 10);
+
+        SubstrateHamiltonianConfig config1 = mock(SubstrateHamiltonianConfig.class);
+        SubstrateHamiltonianConfig config2 = mock(SubstrateHamiltonianConfig.class);
+        sh.configs.put(id1, config1);
+        sh.configs.put(id2, config2);
+
+        double substrate1 = randomDoubleBetween(10, 100);
+        doReturn(substrate1).when(sh).getSubstrate(config1, 1, 1, 1);
+
+        double substrate2 = randomDoubleBetween(10, 100);
+        doReturn(substrate2).when(sh).getSubstrate(config2, 1, 1, 1);
+
+        PottsArray array = new PottsArray(3, 3, 3);
+        Neighborhood neighborhood = new Neighborhood(array, array);
+        neighborhood.locate(1, 1, 1);
+        neighborhood.source = potts.registry.get(id1);
+        neighborhood.target = potts.registry.get(id2);
+
+        assertEquals(substrate2 - substrate1, sh.getDelta(neighborhood, id1, id2), EPSILON);
+        verify(sh, never()).getSubstrate(anyInt(), anyInt(), anyInt(), anyInt());
+    }
 }
@@ -1,10 +1,14 @@
 package arcade.potts.sim.hamiltonian;
 
 import org.junit.jupiter.api.Test;
+import arcade.potts.agent.cell.PottsCell;
+import arcade.potts.env.grid.PottsArray;
 import arcade.potts.sim.Potts;
 import arcade.potts.sim.PottsSeries;
+import arcade.potts.util.Registry;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
+import static arcade.potts.sim.hamiltonian.SurfaceHamiltonianTest.unpack;
 import static arcade.potts.util.PottsEnums.Region;
 
 public class SurfaceHamiltonian3DTest {
@@ -14,87 +18,90 @@ public class SurfaceHamiltonian3DTest {
 
     static Potts makePottsMock() {
         Potts potts = mock(Potts.class);
+        potts.registry = new Registry();
 
         potts.ids =
-                new int[][][] {
-                    {
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                    },
-                    {
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 1, 0, 3, 0},
-                        {0, 0, 1, 3, 3, 0},
-                        {0, 2, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                    },
-                    {
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 1, 1, 3, 3, 0},
-                        {0, 1, 1, 3, 3, 0},
-                        {0, 2, 2, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                    },
-                    {
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 1, 1, 0, 0, 0},
-                        {0, 1, 2, 0, 3, 0},
-                        {0, 2, 2, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                    },
-                    {
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                    },
-                };
+                new PottsArray(
+                        new int[][][] {
+                            {
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                            },
+                            {
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 1, 0, 3, 0},
+                                {0, 0, 1, 3, 3, 0},
+                                {0, 2, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                            },
+                            {
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 1, 1, 3, 3, 0},
+                                {0, 1, 1, 3, 3, 0},
+                                {0, 2, 2, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                            },
+                            {
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 1, 1, 0, 0, 0},
+                                {0, 1, 2, 0, 3, 0},
+                                {0, 2, 2, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                            },
+                            {
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                            },
+                        });
 
         int d = REGION_DEFAULT;
         int n = REGION_NUCLEUS;
 
         potts.regions =
-                new int[][][] {
-                    {
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                    },
-                    {
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, d, 0, d, 0},
-                        {0, 0, d, d, d, 0},
-                        {0, d, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                    },
-                    {
-                        {0, 0, 0, 0, 0, 0},
-                        {0, d, d, d, 0, 0},
-                        {0, 0, n, n, 0, 0},
-                        {0, d, d, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                    },
-                    {
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, d, 0, 0, 0},
-                        {0, 0, n, 0, d, 0},
-                        {0, d, d, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                    },
-                    {
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                        {0, 0, 0, 0, 0, 0},
-                    },
-                };
+                new PottsArray(
+                        new int[][][] {
+                            {
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                            },
+                            {
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, d, 0, d, 0},
+                                {0, 0, d, d, d, 0},
+                                {0, d, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                            },
+                            {
+                                {0, 0, 0, 0, 0, 0},
+                                {0, d, d, d, 0, 0},
+                                {0, 0, n, n, 0, 0},
+                                {0, d, d, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                            },
+                            {
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, d, 0, 0, 0},
+                                {0, 0, n, 0, d, 0},
+                                {0, d, d, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                            },
+                            {
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                                {0, 0, 0, 0, 0, 0},
+                            },
+                        });
 
         return potts;
     }
@@ -104,8 +111,8 @@ public class SurfaceHamiltonian3DTest {
         Potts potts = makePottsMock();
         SurfaceHamiltonian3D sh = new SurfaceHamiltonian3D(mock(PottsSeries.class), potts);
 
-        assertArrayEquals(new int[] {0, 2}, sh.calculateChange(1, 2, 2, 2, 2));
-        assertArrayEquals(new int[] {0, 4}, sh.calculateChange(1, 3, 2, 2, 2));
+        assertArrayEquals(new int[] {0, 2}, unpack(sh.calculateChange(1, 2, 2, 2, 2)));
+        assertArrayEquals(new int[] {0, 4}, unpack(sh.calculateChange(1, 3, 2, 2, 2)));
     }
 
     @Test
@@ -114,8 +121,83 @@ public class SurfaceHamiltonian3DTest {
         SurfaceHamiltonian3D sh = new SurfaceHamiltonian3D(mock(PottsSeries.class), potts);
 
         assertArrayEquals(
-                new int[] {-6, 2}, sh.calculateChange(1, REGION_NUCLEUS, REGION_DEFAULT, 2, 2, 2));
+                new int[] {-6, 2},
+                unpack(sh.calculateChange(1, REGION_NUCLEUS, REGION_DEFAULT, 2, 2, 2)));
         assertArrayEquals(
-                new int[] {-4, 4}, sh.calculateChange(1, REGION_DEFAULT, REGION_NUCLEUS, 2, 2, 1));
+                new int[] {-4, 4},
+                unpack(sh.calculateChange(1, REGION_DEFAULT, REGION_NUCLEUS, 2, 2, 1)));
+    }
+
+    @Test
+    public void getDelta_givenNeighborhood_matchesCoordinates() {
+        Potts potts = makePottsMock();
+        SurfaceHamiltonian3D sh = spy(new SurfaceHamiltonian3D(mock(PottsSeries.class), potts));
+
+        doAnswer(
+                        invocation -> {
+                            int id = invocation.getArgument(0);
+                            int change = invocation.getArgument(1);
+                            return (double) (id * 10 + change * change);
+                        })
+                .when(sh)
+                .getSurface(anyInt(), anyInt());
+        doAnswer(
+                        invocation -> {
+                            int region = invocation.getArgument(1);
+                            int change = invocation.getArgument(2);
+                            return (double) (region * 10 + change * change);
+                        })
+                .when(sh)
+                .getSurface(anyInt(), anyInt(), anyInt());
+
+        for (int id = 1; id <= 3; id++) {
+            PottsCell cell = mock(PottsCell.class);
+            doReturn(id).when(cell).getID();
+            sh.configs.put(id, new SurfaceHamiltonianConfig(cell, 0, null));
+        }
+
+        doAnswer(
+                        invocation -> {
+                            SurfaceHamiltonianConfig config = invocation.getArgument(0);
+                            int id = (config == null ? 0 : config.cell.getID());
+                            int change = invocation.getArgument(1);
+                            return (double) (id * 10 + change * change);
+                        })
+                .when(sh)
+                .getSurface(nullable(SurfaceHamiltonianConfig.class), anyInt());
+        doAnswer(
+                        invocation -> {
+                            int region = invocation.getArgument(1);
+                            int change = invocation.getArgument(2);
+                            return (double) (region * 10 + change * change);
+                        })
+                .when(sh)
+                .getSurface(nullable(SurfaceHamiltonianConfig.class), anyInt(), anyInt());
+
+        Neighborhood neighborhood = new Neighborhood(potts.ids, potts.regions);
+        neighborhood.locate(2, 2, 2);
+        neighborhood.gatherIDs();
+        neighborhood.gatherRegions();
+
+        for (int source = 0; source <= 3; source++) {
+            for (int target = 0; target <= 3; target++) {
+                if (source != target) {
+                    neighborhood.source = potts.registry.get(source);
+                    neighborhood.target = potts.registry.get(target);
+                    assertEquals(
+                            sh.getDelta(source, target, 2, 2, 2),
+                            sh.getDelta(neighborhood, source, target));
+                }
+            }
+        }
+
+        neighborhood.source = potts.registry.get(1);
+        neighborhood.target = neighborhood.source;
+        assertEquals(
+                sh.getDelta(1, REGION_DEFAULT, REGION_NUCLEUS, 2, 2, 2),
+                sh.getDelta(neighborhood, 1, REGION_DEFAULT, REGION_NUCLEUS));
+        assertEquals(
+                sh.getDelta(1, REGION_NUCLEUS, REGION_DEFAULT, 2, 2, 2),
+                sh.getDelta(neighborhood, 1, REGION_NUCLEUS, REGION_DEFAULT));
     }
 }
@@ -6,8 +6,10 @@ import java.util.HashMap;
 import org.junit.jupiter.api.Test;
 import arcade.core.util.MiniBox;
 import arcade.potts.agent.cell.PottsCell;
+import arcade.potts.env.grid.PottsArray;
 import arcade.potts.sim.Potts;
 import arcade.potts.sim.PottsSeries;
+import arcade.potts.util.Registry;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static arcade.core.ARCADETestUtilities.*;
@@ -24,24 +26,40 @@ public class SurfaceHamiltonianTest {
         }
 
         @Override
-        int[] calculateChange(int sourceID, int targetID, int x, int y, int z) {
-            return new int[] {(targetID > sourceID ? 1 : -1), (sourceID > targetID ? 1 : -1)};
+        long calculateChange(int sourceID, int targetID, int x, int y, int z) {
+            return pack((targetID > sourceID ? 1 : -1), (sourceID > targetID ? 1 : -1));
         }
 
         @Override
-        int[] calculateChange(int id, int sourceRegion, int targetRegion, int x, int y, int z) {
+        long calculateChange(int id, int sourceRegion, int targetRegion, int x, int y, int z) {
             if (sourceRegion == Region.DEFAULT.ordinal()) {
-                return new int[] {2, 2};
+                return pack(2, 2);
             } else {
-                return new int[] {-3, -3};
+                return pack(-3, -3);
             }
         }
     }
 
+    static long pack(int source, int target) {
+        return ((long) source << 32) | (target & 0xFFFFFFFFL);
+    }
+
+    static int[] unpack(long change) {
+        return new int[] {
+            SurfaceHamiltonian.getSourceChange(change), SurfaceHamiltonian.getTargetChange(change)
+        };
+    }
+
+    static Potts makePottsMock() {
+        Potts potts = mock(Potts.class);
+        potts.registry = new Registry();
+        return potts;
+    }
+
     @Test
     public void constructor_called_initializesMaps() {
         SurfaceHamiltonianMock shm =
-                new SurfaceHamiltonianMock(mock(PottsSeries.class), mock(Potts.class));
+                new SurfaceHamiltonianMock(mock(PottsSeries.class), makePottsMock());
         assertNotNull(shm.configs);
         assertNotNull(shm.popToLambda);
         assertNotNull(shm.popToLambdasRegion);
@@ -49,9 +67,9 @@ public class SurfaceHamiltonianTest {
 
     @Test
     public void constructor_called_setsArrays() {
-        Potts potts = mock(Potts.class);
-        int[][][] ids = new int[0][0][0];
-        int[][][] regions = new int[0][0][0];
+        Potts potts = makePottsMock();
+        PottsArray ids = new PottsArray(0, 0, 0);
+        PottsArray regions = new PottsArray(0, 0, 0);
         potts.ids = ids;
         potts.regions = regions;
 
@@ -95,7 +113,7 @@ public class SurfaceHamiltonianTest {
         series.potts.put(
                 "surface/LAMBDA_" + Region.NUCLEUS.name() + TARGET_SEPARATOR + key2, lambdaNucleus);
 
-        SurfaceHamiltonianMock shm = new SurfaceHamiltonianMock(series, mock(Potts.class));
+        SurfaceHamiltonianMock shm = new SurfaceHamiltonianMock(series, makePottsMock());
 
         assertEquals(2, shm.popToLambda.size());
         assertTrue(shm.popToLambda.containsKey(code1));
@@ -110,7 +128,7 @@ public class SurfaceHamiltonianTest {
     @Test
     public void register_noRegions_addsConfig() {
         SurfaceHamiltonianMock shm =
-                new SurfaceHamiltonianMock(mock(PottsSeries.class), mock(Potts.class));
+                new SurfaceHamiltonianMock(mock(PottsSeries.class), makePottsMock());
         PottsCell cell = mock(PottsCell.class);
 
         int id = randomIntBetween(1, 10);
@@ -136,7 +154,7 @@ public class SurfaceHamiltonianTest {
     @Test
     public void register_withRegions_addsConfig() {
         SurfaceHamiltonianMock shm =
-                new SurfaceHamiltonianMock(mock(PottsSeries.class), mock(Potts.class));
+                new SurfaceHamiltonianMock(mock(PottsSeries.class), makePottsMock());
         PottsCell cell = mock(PottsCell.class);
 
         int id = randomIntBetween(1, 10);
@@ -165,7 +183,7 @@ public class SurfaceHamiltonianTest {
     @Test
     public void deregister_exists_removesConfig() {
         SurfaceHamiltonianMock shm =
-                new SurfaceHamiltonianMock(mock(PottsSeries.class), mock(Potts.class));
+                new SurfaceHamiltonianMock(mock(PottsSeries.class), makePottsMock());
         PottsCell cell = mock(PottsCell.class);
 
         int id = randomIntBetween(1, 10);
@@ -179,10 +197,27 @@ public class SurfaceHamiltonianTest {
         assertFalse(shm.configs.containsKey(id));
     }
 
+    @Test
+    public void getChange_givenCounts_returnsPackedChanges() {
+        int neighbors = randomIntBetween(4, 7);
+        int source = randomIntBetween(0, neighbors);
+        int target = randomIntBetween(0, neighbors - source);
+        long change = SurfaceHamiltonian.getChange(source, target, neighbors);
+        assertArrayEquals(
+                new int[] {2 * source - neighbors, neighbors - 2 * target}, unpack(change));
+    }
+
+    @Test
+    public void getChange_negativeChanges_returnsPackedChanges() {
+        assertArrayEquals(new int[] {-6, 6}, unpack(SurfaceHamiltonian.getChange(0, 0, 6)));
+        assertArrayEquals(new int[] {6, -6}, unpack(SurfaceHamiltonian.getChange(6, 6, 6)));
+        assertArrayEquals(new int[] {-4, -2}, unpack(SurfaceHamiltonian.getChange(0, 3, 4)));
+    }
+
     @Test
     public void getDelta_validIDs_calculatesValue() {
         SurfaceHamiltonianMock shm =
-                spy(new SurfaceHamiltonianMock(mock(PottsSeries.class), mock(Potts.class)));
+                spy(new SurfaceHamiltonianMock(mock(PottsSeries.class), makePottsMock()));
         int id1 = randomIntBetween(1, 100);
         int id2 = id1 + randomIntBetween(1, 10);
 
@@ -211,7 +246,7 @@ public class SurfaceHamiltonianTest {
     @Test
     public void getDelta_validRegions_calculatesValue() {
         SurfaceHamiltonianMock shm =
-                spy(new SurfaceHamiltonianMock(mock(PottsSeries.class), mock(Potts.class)));
+                spy(new SurfaceHamiltonianMock(mock(PottsSeries.class), makePottsMock()));
         int id = randomIntBetween(1, 100);
 
         double region = randomDoubleBetween(1, 100);
@@ -236,10 +271,64 @@ public class SurfaceHamiltonianTest {
                 EPSILON);
     }
 
+    @Test
+    public void getEnergy_givenCells_calculatesValue() {
+        SurfaceHamiltonian h =
+                new SurfaceHamiltonianMock(mock(PottsSeries.class), makePottsMock());
+
+        PottsCell cell1 = mock(PottsCell.class);
+        doReturn(1).when(cell1).getID();
+        doReturn(1).when(cell1).getPop();
+        double value1 = randomDoubleBetween(1, 100);
+        double target1 = randomDoubleBetween(1, 100);
+        doReturn(value1).when(cell1).getSurface();
+        doReturn(target1).when(cell1).getTargetSurface();
+
+        PottsCell cell2 = mock(PottsCell.class);
+        doReturn(2).when(cell2).getID();
+        doReturn(2).when(cell2).getPop();
+        double value2 = randomDoubleBetween(1, 100);
+        double target2 = randomDoubleBetween(1, 100);
+        double valueNucleus = randomDoubleBetween(1, 100);
+        double targetNucleus = randomDoubleBetween(1, 100);
+        doReturn(value2).when(cell2).getSurface();
+        doReturn(target2).when(cell2).getTargetSurface();
+        doReturn(valueNucleus).when(cell2).getSurface(Region.NUCLEUS);
+        doReturn(targetNucleus).when(cell2).getTargetSurface(Region.NUCLEUS);
+
+        double lambda1 = randomDoubleBetween(1, 100);
+        double lambda2 = randomDoubleBetween(1, 100);
+        double lambdaDefault = randomDoubleBetween(1, 100);
+        double lambdaNucleus = randomDoubleBetween(1, 100);
+        EnumMap<Region, Double> lambdasRegion = new EnumMap<>(Region.class);
+        lambdasRegion.put(Region.DEFAULT, lambdaDefault);
+        lambdasRegion.put(Region.NUCLEUS, lambdaNucleus);
+
+        h.popToLambda.put(1, lambda1);
+        h.popToLambda.put(2, lambda2);
+        h.popToLambdasRegion.put(1, null);
+        h.popToLambdasRegion.put(2, lambdasRegion);
+        h.register(cell1);
+        h.register(cell2);
+
+        double expected =
+                lambda1 * Math.pow(value1 - target1, 2)
+                        + lambda2 * Math.pow(value2 - target2, 2)
+                        + lambdaNucleus * Math.pow(valueNucleus - targetNucleus, 2);
+        assertEquals(expected, h.getEnergy(), EPSILON);
+    }
+
+    @Test
+    public void getEnergy_noCells_returnsZero() {
+        SurfaceHamiltonian h =
+                new SurfaceHamiltonianMock(mock(PottsSeries.class), makePottsMock());
+        assertEquals(0, h.getEnergy(), EPSILON);
+    }
+
     @Test
     public void getSurface_validIDs_calculatesValue() {
         SurfaceHamiltonianMock shm =
-                new SurfaceHamiltonianMock(mock(PottsSeries.class), mock(Potts.class));
+                new SurfaceHamiltonianMock(mock(PottsSeries.class), makePottsMock());
         int id = randomIntBetween(1, 100);
 
         int surface = randomIntBetween(10, 20);
@@ -273,7 +362,7 @@ public class SurfaceHamiltonianTest {
     @Test
     public void getSurface_validRegions_calculatesValue() {
         SurfaceHamiltonianMock shm =
-                new SurfaceHamiltonianMock(mock(PottsSeries.class), mock(Potts.class));
+                new SurfaceHamiltonianMock(mock(PottsSeries.class), makePottsMock());
         int id = randomIntBetween(1, 100);
         Region region = Region.NUCLEUS;
 
@@ -315,7 +404,7 @@ public class SurfaceHamiltonianTest {
     @Test
     public void getSurface_zeroID_returnsZero() {
         SurfaceHamiltonianMock shm =
-                new SurfaceHamiltonianMock(mock(PottsSeries.class), mock(Potts.class));
+                new SurfaceHamiltonianMock(mock(PottsSeries.class), makePottsMock());
         assertEquals(0, shm.getSurface(0, 1), EPSILON);
         assertEquals(0, shm.getSurface(0, 0), EPSILON);
         assertEquals(0, shm.getSurface(0, -1), EPSILON);
@@ -324,7 +413,7 @@ public class SurfaceHamiltonianTest {
     @Test
     public void getSurface_defaultRegion_returnsZero() {
         SurfaceHamiltonianMock shm =
-                new SurfaceHamiltonianMock(mock(PottsSeries.class), mock(Potts.class));
+                new SurfaceHamiltonianMock(mock(PottsSeries.class), makePottsMock());
         int id = randomIntBetween(1, 100);
         assertEquals(0, shm.getSurface(0, Region.DEFAULT.ordinal(), 1), EPSILON);
         assertEquals(0, shm.getSurface(0, Region.DEFAULT.ordinal(), 0), EPSILON);
@@ -6,7 +6,9 @@ import java.util.HashMap;
 import org.junit.jupiter.api.Test;
 import arcade.core.util.MiniBox;
 import arcade.potts.agent.cell.PottsCell;
+import arcade.potts.env.grid.PottsArray;
 import arcade.potts.sim.PottsSeries;
+import arcade.potts.util.Registry;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static arcade.core.ARCADETestUtilities.*;
@@ -201,6 +203,58 @@ public class VolumeHamiltonianTest {
                 EPSILON);
     }
 
+    @Test
+    public void getEnergy_givenCells_calculatesValue() {
+        VolumeHamiltonian h = new VolumeHamiltonian(mock(PottsSeries.class));
+
+        PottsCell cell1 = mock(PottsCell.class);
+        doReturn(1).when(cell1).getID();
+        doReturn(1).when(cell1).getPop();
+        double value1 = randomDoubleBetween(1, 100);
+        double target1 = randomDoubleBetween(1, 100);
+        doReturn(value1).when(cell1).getVolume();
+        doReturn(target1).when(cell1).getTargetVolume();
+
+        PottsCell cell2 = mock(PottsCell.class);
+        doReturn(2).when(cell2).getID();
+        doReturn(2).when(cell2).getPop();
+        double value2 = randomDoubleBetween(1, 100);
+        double target2 = randomDoubleBetween(1, 100);
+        double valueNucleus = randomDoubleBetween(1, 100);
+        double targetNucleus = randomDoubleBetween(1, 100);
+        doReturn(value2).when(cell2).getVolume();
+        doReturn(target2).when(cell2).getTargetVolume();
+        doReturn(valueNucleus).when(cell2).getVolume(Region.NUCLEUS);
+        doReturn(targetNucleus).when(cell2).getTargetVolume(Region.NUCLEUS);
+
+        double lambda1 = randomDoubleBetween(1, 100);
+        double lambda2 = randomDoubleBetween(1, 100);
+        double lambdaDefault = randomDoubleBetween(1, 100);
+        double lambdaNucleus = randomDoubleBetween(1, 100);
+        EnumMap<Region, Double> lambdasRegion = new EnumMap<>(Region.class);
+        lambdasRegion.put(Region.DEFAULT, lambdaDefault);
+        lambdasRegion.put(Region.NUCLEUS, lambdaNucleus);
+
+        h.popToLambda.put(1, lambda1);
+        h.popToLambda.put(2, lambda2);
+        h.popToLambdasRegion.put(1, null);
+        h.popToLambdasRegion.put(2, lambdasRegion);
+        h.register(cell1);
+        h.register(cell2);
+
+        double expected =
+                lambda1 * Math.pow(value1 - target1, 2)
+                        + lambda2 * Math.pow(value2 - target2, 2)
+                        + lambdaNucleus * Math.pow(valueNucleus - targetNucleus, 2);
+        assertEquals(expected, h.getEnergy(), EPSILON);
+    }
+
+    @Test
+    public void getEnergy_noCells_returnsZero() {
+        VolumeHamiltonian h = new VolumeHamiltonian(mock(PottsSeries.class));
+        assertEquals(0, h.getEnergy(), EPSILON);
+    }
+
     @Test
     public void getVolume_validID_calculatesValue() {
         VolumeHamiltonian vh = new VolumeHamiltonian(mock(PottsSeries.class));
@@ -293,4 +347,68 @@ public class VolumeHamiltonianTest {
         assertEquals(0, vh.getVolume(id, Region.DEFAULT.ordinal(), 0), EPSILON);
         assertEquals(0, vh.getVolume(id, Region.DEFAULT.ordinal(), -1), EPSILON);
     }
+
+    @Test
+    public void getDelta_givenNeighborhood_calculatesValue() {
+        Registry registry = new Registry();
+        VolumeHamiltonian vh = spy(new VolumeHamiltonian(mock(PottsSeries.class), registry));
+        int id1 = randomIntBetween(1, 100);
+        int id2 = id1 + randomIntBetween(1, 10);
+
+        VolumeHamiltonianConfig config1 = mock(VolumeHamiltonianConfig.class);
+        VolumeHamiltonianConfig config2 = mock(VolumeHamiltonianConfig.class);
+        vh.configs.put(id1, config1);
+        vh.configs.put(id2, config2);
+
+        double cell1 = randomDoubleBetween(1, 100);
+        doReturn(cell1).when(vh).getVolume(config1, 0);
+
+        double cell1minus1 = randomDoubleBetween(1, 100);
+        doReturn(cell1minus1).when(vh).getVolume(config1, -1);
+
+        double cell2 = randomDoubleBetween(1, 100);
+        doReturn(cell2).when(vh).getVolume(config2, 0);
+
+        double cell2plus1 = randomDoubleBetween(1, 100);
+        doReturn(cell2plus1).when(vh).getVolume(config2, 1);
+
+        PottsArray array = new PottsArray(3, 3, 3);
+        Neighborhood neighborhood = new Neighborhood(array, array);
+        neighborhood.source = registry.get(id1);
+        neighborhood.target = registry.get(id2);
+
+        assertEquals(
+                (cell1minus1 - cell1 + cell2plus1 - cell2),
+                vh.getDelta(neighborhood, id1, id2),
+                EPSILON);
+        verify(vh, never()).getVolume(anyInt(), anyInt());
+    }
+
+    @Test
+    public void getDelta_givenNeighborhoodRegions_calculatesValue() {
+        Registry registry = new Registry();
+        VolumeHamiltonian vh = spy(new VolumeHamiltonian(mock(PottsSeries.class), registry));
+        int id = randomIntBetween(1, 100);
+        int region1 = Region.DEFAULT.ordinal();
+        int region2 = Region.NUCLEUS.ordinal();
+
+        VolumeHamiltonianConfig config = mock(VolumeHamiltonianConfig.class);
+        vh.configs.put(id, config);
+
+        double region = randomDoubleBetween(1, 100);
+        doReturn(0.0).when(vh).getVolume(config, region1, 0);
+        doReturn(region).when(vh).getVolume(config, region2, 0);
+
+        double regionplus1 = randomDoubleBetween(1, 100);
+        doReturn(0.0).when(vh).getVolume(config, region1, -1);
+        doReturn(regionplus1).when(vh).getVolume(config, region2, 1);
+
+        PottsArray array = new PottsArray(3, 3, 3);
+        Neighborhood neighborhood = new Neighborhood(array, array);
+        neighborhood.source = registry.get(id);
+        neighborhood.target = neighborhood.source;
+
+        assertEquals(
+                (regionplus1 - region), vh.getDelta(neighborhood, id, region1, region2), EPSILON);
+    }
 }
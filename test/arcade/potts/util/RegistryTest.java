@@ -0,0 +1,212 @@
+package arcade.potts.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static arcade.core.ARCADETestUtilities.*;
+
+public class RegistryTest {
+    @Test
+    public void addSlot_called_createsEmpty() {
+        Registry.Slot<Object> slot = new Registry().addSlot();
+        assertEquals(0, slot.size());
+        assertFalse(slot.containsKey(0));
+        assertNull(slot.get(0));
+    }
+
+    @Test
+    public void put_givenObject_registersObject() {
+        int id = randomIntBetween(1, 10);
+        Object object = new Object();
+        Registry.Slot<Object> slot = new Registry().addSlot();
+        slot.put(id, object);
+
+        assertSame(object, slot.get(id));
+        assertTrue(slot.containsKey(id));
+        assertEquals(1, slot.size());
+    }
+
+    @Test
+    public void put_givenNull_registersID() {
+        Registry.Slot<Object> slot = new Registry().addSlot();
+        slot.put(0, null);
+
+        assertNull(slot.get(0));
+        assertTrue(slot.containsKey(0));
+        assertEquals(1, slot.size());
+    }
+
+    @Test
+    public void put_existingID_replacesObject() {
+        int id = randomIntBetween(1, 10);
+        Object object = new Object();
+        Registry.Slot<Object> slot = new Registry().addSlot();
+        slot.put(id, new Object());
+        slot.put(id, object);
+
+        assertSame(object, slot.get(id));
+        assertEquals(1, slot.size());
+    }
+
+    @Test
+    public void put_largeID_growsRecords() {
+        int id = randomIntBetween(1000, 100000);
+        Object object = new Object();
+        Registry.Slot<Object> slot = new Registry().addSlot();
+        slot.put(1, new Object());
+        slot.put(id, object);
+
+        assertSame(object, slot.get(id));
+        assertNotNull(slot.get(1));
+        assertNull(slot.get(id - 1));
+        assertEquals(2, slot.size());
+    }
+
+    @Test
+    public void remove_existingID_deregistersObject() {
+        int id = randomIntBetween(1, 10);
+        Registry.Slot<Object> slot = new Registry().addSlot();
+        slot.put(id, new Object());
+        slot.remove(id);
+
+        assertNull(slot.get(id));
+        assertFalse(slot.containsKey(id));
+        assertEquals(0, slot.size());
+    }
+
+    @Test
+    public void remove_missingID_doesNothing() {
+        Registry.Slot<Object> slot = new Registry().addSlot();
+        slot.put(1, new Object());
+        slot.remove(2);
+        slot.remove(-1);
+        slot.remove(100000);
+
+        assertEquals(1, slot.size());
+    }
+
+    @Test
+    public void get_outsideRecords_returnsNull() {
+        Registry.Slot<Object> slot = new Registry().addSlot();
+        assertNull(slot.get(-1));
+        assertNull(slot.get(100000));
+    }
+
+    @Test
+    public void iterator_givenObjects_iteratesInOrder() {
+        Object object1 = new Object();
+        Object object2 = new Object();
+        Object object3 = new Object();
+        Registry.Slot<Object> slot = new Registry().addSlot();
+        slot.put(0, null);
+        slot.put(100, object3);
+        slot.put(2, object1);
+        slot.put(5, object2);
+        slot.put(7, new Object());
+        slot.remove(7);
+
+        ArrayList<Object> objects = new ArrayList<>();
+        for (Object object : slot) {
+            objects.add(object);
+        }
+
+        assertEquals(3, objects.size());
+        assertSame(object1, objects.get(0));
+        assertSame(object2, objects.get(1));
+        assertSame(object3, objects.get(2));
+    }
+
+    @Test
+    public void iterator_emptySlot_throwsException() {
+        Registry.Slot<Object> slot = new Registry().addSlot();
+        Iterator<Object> iterator = slot.iterator();
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
+
+    @Test
+    public void addSlot_multipleSlots_sharesRecord() {
+        int id = randomIntBetween(1, 10);
+        Object object1 = new Object();
+        Object object2 = new Object();
+        Registry registry = new Registry();
+        Registry.Slot<Object> slot1 = registry.addSlot();
+        Registry.Slot<Object> slot2 = registry.addSlot();
+        slot1.put(id, object1);
+        slot2.put(id, object2);
+
+        Registry.Record record = registry.get(id);
+        assertEquals(id, record.id);
+        assertSame(object1, slot1.get(record));
+        assertSame(object2, slot2.get(record));
+        assertEquals(1, slot1.size());
+        assertEquals(1, slot2.size());
+    }
+
+    @Test
+    public void addSlot_existingRecords_extendsRecords() {
+        int id = randomIntBetween(1, 10);
+        Object object1 = new Object();
+        Object object2 = new Object();
+        Registry registry = new Registry();
+        Registry.Slot<Object> slot1 = registry.addSlot();
+        slot1.put(id, object1);
+        Registry.Slot<Object> slot2 = registry.addSlot();
+
+        assertNull(slot2.get(id));
+        assertFalse(slot2.containsKey(id));
+
+        slot2.put(id, object2);
+        assertSame(object1, slot1.get(id));
+        assertSame(object2, slot2.get(id));
+    }
+
+    @Test
+    public void addSlot_noFreeSlots_throwsException() {
+        Registry registry = new Registry();
+        for (int i = 0; i < Registry.MAX_SLOTS; i++) {
+            registry.addSlot();
+        }
+        assertThrows(IllegalStateException.class, registry::addSlot);
+    }
+
+    @Test
+    public void remove_otherSlotRegistered_keepsRecord() {
+        int id = randomIntBetween(1, 10);
+        Object object = new Object();
+        Registry registry = new Registry();
+        Registry.Slot<Object> slot1 = registry.addSlot();
+        Registry.Slot<Object> slot2 = registry.addSlot();
+        slot1.put(id, new Object());
+        slot2.put(id, object);
+        slot1.remove(id);
+
+        assertNotNull(registry.get(id));
+        assertFalse(slot1.containsKey(id));
+        assertSame(object, slot2.get(id));
+        assertEquals(0, slot1.size());
+        assertEquals(1, slot2.size());
+    }
+
+    @Test
+    public void remove_allSlotsDeregistered_removesRecord() {
+        int id = randomIntBetween(1, 10);
+        Registry registry = new Registry();
+        Registry.Slot<Object> slot1 = registry.addSlot();
+        Registry.Slot<Object> slot2 = registry.addSlot();
+        slot1.put(id, new Object());
+        slot2.put(id, null);
+        slot1.remove(id);
+        slot2.remove(id);
+
+        assertNull(registry.get(id));
+    }
+
+    @Test
+    public void get_nullRecord_returnsNull() {
+        Registry.Slot<Object> slot = new Registry().addSlot();
+        assertNull(slot.get((Registry.Record) null));
+    }
+}